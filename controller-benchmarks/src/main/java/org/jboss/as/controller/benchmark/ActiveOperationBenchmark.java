@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.protocol.mgmt.AbstractMessageHandler;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.ManagementBatchIdManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures registering and completing active operations on a single message handler, as done for every request
+ * received from or sent to a peer, from one and from several threads. A number of operations are kept registered
+ * for the whole run to model a domain controller tracking the operations of many slaves at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ActiveOperationBenchmark {
+
+    @Param({"0", "1000"})
+    int resident;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private ExecutorService executor;
+    private OperationRegistry registry;
+    private ManagementBatchIdManager batchIdManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        registry = new OperationRegistry(executor);
+        batchIdManager = new ManagementBatchIdManager.DefaultManagementBatchIdManager();
+        for (int i = 0; i < resident; i++) {
+            registry.register(null);
+            batchIdManager.createBatchId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        registry.shutdownNow();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean registerOperation() {
+        return registry.register(null).getResultHandler().done(null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean registerOperationContended() {
+        return registry.register(null).getResultHandler().done(null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean registerOperationWithIdContended() {
+        // Ids sent by the peer; negative so they do not collide with the generated ones
+        return registry.register(-1 - (nextId.getAndIncrement() & Integer.MAX_VALUE)).getResultHandler().done(null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int createBatchIdContended() {
+        final int id = batchIdManager.createBatchId();
+        batchIdManager.freeBatchId(id);
+        return id;
+    }
+
+    /**
+     * Exposes the registration of the active operations tracked by the handler.
+     */
+    private static final class OperationRegistry extends AbstractMessageHandler {
+
+        OperationRegistry(final ExecutorService executorService) {
+            super(executorService);
+        }
+
+        ActiveOperation<Void, Void> register(final Integer id) {
+            return registerActiveOperation(id, null, null);
+        }
+    }
+}
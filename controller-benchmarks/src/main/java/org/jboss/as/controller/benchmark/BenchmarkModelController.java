@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * An in-memory model controller, populated with a {@link SyntheticModel}, in its own service container.
+ */
+final class BenchmarkModelController extends AbstractControllerService {
+
+    private static final ProcessType PROCESS_TYPE = ProcessType.EMBEDDED_SERVER;
+
+    private final SyntheticModel model;
+    private final CountDownLatch latch = new CountDownLatch(2);
+    private ServiceContainer container;
+
+    private BenchmarkModelController(final SyntheticModel model) {
+        super(PROCESS_TYPE, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(), new ControlledProcessState(true),
+                ResourceBuilder.Factory.create(PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build(),
+                null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer());
+        this.model = model;
+    }
+
+    /**
+     * Boots a controller in a new service container.
+     *
+     * @param model the model to populate the controller with
+     * @return the booted controller
+     * @throws InterruptedException if interrupted while waiting for the controller to boot
+     */
+    static BenchmarkModelController boot(final SyntheticModel model) throws InterruptedException {
+        final BenchmarkModelController service = new BenchmarkModelController(model);
+        service.container = ServiceContainer.Factory.create("benchmark");
+        service.container.subTarget().addService(ServiceName.of("benchmark", "model-controller"), service).install();
+        if (!service.latch.await(30, TimeUnit.SECONDS)) {
+            service.shutdown();
+            throw new IllegalStateException("Model controller did not boot in a timely fashion");
+        }
+        return service;
+    }
+
+    ModelController getController() {
+        return getValue();
+    }
+
+    void shutdown() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        latch.countDown();
+    }
+
+    @Override
+    protected void bootThreadDone() {
+        super.bootThreadDone();
+        latch.countDown();
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+        final ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, PROCESS_TYPE);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, PROCESS_TYPE);
+        model.registerSubsystem(rootRegistration);
+        managementModel.getRootResource().registerChild(SyntheticModel.SUBSYSTEM_PATH, model.createSubsystemResource());
+    }
+}
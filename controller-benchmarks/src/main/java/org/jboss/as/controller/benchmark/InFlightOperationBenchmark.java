@@ -0,0 +1,285 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.impl.AbstractModelControllerClient;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.ManagementChannelAssociation;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures executing a burst of operations against a peer that answers each of them after a fixed latency, either
+ * through {@link AbstractModelControllerClient#executeAsyncLimited(ModelNode)} or by calling the blocking
+ * {@code execute} method from a fixed pool of threads. The channel is replaced by an association that completes
+ * the operations from a single scheduler thread, so only the client side cost of tracking the in flight operations
+ * is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class InFlightOperationBenchmark {
+
+    @Param({"10000"})
+    int operations;
+
+    @Param({"1024", "10000"})
+    int maxInFlight;
+
+    @Param({"1"})
+    int latencyMillis;
+
+    @Param({"64"})
+    int blockingThreads;
+
+    private ScheduledExecutorService responder;
+    private ExecutorService callers;
+    private AbstractModelControllerClient client;
+    private ModelNode operation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("jboss.management.client.max-in-flight", Integer.toString(maxInFlight));
+        responder = Executors.newSingleThreadScheduledExecutor();
+        callers = Executors.newFixedThreadPool(blockingThreads);
+        client = new LatencyClient(new LatencyAssociation(responder, latencyMillis));
+        operation = new ModelNode();
+        operation.get("operation").set("read-attribute");
+        operation.get("address").setEmptyList();
+        operation.get("name").set("name");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        responder.shutdownNow();
+        callers.awaitTermination(10, TimeUnit.SECONDS);
+        responder.awaitTermination(10, TimeUnit.SECONDS);
+        System.clearProperty("jboss.management.client.max-in-flight");
+    }
+
+    @Benchmark
+    public Object limited() throws Exception {
+        final List<Future<ModelNode>> futures = new ArrayList<Future<ModelNode>>(operations);
+        for (int i = 0; i < operations; i++) {
+            futures.add(client.executeAsyncLimited(operation));
+        }
+        ModelNode last = null;
+        for (Future<ModelNode> future : futures) {
+            last = future.get();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object blocking() throws Exception {
+        final List<Future<ModelNode>> futures = new ArrayList<Future<ModelNode>>(operations);
+        for (int i = 0; i < operations; i++) {
+            futures.add(callers.submit(new Callable<ModelNode>() {
+                @Override
+                public ModelNode call() throws IOException {
+                    return client.execute(operation);
+                }
+            }));
+        }
+        ModelNode last = null;
+        for (Future<ModelNode> future : futures) {
+            last = future.get();
+        }
+        return last;
+    }
+
+    private static final class LatencyClient extends AbstractModelControllerClient {
+
+        private final ManagementChannelAssociation association;
+
+        LatencyClient(final ManagementChannelAssociation association) {
+            this.association = association;
+        }
+
+        @Override
+        protected ManagementChannelAssociation getChannelAssociation() {
+            return association;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Association which, instead of sending a request, completes it with a successful response after a delay.
+     */
+    private static final class LatencyAssociation implements ManagementChannelAssociation {
+
+        private final ScheduledExecutorService responder;
+        private final int latencyMillis;
+        private final ModelNode response;
+
+        LatencyAssociation(final ScheduledExecutorService responder, final int latencyMillis) {
+            this.responder = responder;
+            this.latencyMillis = latencyMillis;
+            this.response = new ModelNode();
+            response.get("outcome").set("success");
+            response.get("result").set("value");
+        }
+
+        @Override
+        public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment) {
+            return executeRequest(request, attachment, null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment,
+                                                            final ActiveOperation.CompletedCallback<T> callback) {
+            final DelayedOperation<T, A> operation = new DelayedOperation<T, A>(attachment);
+            responder.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    operation.getResultHandler().done((T) OperationResponse.Factory.createSimple(response.clone()));
+                }
+            }, latencyMillis, TimeUnit.MILLISECONDS);
+            return operation;
+        }
+
+        @Override
+        public <T, A> AsyncFuture<T> executeRequest(final Integer operationId, final ManagementRequest<T, A> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T, A> AsyncFuture<T> executeRequest(final ActiveOperation<T, A> operation, final ManagementRequest<T, A> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T, A> ActiveOperation<T, A> initializeOperation(final A attachment, final ActiveOperation.CompletedCallback<T> callback) {
+            return new DelayedOperation<T, A>(attachment);
+        }
+
+        @Override
+        public Channel getChannel() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Attachments getAttachments() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class DelayedOperation<T, A> extends AsyncFutureTask<T> implements ActiveOperation<T, A> {
+
+        private static final Executor DIRECT = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        };
+
+        private final A attachment;
+        private final ResultHandler<T> resultHandler = new ResultHandler<T>() {
+            @Override
+            public boolean done(final T result) {
+                return setResult(result);
+            }
+
+            @Override
+            public boolean failed(final Exception e) {
+                return setFailed(e);
+            }
+
+            @Override
+            public void cancel() {
+                setCancelled();
+            }
+        };
+
+        DelayedOperation(final A attachment) {
+            super(DIRECT);
+            this.attachment = attachment;
+        }
+
+        @Override
+        public Integer getOperationId() {
+            return 0;
+        }
+
+        @Override
+        public ResultHandler<T> getResultHandler() {
+            return resultHandler;
+        }
+
+        @Override
+        public A getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public AsyncFuture<T> getResult() {
+            return this;
+        }
+
+        @Override
+        public void addCancellable(final Cancellable cancellable) {
+        }
+
+        @Override
+        public void asyncCancel(final boolean interruptionDesired) {
+            setCancelled();
+        }
+    }
+}
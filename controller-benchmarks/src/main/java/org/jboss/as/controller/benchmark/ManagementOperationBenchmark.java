@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput and latency of management operations executed through
+ * {@link org.jboss.as.controller.ModelControllerImpl}, covering operation context creation, locking, step execution
+ * and the global read and write handlers. Run with {@code -prof gc} to also measure allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ManagementOperationBenchmark {
+
+    @Param({"10", "1000"})
+    int items;
+
+    @Param({"10"})
+    int attributes;
+
+    private BenchmarkModelController service;
+    private ModelController controller;
+    private ModelNode readAttribute;
+    private ModelNode writeAttribute;
+    private ModelNode readItem;
+    private ModelNode readSubsystemRecursive;
+    private ModelNode readChildrenNames;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        service = BenchmarkModelController.boot(new SyntheticModel(items, attributes));
+        controller = service.getController();
+
+        final PathAddress item = SyntheticModel.itemAddress(items / 2);
+        readAttribute = Util.getReadAttributeOperation(item, SyntheticModel.attributeName(0));
+        writeAttribute = Util.createEmptyOperation(WRITE_ATTRIBUTE_OPERATION, item);
+        writeAttribute.get(NAME).set(SyntheticModel.attributeName(0));
+
+        readItem = Util.createEmptyOperation(READ_RESOURCE_OPERATION, item);
+
+        readSubsystemRecursive = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SyntheticModel.SUBSYSTEM_ADDRESS);
+        readSubsystemRecursive.get(RECURSIVE).set(true);
+
+        readChildrenNames = Util.createEmptyOperation(READ_CHILDREN_NAMES_OPERATION, SyntheticModel.SUBSYSTEM_ADDRESS);
+        readChildrenNames.get(CHILD_TYPE).set(SyntheticModel.ITEM);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public ModelNode readAttribute() {
+        return execute(readAttribute);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ModelNode readAttributeContended() {
+        return execute(readAttribute);
+    }
+
+    @Benchmark
+    public ModelNode readResource() {
+        return execute(readItem);
+    }
+
+    @Benchmark
+    public ModelNode readResourceRecursive() {
+        return execute(readSubsystemRecursive);
+    }
+
+    @Benchmark
+    public ModelNode readChildrenNames() {
+        return execute(readChildrenNames);
+    }
+
+    @Benchmark
+    public ModelNode writeAttribute() {
+        final ModelNode op = writeAttribute.clone();
+        op.get(VALUE).set("value-" + (counter++ & 0xff));
+        return execute(op);
+    }
+
+    private ModelNode execute(final ModelNode operation) {
+        final ModelNode response = controller.execute(operation, null, null, null);
+        if (FAILED.equals(response.get(OUTCOME).asString())) {
+            throw new IllegalStateException(response.get(FAILURE_DESCRIPTION).asString());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.protocol.PooledBufferOutputStream;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures encoding an operation response into memory before it is written to the channel, either into a
+ * {@link ByteArrayOutputStream} copied out with {@code toByteArray()} or into a {@link PooledBufferOutputStream}.
+ * Run with {@code -prof gc} to compare the bytes allocated per message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class MessageEncodingBenchmark {
+
+    @Param({"4", "64"})
+    int attributes;
+
+    private ModelNode response;
+    private OutputStream sink;
+
+    @Setup
+    public void setup() {
+        response = new ModelNode();
+        response.get("outcome").set("success");
+        final ModelNode result = response.get("result");
+        for (int i = 0; i < attributes; i++) {
+            result.get(SyntheticModel.attributeName(i)).set("value-" + i);
+        }
+        sink = new NullOutputStream();
+    }
+
+    @Benchmark
+    public void byteArray(final Blackhole blackhole) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(buffer);
+        response.writeExternal(output);
+        output.close();
+        final byte[] bytes = buffer.toByteArray();
+        sink.write(bytes, 0, bytes.length);
+        blackhole.consume(bytes);
+    }
+
+    @Benchmark
+    public void pooled(final Blackhole blackhole) throws IOException {
+        final PooledBufferOutputStream buffer = new PooledBufferOutputStream();
+        try {
+            final DataOutputStream output = new DataOutputStream(buffer);
+            response.writeExternal(output);
+            output.close();
+            buffer.writeTo(sink);
+            blackhole.consume(buffer.size());
+        } finally {
+            buffer.free();
+        }
+    }
+
+    private static final class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelDiff;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ModelDiff} comparing two {@code subsystem=bench} trees where one item in a hundred has a changed
+ * attribute, one in a thousand was removed and a hundred items were added, both as {@link Resource} trees and as
+ * {@code ModelNode} trees, and with the operations either streamed or collected into a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class ModelDiffBenchmark {
+
+    @Param({"1000", "100000"})
+    int items;
+
+    @Param({"4"})
+    int attributes;
+
+    private Resource from;
+    private Resource to;
+    private ModelNode fromModel;
+    private ModelNode toModel;
+    private ImmutableManagementResourceRegistration registration;
+
+    @Setup
+    public void setup() {
+        final SyntheticModel model = new SyntheticModel(items, attributes);
+        from = model.createSubsystemResource();
+        to = model.createSubsystemResource();
+        for (int i = 0; i < items; i++) {
+            final PathElement item = SyntheticModel.itemAddress(i).getLastElement();
+            if (i % 1000 == 999) {
+                to.removeChild(item);
+            } else if (i % 100 == 0) {
+                to.getChild(item).getModel().get(SyntheticModel.attributeName(0)).set("changed");
+            }
+        }
+        for (int i = items; i < items + 100; i++) {
+            final Resource added = Resource.Factory.create();
+            added.getModel().get(SyntheticModel.attributeName(0)).set("added");
+            to.registerChild(SyntheticModel.itemAddress(i).getLastElement(), added);
+        }
+        fromModel = Resource.Tools.readModel(from);
+        toModel = Resource.Tools.readModel(to);
+
+        final ManagementResourceRegistration root = ManagementResourceRegistration.Factory.create(ResourceBuilder.Factory.create(
+                PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build());
+        model.registerSubsystem(root);
+        registration = root.getSubModel(SyntheticModel.SUBSYSTEM_ADDRESS);
+    }
+
+    @Benchmark
+    public void diffResources(final Blackhole blackhole) {
+        ModelDiff.diff(SyntheticModel.SUBSYSTEM_ADDRESS, from, to, new BlackholeConsumer(blackhole));
+    }
+
+    @Benchmark
+    public List<ModelNode> diffResourcesToList() {
+        return ModelDiff.diff(SyntheticModel.SUBSYSTEM_ADDRESS, from, to);
+    }
+
+    @Benchmark
+    public void diffIdenticalResources(final Blackhole blackhole) {
+        ModelDiff.diff(SyntheticModel.SUBSYSTEM_ADDRESS, from, from, new BlackholeConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void diffModelNodes(final Blackhole blackhole) {
+        ModelDiff.diff(SyntheticModel.SUBSYSTEM_ADDRESS, fromModel, toModel, registration, new BlackholeConsumer(blackhole));
+    }
+
+    private static final class BlackholeConsumer implements ModelDiff.OperationConsumer {
+
+        private final Blackhole blackhole;
+
+        private BlackholeConsumer(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void accept(final ModelNode operation) {
+            blackhole.consume(operation);
+        }
+    }
+}
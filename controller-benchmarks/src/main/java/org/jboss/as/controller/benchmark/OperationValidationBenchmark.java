@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-parameter validation done for every operation by {@link OperationDefinition#validateOperation}
+ * and {@link OperationDefinition#validateAndSet}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class OperationValidationBenchmark {
+
+    private static final SimpleAttributeDefinition STRING = new SimpleAttributeDefinitionBuilder("string", ModelType.STRING)
+            .setValidator(new StringLengthValidator(1))
+            .setAllowExpression(true)
+            .build();
+    private static final SimpleAttributeDefinition INT = new SimpleAttributeDefinitionBuilder("int", ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+    private static final SimpleAttributeDefinition LONG = new SimpleAttributeDefinitionBuilder("long", ModelType.LONG, true)
+            .build();
+    private static final SimpleAttributeDefinition BOOLEAN = new SimpleAttributeDefinitionBuilder("boolean", ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+    private static final SimpleAttributeDefinition EXPRESSION = new SimpleAttributeDefinitionBuilder("expression", ModelType.INT, true)
+            .setAllowExpression(true)
+            .build();
+
+    private static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder("benchmark", new NonResolvingResourceDescriptionResolver())
+            .setParameters(STRING, INT, LONG, BOOLEAN, EXPRESSION)
+            .build();
+
+    private ModelNode operation;
+
+    @Setup
+    public void setup() {
+        operation = Util.createEmptyOperation(DEFINITION.getName(), PathAddress.EMPTY_ADDRESS);
+        operation.get(STRING.getName()).set("value");
+        operation.get(INT.getName()).set(10);
+        operation.get(LONG.getName()).set("100");
+        operation.get(BOOLEAN.getName()).set(true);
+        operation.get(EXPRESSION.getName()).set(new ValueExpression("${benchmark.expression:5}"));
+    }
+
+    @Benchmark
+    public ModelNode validateOperation() throws OperationFailedException {
+        DEFINITION.validateOperation(operation);
+        return operation;
+    }
+
+    @Benchmark
+    public ModelNode validateAndSet() throws OperationFailedException {
+        final ModelNode model = new ModelNode();
+        DEFINITION.validateAndSet(operation, model);
+        return model;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link PathAddress} conversions done for nearly every management operation and resource access.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class PathAddressBenchmark {
+
+    private PathAddress address;
+    private ModelNode addressNode;
+    private PathElement element;
+
+    @Setup
+    public void setup() {
+        address = PathAddress.pathAddress(PathElement.pathElement("profile", "full-ha"))
+                .append(SyntheticModel.SUBSYSTEM_PATH)
+                .append(SyntheticModel.ITEM, SyntheticModel.itemName(1))
+                .append("child", "leaf");
+        addressNode = address.toModelNode();
+        element = PathElement.pathElement("extra", "element");
+    }
+
+    @Benchmark
+    public PathAddress fromModelNode() {
+        return PathAddress.pathAddress(addressNode);
+    }
+
+    @Benchmark
+    public ModelNode toModelNode() {
+        return address.toModelNode();
+    }
+
+    @Benchmark
+    public PathAddress append() {
+        return address.append(element);
+    }
+
+    @Benchmark
+    public PathAddress getParent() {
+        return address.getParent();
+    }
+
+    @Benchmark
+    public String toCLIStyleString() {
+        return address.toCLIStyleString();
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return address.equals(PathAddress.pathAddress(addressNode));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelType;
+
+/**
+ * A synthetic management model of configurable size: a {@code subsystem=bench} resource with {@code items}
+ * {@code item=<n>} children, each with {@code attributes} string attributes named {@code attr-<n>}.
+ */
+final class SyntheticModel {
+
+    static final String SUBSYSTEM_NAME = "bench";
+    static final String ITEM = "item";
+    static final PathElement SUBSYSTEM_PATH = PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME);
+    static final PathAddress SUBSYSTEM_ADDRESS = PathAddress.pathAddress(SUBSYSTEM_PATH);
+
+    private final int items;
+    private final AttributeDefinition[] attributes;
+
+    SyntheticModel(final int items, final int attributes) {
+        this.items = items;
+        this.attributes = new AttributeDefinition[attributes];
+        for (int i = 0; i < attributes; i++) {
+            this.attributes[i] = new SimpleAttributeDefinitionBuilder(attributeName(i), ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .build();
+        }
+    }
+
+    static String attributeName(final int index) {
+        return "attr-" + index;
+    }
+
+    static String itemName(final int index) {
+        return "item-" + index;
+    }
+
+    static PathAddress itemAddress(final int index) {
+        return SUBSYSTEM_ADDRESS.append(ITEM, itemName(index));
+    }
+
+    int getItems() {
+        return items;
+    }
+
+    int getAttributes() {
+        return attributes.length;
+    }
+
+    /**
+     * Registers the {@code subsystem=bench} resource definition.
+     *
+     * @param parent the registration of the parent resource, e.g. the root or a {@code profile=*} resource
+     */
+    void registerSubsystem(final ManagementResourceRegistration parent) {
+        parent.registerSubModel(createSubsystemDefinition());
+    }
+
+    /**
+     * Registers a {@code profile=*} resource definition with the {@code subsystem=bench} resource definition below it,
+     * as found in a domain model.
+     *
+     * @param root the root resource registration
+     */
+    void registerProfile(final ManagementResourceRegistration root) {
+        final ManagementResourceRegistration profile = root.registerSubModel(ResourceBuilder.Factory.create(
+                PathElement.pathElement(PROFILE), new NonResolvingResourceDescriptionResolver()).build());
+        registerSubsystem(profile);
+    }
+
+    /**
+     * Creates the {@code subsystem=bench} resource and its children, with every attribute defined.
+     *
+     * @return the resource
+     */
+    Resource createSubsystemResource() {
+        final Resource subsystem = Resource.Factory.create();
+        for (int i = 0; i < items; i++) {
+            final Resource item = Resource.Factory.create();
+            for (AttributeDefinition attribute : attributes) {
+                item.getModel().get(attribute.getName()).set(itemName(i) + "-" + attribute.getName());
+            }
+            subsystem.registerChild(PathElement.pathElement(ITEM, itemName(i)), item);
+        }
+        return subsystem;
+    }
+
+    private ResourceDefinition createSubsystemDefinition() {
+        final ResourceBuilder builder = ResourceBuilder.Factory.create(SUBSYSTEM_PATH, new NonResolvingResourceDescriptionResolver())
+                .pushChild(PathElement.pathElement(ITEM), new NonResolvingResourceDescriptionResolver());
+        final ModelOnlyWriteAttributeHandler writeHandler = new ModelOnlyWriteAttributeHandler(attributes);
+        for (AttributeDefinition attribute : attributes) {
+            builder.addReadWriteAttribute(attribute, null, writeHandler);
+        }
+        return builder.pop().build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.benchmark;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.OperationTransformerRegistry;
+import org.jboss.as.controller.transform.PathAddressTransformer;
+import org.jboss.as.controller.transform.ResourceTransformer;
+import org.jboss.as.controller.transform.TransformerRegistry;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the resolution of the transformers for the steps of a large composite operation sent to a legacy host,
+ * as done by {@link org.jboss.as.controller.transform.TransformationTargetImpl} for each step. The subsystem
+ * transformers are registered the way the subsystem transformer tests register them: a renamed attribute, a
+ * rejected expression and a discarded child resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class TransformerRegistryBenchmark {
+
+    private static final ModelVersion HOST_VERSION = ModelVersion.create(1, 7);
+    private static final ModelVersion SUBSYSTEM_VERSION = ModelVersion.create(1, 0);
+
+    @Param({"10", "1000"})
+    int steps;
+
+    private OperationTransformerRegistry registry;
+    private PathAddress[] addresses;
+    private String[] operationNames;
+
+    @Setup
+    public void setup() {
+        final ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.discardChildResource(PathElement.pathElement("discarded"));
+        builder.addChildResource(PathElement.pathElement(SyntheticModel.ITEM))
+                .getAttributeBuilder()
+                .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, SyntheticModel.attributeName(1))
+                .addRename(SyntheticModel.attributeName(0), "renamed")
+                .end();
+        final TransformerRegistry transformerRegistry = TransformerRegistry.Factory.create();
+        TransformationDescription.Tools.register(builder.build(),
+                transformerRegistry.registerSubsystemTransformers(SyntheticModel.SUBSYSTEM_NAME, SUBSYSTEM_VERSION, ResourceTransformer.DEFAULT));
+
+        final PathAddress subsystem = PathAddress.pathAddress(PathElement.pathElement(PROFILE, "default"), SyntheticModel.SUBSYSTEM_PATH);
+        registry = transformerRegistry.resolveHost(HOST_VERSION, Collections.singletonMap(SyntheticModel.SUBSYSTEM_ADDRESS, SUBSYSTEM_VERSION));
+
+        addresses = new PathAddress[steps];
+        operationNames = new String[steps];
+        for (int i = 0; i < steps; i++) {
+            // Updates to the same few resources, as in a script that tunes many attributes
+            addresses[i] = subsystem.append(SyntheticModel.ITEM, SyntheticModel.itemName(i % 10));
+            operationNames[i] = i % 2 == 0 ? WRITE_ATTRIBUTE_OPERATION : ADD;
+        }
+    }
+
+    @Benchmark
+    public void resolveCompositeSteps(final Blackhole blackhole) {
+        for (int i = 0; i < steps; i++) {
+            final List<PathAddressTransformer> path = registry.getPathTransformations(addresses[i], null);
+            blackhole.consume(path);
+            blackhole.consume(registry.resolveOperationTransformer(addresses[i], operationNames[i], null));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.benchmark;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.ResourceTransformationContext;
+import org.jboss.as.controller.transform.ResourceTransformer;
+import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.transform.TransformationTargetImpl;
+import org.jboss.as.controller.transform.TransformerRegistry;
+import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the transformation of a domain model for a legacy host, as done by
+ * {@link org.jboss.as.controller.transform.TransformersImpl} when a slave host controller registers or the domain
+ * model is synchronized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class TransformersBenchmark {
+
+    private static final ModelVersion HOST_VERSION = ModelVersion.create(1, 7);
+    private static final ModelVersion SUBSYSTEM_VERSION = ModelVersion.create(1, 0);
+
+    @Param({"10", "1000"})
+    int items;
+
+    @Param({"10"})
+    int attributes;
+
+    @Param({"1", "10"})
+    int profiles;
+
+    private Resource root;
+    private ManagementResourceRegistration registration;
+    private TransformationTarget target;
+    private Transformers transformers;
+
+    @Setup
+    public void setup() {
+        final SyntheticModel model = new SyntheticModel(items, attributes);
+
+        registration = ManagementResourceRegistration.Factory.create(ResourceBuilder.Factory.create(PathElement.pathElement("root"),
+                new NonResolvingResourceDescriptionResolver()).build());
+        model.registerProfile(registration);
+
+        root = Resource.Factory.create();
+        for (int i = 0; i < profiles; i++) {
+            final Resource profile = Resource.Factory.create();
+            profile.registerChild(SyntheticModel.SUBSYSTEM_PATH, model.createSubsystemResource());
+            root.registerChild(PathElement.pathElement(PROFILE, "profile-" + i), profile);
+        }
+
+        // Rename an attribute of every item, so each resource goes through the attribute transformation chain
+        final ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.addChildResource(PathElement.pathElement(SyntheticModel.ITEM))
+                .getAttributeBuilder()
+                .addRename(SyntheticModel.attributeName(0), "renamed")
+                .end();
+        final TransformerRegistry registry = TransformerRegistry.Factory.create();
+        TransformationDescription.Tools.register(builder.build(),
+                registry.registerSubsystemTransformers(SyntheticModel.SUBSYSTEM_NAME, SUBSYSTEM_VERSION, ResourceTransformer.DEFAULT));
+
+        target = TransformationTargetImpl.create(null, registry, HOST_VERSION, Collections.<PathAddress, ModelVersion>emptyMap(),
+                TransformationTarget.TransformationTargetType.HOST);
+        target.addSubsystemVersion(SyntheticModel.SUBSYSTEM_NAME, SUBSYSTEM_VERSION);
+        transformers = Transformers.Factory.create(target);
+    }
+
+    @Benchmark
+    public Resource transformResource() throws OperationFailedException {
+        final ResourceTransformationContext context = Transformers.Factory.create(target, root, registration,
+                ExpressionResolver.TEST_RESOLVER, RunningMode.NORMAL, ProcessType.HOST_CONTROLLER, null);
+        return transformers.transformResource(context, root);
+    }
+}
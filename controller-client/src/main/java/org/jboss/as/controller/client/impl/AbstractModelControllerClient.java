@@ -28,6 +28,9 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -35,6 +38,7 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -49,6 +53,7 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
 
 
 /**
@@ -62,6 +67,15 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
     private static final OperationMessageHandler NO_OP_HANDLER = OperationMessageHandler.DISCARD;
 
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private final InFlightOperationLimiter limiter = InFlightOperationLimiter.create();
+
     /**
      * Get the mgmt channel association.
      *
@@ -124,6 +138,75 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
         }
     }
 
+    /**
+     * Execute an operation asynchronously, limiting the number of operations this client has in flight.
+     * <p>
+     * The number of operations sent and not yet completed is limited to the value of the
+     * {@code jboss.management.client.max-in-flight} system property, 1024 by default. Operations executed beyond
+     * that limit are queued without blocking the caller and sent as earlier operations complete. Once the queue holds
+     * {@code jboss.management.client.max-pending} operations, 65536 by default, further operations fail with a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     * </p>
+     * <p>
+     * Listeners added to the returned future are run by the thread that reads the response from the channel, so they
+     * should not block. Cancelling the future cancels the operation, or removes it from the queue if it has not been
+     * sent yet.
+     * </p>
+     *
+     * @param operation the operation to execute
+     * @return the future result of the operation
+     */
+    public AsyncFuture<ModelNode> executeAsyncLimited(final ModelNode operation) {
+        return executeAsyncLimited(operation, null);
+    }
+
+    /**
+     * Execute an operation asynchronously, limiting the number of operations this client has in flight.
+     * See {@link #executeAsyncLimited(ModelNode)} for details.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future result of the operation
+     */
+    public AsyncFuture<ModelNode> executeAsyncLimited(final ModelNode operation, final OperationMessageHandler messageHandler) {
+        return new ConvertingDelegatingAsyncFuture(executeLimited(OperationExecutionContext.create(operation, messageHandler)));
+    }
+
+    /**
+     * Execute an operation asynchronously, limiting the number of operations this client has in flight.
+     * See {@link #executeAsyncLimited(ModelNode)} for details.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future result of the operation
+     */
+    public AsyncFuture<ModelNode> executeAsyncLimited(final Operation operation, final OperationMessageHandler messageHandler) {
+        return new ConvertingDelegatingAsyncFuture(executeLimited(OperationExecutionContext.create(operation, messageHandler)));
+    }
+
+    /**
+     * Execute an operation asynchronously, limiting the number of operations this client has in flight. The caller
+     * is responsible for closing the {@link OperationResponse}. See {@link #executeAsyncLimited(ModelNode)} for
+     * details.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future response to the operation
+     */
+    public AsyncFuture<OperationResponse> executeOperationAsyncLimited(final Operation operation, final OperationMessageHandler messageHandler) {
+        return executeLimited(OperationExecutionContext.create(operation, messageHandler));
+    }
+
+    /**
+     * Gets the executor used to send operations which had to wait for an earlier operation to complete. Sending an
+     * operation may block, so they should not be sent from the thread completing the earlier operation.
+     *
+     * @return the executor, or {@code null} to send them from the thread completing the earlier operation
+     */
+    protected Executor getCompletionExecutor() {
+        return null;
+    }
+
     @Override
     public ManagementRequestHandler<?, ?> resolveHandler(RequestHandlerChain handlers, ManagementRequestHeader header) {
         final byte operationType = header.getOperationId();
@@ -157,6 +240,14 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
         return result;
     }
 
+    private AsyncFuture<OperationResponse> executeLimited(final OperationExecutionContext executionContext) {
+        final LimitedOperation operation = new LimitedOperation(executionContext);
+        if (!limiter.submit(operation)) {
+            operation.rejected(ControllerClientLogger.ROOT_LOGGER.tooManyPendingOperations(limiter.getMaxPending()));
+        }
+        return operation;
+    }
+
     /**
      * Execute a request.
      *
@@ -192,14 +283,107 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
             @Override
             public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<OperationResponse> resultHandler, final ManagementRequestContext<OperationExecutionContext> context) throws IOException {
                 expectHeader(input, ModelControllerProtocol.PARAM_RESPONSE);
-                final ModelNode node = new ModelNode();
-                node.readExternal(input);
-                resultHandler.done(getOperationResponse(node, context.getOperationId()));
+                final ModelNode node = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
+                resultHandler.done(getOperationResponse(node, context.getOperationId(), context.getRequestHeader().getVersion()));
                 expectHeader(input, ManagementProtocol.RESPONSE_END);
             }
         }, executionContext);
     }
 
+    /**
+     * An operation executed through {@link #executeAsyncLimited(ModelNode)}. It is run by the
+     * {@link InFlightOperationLimiter} once the operation may be sent, and completes with the operation sent.
+     */
+    private final class LimitedOperation extends AsyncFutureTask<OperationResponse> implements Runnable {
+
+        private final OperationExecutionContext executionContext;
+        private final Object cancelLock = new Object();
+        // guarded by cancelLock
+        private AsyncFuture<OperationResponse> delegate;
+        // guarded by cancelLock
+        private boolean cancelRequested;
+
+        private LimitedOperation(final OperationExecutionContext executionContext) {
+            super(DIRECT_EXECUTOR);
+            this.executionContext = executionContext;
+        }
+
+        @Override
+        public void run() {
+            if (getStatus() != Status.WAITING) {
+                // Cancelled while waiting to be sent
+                limiter.release(getCompletionExecutor());
+                return;
+            }
+            final AsyncFuture<OperationResponse> future;
+            try {
+                future = execute(executionContext);
+            } catch (Exception e) {
+                limiter.release(getCompletionExecutor());
+                setFailed(e);
+                return;
+            }
+            final boolean cancel;
+            synchronized (cancelLock) {
+                delegate = future;
+                cancel = cancelRequested;
+            }
+            if (cancel) {
+                future.asyncCancel(true);
+            }
+            future.addListener(new Listener<OperationResponse, Object>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends OperationResponse> future, Object attachment) {
+                    limiter.release(getCompletionExecutor());
+                    try {
+                        final OperationResponse response = future.getUninterruptibly();
+                        if (!setResult(response)) {
+                            StreamUtils.safeClose(response);
+                        }
+                    } catch (ExecutionException e) {
+                        setFailed(e.getCause());
+                    } catch (CancellationException e) {
+                        setCancelled();
+                    }
+                }
+
+                @Override
+                public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, Object attachment) {
+                    limiter.release(getCompletionExecutor());
+                    setFailed(cause);
+                }
+
+                @Override
+                public void handleCancelled(AsyncFuture<? extends OperationResponse> future, Object attachment) {
+                    limiter.release(getCompletionExecutor());
+                    setCancelled();
+                }
+            }, null);
+        }
+
+        @Override
+        public void asyncCancel(final boolean interruptionDesired) {
+            final AsyncFuture<OperationResponse> delegate;
+            synchronized (cancelLock) {
+                delegate = this.delegate;
+                if (delegate == null) {
+                    cancelRequested = true;
+                }
+            }
+            if (delegate == null) {
+                // Not sent yet, run() gives the permit back once it is reached, or cancels the operation once it
+                // has been sent if it is being sent right now
+                setCancelled();
+            } else {
+                delegate.asyncCancel(interruptionDesired);
+            }
+        }
+
+        private void rejected(final Exception cause) {
+            setFailed(cause);
+        }
+    }
+
     private static class ReadAttachmentInputStreamRequestHandler implements ManagementRequestHandler<ModelNode, OperationExecutionContext> {
 
         @Override
@@ -393,12 +577,12 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
         return entries;
     }
 
-    private OperationResponse getOperationResponse(final ModelNode simpleResponse, final int batchId) throws IOException {
+    private OperationResponse getOperationResponse(final ModelNode simpleResponse, final int batchId, final int protocolVersion) throws IOException {
         final ModelNode streamHeader =  simpleResponse.hasDefined(RESPONSE_HEADERS) && simpleResponse.get(RESPONSE_HEADERS).hasDefined(ATTACHED_STREAMS)
                 ? simpleResponse.get(RESPONSE_HEADERS, ATTACHED_STREAMS)
                 : null;
         if (streamHeader != null && streamHeader.asInt() > 0) {
-            return OperationResponseProxy.create(simpleResponse, getChannelAssociation(), batchId, streamHeader);
+            return OperationResponseProxy.create(simpleResponse, getChannelAssociation(), batchId, streamHeader, protocolVersion);
         } else {
             return OperationResponse.Factory.createSimple(simpleResponse);
         }
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import static java.lang.System.getProperty;
+import static java.lang.System.getSecurityManager;
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
+
+/**
+ * Limits the number of operations a client has in flight at the same time without blocking the submitting threads.
+ * <p>
+ * A task submitted while fewer than {@code maxInFlight} tasks are running is run immediately on the submitting
+ * thread. Otherwise it is queued and run once a running task calls {@link #release(Executor)}, up to
+ * {@code maxPending} queued tasks, after which further tasks are rejected. A task that was run must call
+ * {@link #release(Executor)} exactly once, when the operation it sent completes or could not be sent.
+ * </p>
+ */
+final class InFlightOperationLimiter {
+
+    /**
+     * System property used to configure the maximum number of operations in flight.
+     */
+    static final String MAX_IN_FLIGHT_PROPERTY = "jboss.management.client.max-in-flight";
+    /**
+     * System property used to configure the maximum number of operations waiting for an in flight operation to
+     * complete.
+     */
+    static final String MAX_PENDING_PROPERTY = "jboss.management.client.max-pending";
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int DEFAULT_MAX_PENDING = 65536;
+
+    private final int maxInFlight;
+    private final int maxPending;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+    InFlightOperationLimiter(final int maxInFlight, final int maxPending) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(MAX_IN_FLIGHT_PROPERTY);
+        }
+        if (maxPending < 0) {
+            throw new IllegalArgumentException(MAX_PENDING_PROPERTY);
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Creates a limiter configured from the {@link #MAX_IN_FLIGHT_PROPERTY} and {@link #MAX_PENDING_PROPERTY}
+     * system properties. Invalid values are logged and replaced by the defaults.
+     *
+     * @return the limiter
+     */
+    static InFlightOperationLimiter create() {
+        return new InFlightOperationLimiter(getInteger(MAX_IN_FLIGHT_PROPERTY, DEFAULT_MAX_IN_FLIGHT, 1),
+                getInteger(MAX_PENDING_PROPERTY, DEFAULT_MAX_PENDING, 0));
+    }
+
+    /**
+     * Runs the task if an operation may be sent now, or queues it until one of the operations in flight completes.
+     *
+     * @param task the task sending the operation
+     * @return {@code false} if the task was rejected as too many tasks are queued already
+     */
+    boolean submit(final Runnable task) {
+        if (tryAcquire()) {
+            task.run();
+            return true;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            return false;
+        }
+        queue.add(task);
+        // An operation may have completed between the failed acquire and queueing the task
+        drain(null);
+        return true;
+    }
+
+    /**
+     * Releases the permit held by a task, and runs the next queued task if there is one.
+     *
+     * @param executor the executor used to run queued tasks, or {@code null} to run them on the calling thread
+     */
+    void release(final Executor executor) {
+        inFlight.decrementAndGet();
+        drain(executor);
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    int getPending() {
+        return pending.get();
+    }
+
+    int getMaxPending() {
+        return maxPending;
+    }
+
+    private void drain(final Executor executor) {
+        while (!queue.isEmpty() && tryAcquire()) {
+            final Runnable task = queue.poll();
+            if (task == null) {
+                // Another thread took the task, give the permit back and check again
+                inFlight.decrementAndGet();
+                continue;
+            }
+            pending.decrementAndGet();
+            if (executor == null) {
+                task.run();
+            } else {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // The client is being closed, the task will fail to send its operation
+                    task.run();
+                }
+            }
+        }
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    static int getInteger(final String property, final int defaultValue, final int minimum) {
+        final String value = getSystemProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final int result = Integer.parseInt(value.trim());
+            if (result >= minimum) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the default
+        }
+        ControllerClientLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, property, defaultValue);
+        return defaultValue;
+    }
+
+    private static String getSystemProperty(final String name) {
+        return getSecurityManager() == null ? getProperty(name) : doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return getProperty(name);
+            }
+        });
+    }
+}
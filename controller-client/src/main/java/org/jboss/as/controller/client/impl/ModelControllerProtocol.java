@@ -39,6 +39,8 @@ public interface ModelControllerProtocol {
     // This was never used in a .Final release, so byte can be re-used
     //byte GET_SUBJECT_REQUEST = 0x4F;
     byte GET_CHUNKED_INPUTSTREAM_REQUEST = 0x4F;
+    // Flow controlled reading of response streams, only sent to peers using protocol version 4 or later
+    byte GET_FLOW_CONTROLLED_INPUTSTREAM_REQUEST = 0x5A;
 
     // This was never used in a .Final release before WF 9, so it's repurposed now
     byte PARAM_END = 0x60;
@@ -54,6 +56,8 @@ public interface ModelControllerProtocol {
     //byte PARAM_PREPARED = 0x69;
     byte PARAM_COMMIT = 0x70;
     byte PARAM_ROLLBACK = 0x71;
+    byte PARAM_INPUTSTREAM_CREDIT = 0x72;
+    byte PARAM_INPUTSTREAM_MORE = 0x73;
     // The tx response params
     byte PARAM_OPERATION_FAILED = 0x49;
     byte PARAM_OPERATION_COMPLETED = 0x4A;
@@ -0,0 +1,670 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import static java.lang.System.getProperty;
+import static java.lang.System.getSecurityManager;
+import static java.security.AccessController.doPrivileged;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
+import org.jboss.as.protocol.PooledBufferOutputStream;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+import org.jboss.dmr.ValueExpression;
+import org.xnio.Pooled;
+
+/**
+ * Writes and reads the {@code ModelNode}s carried by management requests and responses.
+ * <p>
+ * Peers that negotiated management protocol version {@value #COMPACT_ENCODING_VERSION} or later precede each model
+ * with a format byte, and by default use a compact encoding instead of {@link ModelNode#writeExternal(DataOutput)}:
+ * object keys and short string values are written once and then referred to by their index in a string table, and
+ * lengths and integral values are written as variable length integers. Setting the
+ * {@code jboss.management.protocol.compression} system property to {@code true} additionally deflates the compact
+ * encoding, and setting {@code jboss.management.protocol.compact-model} to {@code false} goes back to the
+ * {@code writeExternal} format. Either way the reading side follows the format byte, and peers using an older
+ * protocol version always get the {@code writeExternal} format without a format byte.
+ * </p>
+ */
+public final class ModelNodeCodec {
+
+    /**
+     * The first management protocol version that supports the format byte and the compact encoding.
+     */
+    public static final int COMPACT_ENCODING_VERSION = 4;
+
+    /**
+     * System property used to disable the compact encoding.
+     */
+    public static final String COMPACT_ENCODING_PROPERTY = "jboss.management.protocol.compact-model";
+
+    /**
+     * System property used to enable compression of the compact encoding.
+     */
+    public static final String COMPRESSION_PROPERTY = "jboss.management.protocol.compression";
+
+    static final byte FORMAT_EXTERNAL = 0;
+    static final byte FORMAT_COMPACT = 1;
+    static final byte FORMAT_COMPACT_DEFLATE = 2;
+
+    private static final byte UNDEFINED = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BIG_DECIMAL = 6;
+    private static final byte BIG_INTEGER = 7;
+    private static final byte BYTES = 8;
+    private static final byte STRING = 9;
+    private static final byte EXPRESSION = 10;
+    private static final byte TYPE = 11;
+    private static final byte LIST = 12;
+    private static final byte OBJECT = 13;
+    private static final byte PROPERTY = 14;
+
+    /** String reference written ahead of a string that is not added to the table. */
+    private static final int LITERAL = 0;
+    /** String reference written ahead of a string that is added to the table. */
+    private static final int INTERNED = 1;
+    /** Offset added to the table index of a string that was written before. */
+    private static final int REFERENCE_OFFSET = 2;
+    private static final int MAX_INTERNED_LENGTH = 128;
+    private static final int MAX_TABLE_SIZE = 65536;
+    private static final int BUFFER_SIZE = 8192;
+    /** The largest string or byte array length accepted when reading. */
+    private static final int MAX_LENGTH = 256 * 1024 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte DEFAULT_FORMAT;
+
+    static {
+        final boolean compact = Boolean.parseBoolean(getSystemProperty(COMPACT_ENCODING_PROPERTY, "true"));
+        final boolean compress = Boolean.parseBoolean(getSystemProperty(COMPRESSION_PROPERTY, "false"));
+        DEFAULT_FORMAT = compact ? (compress ? FORMAT_COMPACT_DEFLATE : FORMAT_COMPACT) : FORMAT_EXTERNAL;
+    }
+
+    private ModelNodeCodec() {
+    }
+
+    /**
+     * Gets whether the protocol version negotiated for a message supports the format byte and the compact encoding.
+     *
+     * @param header the request header when writing a response, or the header of the message being read
+     * @return {@code true} if the compact encoding may be used
+     */
+    public static boolean isCompactEncodingSupported(final ManagementProtocolHeader header) {
+        return Math.min(ManagementProtocol.VERSION, header.getVersion()) >= COMPACT_ENCODING_VERSION;
+    }
+
+    /**
+     * Writes a model in the format supported by the peer.
+     *
+     * @param node the model to write
+     * @param output the output
+     * @param header the request header when writing a response, or the header of the message being written
+     * @throws IOException if writing fails
+     */
+    public static void writeModelNode(final ModelNode node, final DataOutput output, final ManagementProtocolHeader header) throws IOException {
+        if (isCompactEncodingSupported(header)) {
+            writeModelNode(node, output, DEFAULT_FORMAT);
+        } else {
+            node.writeExternal(output);
+        }
+    }
+
+    /**
+     * Reads a model written by {@link #writeModelNode(ModelNode, DataOutput, ManagementProtocolHeader)}.
+     *
+     * @param input the input
+     * @param header the header of the message being read
+     * @return the model
+     * @throws IOException if reading fails or the encoding is invalid
+     */
+    public static ModelNode readModelNode(final DataInput input, final ManagementProtocolHeader header) throws IOException {
+        if (isCompactEncodingSupported(header)) {
+            return readModelNode(input);
+        }
+        final ModelNode node = new ModelNode();
+        node.readExternal(input);
+        return node;
+    }
+
+    static void writeModelNode(final ModelNode node, final DataOutput output, final byte format) throws IOException {
+        output.writeByte(format);
+        switch (format) {
+            case FORMAT_EXTERNAL:
+                node.writeExternal(output);
+                break;
+            case FORMAT_COMPACT:
+                encode(node, new DataOutputStreamAdapter(output));
+                break;
+            case FORMAT_COMPACT_DEFLATE: {
+                final ChunkedOutputStream chunks = new ChunkedOutputStream(output);
+                final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    final DeflaterOutputStream deflate = new DeflaterOutputStream(chunks, deflater, BUFFER_SIZE);
+                    encode(node, deflate);
+                    deflate.finish();
+                    chunks.finish();
+                } finally {
+                    deflater.end();
+                }
+                break;
+            }
+            default:
+                throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(format);
+        }
+    }
+
+    static ModelNode readModelNode(final DataInput input) throws IOException {
+        final byte format = input.readByte();
+        final ModelNode node = new ModelNode();
+        switch (format) {
+            case FORMAT_EXTERNAL:
+                node.readExternal(input);
+                break;
+            case FORMAT_COMPACT:
+                new Decoder(input).read(node);
+                break;
+            case FORMAT_COMPACT_DEFLATE: {
+                final ChunkedInputStream chunks = new ChunkedInputStream(input);
+                final Inflater inflater = new Inflater();
+                try {
+                    final InputStream inflate = new BufferedInputStream(new InflaterInputStream(chunks, inflater, BUFFER_SIZE), BUFFER_SIZE);
+                    new Decoder(new DataInputStream(inflate)).read(node);
+                    chunks.skipToEnd();
+                } finally {
+                    inflater.end();
+                }
+                break;
+            }
+            default:
+                throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(format);
+        }
+        return node;
+    }
+
+    private static void encode(final ModelNode node, final OutputStream output) throws IOException {
+        final Encoder encoder = new Encoder(output);
+        try {
+            encoder.write(node);
+            encoder.flush();
+        } finally {
+            encoder.free();
+        }
+    }
+
+    private static String getSystemProperty(final String name, final String defaultValue) {
+        final String value = getSecurityManager() == null ? getProperty(name) : doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return getProperty(name);
+            }
+        });
+        return value == null ? defaultValue : value;
+    }
+
+    private static final class Encoder {
+
+        private final OutputStream output;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Pooled<ByteBuffer> pooled;
+        private final byte[] buffer;
+        private final int offset;
+        private final int limit;
+        private int position;
+
+        Encoder(final OutputStream output) {
+            this.output = output;
+            this.pooled = PooledBufferOutputStream.allocate();
+            final ByteBuffer byteBuffer = pooled.getResource();
+            this.buffer = byteBuffer.array();
+            this.offset = byteBuffer.arrayOffset();
+            this.limit = offset + byteBuffer.capacity();
+            this.position = offset;
+        }
+
+        void write(final ModelNode node) throws IOException {
+            switch (node.getType()) {
+                case UNDEFINED:
+                    writeByte(UNDEFINED);
+                    break;
+                case BOOLEAN:
+                    writeByte(node.asBoolean() ? TRUE : FALSE);
+                    break;
+                case INT: {
+                    final int value = node.asInt();
+                    writeByte(INT);
+                    writeVarInt((value << 1) ^ (value >> 31));
+                    break;
+                }
+                case LONG: {
+                    final long value = node.asLong();
+                    writeByte(LONG);
+                    writeVarLong((value << 1) ^ (value >> 63));
+                    break;
+                }
+                case DOUBLE: {
+                    final long bits = Double.doubleToRawLongBits(node.asDouble());
+                    writeByte(DOUBLE);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        writeByte((int) (bits >>> shift));
+                    }
+                    break;
+                }
+                case BIG_DECIMAL:
+                    writeByte(BIG_DECIMAL);
+                    writeString(node.asBigDecimal().toString());
+                    break;
+                case BIG_INTEGER:
+                    writeByte(BIG_INTEGER);
+                    writeBytes(node.asBigInteger().toByteArray());
+                    break;
+                case BYTES:
+                    writeByte(BYTES);
+                    writeBytes(node.asBytes());
+                    break;
+                case STRING:
+                    writeByte(STRING);
+                    writeString(node.asString());
+                    break;
+                case EXPRESSION:
+                    writeByte(EXPRESSION);
+                    writeString(node.asExpression().getExpressionString());
+                    break;
+                case TYPE:
+                    writeByte(TYPE);
+                    writeString(node.asType().name());
+                    break;
+                case LIST: {
+                    final List<ModelNode> elements = node.asList();
+                    writeByte(LIST);
+                    writeVarInt(elements.size());
+                    for (ModelNode element : elements) {
+                        write(element);
+                    }
+                    break;
+                }
+                case OBJECT: {
+                    final Set<String> keys = node.keys();
+                    writeByte(OBJECT);
+                    writeVarInt(keys.size());
+                    for (String key : keys) {
+                        writeString(key);
+                        write(node.get(key));
+                    }
+                    break;
+                }
+                case PROPERTY: {
+                    final Property property = node.asProperty();
+                    writeByte(PROPERTY);
+                    writeString(property.getName());
+                    write(property.getValue());
+                    break;
+                }
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        private void writeString(final String value) throws IOException {
+            final Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + REFERENCE_OFFSET);
+                return;
+            }
+            if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_TABLE_SIZE) {
+                strings.put(value, strings.size());
+                writeVarInt(INTERNED);
+            } else {
+                writeVarInt(LITERAL);
+            }
+            writeBytes(value.getBytes(UTF_8));
+        }
+
+        private void writeBytes(final byte[] bytes) throws IOException {
+            writeVarInt(bytes.length);
+            if (bytes.length > limit - position) {
+                flush();
+                if (bytes.length > limit - offset) {
+                    output.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0L) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        private void writeByte(final int value) throws IOException {
+            if (position == limit) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void flush() throws IOException {
+            if (position > offset) {
+                output.write(buffer, offset, position - offset);
+                position = offset;
+            }
+        }
+
+        void free() {
+            pooled.free();
+        }
+    }
+
+    private static final class Decoder {
+
+        private final DataInput input;
+        private final List<String> strings = new ArrayList<String>();
+
+        Decoder(final DataInput input) {
+            this.input = input;
+        }
+
+        void read(final ModelNode target) throws IOException {
+            final byte tag = input.readByte();
+            switch (tag) {
+                case UNDEFINED:
+                    break;
+                case FALSE:
+                    target.set(false);
+                    break;
+                case TRUE:
+                    target.set(true);
+                    break;
+                case INT: {
+                    final int value = readVarInt();
+                    target.set((value >>> 1) ^ -(value & 1));
+                    break;
+                }
+                case LONG: {
+                    final long value = readVarLong();
+                    target.set((value >>> 1) ^ -(value & 1L));
+                    break;
+                }
+                case DOUBLE:
+                    target.set(Double.longBitsToDouble(input.readLong()));
+                    break;
+                case BIG_DECIMAL:
+                    target.set(new BigDecimal(readString()));
+                    break;
+                case BIG_INTEGER:
+                    target.set(new BigInteger(readBytes()));
+                    break;
+                case BYTES:
+                    target.set(readBytes());
+                    break;
+                case STRING:
+                    target.set(readString());
+                    break;
+                case EXPRESSION:
+                    target.set(new ValueExpression(readString()));
+                    break;
+                case TYPE:
+                    target.set(ModelType.valueOf(readString()));
+                    break;
+                case LIST: {
+                    final int size = readVarInt();
+                    target.setEmptyList();
+                    for (int i = 0; i < size; i++) {
+                        read(target.add());
+                    }
+                    break;
+                }
+                case OBJECT: {
+                    final int size = readVarInt();
+                    target.setEmptyObject();
+                    for (int i = 0; i < size; i++) {
+                        final String key = readString();
+                        read(target.get(key));
+                    }
+                    break;
+                }
+                case PROPERTY: {
+                    final String name = readString();
+                    final ModelNode value = new ModelNode();
+                    read(value);
+                    target.set(name, value);
+                    break;
+                }
+                default:
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            final int reference = readVarInt();
+            if (reference >= REFERENCE_OFFSET) {
+                final int index = reference - REFERENCE_OFFSET;
+                if (index >= strings.size()) {
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(reference);
+                }
+                return strings.get(index);
+            }
+            final String value = new String(readBytes(), UTF_8);
+            if (reference == INTERNED) {
+                strings.add(value);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() throws IOException {
+            final int length = readVarInt();
+            if (length < 0 || length > MAX_LENGTH) {
+                throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncodingLength(length);
+            }
+            if (length <= BUFFER_SIZE) {
+                final byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                return bytes;
+            }
+            // Grow the array as the content arrives, so a corrupt length fails at the end of the input rather
+            // than by allocating the whole length up front
+            byte[] bytes = new byte[BUFFER_SIZE];
+            int read = 0;
+            while (read < length) {
+                if (read == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                final int count = bytes.length - read;
+                input.readFully(bytes, read, count);
+                read += count;
+            }
+            return bytes;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = input.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(INT);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0L;
+            for (int shift = 0; shift < 70; shift += 7) {
+                final byte b = input.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncoding(LONG);
+        }
+    }
+
+    /**
+     * Writes to a {@code DataOutput}, so the compact encoding can be written in blocks.
+     */
+    private static final class DataOutputStreamAdapter extends OutputStream {
+
+        private final DataOutput output;
+
+        DataOutputStreamAdapter(final DataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            output.write(b, off, len);
+        }
+    }
+
+    /**
+     * Writes each block of deflated data preceded by its length, so the reading side does not read past its end.
+     */
+    private static final class ChunkedOutputStream extends OutputStream {
+
+        private final DataOutput output;
+
+        ChunkedOutputStream(final DataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            output.writeInt(1);
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > 0) {
+                output.writeInt(len);
+                output.write(b, off, len);
+            }
+        }
+
+        void finish() throws IOException {
+            output.writeInt(0);
+        }
+    }
+
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final DataInput input;
+        private int remaining;
+        private boolean finished;
+
+        ChunkedInputStream(final DataInput input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            remaining--;
+            return input.readUnsignedByte();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            final int count = Math.min(len, remaining);
+            input.readFully(b, off, count);
+            remaining -= count;
+            return count;
+        }
+
+        void skipToEnd() throws IOException {
+            final byte[] discard = new byte[512];
+            while (read(discard, 0, discard.length) != -1) {
+                // consume what the inflater did not need, up to the final empty chunk
+            }
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (remaining == 0 && !finished) {
+                remaining = input.readInt();
+                if (remaining < 0) {
+                    throw ControllerClientLogger.ROOT_LOGGER.invalidModelEncodingLength(remaining);
+                }
+                finished = remaining == 0;
+            }
+            return !finished;
+        }
+    }
+}
@@ -22,10 +22,15 @@
 
 package org.jboss.as.controller.client.impl;
 
+import static java.lang.System.getProperty;
+import static java.lang.System.getSecurityManager;
+import static java.security.AccessController.doPrivileged;
+
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -33,11 +38,13 @@ import java.util.List;
 import java.util.Map;
 
 import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelAssociation;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ProtocolUtils;
@@ -46,15 +53,34 @@ import org.jboss.dmr.ModelNode;
 /**
  * An {@link org.jboss.as.controller.client.OperationResponse} that proxies back to a remote server
  * to read any attached response streams.
+ * <p>
+ * If the server uses protocol version {@value #FLOW_CONTROL_VERSION} or later, a stream is read with a series of
+ * requests, each answered with a separate message holding no more of the stream than the client has room for in a
+ * window of {@code jboss.management.client.attachment-window} bytes, 1 MB by default. So handling a response never
+ * waits for the reader, and the memory used for a stream is bounded by the window however large it is. Older
+ * servers send the complete stream in one message, relying on the channel to apply back pressure.
+ * </p>
  *
  * @author Brian Stansberry (c) 2014 Red Hat Inc.
  */
 public class OperationResponseProxy implements OperationResponse {
 
+    /**
+     * The protocol version from which servers support flow controlled reading of response streams.
+     */
+    public static final int FLOW_CONTROL_VERSION = 5;
+
+    static final String WINDOW_SIZE_PROPERTY = "jboss.management.client.attachment-window";
+
+    private static final int DEFAULT_WINDOW_SIZE = 1048576;
+
+    private static final int WINDOW_SIZE = getWindowSize();
+
     private final ModelNode responseNode;
     private final Map<String, StreamEntry> proxiedStreams;
 
-    private OperationResponseProxy(final ModelNode responseNode, final ManagementChannelAssociation channelAssociation, final int batchId, final ModelNode streamHeader) {
+    private OperationResponseProxy(final ModelNode responseNode, final ManagementChannelAssociation channelAssociation, final int batchId,
+                                   final ModelNode streamHeader, final boolean flowControlled) {
         this.responseNode = responseNode;
         int size = streamHeader.asInt();
         proxiedStreams = new LinkedHashMap<String, StreamEntry>(size);
@@ -62,12 +88,28 @@ public class OperationResponseProxy implements OperationResponse {
             ModelNode headerElement =  streamHeader.get(i);
             final String uuid = headerElement.require("uuid").asString();
             final String mimeType = headerElement.require("mime-type").asString();
-            proxiedStreams.put(uuid, new ProxiedInputStream(uuid, mimeType, channelAssociation, batchId, i));
+            proxiedStreams.put(uuid, new ProxiedInputStream(uuid, mimeType, channelAssociation, batchId, i, flowControlled));
         }
     }
 
     public static OperationResponseProxy create(final ModelNode responseNode, final ManagementChannelAssociation channelAssociation, final int batchId, final ModelNode streamHeader) {
-        return new OperationResponseProxy(responseNode, channelAssociation, batchId, streamHeader);
+        return new OperationResponseProxy(responseNode, channelAssociation, batchId, streamHeader, false);
+    }
+
+    /**
+     * Creates a response whose streams are read using flow control if the server supports it.
+     *
+     * @param responseNode the response
+     * @param channelAssociation the association used to read the streams
+     * @param batchId the id of the operation
+     * @param streamHeader the {@code attached-streams} response header
+     * @param protocolVersion the protocol version of the message the response was read from
+     * @return the response
+     */
+    public static OperationResponseProxy create(final ModelNode responseNode, final ManagementChannelAssociation channelAssociation, final int batchId,
+                                                final ModelNode streamHeader, final int protocolVersion) {
+        final boolean flowControlled = Math.min(ManagementProtocol.VERSION, protocolVersion) >= FLOW_CONTROL_VERSION;
+        return new OperationResponseProxy(responseNode, channelAssociation, batchId, streamHeader, flowControlled);
     }
 
     @Override
@@ -103,23 +145,29 @@ public class OperationResponseProxy implements OperationResponse {
         private final int batchId;
         private final Pipe pipe;
         private final ManagementChannelAssociation channelAssociation;
+        private final boolean flowControlled;
         private volatile boolean remoteClosed;
-        private boolean remoteRead;
+        /** Whether a request for the stream is outstanding, never reset if the stream is not flow controlled */
+        private volatile boolean remoteRead;
         private volatile Exception error;
+        private volatile boolean closed;
 
         ProxiedInputStream(final String uuid, final String mimeType, final ManagementChannelAssociation channelAssociation,
-                           final int batchId, final int index) {
+                           final int batchId, final int index, final boolean flowControlled) {
             this.uuid = uuid;
             this.mimeType = mimeType;
             this.channelAssociation = channelAssociation;
             this.batchId = batchId;
             this.index = index;
-            pipe = new Pipe(BUFFER_SIZE);
+            this.flowControlled = flowControlled;
+            // The pipe only grows up to the window as far as the reader falls behind. As no more than the free
+            // part of the window is requested, the response handler never blocks on it
+            pipe = flowControlled ? new Pipe(BUFFER_SIZE, WINDOW_SIZE) : new Pipe(BUFFER_SIZE);
         }
 
         @Override
         public int read() throws IOException {
-            if (available() < 1) {
+            if (flowControlled || available() < 1) {
                 readRemote();
             }
             return pipe.getIn().read();
@@ -127,7 +175,7 @@ public class OperationResponseProxy implements OperationResponse {
 
         @Override
         public int read(byte[] b, int off, int len) throws IOException {
-            if (available() < len) {
+            if (flowControlled || available() < len) {
                 readRemote();
             }
             return pipe.getIn().read(b, off, len);
@@ -135,6 +183,7 @@ public class OperationResponseProxy implements OperationResponse {
 
         @Override
         public void close() throws IOException {
+            closed = true;
             IOException ex = null;
             try {
                 closeRemote();
@@ -171,9 +220,20 @@ public class OperationResponseProxy implements OperationResponse {
         }
 
         private synchronized void readInputStream() {
-            if (remoteRead || remoteClosed) {
+            if (remoteRead || remoteClosed || closed) {
                 return;
             }
+            final int credit;
+            if (flowControlled) {
+                final int buffered = pipe.getIn().available();
+                credit = WINDOW_SIZE - buffered;
+                if (buffered > 0 && credit < WINDOW_SIZE / 4) {
+                    // Let the reader drain more of the window before asking for the next part
+                    return;
+                }
+            } else {
+                credit = 0;
+            }
 
             final OutputStream os = pipe.getOut();
             // Execute the async request
@@ -181,7 +241,8 @@ public class OperationResponseProxy implements OperationResponse {
 
                 @Override
                 public byte getOperationType() {
-                    return ModelControllerProtocol.GET_CHUNKED_INPUTSTREAM_REQUEST;
+                    return flowControlled ? ModelControllerProtocol.GET_FLOW_CONTROLLED_INPUTSTREAM_REQUEST
+                            : ModelControllerProtocol.GET_CHUNKED_INPUTSTREAM_REQUEST;
                 }
 
                 @Override
@@ -190,6 +251,10 @@ public class OperationResponseProxy implements OperationResponse {
                     output.writeInt(batchId);
                     output.write(ModelControllerProtocol.PARAM_INPUTSTREAM_INDEX);
                     output.writeInt(index);
+                    if (flowControlled) {
+                        output.write(ModelControllerProtocol.PARAM_INPUTSTREAM_CREDIT);
+                        output.writeInt(credit);
+                    }
                 }
 
                 @Override
@@ -197,12 +262,17 @@ public class OperationResponseProxy implements OperationResponse {
                     try {
                         // Loop reading chunk until we get an end message
                         IOException pipeWriteException = null;
+                        boolean more = false;
                         for (;;) {
                             byte header = input.readByte();
                             if (header == ModelControllerProtocol.PARAM_END) {
                                 remoteClosed = true;
                                 break;
                             }
+                            if (flowControlled && header == ModelControllerProtocol.PARAM_INPUTSTREAM_MORE) {
+                                more = true;
+                                break;
+                            }
                             ProtocolUtils.expectHeader(header, ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
                             int size = input.readInt();
                             ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
@@ -224,11 +294,19 @@ public class OperationResponseProxy implements OperationResponse {
                             }
                         }
 
-                        os.close();
+                        if (!more || pipeWriteException != null) {
+                            os.close();
+                        }
                         if (pipeWriteException != null) {
                             throw pipeWriteException;
                         }
                         resultHandler.done(null);
+                        if (more) {
+                            // Ask for the next part if there is room for it, else the reader will once it has
+                            // drained enough. It may already be waiting on an empty pipe.
+                            remoteRead = false;
+                            readInputStream();
+                        }
                     } catch (IOException e) {
                         shutdown(e);
                         resultHandler.failed(e);
@@ -237,9 +315,10 @@ public class OperationResponseProxy implements OperationResponse {
                 }
             };
 
+            // Set before sending, as the response may be handled before executeRequest returns
+            remoteRead = true;
             try {
                 channelAssociation.executeRequest(getISRequest, null);
-                remoteRead = true;
             } catch (IOException e) {
                 shutdown(e);
             }
@@ -302,4 +381,26 @@ public class OperationResponseProxy implements OperationResponse {
             return this;
         }
     }
+
+    private static int getWindowSize() {
+        final String value = getSystemProperty(WINDOW_SIZE_PROPERTY, null);
+        if (value != null) {
+            try {
+                return Math.max(ProxiedInputStream.BUFFER_SIZE, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                ControllerClientLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, WINDOW_SIZE_PROPERTY, DEFAULT_WINDOW_SIZE);
+            }
+        }
+        return DEFAULT_WINDOW_SIZE;
+    }
+
+    private static String getSystemProperty(final String name, final String defaultValue) {
+        final String value = getSecurityManager() == null ? getProperty(name) : doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return getProperty(name);
+            }
+        });
+        return value == null ? defaultValue : value;
+    }
 }
@@ -45,7 +45,9 @@ final class Pipe {
     private int tail;
     /** the size of the buffer content **/
     private int size;
-    private final byte[] buffer;
+    private byte[] buffer;
+    /** the size the buffer may grow to **/
+    private final int maxSize;
     private boolean writeClosed;
     private boolean readClosed;
 
@@ -55,7 +57,39 @@ final class Pipe {
      * @param bufferSize the buffer size to use
      */
     public Pipe(int bufferSize) {
-        buffer = new byte[bufferSize];
+        this(bufferSize, bufferSize);
+    }
+
+    /**
+     * Construct a new instance whose buffer starts small and only grows when the writer gets ahead of the reader.
+     *
+     * @param initialSize the initial buffer size
+     * @param maxSize the size the buffer may grow to
+     */
+    public Pipe(int initialSize, int maxSize) {
+        buffer = new byte[initialSize];
+        this.maxSize = Math.max(initialSize, maxSize);
+    }
+
+    /**
+     * Grows a full buffer if it is not at its maximum size yet. Must be called holding the lock.
+     *
+     * @return {@code true} if the buffer was grown
+     */
+    private boolean grow() {
+        final byte[] buffer = this.buffer;
+        final int bufLen = buffer.length;
+        if (bufLen >= maxSize) {
+            return false;
+        }
+        final byte[] grown = new byte[(int) Math.min((long) bufLen << 1, maxSize)];
+        // the buffer is full, so its content runs from the tail around to just before it
+        final int lastLen = bufLen - tail;
+        System.arraycopy(buffer, tail, grown, 0, lastLen);
+        System.arraycopy(buffer, 0, grown, lastLen, tail);
+        this.buffer = grown;
+        tail = 0;
+        return true;
     }
 
     /**
@@ -190,9 +224,7 @@ final class Pipe {
                 if (writeClosed) {
                     throw ControllerClientLogger.ROOT_LOGGER.streamWasClosed();
                 }
-                final byte[] buffer = Pipe.this.buffer;
-                final int bufLen = buffer.length;
-                while (size == bufLen) {
+                while (size == Pipe.this.buffer.length && ! grow()) {
                     try {
                         lock.wait();
                         if (writeClosed) {
@@ -203,6 +235,8 @@ final class Pipe {
                         throw new InterruptedIOException();
                     }
                 }
+                final byte[] buffer = Pipe.this.buffer;
+                final int bufLen = buffer.length;
                 final int tail = Pipe.this.tail;
                 int startPos = tail + size;
                 if (startPos >= bufLen) {
@@ -222,13 +256,13 @@ final class Pipe {
                 if (writeClosed) {
                     throw ControllerClientLogger.ROOT_LOGGER.streamWasClosed();
                 }
-                final byte[] buffer = Pipe.this.buffer;
-                final int bufLen = buffer.length;
+                byte[] buffer;
+                int bufLen;
                 int size;
                 int tail;
                 int cnt;
                 while (remaining > 0) {
-                    while ((size = Pipe.this.size) == bufLen) {
+                    while ((size = Pipe.this.size) == Pipe.this.buffer.length && ! grow()) {
                         try {
                             lock.wait();
                             if (writeClosed) {
@@ -241,6 +275,8 @@ final class Pipe {
                             throw iioe;
                         }
                     }
+                    buffer = Pipe.this.buffer;
+                    bufLen = buffer.length;
                     tail = Pipe.this.tail;
                     int startPos = tail + size;
                     if (startPos >= bufLen) {
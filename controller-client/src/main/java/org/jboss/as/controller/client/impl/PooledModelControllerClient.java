@@ -0,0 +1,583 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import javax.security.auth.callback.CallbackHandler;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.ModelControllerClientConfiguration;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.client.logging.ControllerClientLogger;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * {@link ModelControllerClient} which spreads operations across several connections to the same server, so that one
+ * large request or response does not hold up every other operation.
+ * <p>
+ * Each connection is a separate {@link RemotingModelControllerClient}, opened when it is first needed. An operation
+ * is sent over an idle connection if there is one, over a new connection while fewer than {@code maxConnections}
+ * are open, and otherwise over the connection with the fewest operations in flight. Operations with attached input
+ * streams are sent over a connection that carries no other operation until they complete, if an idle connection is
+ * available or may be opened, and other operations avoid such a connection while any other is available. No more than
+ * {@code maxConnections} connections are ever open. Connections which have been idle for longer than the idle timeout
+ * are closed, apart from the last one.
+ * </p>
+ * <p>
+ * A connection is considered busy until the operations sent over it complete, or, if a response has input streams
+ * attached, until the {@link OperationResponse} is closed.
+ * </p>
+ */
+public class PooledModelControllerClient implements ModelControllerClient {
+
+    /** The default time after which an idle connection is closed, in milliseconds. */
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    private final ModelControllerClientConfiguration configuration;
+    private final ModelControllerClientConfiguration connectionConfiguration;
+    private final int maxConnections;
+    private final long idleTimeout;
+    private final List<Connection> connections = new ArrayList<Connection>();
+    private boolean closed;
+
+    /**
+     * Creates a pooled client which closes connections after they have been idle for {@link #DEFAULT_IDLE_TIMEOUT}.
+     *
+     * @param configuration the client configuration, closed when this client is closed
+     * @param maxConnections the maximum number of connections shared between operations
+     */
+    public PooledModelControllerClient(final ModelControllerClientConfiguration configuration, final int maxConnections) {
+        this(configuration, maxConnections, DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a pooled client.
+     *
+     * @param configuration the client configuration, closed when this client is closed
+     * @param maxConnections the maximum number of connections shared between operations
+     * @param idleTimeout the time after which an idle connection is closed
+     * @param unit the unit of {@code idleTimeout}
+     */
+    public PooledModelControllerClient(final ModelControllerClientConfiguration configuration, final int maxConnections,
+                                       final long idleTimeout, final TimeUnit unit) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections");
+        }
+        this.configuration = configuration;
+        this.connectionConfiguration = new SharedConfiguration(configuration);
+        this.maxConnections = maxConnections;
+        this.idleTimeout = unit.toMillis(idleTimeout);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation) throws IOException {
+        return execute(operation, null);
+    }
+
+    @Override
+    public ModelNode execute(final Operation operation) throws IOException {
+        return execute(operation, null);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) throws IOException {
+        return execute(OperationBuilder.create(operation).build(), messageHandler);
+    }
+
+    @Override
+    public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+        final Connection connection = acquire(operation);
+        try {
+            return connection.client.execute(operation, messageHandler);
+        } finally {
+            release(connection);
+        }
+    }
+
+    @Override
+    public OperationResponse executeOperation(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+        final Connection connection = acquire(operation);
+        final OperationResponse response;
+        try {
+            response = connection.client.executeOperation(operation, messageHandler);
+        } catch (IOException e) {
+            release(connection);
+            throw e;
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+        return new Lease(connection).attach(response);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+        return executeAsync(OperationBuilder.create(operation).build(), messageHandler);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+        final Connection connection = acquire(operation);
+        final AsyncFuture<ModelNode> future;
+        try {
+            future = connection.client.executeAsync(operation, messageHandler);
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+        return releaseWhenDone(future, connection);
+    }
+
+    @Override
+    public AsyncFuture<OperationResponse> executeOperationAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+        final Connection connection = acquire(operation);
+        final AsyncFuture<OperationResponse> future;
+        try {
+            future = connection.client.executeOperationAsync(operation, messageHandler);
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+        final Lease lease = new Lease(connection);
+        future.addListener(new AsyncFuture.Listener<OperationResponse, Lease>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends OperationResponse> future, Lease attachment) {
+                try {
+                    attachment.attach(future.getUninterruptibly());
+                } catch (ExecutionException e) {
+                    attachment.release();
+                } catch (CancellationException e) {
+                    attachment.release();
+                }
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, Lease attachment) {
+                attachment.release();
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends OperationResponse> future, Lease attachment) {
+                attachment.release();
+            }
+        }, lease);
+        return new LeasedResponseFuture(future, lease);
+    }
+
+    /**
+     * Execute an operation asynchronously, limiting the number of operations each connection has in flight.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @return the future result of the operation
+     * @see AbstractModelControllerClient#executeAsyncLimited(ModelNode)
+     */
+    public AsyncFuture<ModelNode> executeAsyncLimited(final Operation operation, final OperationMessageHandler messageHandler) {
+        final Connection connection = acquire(operation);
+        final AsyncFuture<ModelNode> future;
+        try {
+            future = connection.client.executeAsyncLimited(operation, messageHandler);
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+        return releaseWhenDone(future, connection);
+    }
+
+    /**
+     * Execute an operation asynchronously, limiting the number of operations each connection has in flight.
+     *
+     * @param operation the operation to execute
+     * @return the future result of the operation
+     * @see AbstractModelControllerClient#executeAsyncLimited(ModelNode)
+     */
+    public AsyncFuture<ModelNode> executeAsyncLimited(final ModelNode operation) {
+        return executeAsyncLimited(OperationBuilder.create(operation).build(), null);
+    }
+
+    /**
+     * Gets the number of connections currently open, or waiting to be opened by their first operation.
+     *
+     * @return the number of connections
+     */
+    public synchronized int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final List<Connection> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<Connection>(connections);
+            connections.clear();
+        }
+        try {
+            for (Connection connection : toClose) {
+                StreamUtils.safeClose(connection.client);
+            }
+        } finally {
+            StreamUtils.safeClose(configuration);
+        }
+    }
+
+    /**
+     * Selects the connection for an operation and marks it as busy.
+     *
+     * @param operation the operation
+     * @return the connection, which must be {@link #release(Connection) released} once the operation completes
+     * @throws IllegalStateException if this client is closed
+     */
+    Connection acquire(final Operation operation) {
+        final List<Connection> idle;
+        final Connection connection;
+        synchronized (this) {
+            if (closed) {
+                throw ControllerClientLogger.ROOT_LOGGER.objectIsClosed(ModelControllerClient.class.getSimpleName());
+            }
+            idle = removeIdle(System.currentTimeMillis());
+            connection = select(hasAttachments(operation));
+        }
+        for (Connection expired : idle) {
+            StreamUtils.safeClose(expired.client);
+        }
+        return connection;
+    }
+
+    /**
+     * Selects the connection for an operation and marks it as busy. Must be called holding the lock on this client.
+     */
+    private Connection select(final boolean dedicated) {
+        Connection leastLoaded = null;
+        Connection leastLoadedDedicated = null;
+        for (Connection connection : connections) {
+            if (connection.inFlight == 0) {
+                return connection.acquire(dedicated);
+            }
+            if (connection.dedicated) {
+                if (leastLoadedDedicated == null || connection.inFlight < leastLoadedDedicated.inFlight) {
+                    leastLoadedDedicated = connection;
+                }
+            } else if (leastLoaded == null || connection.inFlight < leastLoaded.inFlight) {
+                leastLoaded = connection;
+            }
+        }
+        if (connections.size() < maxConnections) {
+            final Connection connection = new Connection(new RemotingModelControllerClient(connectionConfiguration));
+            connections.add(connection);
+            return connection.acquire(dedicated);
+        }
+        // At the cap, share the least loaded connection, one which carries an upload only if every connection does
+        return (leastLoaded != null ? leastLoaded : leastLoadedDedicated).acquire(dedicated);
+    }
+
+    /**
+     * Removes the connections which have been idle for longer than the idle timeout, keeping at least one. Must be
+     * called holding the lock on this client.
+     */
+    private List<Connection> removeIdle(final long now) {
+        List<Connection> idle = null;
+        final Iterator<Connection> iterator = connections.iterator();
+        while (iterator.hasNext() && connections.size() > 1) {
+            final Connection connection = iterator.next();
+            if (connection.inFlight == 0 && now - connection.lastUsed > idleTimeout) {
+                iterator.remove();
+                if (idle == null) {
+                    idle = new ArrayList<Connection>();
+                }
+                idle.add(connection);
+            }
+        }
+        return idle == null ? Collections.<Connection>emptyList() : idle;
+    }
+
+    synchronized void release(final Connection connection) {
+        connection.inFlight--;
+        connection.lastUsed = System.currentTimeMillis();
+        if (connection.inFlight == 0) {
+            connection.dedicated = false;
+        }
+    }
+
+    private AsyncFuture<ModelNode> releaseWhenDone(final AsyncFuture<ModelNode> future, final Connection connection) {
+        future.addListener(new AsyncFuture.Listener<ModelNode, Connection>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends ModelNode> future, Connection attachment) {
+                release(attachment);
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Connection attachment) {
+                release(attachment);
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends ModelNode> future, Connection attachment) {
+                release(attachment);
+            }
+        }, connection);
+        return future;
+    }
+
+    private static boolean hasAttachments(final Operation operation) {
+        final List<InputStream> streams = operation.getInputStreams();
+        return streams != null && !streams.isEmpty();
+    }
+
+    /**
+     * A connection in the pool. The fields are guarded by the lock on the owning client.
+     */
+    static final class Connection {
+
+        private final RemotingModelControllerClient client;
+        private int inFlight;
+        private boolean dedicated;
+        private long lastUsed = System.currentTimeMillis();
+
+        private Connection(final RemotingModelControllerClient client) {
+            this.client = client;
+        }
+
+        private Connection acquire(final boolean dedicated) {
+            inFlight++;
+            // A connection carrying an upload stays avoided by other operations until it is idle again
+            this.dedicated |= dedicated;
+            return this;
+        }
+
+        int getInFlight() {
+            return inFlight;
+        }
+
+        boolean isDedicated() {
+            return dedicated;
+        }
+    }
+
+    /**
+     * Keeps a connection busy until the response to an operation is complete, and if the response has input streams
+     * attached, until it is closed.
+     */
+    final class Lease {
+
+        private final Connection connection;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile OperationResponse response;
+
+        Lease(final Connection connection) {
+            this.connection = connection;
+        }
+
+        OperationResponse attach(final OperationResponse response) {
+            if (response.getInputStreams().isEmpty()) {
+                release();
+                return response;
+            }
+            OperationResponse leased = this.response;
+            if (leased == null) {
+                leased = new LeasedOperationResponse(response, this);
+                this.response = leased;
+            }
+            return leased;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                PooledModelControllerClient.this.release(connection);
+            }
+        }
+    }
+
+    private static final class LeasedOperationResponse implements OperationResponse {
+
+        private final OperationResponse delegate;
+        private final Lease lease;
+
+        private LeasedOperationResponse(final OperationResponse delegate, final Lease lease) {
+            this.delegate = delegate;
+            this.lease = lease;
+        }
+
+        @Override
+        public ModelNode getResponseNode() {
+            return delegate.getResponseNode();
+        }
+
+        @Override
+        public List<StreamEntry> getInputStreams() {
+            return delegate.getInputStreams();
+        }
+
+        @Override
+        public StreamEntry getInputStream(final String uuid) {
+            return delegate.getInputStream(uuid);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                lease.release();
+            }
+        }
+    }
+
+    private static final class LeasedResponseFuture extends BasicDelegatingAsyncFuture<OperationResponse, OperationResponse> {
+
+        private final Lease lease;
+
+        private LeasedResponseFuture(final AsyncFuture<OperationResponse> delegate, final Lease lease) {
+            super(delegate);
+            this.lease = lease;
+        }
+
+        @Override
+        public OperationResponse getUninterruptibly() throws CancellationException, ExecutionException {
+            return lease.attach(delegate.getUninterruptibly());
+        }
+
+        @Override
+        public OperationResponse getUninterruptibly(final long timeout, final TimeUnit unit) throws CancellationException, ExecutionException, TimeoutException {
+            return lease.attach(delegate.getUninterruptibly(timeout, unit));
+        }
+
+        @Override
+        public OperationResponse get() throws InterruptedException, ExecutionException {
+            return lease.attach(delegate.get());
+        }
+
+        @Override
+        public OperationResponse get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return lease.attach(delegate.get(timeout, unit));
+        }
+
+        @Override
+        public <A> void addListener(final Listener<? super OperationResponse, A> listener, final A attachment) {
+            delegate.addListener(new Listener<OperationResponse, A>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends OperationResponse> future, A attachment) {
+                    listener.handleComplete(LeasedResponseFuture.this, attachment);
+                }
+
+                @Override
+                public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, A attachment) {
+                    listener.handleFailed(LeasedResponseFuture.this, cause, attachment);
+                }
+
+                @Override
+                public void handleCancelled(AsyncFuture<? extends OperationResponse> future, A attachment) {
+                    listener.handleCancelled(LeasedResponseFuture.this, attachment);
+                }
+            }, attachment);
+        }
+
+        @Override
+        public void asyncCancel(final boolean interruptionDesired) {
+            delegate.asyncCancel(interruptionDesired);
+        }
+    }
+
+    /**
+     * The configuration used by the connections in the pool, which leaves closing the configuration, and with it
+     * possibly the executor, to the pool.
+     */
+    private static final class SharedConfiguration implements ModelControllerClientConfiguration {
+
+        private final ModelControllerClientConfiguration delegate;
+
+        private SharedConfiguration(final ModelControllerClientConfiguration delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getHost() {
+            return delegate.getHost();
+        }
+
+        @Override
+        public int getPort() {
+            return delegate.getPort();
+        }
+
+        @Override
+        public String getProtocol() {
+            return delegate.getProtocol();
+        }
+
+        @Override
+        public int getConnectionTimeout() {
+            return delegate.getConnectionTimeout();
+        }
+
+        @Override
+        public CallbackHandler getCallbackHandler() {
+            return delegate.getCallbackHandler();
+        }
+
+        @Override
+        public Map<String, String> getSaslOptions() {
+            return delegate.getSaslOptions();
+        }
+
+        @Override
+        public SSLContext getSSLContext() {
+            return delegate.getSSLContext();
+        }
+
+        @Override
+        public ExecutorService getExecutor() {
+            return delegate.getExecutor();
+        }
+
+        @Override
+        public String getClientBindAddress() {
+            return delegate.getClientBindAddress();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -25,6 +25,7 @@ package org.jboss.as.controller.client.impl;
 import org.jboss.as.controller.client.logging.ControllerClientLogger;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -79,6 +80,11 @@ public class RemotingModelControllerClient extends AbstractModelControllerClient
         return channelAssociation;
     }
 
+    @Override
+    protected Executor getCompletionExecutor() {
+        return clientConfiguration.getExecutor();
+    }
+
     @Override
     public void close() throws IOException {
         synchronized (this) {
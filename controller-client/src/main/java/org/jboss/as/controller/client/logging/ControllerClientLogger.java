@@ -35,6 +35,7 @@ import org.jboss.logging.annotations.MessageLogger;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -376,6 +377,47 @@ public interface ControllerClientLogger extends BasicLogger {
     @Message(id = 36, value = "Stream was closed")
     IOException streamWasClosed();
 
+    /**
+     * Creates an exception indicating an encoded model contained an unknown format or value tag.
+     *
+     * @param tag the tag
+     *
+     * @return an {@link IOException} for the error
+     */
+    @Message(id = 37, value = "Invalid model encoding tag %d")
+    IOException invalidModelEncoding(int tag);
+
+    /**
+     * Creates an exception indicating an operation could not be queued as too many operations are waiting to be sent.
+     *
+     * @param maxPending the maximum number of operations waiting to be sent
+     *
+     * @return a {@link RejectedExecutionException} for the error
+     */
+    @Message(id = 38, value = "Cannot execute the operation as %d operations are already waiting to be sent")
+    RejectedExecutionException tooManyPendingOperations(int maxPending);
+
+    /**
+     * Creates an exception indicating an encoded model contained a negative or oversized length.
+     *
+     * @param length the length
+     *
+     * @return an {@link IOException} for the error
+     */
+    @Message(id = 39, value = "Invalid length %d in encoded model")
+    IOException invalidModelEncodingLength(int length);
+
+    /**
+     * Logs a warning message indicating a system property has an invalid value, and the default is used instead.
+     *
+     * @param value the invalid value
+     * @param property the name of the system property
+     * @param defaultValue the value used instead
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 40, value = "Invalid value '%s' for system property %s, using %d instead")
+    void invalidSystemPropertyValue(String value, String property, int defaultValue);
+
     class LeakDescription extends Throwable {
         private static final long serialVersionUID = -7193498784746897578L;
 
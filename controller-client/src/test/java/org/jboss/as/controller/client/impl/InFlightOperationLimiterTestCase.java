@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link InFlightOperationLimiter}.
+ */
+public class InFlightOperationLimiterTestCase {
+
+    @Test
+    public void testQueuesBeyondLimit() {
+        final InFlightOperationLimiter limiter = new InFlightOperationLimiter(2, 1);
+        final List<String> run = new ArrayList<String>();
+
+        Assert.assertTrue(limiter.submit(new RecordingTask(run, "a")));
+        Assert.assertTrue(limiter.submit(new RecordingTask(run, "b")));
+        Assert.assertTrue(limiter.submit(new RecordingTask(run, "c")));
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(1, limiter.getPending());
+        Assert.assertEquals(2, run.size());
+
+        // The queue is full
+        Assert.assertFalse(limiter.submit(new RecordingTask(run, "d")));
+        Assert.assertEquals(1, limiter.getPending());
+
+        limiter.release(null);
+        Assert.assertEquals(3, run.size());
+        Assert.assertEquals("c", run.get(2));
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getPending());
+
+        limiter.release(null);
+        limiter.release(null);
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedTasksUseExecutor() {
+        final InFlightOperationLimiter limiter = new InFlightOperationLimiter(1, 10);
+        final List<String> run = new ArrayList<String>();
+        final List<Runnable> executed = new ArrayList<Runnable>();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executed.add(command);
+            }
+        };
+
+        limiter.submit(new RecordingTask(run, "a"));
+        limiter.submit(new RecordingTask(run, "b"));
+        Assert.assertEquals(1, run.size());
+
+        limiter.release(executor);
+        // The queued task is handed to the executor rather than run by the releasing thread
+        Assert.assertEquals(1, run.size());
+        Assert.assertEquals(1, executed.size());
+        Assert.assertEquals(1, limiter.getInFlight());
+        executed.get(0).run();
+        Assert.assertEquals("b", run.get(1));
+    }
+
+    @Test
+    public void testInvalidPropertyValuesUseDefault() {
+        final String property = InFlightOperationLimiter.MAX_IN_FLIGHT_PROPERTY;
+        try {
+            System.clearProperty(property);
+            Assert.assertEquals(7, InFlightOperationLimiter.getInteger(property, 7, 1));
+            System.setProperty(property, " 12 ");
+            Assert.assertEquals(12, InFlightOperationLimiter.getInteger(property, 7, 1));
+            System.setProperty(property, "0");
+            Assert.assertEquals(7, InFlightOperationLimiter.getInteger(property, 7, 1));
+            System.setProperty(property, "many");
+            Assert.assertEquals(7, InFlightOperationLimiter.getInteger(property, 7, 1));
+            // A limiter can still be created from an invalid value
+            System.setProperty(property, "-1");
+            Assert.assertNotNull(InFlightOperationLimiter.create());
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    private static final class RecordingTask implements Runnable {
+
+        private final List<String> run;
+        private final String name;
+
+        RecordingTask(final List<String> run, final String name) {
+            this.run = run;
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            run.add(name);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ModelNodeCodec}.
+ */
+public class ModelNodeCodecTestCase {
+
+    private static final byte TRAILER = 0x24;
+
+    @Test
+    public void testAllTypes() throws IOException {
+        final ModelNode node = createModel(1);
+        for (byte format : new byte[] {ModelNodeCodec.FORMAT_EXTERNAL, ModelNodeCodec.FORMAT_COMPACT, ModelNodeCodec.FORMAT_COMPACT_DEFLATE}) {
+            Assert.assertEquals("format " + format, node, roundTrip(node, format));
+        }
+    }
+
+    @Test
+    public void testLargeModel() throws IOException {
+        final ModelNode node = new ModelNode();
+        for (int i = 0; i < 2000; i++) {
+            node.get("item", "item-" + i).set(createModel(i));
+        }
+        node.get("long-string").set(new String(new char[20000]).replace('\0', 'x'));
+        final int external = encode(node, ModelNodeCodec.FORMAT_EXTERNAL).length;
+        final int compact = encode(node, ModelNodeCodec.FORMAT_COMPACT).length;
+        final int deflated = encode(node, ModelNodeCodec.FORMAT_COMPACT_DEFLATE).length;
+        Assert.assertTrue(compact < external);
+        Assert.assertTrue(deflated < compact);
+        Assert.assertEquals(node, roundTrip(node, ModelNodeCodec.FORMAT_COMPACT));
+        Assert.assertEquals(node, roundTrip(node, ModelNodeCodec.FORMAT_COMPACT_DEFLATE));
+    }
+
+    @Test
+    public void testVersionNegotiation() throws IOException {
+        final ModelNode node = createModel(3);
+        final ManagementRequestHeader legacy = new ManagementRequestHeader(2, 1, 1, (byte) 1);
+        final ManagementRequestHeader current = new ManagementRequestHeader(ModelNodeCodec.COMPACT_ENCODING_VERSION, 1, 1, (byte) 1);
+        Assert.assertFalse(ModelNodeCodec.isCompactEncodingSupported(legacy));
+        Assert.assertTrue(ModelNodeCodec.isCompactEncodingSupported(current));
+
+        // A peer on the old version gets exactly what writeExternal produces
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ModelNodeCodec.writeModelNode(node, new DataOutputStream(bytes), legacy);
+        final ByteArrayOutputStream external = new ByteArrayOutputStream();
+        node.writeExternal(new DataOutputStream(external));
+        Assert.assertArrayEquals(external.toByteArray(), bytes.toByteArray());
+
+        bytes.reset();
+        ModelNodeCodec.writeModelNode(node, new DataOutputStream(bytes), current);
+        final ModelNode read = ModelNodeCodec.readModelNode(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), current);
+        Assert.assertEquals(node, read);
+    }
+
+    @Test
+    public void testInvalidLengths() throws IOException {
+        // A bytes value (tag 8) with a length of -1
+        assertInvalid(new byte[] {ModelNodeCodec.FORMAT_COMPACT, 8, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        // A bytes value claiming 1 GiB, beyond the largest length accepted
+        assertInvalid(new byte[] {ModelNodeCodec.FORMAT_COMPACT, 8, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04});
+        // A bytes value claiming 1 MiB, of which only a few bytes are present
+        assertInvalid(new byte[] {ModelNodeCodec.FORMAT_COMPACT, 8, (byte) 0x80, (byte) 0x80, 0x40, 1, 2, 3});
+        // A deflated model with a negative chunk length
+        assertInvalid(new byte[] {ModelNodeCodec.FORMAT_COMPACT_DEFLATE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE});
+    }
+
+    private static void assertInvalid(final byte[] bytes) {
+        try {
+            ModelNodeCodec.readModelNode(new DataInputStream(new ByteArrayInputStream(bytes)));
+            Assert.fail("Reading an invalid encoding should fail");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static ModelNode createModel(final int seed) {
+        final ModelNode node = new ModelNode();
+        node.get("undefined");
+        node.get("boolean").set(seed % 2 == 0);
+        node.get("int").set(-seed);
+        node.get("max-int").set(Integer.MAX_VALUE);
+        node.get("long").set(Long.MIN_VALUE + seed);
+        node.get("double").set(seed / 3.0);
+        node.get("big-decimal").set(new BigDecimal("12345.678" + seed));
+        node.get("big-integer").set(new BigInteger("-98765432109876543210" + seed));
+        node.get("bytes").set(new byte[] {1, 2, (byte) seed});
+        node.get("string").set("value-" + seed);
+        node.get("unicode").set("\u00e9\u4e2d\ud83d\ude00");
+        node.get("expression").set(new ValueExpression("${prop." + seed + ":default}"));
+        node.get("type").set(ModelType.OBJECT);
+        node.get("list").add("a").add(seed).add(new ModelNode());
+        node.get("empty-list").setEmptyList();
+        node.get("empty-object").setEmptyObject();
+        node.get("property").set("name", new ModelNode(seed));
+        node.get("nested", "object", "string").set("value-" + seed);
+        return node;
+    }
+
+    private static byte[] encode(final ModelNode node, final byte format) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        ModelNodeCodec.writeModelNode(node, output, format);
+        output.writeByte(TRAILER);
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    private static ModelNode roundTrip(final ModelNode node, final byte format) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(encode(node, format)));
+        final ModelNode read = ModelNodeCodec.readModelNode(input);
+        // The codec must not read past the end of the model
+        Assert.assertEquals(TRAILER, input.readByte());
+        Assert.assertEquals(-1, input.read());
+        return read;
+    }
+}
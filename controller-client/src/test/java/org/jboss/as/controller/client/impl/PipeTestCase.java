@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link Pipe}.
+ */
+public class PipeTestCase {
+
+    @Test
+    public void testGrowsWhenWrapped() throws IOException {
+        final Pipe pipe = new Pipe(4, 16);
+        final OutputStream out = pipe.getOut();
+        final InputStream in = pipe.getIn();
+
+        out.write(new byte[] {0, 1, 2});
+        Assert.assertEquals(0, in.read());
+        Assert.assertEquals(1, in.read());
+
+        // Wraps around the initial buffer, then grows twice while keeping the order
+        out.write(new byte[] {3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        out.write(13);
+        Assert.assertEquals(12, in.available());
+
+        final byte[] read = new byte[12];
+        Assert.assertEquals(12, in.read(read, 0, read.length));
+        for (int i = 0; i < read.length; i++) {
+            Assert.assertEquals(i + 2, read[i]);
+        }
+    }
+
+    @Test
+    public void testFillsUpToMaximum() throws IOException {
+        final Pipe pipe = new Pipe(4, 16);
+        final byte[] written = new byte[16];
+        for (int i = 0; i < written.length; i++) {
+            written[i] = (byte) i;
+        }
+        // The writer would block beyond this
+        pipe.getOut().write(written);
+        pipe.getOut().close();
+
+        final byte[] read = new byte[16];
+        Assert.assertEquals(16, pipe.getIn().read(read, 0, read.length));
+        Assert.assertArrayEquals(written, read);
+        Assert.assertEquals(-1, pipe.getIn().read());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.client.ModelControllerClientConfiguration;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the connection selection of {@link PooledModelControllerClient}. Connections are opened lazily, so
+ * selecting them does not need a server.
+ */
+public class PooledModelControllerClientTestCase {
+
+    private PooledModelControllerClient client;
+
+    @After
+    public void close() {
+        StreamUtils.safeClose(client);
+    }
+
+    @Test
+    public void testSelection() {
+        client = createClient(2, 1, TimeUnit.MINUTES);
+        final PooledModelControllerClient.Connection first = client.acquire(operation());
+        client.release(first);
+        // An idle connection is reused
+        Assert.assertSame(first, client.acquire(operation()));
+        Assert.assertEquals(1, client.getConnectionCount());
+
+        // A busy connection leads to a new one while below the cap
+        final PooledModelControllerClient.Connection second = client.acquire(operation());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, client.getConnectionCount());
+
+        // At the cap the least loaded connection is shared
+        Assert.assertSame(first, client.acquire(operation()));
+        Assert.assertSame(second, client.acquire(operation()));
+        client.release(first);
+        client.release(first);
+        Assert.assertSame(first, client.acquire(operation()));
+        Assert.assertEquals(2, client.getConnectionCount());
+        Assert.assertEquals(1, first.getInFlight());
+        Assert.assertEquals(2, second.getInFlight());
+    }
+
+    @Test
+    public void testUploadDedication() {
+        client = createClient(2, 1, TimeUnit.MINUTES);
+        final PooledModelControllerClient.Connection upload = client.acquire(upload());
+        Assert.assertTrue(upload.isDedicated());
+
+        // Other operations avoid the connection carrying the upload
+        final PooledModelControllerClient.Connection other = client.acquire(operation());
+        Assert.assertNotSame(upload, other);
+        Assert.assertFalse(other.isDedicated());
+        Assert.assertSame(other, client.acquire(operation()));
+        Assert.assertEquals(1, upload.getInFlight());
+
+        // Once idle the connection can be used by any operation again
+        client.release(upload);
+        Assert.assertFalse(upload.isDedicated());
+        Assert.assertSame(upload, client.acquire(operation()));
+    }
+
+    @Test
+    public void testConnectionsBoundedWhenAllCarryUploads() {
+        client = createClient(2, 1, TimeUnit.MINUTES);
+        final PooledModelControllerClient.Connection first = client.acquire(upload());
+        final PooledModelControllerClient.Connection second = client.acquire(upload());
+        Assert.assertNotSame(first, second);
+
+        // Neither further uploads nor other operations open a connection beyond the cap
+        for (int i = 0; i < 4; i++) {
+            client.acquire(i % 2 == 0 ? upload() : operation());
+        }
+        Assert.assertEquals(2, client.getConnectionCount());
+        Assert.assertEquals(3, first.getInFlight());
+        Assert.assertEquals(3, second.getInFlight());
+    }
+
+    @Test
+    public void testLeaseRelease() throws IOException {
+        client = createClient(1, 1, TimeUnit.MINUTES);
+        final PooledModelControllerClient.Connection connection = client.acquire(operation());
+
+        // A response without streams releases the connection straight away
+        final OperationResponse simple = OperationResponse.Factory.createSimple(new ModelNode());
+        Assert.assertSame(simple, client.new Lease(connection).attach(simple));
+        Assert.assertEquals(0, connection.getInFlight());
+
+        // A response with streams keeps the connection busy until it is closed, however often it is attached
+        client.acquire(operation());
+        final PooledModelControllerClient.Lease lease = client.new Lease(connection);
+        final OperationResponse leased = lease.attach(new StreamingResponse());
+        Assert.assertSame(leased, lease.attach(new StreamingResponse()));
+        Assert.assertEquals(1, connection.getInFlight());
+        leased.close();
+        Assert.assertEquals(0, connection.getInFlight());
+        // Releasing again has no effect
+        lease.release();
+        leased.close();
+        Assert.assertEquals(0, connection.getInFlight());
+    }
+
+    @Test
+    public void testIdleConnectionsClosed() throws InterruptedException {
+        client = createClient(3, 10, TimeUnit.MILLISECONDS);
+        final PooledModelControllerClient.Connection first = client.acquire(operation());
+        final PooledModelControllerClient.Connection second = client.acquire(operation());
+        final PooledModelControllerClient.Connection third = client.acquire(operation());
+        Assert.assertEquals(3, client.getConnectionCount());
+        client.release(second);
+        client.release(third);
+        Thread.sleep(50);
+
+        // The idle connections are closed while the busy one is kept, so the operation needs a new connection
+        client.release(client.acquire(operation()));
+        Assert.assertEquals(2, client.getConnectionCount());
+        Assert.assertEquals(1, first.getInFlight());
+
+        // Once all are idle, the last connection is kept
+        client.release(first);
+        Thread.sleep(50);
+        client.release(client.acquire(operation()));
+        Assert.assertEquals(1, client.getConnectionCount());
+    }
+
+    private static PooledModelControllerClient createClient(final int maxConnections, final long idleTimeout, final TimeUnit unit) {
+        final ModelControllerClientConfiguration configuration = new ModelControllerClientConfiguration.Builder()
+                .setHostName("localhost")
+                .setPort(9990)
+                .build();
+        return new PooledModelControllerClient(configuration, maxConnections, idleTimeout, unit);
+    }
+
+    private static Operation operation() {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("read-resource");
+        operation.get("address").setEmptyList();
+        return OperationBuilder.create(operation).build();
+    }
+
+    private static Operation upload() {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("upload-deployment-stream");
+        operation.get("address").setEmptyList();
+        return OperationBuilder.create(operation).addInputStream(new ByteArrayInputStream(new byte[16])).build();
+    }
+
+    private static final class StreamingResponse implements OperationResponse {
+
+        private final StreamEntry entry = new StreamEntry() {
+            @Override
+            public String getUUID() {
+                return "uuid";
+            }
+
+            @Override
+            public String getMimeType() {
+                return "application/octet-stream";
+            }
+
+            @Override
+            public InputStream getStream() {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        @Override
+        public ModelNode getResponseNode() {
+            return new ModelNode();
+        }
+
+        @Override
+        public List<StreamEntry> getInputStreams() {
+            return Collections.singletonList(entry);
+        }
+
+        @Override
+        public StreamEntry getInputStream(final String uuid) {
+            return entry.getUUID().equals(uuid) ? entry : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -52,6 +52,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -268,6 +269,12 @@ public abstract class AbstractControllerService implements Service<ModelControll
         final Thread bootThread = new Thread(null, new Runnable() {
             public void run() {
                 try {
+                    final ServiceListener<Object> timelineListener = BootTimeline.isEnabled() ? BootTimeline.createServiceListener() : null;
+                    BootTimeline.begin();
+                    if (timelineListener != null) {
+                        target.addListener(timelineListener);
+                    }
+                    final long bootStart = BootTimeline.start();
                     try {
                         boot(new BootContext() {
                             public ServiceTarget getServiceTarget() {
@@ -276,6 +283,11 @@ public abstract class AbstractControllerService implements Service<ModelControll
                         });
                     } finally {
                         processState.setRunning();
+                        BootTimeline.record("boot", "boot", bootStart);
+                        BootTimeline.complete();
+                        if (timelineListener != null) {
+                            target.removeListener(timelineListener);
+                        }
                     }
                 } catch (Throwable t) {
                     container.shutdown();
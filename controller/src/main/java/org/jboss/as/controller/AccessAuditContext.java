@@ -39,9 +39,11 @@ public class AccessAuditContext {
 
     private String domainUuid;
     private AccessMechanism accessMechanism;
+    private final boolean domainRollout;
 
-    private AccessAuditContext() {
+    private AccessAuditContext(final boolean domainRollout) {
         // This can only be instantiated as part of the doAs call.
+        this.domainRollout = domainRollout;
     }
 
     public String getDomainUuid() {
@@ -60,6 +62,16 @@ public class AccessAuditContext {
         this.accessMechanism = accessMechanism;
     }
 
+    /**
+     * Gets whether the current invocation is part of an operation being rolled out through the domain by another
+     * process, rather than a request made by a user of this process.
+     *
+     * @return {@code true} if the invocation is part of a domain rollout
+     */
+    public boolean isDomainRollout() {
+        return domainRollout;
+    }
+
     /**
      * Obtain the current {@link AccessAuditContext} or {@code null} if none currently set.
      *
@@ -75,9 +87,23 @@ public class AccessAuditContext {
     }
 
     public static <T> T doAs(final Subject subject, final java.security.PrivilegedAction<T> action) {
+        return doAs(subject, action, false);
+    }
+
+    /**
+     * Runs an action with a new {@link AccessAuditContext}, marking whether the action executes an operation being
+     * rolled out through the domain.
+     *
+     * @param subject the subject the action runs as
+     * @param action the action
+     * @param domainRollout {@code true} if the action executes an operation rolled out through the domain by another
+     *                      process
+     * @return the result of the action
+     */
+    public static <T> T doAs(final Subject subject, final java.security.PrivilegedAction<T> action, final boolean domainRollout) {
         final AccessAuditContext previous = contextThreadLocal.get();
         try {
-            contextThreadLocal.set(new AccessAuditContext());
+            contextThreadLocal.set(new AccessAuditContext(domainRollout));
             return Subject.doAs(subject, action);
         } finally {
             contextThreadLocal.set(previous);
@@ -88,7 +114,7 @@ public class AccessAuditContext {
             throws java.security.PrivilegedActionException {
         final AccessAuditContext previous = contextThreadLocal.get();
         try {
-            contextThreadLocal.set(new AccessAuditContext());
+            contextThreadLocal.set(new AccessAuditContext(false));
             return Subject.doAs(subject, action);
         } finally {
             contextThreadLocal.set(previous);
@@ -169,17 +169,13 @@ public abstract class AttributeDefinition {
                                 boolean resourceOnly, DeprecationData deprecationData, final List<AccessConstraintDefinition> accessConstraints,
                                 Boolean nilSignificant, AttributeParser parser, final String attributeGroup, ModelNode[] allowedValues, final EnumSet<AttributeAccess.Flag> flags) {
 
-        this.name = name;
-        this.xmlName = xmlName == null ? name : xmlName;
+        this.name = ModelCompaction.intern(name);
+        this.xmlName = xmlName == null ? this.name : ModelCompaction.intern(xmlName);
         this.type = type;
         this.allowNull = allowNull;
         this.allowExpression = allowExpression;
         this.parser = parser != null ? parser : AttributeParser.SIMPLE;
-        this.defaultValue = new ModelNode();
-        if (defaultValue != null) {
-            this.defaultValue.set(defaultValue);
-        }
-        this.defaultValue.protect();
+        this.defaultValue = ModelCompaction.immutableCopy(defaultValue);
         this.measurementUnit = measurementUnit;
         this.alternatives = alternatives;
         this.requires = requires;
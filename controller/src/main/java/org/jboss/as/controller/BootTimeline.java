@@ -0,0 +1,258 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Records a timeline of the work done while the process boots, e.g. configuration parsing, extension
+ * initialization, boot operation execution, service starts and deployment unit processing.
+ * <p>
+ * Recording is disabled unless the {@code jboss.boot.timeline} system property is set to {@code true}. When disabled
+ * the cost of the instrumentation is a single static field check per instrumented call site. When enabled, events
+ * are only recorded between {@link #begin()} and {@link #complete()}, so the amount of memory retained is bounded
+ * by the work done during boot.
+ * </p>
+ */
+public final class BootTimeline {
+
+    /**
+     * System property used to enable recording of the boot timeline.
+     */
+    public static final String ENABLED_PROPERTY = "jboss.boot.timeline";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "false"));
+
+    private static final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<Event>();
+    private static volatile long origin = System.nanoTime();
+    private static volatile boolean recording;
+
+    private BootTimeline() {
+    }
+
+    /**
+     * Gets whether recording of the boot timeline has been enabled for this process.
+     *
+     * @return {@code true} if enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Gets whether events are currently being recorded.
+     *
+     * @return {@code true} if recording is enabled and the process is booting
+     */
+    public static boolean isRecording() {
+        return ENABLED && recording;
+    }
+
+    /**
+     * Discards any previously recorded events and starts recording, if recording is enabled.
+     */
+    public static void begin() {
+        if (ENABLED) {
+            events.clear();
+            origin = System.nanoTime();
+            recording = true;
+        }
+    }
+
+    /**
+     * Stops recording. Events recorded so far are retained until the next call to {@link #begin()}.
+     */
+    public static void complete() {
+        recording = false;
+    }
+
+    /**
+     * Gets the timestamp to pass to {@link #record(String, String, long)} once the work being timed completes.
+     *
+     * @return the current value of {@link System#nanoTime()}, or {@code 0} if events are not being recorded
+     */
+    public static long start() {
+        return isRecording() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records an event that started at {@code startNanos} and ends now.
+     *
+     * @param category the kind of work, e.g. {@code extension} or {@code service}. Cannot be {@code null}
+     * @param name the name of the unit of work. Cannot be {@code null}
+     * @param startNanos the value returned by {@link #start()} when the work began
+     */
+    public static void record(final String category, final String name, final long startNanos) {
+        if (isRecording() && startNanos != 0L) {
+            final Thread thread = Thread.currentThread();
+            events.add(new Event(category, name, thread.getName(), thread.getId(), startNanos, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Creates a listener that records the time each service it is added to takes to start, while events are being
+     * recorded. Once recording completes the listener removes itself from any service that it is notified about.
+     *
+     * @return the listener. Will not be {@code null}
+     */
+    public static ServiceListener<Object> createServiceListener() {
+        return new ServiceStartListener();
+    }
+
+    /**
+     * Gets the recorded events, ordered by their start time.
+     *
+     * @return the events. Will not be {@code null}
+     */
+    public static List<Event> getEvents() {
+        final List<Event> result = new ArrayList<Event>(events);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Gets the recorded events as a list of {@code ModelNode}s of type object.
+     *
+     * @return the events. Will not be {@code null}
+     */
+    public static ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        final long base = origin;
+        for (Event event : getEvents()) {
+            final ModelNode node = result.add();
+            node.get("category").set(event.category);
+            node.get("name").set(event.name);
+            node.get("thread").set(event.threadName);
+            node.get("start").set(TimeUnit.NANOSECONDS.toMillis(event.startNanos - base));
+            node.get("duration").set(TimeUnit.NANOSECONDS.toMillis(event.getDurationNanos()));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the recorded events in the Chrome trace event format, suitable for loading into {@code chrome://tracing}.
+     *
+     * @return the JSON representation of the events. Will not be {@code null}
+     */
+    public static String toChromeTrace() {
+        final ModelNode trace = new ModelNode();
+        final ModelNode traceEvents = trace.get("traceEvents").setEmptyList();
+        final long base = origin;
+        for (Event event : getEvents()) {
+            final ModelNode node = traceEvents.add();
+            node.get("name").set(event.name);
+            node.get("cat").set(event.category);
+            node.get("ph").set("X");
+            node.get("ts").set(TimeUnit.NANOSECONDS.toMicros(event.startNanos - base));
+            node.get("dur").set(TimeUnit.NANOSECONDS.toMicros(event.getDurationNanos()));
+            node.get("pid").set(1);
+            node.get("tid").set(event.threadId);
+            node.get("args", "thread").set(event.threadName);
+        }
+        trace.get("displayTimeUnit").set("ms");
+        return trace.toJSONString(true);
+    }
+
+    private static final class ServiceStartListener extends AbstractServiceListener<Object> {
+
+        private final ConcurrentMap<ServiceController<?>, Long> starting = new ConcurrentHashMap<ServiceController<?>, Long>();
+
+        @Override
+        public void transition(ServiceController<?> controller, ServiceController.Transition transition) {
+            if (!isRecording()) {
+                starting.remove(controller);
+                controller.removeListener(this);
+                return;
+            }
+            switch (transition) {
+                case START_INITIATED_to_STARTING:
+                    starting.put(controller, System.nanoTime());
+                    break;
+                case STARTING_to_UP:
+                case STARTING_to_START_FAILED: {
+                    Long start = starting.remove(controller);
+                    if (start != null) {
+                        record("service", controller.getName().getCanonicalName(), start);
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * A unit of work recorded in the boot timeline.
+     */
+    public static final class Event implements Comparable<Event> {
+        private final String category;
+        private final String name;
+        private final String threadName;
+        private final long threadId;
+        private final long startNanos;
+        private final long endNanos;
+
+        private Event(String category, String name, String threadName, long threadId, long startNanos, long endNanos) {
+            this.category = category;
+            this.name = name;
+            this.threadName = threadName;
+            this.threadId = threadId;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        @Override
+        public int compareTo(Event o) {
+            return Long.compare(startNanos, o.startNanos);
+        }
+    }
+}
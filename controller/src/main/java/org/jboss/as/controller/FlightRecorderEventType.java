@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+
+/**
+ * A Java Flight Recorder event type whose events carry a fixed set of string fields.
+ * <p>
+ * The type is defined at runtime through the {@code jdk.jfr.EventFactory} API, which is looked up reflectively so
+ * this class can be used on JVMs without that API. On such JVMs, or if the type cannot be registered, {@link #begin()}
+ * always returns {@code null} and the remaining methods do nothing. When the API is available the event type is
+ * disabled unless a flight recording that enables it is running. Whether it is enabled is checked reflectively at
+ * most once a second, so while it is disabled the cost of {@link #begin()} is reading the clock, and a recording
+ * that enables it records its events after up to a second.
+ * </p>
+ * <p>
+ * Typical usage is:
+ * <pre>
+ * final Object event = TYPE.begin();
+ * try {
+ *     ... the work to be timed ...
+ * } finally {
+ *     TYPE.commit(event, value1, value2);
+ * }
+ * </pre>
+ * </p>
+ */
+public final class FlightRecorderEventType {
+
+    private static final String CATEGORY = "WildFly";
+
+    /** How long the enabled state of an event type is cached, in nanoseconds. */
+    static final long ENABLED_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Support SUPPORT = Support.create();
+
+    /** A management operation, from the time it is submitted until its response is available. */
+    public static final FlightRecorderEventType MANAGEMENT_OPERATION = new FlightRecorderEventType("org.jboss.as.ManagementOperation",
+            "Management Operation", "operation", "address", "outcome");
+
+    /** The time a management operation spent waiting to acquire the exclusive controller lock. */
+    public static final FlightRecorderEventType CONTROLLER_LOCK_WAIT = new FlightRecorderEventType("org.jboss.as.ControllerLockWait",
+            "Controller Lock Wait", "operation");
+
+    private final Object factory;
+    private final Object eventType;
+    // Races between threads refreshing the cached state are harmless, as they all store the current state
+    private volatile boolean enabled;
+    private volatile long nextEnabledCheck;
+
+    /**
+     * Creates and registers an event type.
+     *
+     * @param name the fully qualified name of the event type. Cannot be {@code null}
+     * @param label the human readable label of the event type. Cannot be {@code null}
+     * @param fields the names of the string fields of each event, in the order in which their values are passed to
+     *               {@link #commit(Object, String...)}
+     */
+    public FlightRecorderEventType(final String name, final String label, final String... fields) {
+        Object factory = null;
+        Object eventType = null;
+        if (SUPPORT != null) {
+            try {
+                factory = SUPPORT.createFactory(name, label, fields);
+                eventType = SUPPORT.getEventType.invoke(factory);
+            } catch (Throwable t) {
+                ControllerLogger.ROOT_LOGGER.debugf(t, "Cannot register flight recorder event type %s", name);
+                factory = null;
+                eventType = null;
+            }
+        }
+        this.factory = factory;
+        this.eventType = eventType;
+        if (eventType != null) {
+            checkEnabled(System.nanoTime());
+        }
+    }
+
+    /**
+     * Gets whether the flight recorder event API is available in this JVM.
+     *
+     * @return {@code true} if events can be recorded
+     */
+    public static boolean isAvailable() {
+        return SUPPORT != null;
+    }
+
+    /**
+     * Starts timing an event, if the event type is enabled in a running recording.
+     *
+     * @return the event to pass to {@link #commit(Object, String...)}, or {@code null} if the event is not recorded
+     */
+    public Object begin() {
+        if (eventType == null || !isEnabled()) {
+            return null;
+        }
+        try {
+            final Object event = SUPPORT.newEvent.invoke(factory);
+            SUPPORT.begin.invoke(event);
+            return event;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private boolean isEnabled() {
+        final long now = System.nanoTime();
+        if (now - nextEnabledCheck < 0) {
+            return enabled;
+        }
+        return checkEnabled(now);
+    }
+
+    private boolean checkEnabled(final long now) {
+        boolean enabled;
+        try {
+            enabled = (Boolean) SUPPORT.isEnabled.invoke(eventType);
+        } catch (Throwable t) {
+            enabled = false;
+        }
+        this.enabled = enabled;
+        nextEnabledCheck = now + ENABLED_CHECK_INTERVAL;
+        return enabled;
+    }
+
+    /**
+     * Ends timing an event and commits it with the given field values.
+     *
+     * @param event the event returned by {@link #begin()}. May be {@code null}, in which case nothing is done
+     * @param values the field values, in the order in which the fields were passed to the constructor
+     */
+    public void commit(final Object event, final String... values) {
+        if (event == null) {
+            return;
+        }
+        try {
+            SUPPORT.end.invoke(event);
+            if ((Boolean) SUPPORT.shouldCommit.invoke(event)) {
+                for (int i = 0; i < values.length; i++) {
+                    SUPPORT.set.invoke(event, i, values[i]);
+                }
+                SUPPORT.commit.invoke(event);
+            }
+        } catch (Throwable t) {
+            // The event is lost, which is not worth failing the work that was timed
+        }
+    }
+
+    /**
+     * Reflective access to {@code jdk.jfr}.
+     */
+    private static final class Support {
+
+        private final Constructor<?> annotationElement;
+        private final Constructor<?> valueDescriptor;
+        private final Class<?> nameAnnotation;
+        private final Class<?> labelAnnotation;
+        private final Class<?> categoryAnnotation;
+        private final Method create;
+        private final Method getEventType;
+        private final Method isEnabled;
+        private final Method newEvent;
+        private final Method begin;
+        private final Method end;
+        private final Method shouldCommit;
+        private final Method set;
+        private final Method commit;
+
+        private Support() throws ReflectiveOperationException {
+            // jdk.jfr is not necessarily visible from module class loaders
+            final ClassLoader loader = ClassLoader.getSystemClassLoader();
+            final Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", false, loader);
+            final Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory", false, loader);
+            final Class<?> eventClass = Class.forName("jdk.jfr.Event", false, loader);
+            annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+            valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor", false, loader).getConstructor(Class.class, String.class);
+            nameAnnotation = Class.forName("jdk.jfr.Name", false, loader);
+            labelAnnotation = Class.forName("jdk.jfr.Label", false, loader);
+            categoryAnnotation = Class.forName("jdk.jfr.Category", false, loader);
+            create = eventFactoryClass.getMethod("create", List.class, List.class);
+            getEventType = eventFactoryClass.getMethod("getEventType");
+            isEnabled = Class.forName("jdk.jfr.EventType", false, loader).getMethod("isEnabled");
+            newEvent = eventFactoryClass.getMethod("newEvent");
+            begin = eventClass.getMethod("begin");
+            end = eventClass.getMethod("end");
+            shouldCommit = eventClass.getMethod("shouldCommit");
+            set = eventClass.getMethod("set", int.class, Object.class);
+            commit = eventClass.getMethod("commit");
+        }
+
+        static Support create() {
+            try {
+                return new Support();
+            } catch (Throwable t) {
+                // No flight recorder event API in this JVM
+                return null;
+            }
+        }
+
+        Object createFactory(final String name, final String label, final String... fields) throws ReflectiveOperationException {
+            final List<Object> annotations = Arrays.asList(
+                    annotationElement.newInstance(nameAnnotation, name),
+                    annotationElement.newInstance(labelAnnotation, label),
+                    annotationElement.newInstance(categoryAnnotation, new String[] {CATEGORY}));
+            final List<Object> descriptors = new ArrayList<Object>(fields.length);
+            for (String field : fields) {
+                descriptors.add(valueDescriptor.newInstance(String.class, field));
+            }
+            return create.invoke(null, annotations, descriptors);
+        }
+    }
+}
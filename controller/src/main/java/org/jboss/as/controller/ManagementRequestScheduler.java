@@ -0,0 +1,272 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REDEPLOY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELOAD_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLACE_DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESTART_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SHUTDOWN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.START_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STOP_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEPLOY;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Admits management requests from external callers to the {@link ModelControllerImpl} according to their
+ * {@link PriorityClass priority class}.
+ * <p>
+ * Each class has its own concurrency limit, so requests in one class never queue behind requests in another. By
+ * default reads are never limited, writes are only limited by the controller lock, and at most one bulk request
+ * (a deployment change) executes at a time. The limits can be changed with the
+ * {@code jboss.as.management.scheduler.<class>.max-concurrent} system properties, where a value of {@code 0} or less
+ * means unlimited. A request waits for admission no longer than its blocking timeout.
+ * </p>
+ * <p>
+ * Process and server lifecycle operations, e.g. {@code reload} and {@code shutdown}, are never scheduled, so they
+ * cannot wait behind the requests they are meant to interrupt.
+ * </p>
+ * <p>
+ * The time requests spend queued for admission is tracked per class and exposed via {@link #toModelNode()}.
+ * </p>
+ */
+final class ManagementRequestScheduler {
+
+    /**
+     * Prefix of the system properties used to configure the concurrency limit of each priority class.
+     */
+    static final String PROPERTY_PREFIX = "jboss.as.management.scheduler.";
+
+    /**
+     * The priority classes of management requests, in order of increasing cost.
+     */
+    enum PriorityClass {
+        /** Read-only requests, e.g. health checks and metrics polling */
+        READ(0),
+        /** Requests that modify the model */
+        WRITE(0),
+        /** Requests that deploy, undeploy or replace deployments */
+        BULK(1);
+
+        private final String localName;
+        private final int defaultMaxConcurrent;
+
+        PriorityClass(int defaultMaxConcurrent) {
+            this.localName = name().toLowerCase(Locale.ENGLISH);
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+        }
+
+        String getLocalName() {
+            return localName;
+        }
+    }
+
+    private static final Set<String> BULK_OPERATIONS = new HashSet<String>(Arrays.asList(DEPLOY, REDEPLOY, UNDEPLOY,
+            FULL_REPLACE_DEPLOYMENT, REPLACE_DEPLOYMENT));
+
+    private static final Set<String> LIFECYCLE_OPERATIONS = new HashSet<String>(Arrays.asList("reload", SHUTDOWN,
+            RELOAD_SERVERS, RESTART_SERVERS, START_SERVERS, STOP_SERVERS));
+
+    private final ClassQueue[] queues;
+
+    ManagementRequestScheduler() {
+        final PriorityClass[] classes = PriorityClass.values();
+        queues = new ClassQueue[classes.length];
+        for (PriorityClass priorityClass : classes) {
+            final String property = PROPERTY_PREFIX + priorityClass.getLocalName() + ".max-concurrent";
+            final String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+            int maxConcurrent = priorityClass.defaultMaxConcurrent;
+            if (value != null) {
+                try {
+                    maxConcurrent = Integer.parseInt(value.trim());
+                } catch (NumberFormatException e) {
+                    ControllerLogger.ROOT_LOGGER.invalidSchedulerLimit(value, property, maxConcurrent);
+                }
+            }
+            queues[priorityClass.ordinal()] = new ClassQueue(maxConcurrent);
+        }
+    }
+
+    /**
+     * Determines the priority class of a request.
+     *
+     * @param operation the request. Cannot be {@code null}
+     * @param rootRegistration the root resource registration used to look up the flags of the operation
+     * @return the priority class, or {@code null} if the request is a lifecycle operation that must not be scheduled
+     */
+    static PriorityClass classify(final ModelNode operation, final ImmutableManagementResourceRegistration rootRegistration) {
+        final String operationName = operation.hasDefined(OP) ? operation.get(OP).asString() : null;
+        if (operationName == null) {
+            return PriorityClass.WRITE;
+        }
+        if (LIFECYCLE_OPERATIONS.contains(operationName)) {
+            return null;
+        }
+        if (BULK_OPERATIONS.contains(operationName)) {
+            return PriorityClass.BULK;
+        }
+        final PathAddress address;
+        try {
+            address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        } catch (IllegalArgumentException e) {
+            return PriorityClass.WRITE;
+        }
+        if (COMPOSITE.equals(operationName) && address.size() == 0) {
+            PriorityClass result = PriorityClass.READ;
+            if (operation.hasDefined(STEPS)) {
+                for (ModelNode step : operation.get(STEPS).asList()) {
+                    final PriorityClass stepClass = classify(step, rootRegistration);
+                    if (stepClass == null) {
+                        return null;
+                    }
+                    if (stepClass.compareTo(result) > 0) {
+                        result = stepClass;
+                    }
+                }
+            }
+            return result;
+        }
+        if ((ADD.equals(operationName) || REMOVE.equals(operationName))
+                && address.size() > 0 && DEPLOYMENT.equals(address.getLastElement().getKey())) {
+            return PriorityClass.BULK;
+        }
+        final Set<OperationEntry.Flag> flags = rootRegistration.getOperationFlags(address, operationName);
+        return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY) ? PriorityClass.READ : PriorityClass.WRITE;
+    }
+
+    /**
+     * Waits until a request of the given class may execute.
+     *
+     * @param priorityClass the class of the request
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return {@code true} if the request was admitted, {@code false} if the timeout expired first. The request must
+     *         not execute unless it was admitted
+     * @throws InterruptedException if the thread is interrupted while waiting. The request must not execute
+     */
+    boolean acquire(final PriorityClass priorityClass, final long timeout) throws InterruptedException {
+        return queues[priorityClass.ordinal()].acquire(timeout);
+    }
+
+    /**
+     * Records that a request admitted by {@link #acquire(PriorityClass, long)} has completed.
+     *
+     * @param priorityClass the class of the request
+     */
+    void release(final PriorityClass priorityClass) {
+        queues[priorityClass.ordinal()].release();
+    }
+
+    /**
+     * Gets the limits and queueing statistics of each priority class.
+     *
+     * @return a list of {@code ModelNode}s of type object, one per priority class
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (PriorityClass priorityClass : PriorityClass.values()) {
+            final ClassQueue queue = queues[priorityClass.ordinal()];
+            final ModelNode node = result.add();
+            node.get("priority-class").set(priorityClass.getLocalName());
+            node.get("max-concurrent").set(queue.maxConcurrent);
+            node.get("active").set(queue.active.get());
+            node.get("queued").set(queue.queued.get());
+            node.get("completed").set(queue.completed.get());
+            node.get("timed-out").set(queue.timedOut.get());
+            node.get("total-queue-time").set(queue.totalQueueTime.get());
+            node.get("max-queue-time").set(queue.maxQueueTime.get());
+        }
+        return result;
+    }
+
+    private static final class ClassQueue {
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final AtomicLong totalQueueTime = new AtomicLong();
+        private final AtomicLong maxQueueTime = new AtomicLong();
+
+        private ClassQueue(final int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : 0;
+            this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        }
+
+        private boolean acquire(final long timeout) throws InterruptedException {
+            if (permits != null) {
+                final long start = System.nanoTime();
+                queued.incrementAndGet();
+                final boolean acquired;
+                try {
+                    acquired = permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+                } finally {
+                    queued.decrementAndGet();
+                }
+                if (!acquired) {
+                    timedOut.incrementAndGet();
+                    return false;
+                }
+                final long waited = System.nanoTime() - start;
+                totalQueueTime.addAndGet(waited);
+                long max;
+                do {
+                    max = maxQueueTime.get();
+                } while (waited > max && !maxQueueTime.compareAndSet(max, waited));
+            }
+            active.incrementAndGet();
+            return true;
+        }
+
+        private void release() {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Support for reducing the heap retained by the management model's metadata, e.g. {@link AttributeDefinition}s,
+ * by sharing equal immutable values.
+ * <p>
+ * Every attribute definition holds its own protected default value, and many subsystems define attributes with
+ * the same names and the same defaults. When the {@code jboss.as.management.compact-model} system property is set to
+ * {@code true}, such values are canonicalized so a single instance is retained for all equal values. This is off by
+ * default, as canonicalization costs a lookup per definition when the model is built.
+ * </p>
+ */
+public final class ModelCompaction {
+
+    /**
+     * System property used to enable compaction.
+     */
+    public static final String COMPACT_MODEL_PROPERTY = "jboss.as.management.compact-model";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(COMPACT_MODEL_PROPERTY, "false"));
+
+    /** Shared by all definitions without a default value, whether or not compaction is enabled. */
+    private static final ModelNode UNDEFINED = protect(new ModelNode());
+
+    private static final ConcurrentMap<ModelNode, ModelNode> nodes = new ConcurrentHashMap<ModelNode, ModelNode>();
+    private static final ConcurrentMap<String, String> strings = new ConcurrentHashMap<String, String>();
+
+    private ModelCompaction() {
+    }
+
+    /**
+     * Gets whether compaction is enabled for this process.
+     *
+     * @return {@code true} if enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Gets the number of distinct values currently shared through compaction.
+     *
+     * @return the number of values
+     */
+    public static int getSharedValueCount() {
+        return nodes.size() + strings.size();
+    }
+
+    /**
+     * Gets a protected copy of the given value, which may be shared with other callers.
+     *
+     * @param value the value. May be {@code null}, which is treated as an undefined value
+     * @return an immutable node equal to {@code value}. Will not be {@code null}
+     */
+    static ModelNode immutableCopy(final ModelNode value) {
+        if (value == null || !value.isDefined()) {
+            return UNDEFINED;
+        }
+        final ModelNode copy = protect(value.clone());
+        if (!ENABLED || !isSimple(copy)) {
+            return copy;
+        }
+        final ModelNode existing = nodes.putIfAbsent(copy, copy);
+        return existing == null ? copy : existing;
+    }
+
+    /**
+     * Gets a canonical instance of the given string, if compaction is enabled.
+     *
+     * @param value the string. May be {@code null}
+     * @return an equal string, or {@code null} if {@code value} is {@code null}
+     */
+    static String intern(final String value) {
+        if (!ENABLED || value == null) {
+            return value;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    private static ModelNode protect(final ModelNode node) {
+        node.protect();
+        return node;
+    }
+
+    /** Only values without children are shared, to keep lookups cheap and the cache small. */
+    private static boolean isSimple(final ModelNode node) {
+        final ModelType type = node.getType();
+        return type != ModelType.LIST && type != ModelType.OBJECT && type != ModelType.PROPERTY;
+    }
+}
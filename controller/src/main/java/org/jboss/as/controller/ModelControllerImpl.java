@@ -39,6 +39,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPE
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_SCHEDULING;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
@@ -150,6 +151,7 @@ class ModelControllerImpl implements ModelController {
     private final HostServerGroupTracker hostServerGroupTracker;
     private final Resource.ResourceEntry modelControllerResource;
     private final OperationStepHandler extraValidationStepHandler;
+    private final ManagementRequestScheduler requestScheduler = new ManagementRequestScheduler();
 
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget,
@@ -365,6 +367,10 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        // Only requests from external callers are scheduled; internal callers may already be executing within
+        // an admitted request, and requests rolled out through the domain were admitted where they originated
+        final ManagementRequestScheduler.PriorityClass priorityClass = accessMechanism == null || accessContext.isDomainRollout() ? null
+                : ManagementRequestScheduler.classify(operation, managementModel.get().getRootResourceRegistration());
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
@@ -377,10 +383,25 @@ class ModelControllerImpl implements ModelController {
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
                 CurrentOperationIdHolder.setCurrentOperationID(operationID);
+                final Object operationEvent = FlightRecorderEventType.MANAGEMENT_OPERATION.begin();
+                boolean admitted = false;
                 boolean shouldUnlock = false;
                 try {
+                    if (priorityClass != null) {
+                        if (!admit(priorityClass, blockingTimeoutConfig, responseNode)) {
+                            return OperationResponse.Factory.createSimple(responseNode);
+                        }
+                        admitted = true;
+                    }
                     if (attemptLock) {
-                        if (!controllerLock.detectDeadlockAndGetLock(operationID)) {
+                        final Object lockEvent = FlightRecorderEventType.CONTROLLER_LOCK_WAIT.begin();
+                        final boolean locked;
+                        try {
+                            locked = controllerLock.detectDeadlockAndGetLock(operationID);
+                        } finally {
+                            FlightRecorderEventType.CONTROLLER_LOCK_WAIT.commit(lockEvent, context.getOperationName());
+                        }
+                        if (!locked) {
                             responseNode.get(OUTCOME).set(FAILED);
                             responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.cannotGetControllerLock());
                             return OperationResponse.Factory.createSimple(responseNode);
@@ -408,8 +429,16 @@ class ModelControllerImpl implements ModelController {
                     if (shouldUnlock) {
                         controllerLock.unlock(operationID);
                     }
+                    if (admitted) {
+                        requestScheduler.release(priorityClass);
+                    }
                     activeOperations.remove(operationID);
                     CurrentOperationIdHolder.setCurrentOperationID(null);
+                    if (operationEvent != null) {
+                        FlightRecorderEventType.MANAGEMENT_OPERATION.commit(operationEvent, context.getOperationName(),
+                                operation.get(OP_ADDR).asString(),
+                                responseNode.hasDefined(OUTCOME) ? responseNode.get(OUTCOME).asString() : null);
+                    }
                 }
                 break;
             }
@@ -421,6 +450,36 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Waits until the request scheduler admits a request of the given priority class, for no longer than the
+     * blocking timeout of the request.
+     *
+     * @return {@code true} if the request was admitted; otherwise the failure is recorded in {@code responseNode}
+     */
+    private boolean admit(final ManagementRequestScheduler.PriorityClass priorityClass, final ModelNode blockingTimeoutConfig,
+                          final ModelNode responseNode) {
+        final long timeout;
+        try {
+            timeout = new BlockingTimeout(blockingTimeoutConfig).getBlockingTimeout();
+        } catch (IllegalStateException e) {
+            responseNode.get(OUTCOME).set(FAILED);
+            responseNode.get(FAILURE_DESCRIPTION).set(e.getLocalizedMessage());
+            return false;
+        }
+        try {
+            if (requestScheduler.acquire(priorityClass, timeout)) {
+                return true;
+            }
+            responseNode.get(OUTCOME).set(FAILED);
+            responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.operationSchedulingTimeout(timeout, priorityClass.getLocalName()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            responseNode.get(OUTCOME).set(FAILED);
+            responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.operationSchedulingInterrupted(priorityClass.getLocalName()));
+        }
+        return false;
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -454,7 +513,9 @@ class ModelControllerImpl implements ModelController {
             for (ParsedBootOp initialOp : bootOperations.initialOps) {
                 context.addBootStep(initialOp);
             }
+            final long start = BootTimeline.start();
             resultAction = context.executeOperation();
+            BootTimeline.record("boot-operations", INITIAL_BOOT_OPERATION, start);
         }
         if (resultAction == OperationContext.ResultAction.KEEP && bootOperations.postExtensionOps != null) {
             // Success. Now any extension handlers are registered. Continue with remaining ops
@@ -480,7 +541,9 @@ class ModelControllerImpl implements ModelController {
                 }
             }
 
+            final long start = BootTimeline.start();
             resultAction = postExtContext.executeOperation();
+            BootTimeline.record("boot-operations", POST_EXTENSION_BOOT_OPERATION, start);
 
             if (!skipModelValidation && resultAction == OperationContext.ResultAction.KEEP && bootOperations.postExtensionOps != null) {
                 //Get the modified resources from the initial operations and add to the resources to be validated by the post operations
@@ -494,7 +557,9 @@ class ModelControllerImpl implements ModelController {
                                 bootingFlag.get(), hostServerGroupTracker, null, null, notificationSupport, false,
                                 extraValidationStepHandler);
                 validateContext.addModifiedResourcesForModelValidation(validateAddresses);
+                final long validateStart = BootTimeline.start();
                 resultAction = validateContext.executeOperation();
+                BootTimeline.record("boot-operations", "validate-model", validateStart);
             }
         }
 
@@ -792,22 +857,39 @@ class ModelControllerImpl implements ModelController {
     }
 
     void acquireLock(Integer permit, final boolean interruptibly) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lockInterruptibly(permit);
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            controllerLock.lock(permit);
+        final Object lockEvent = FlightRecorderEventType.CONTROLLER_LOCK_WAIT.begin();
+        try {
+            if (interruptibly) {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lockInterruptibly(permit);
+            } else {
+                //noinspection LockAcquiredButNotSafelyReleased
+                controllerLock.lock(permit);
+            }
+        } finally {
+            commitLockEvent(lockEvent, permit);
         }
     }
 
     boolean acquireLock(Integer permit, final boolean interruptibly, long timeout) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            return controllerLock.lockInterruptibly(permit, timeout, TimeUnit.SECONDS);
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            return controllerLock.lock(permit, timeout, TimeUnit.SECONDS);
+        final Object lockEvent = FlightRecorderEventType.CONTROLLER_LOCK_WAIT.begin();
+        try {
+            if (interruptibly) {
+                //noinspection LockAcquiredButNotSafelyReleased
+                return controllerLock.lockInterruptibly(permit, timeout, TimeUnit.SECONDS);
+            } else {
+                //noinspection LockAcquiredButNotSafelyReleased
+                return controllerLock.lock(permit, timeout, TimeUnit.SECONDS);
+            }
+        } finally {
+            commitLockEvent(lockEvent, permit);
+        }
+    }
+
+    private void commitLockEvent(final Object lockEvent, final Integer permit) {
+        if (lockEvent != null) {
+            final OperationContextImpl context = activeOperations.get(permit);
+            FlightRecorderEventType.CONTROLLER_LOCK_WAIT.commit(lockEvent, context == null ? null : context.getOperationName());
         }
     }
 
@@ -988,6 +1070,18 @@ class ModelControllerImpl implements ModelController {
             super(SERVICE, MANAGEMENT_OPERATIONS);
         }
 
+        @Override
+        public ModelNode getModel() {
+            final ModelNode model = new ModelNode();
+            model.get(REQUEST_SCHEDULING).set(requestScheduler.toModelNode());
+            return model;
+        }
+
+        @Override
+        public boolean isModelDefined() {
+            return true;
+        }
+
         @Override
         public boolean hasChild(PathElement element) {
             try {
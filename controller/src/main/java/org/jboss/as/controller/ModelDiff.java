@@ -0,0 +1,389 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Computes the operations that turn one management model into another.
+ * <p>
+ * Two {@link Resource} trees, or two {@code ModelNode} trees in the format produced by
+ * {@link Resource.Tools#readModel(Resource)}, are walked together depth first. For each resource found in both trees
+ * a {@code write-attribute} or {@code undefine-attribute} operation is produced for every attribute whose value
+ * differs, followed by a {@code remove} operation for each child resource only found in the original tree, then the
+ * operations for the children found in both trees, and finally an {@code add} operation for each child resource only
+ * found in the target tree, with its defined attributes as parameters, followed by the {@code add} operations for its
+ * own children. Only the root of a removed subtree is removed, as removing a resource removes its children. If the
+ * order of the children of an {@link Resource#getOrderedChildTypes() ordered child type} differs, or a child was
+ * added anywhere but at the end, all children of that type are removed and added again.
+ * </p>
+ * <p>
+ * Runtime and proxy resources are ignored. The operations are passed to an {@link OperationConsumer} as soon as they
+ * are determined, and neither tree is copied, so very large models can be compared without retaining the result;
+ * the methods returning a list are a convenience on top of that.
+ * </p>
+ */
+public final class ModelDiff {
+
+    /**
+     * Receives the operations produced by a comparison, in the order they should be executed.
+     */
+    public interface OperationConsumer {
+
+        /**
+         * Receives an operation.
+         *
+         * @param operation the operation. Ownership passes to the consumer
+         */
+        void accept(ModelNode operation);
+    }
+
+    private ModelDiff() {
+    }
+
+    /**
+     * Computes the operations that turn the {@code from} resource tree into the {@code to} resource tree.
+     *
+     * @param address the address of the root of both trees
+     * @param from the original tree, or {@code null} if it does not exist
+     * @param to the target tree, or {@code null} if it should not exist
+     * @return the operations. Will not be {@code null}
+     */
+    public static List<ModelNode> diff(final PathAddress address, final Resource from, final Resource to) {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        diff(address, from, to, new ListConsumer(operations));
+        return operations;
+    }
+
+    /**
+     * Passes the operations that turn the {@code from} resource tree into the {@code to} resource tree to
+     * {@code consumer}, as they are determined.
+     *
+     * @param address the address of the root of both trees
+     * @param from the original tree, or {@code null} if it does not exist
+     * @param to the target tree, or {@code null} if it should not exist
+     * @param consumer the consumer of the operations. Cannot be {@code null}
+     */
+    public static void diff(final PathAddress address, final Resource from, final Resource to, final OperationConsumer consumer) {
+        diff(address, from == null ? null : new ResourceNode(from), to == null ? null : new ResourceNode(to), consumer);
+    }
+
+    /**
+     * Computes the operations that turn the {@code from} model into the {@code to} model.
+     *
+     * @param address the address of the root of both models
+     * @param from the original model, or {@code null} if it does not exist
+     * @param to the target model, or {@code null} if it should not exist
+     * @param registration the registration of the resource at {@code address}, used to tell child resources from
+     *                     attributes. Cannot be {@code null}
+     * @return the operations. Will not be {@code null}
+     */
+    public static List<ModelNode> diff(final PathAddress address, final ModelNode from, final ModelNode to,
+                                       final ImmutableManagementResourceRegistration registration) {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        diff(address, from, to, registration, new ListConsumer(operations));
+        return operations;
+    }
+
+    /**
+     * Passes the operations that turn the {@code from} model into the {@code to} model to {@code consumer}, as they
+     * are determined.
+     *
+     * @param address the address of the root of both models
+     * @param from the original model, or {@code null} if it does not exist
+     * @param to the target model, or {@code null} if it should not exist
+     * @param registration the registration of the resource at {@code address}, used to tell child resources from
+     *                     attributes. Cannot be {@code null}
+     * @param consumer the consumer of the operations. Cannot be {@code null}
+     */
+    public static void diff(final PathAddress address, final ModelNode from, final ModelNode to,
+                            final ImmutableManagementResourceRegistration registration, final OperationConsumer consumer) {
+        assert registration != null : "registration is null";
+        diff(address, from == null ? null : new ModelNodeNode(from, registration),
+                to == null ? null : new ModelNodeNode(to, registration), consumer);
+    }
+
+    private static void diff(final PathAddress address, final Node from, final Node to, final OperationConsumer consumer) {
+        assert consumer != null : "consumer is null";
+        if (from == null) {
+            if (to != null) {
+                add(address, to, consumer);
+            }
+        } else if (to == null) {
+            consumer.accept(Util.createRemoveOperation(address));
+        } else {
+            compare(address, from, to, consumer);
+        }
+    }
+
+    private static void compare(final PathAddress address, final Node from, final Node to, final OperationConsumer consumer) {
+        compareAttributes(address, from, to, consumer);
+
+        final Set<String> childTypes = new LinkedHashSet<String>(from.getChildTypes());
+        childTypes.addAll(to.getChildTypes());
+        for (String type : childTypes) {
+            final Set<String> fromNames = from.getChildNames(type);
+            final Set<String> toNames = to.getChildNames(type);
+            if (to.isOrderedChildType(type) && !isOrderPreserved(fromNames, toNames)) {
+                for (String name : fromNames) {
+                    consumer.accept(Util.createRemoveOperation(address.append(type, name)));
+                }
+                for (String name : toNames) {
+                    add(address.append(type, name), to.getChild(type, name), consumer);
+                }
+                continue;
+            }
+            for (String name : fromNames) {
+                if (!toNames.contains(name)) {
+                    consumer.accept(Util.createRemoveOperation(address.append(type, name)));
+                }
+            }
+            for (String name : fromNames) {
+                if (toNames.contains(name)) {
+                    compare(address.append(type, name), from.getChild(type, name), to.getChild(type, name), consumer);
+                }
+            }
+            for (String name : toNames) {
+                if (!fromNames.contains(name)) {
+                    add(address.append(type, name), to.getChild(type, name), consumer);
+                }
+            }
+        }
+    }
+
+    private static void compareAttributes(final PathAddress address, final Node from, final Node to, final OperationConsumer consumer) {
+        final ModelNode fromModel = from.getModel();
+        final ModelNode toModel = to.getModel();
+        for (String name : to.getAttributeNames()) {
+            final ModelNode value = toModel.get(name);
+            if (value.isDefined() && !(fromModel.has(name) && value.equals(fromModel.get(name)))) {
+                consumer.accept(Util.getWriteAttributeOperation(address, name, value));
+            }
+        }
+        for (String name : from.getAttributeNames()) {
+            if (fromModel.get(name).isDefined() && !toModel.hasDefined(name)) {
+                consumer.accept(Util.getUndefineAttributeOperation(address, name));
+            }
+        }
+    }
+
+    private static void add(final PathAddress address, final Node node, final OperationConsumer consumer) {
+        final ModelNode operation = Util.createAddOperation(address);
+        final ModelNode model = node.getModel();
+        for (String name : node.getAttributeNames()) {
+            final ModelNode value = model.get(name);
+            if (value.isDefined()) {
+                operation.get(name).set(value);
+            }
+        }
+        consumer.accept(operation);
+        for (String type : node.getChildTypes()) {
+            for (String name : node.getChildNames(type)) {
+                add(address.append(type, name), node.getChild(type, name), consumer);
+            }
+        }
+    }
+
+    /**
+     * Gets whether the children of an ordered type in {@code to} can be reached from those in {@code from} by removing
+     * children and adding children at the end, i.e. without changing the relative order of any existing children.
+     */
+    private static boolean isOrderPreserved(final Set<String> from, final Set<String> to) {
+        final Iterator<String> existing = from.iterator();
+        boolean added = false;
+        for (String name : to) {
+            if (from.contains(name)) {
+                if (added) {
+                    return false;
+                }
+                // Skip the children that were removed
+                String next = null;
+                while (existing.hasNext()) {
+                    next = existing.next();
+                    if (to.contains(next)) {
+                        break;
+                    }
+                }
+                if (!name.equals(next)) {
+                    return false;
+                }
+            } else {
+                added = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A resource in one of the trees being compared.
+     */
+    private interface Node {
+
+        /**
+         * Gets the model holding the resource's attributes. The model must not be modified, and must only be
+         * read using the names returned by {@link #getAttributeNames()}.
+         */
+        ModelNode getModel();
+
+        Set<String> getAttributeNames();
+
+        Set<String> getChildTypes();
+
+        boolean isOrderedChildType(String type);
+
+        Set<String> getChildNames(String type);
+
+        Node getChild(String type, String name);
+    }
+
+    private static final class ResourceNode implements Node {
+
+        private final Resource resource;
+
+        private ResourceNode(final Resource resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public ModelNode getModel() {
+            return resource.getModel();
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            final ModelNode model = resource.getModel();
+            return model.isDefined() ? model.keys() : Collections.<String>emptySet();
+        }
+
+        @Override
+        public Set<String> getChildTypes() {
+            return resource.getChildTypes();
+        }
+
+        @Override
+        public boolean isOrderedChildType(final String type) {
+            return resource.getOrderedChildTypes().contains(type);
+        }
+
+        @Override
+        public Set<String> getChildNames(final String type) {
+            final Set<String> names = resource.getChildrenNames(type);
+            for (String name : names) {
+                final Resource child = resource.getChild(PathElement.pathElement(type, name));
+                if (child == null || child.isRuntime() || child.isProxy()) {
+                    // Only copy the names if something has to be filtered out
+                    final Set<String> result = new LinkedHashSet<String>();
+                    for (Resource.ResourceEntry entry : resource.getChildren(type)) {
+                        if (!entry.isRuntime() && !entry.isProxy()) {
+                            result.add(entry.getName());
+                        }
+                    }
+                    return result;
+                }
+            }
+            return names;
+        }
+
+        @Override
+        public Node getChild(final String type, final String name) {
+            return new ResourceNode(resource.getChild(PathElement.pathElement(type, name)));
+        }
+    }
+
+    private static final class ModelNodeNode implements Node {
+
+        private final ModelNode model;
+        private final ImmutableManagementResourceRegistration registration;
+        private final Set<String> childTypes;
+
+        private ModelNodeNode(final ModelNode model, final ImmutableManagementResourceRegistration registration) {
+            this.model = model;
+            this.registration = registration;
+            this.childTypes = registration == null ? Collections.<String>emptySet() : registration.getChildNames(PathAddress.EMPTY_ADDRESS);
+        }
+
+        @Override
+        public ModelNode getModel() {
+            return model;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            if (!model.isDefined()) {
+                return Collections.emptySet();
+            }
+            if (childTypes.isEmpty()) {
+                return model.keys();
+            }
+            final Set<String> result = new LinkedHashSet<String>(model.keys());
+            result.removeAll(childTypes);
+            return result;
+        }
+
+        @Override
+        public Set<String> getChildTypes() {
+            return childTypes;
+        }
+
+        @Override
+        public boolean isOrderedChildType(final String type) {
+            return registration != null && registration.getOrderedChildTypes().contains(type);
+        }
+
+        @Override
+        public Set<String> getChildNames(final String type) {
+            return model.hasDefined(type) ? model.get(type).keys() : Collections.<String>emptySet();
+        }
+
+        @Override
+        public Node getChild(final String type, final String name) {
+            return new ModelNodeNode(model.get(type, name),
+                    registration.getSubModel(PathAddress.pathAddress(PathElement.pathElement(type, name))));
+        }
+    }
+
+    private static final class ListConsumer implements OperationConsumer {
+
+        private final List<ModelNode> operations;
+
+        private ListConsumer(final List<ModelNode> operations) {
+            this.operations = operations;
+        }
+
+        @Override
+        public void accept(final ModelNode operation) {
+            operations.add(operation);
+        }
+    }
+}
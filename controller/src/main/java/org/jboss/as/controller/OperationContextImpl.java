@@ -260,6 +260,10 @@ final class OperationContextImpl extends AbstractOperationContext {
         return managementModel;
     }
 
+    String getOperationName() {
+        return operationName;
+    }
+
     private boolean validateCapabilities() {
         // Validate that all required capabilities are available and fail any steps that broke this
         ModelControllerImpl.CapabilityValidation validation = managementModel.validateCapabilityRegistry();
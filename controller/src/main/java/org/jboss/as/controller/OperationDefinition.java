@@ -138,10 +138,7 @@ public abstract class OperationDefinition {
      * @throws OperationFailedException if the value is not valid
      */
     public void validateOperation(final ModelNode operation) throws OperationFailedException {
-        if (operation.hasDefined(ModelDescriptionConstants.OPERATION_NAME) && deprecationData != null && deprecationData.isNotificationUseful()) {
-            ControllerLogger.DEPRECATED_LOGGER.operationDeprecated(getName(),
-                    PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)).toCLIStyleString());
-        }
+        logDeprecation(operation);
         for (AttributeDefinition ad : this.parameters) {
             ad.validateOperation(operation);
         }
@@ -155,9 +152,18 @@ public abstract class OperationDefinition {
      * @throws OperationFailedException if the value is not valid
      */
     public final void validateAndSet(ModelNode operationObject, final ModelNode model) throws OperationFailedException {
-        validateOperation(operationObject);
+        // AttributeDefinition.validateAndSet validates each parameter itself, so there is no need to
+        // run every parameter through validateOperation first
+        logDeprecation(operationObject);
         for (AttributeDefinition ad : this.parameters) {
             ad.validateAndSet(operationObject, model);
         }
     }
+
+    private void logDeprecation(final ModelNode operation) {
+        if (deprecationData != null && deprecationData.isNotificationUseful() && operation.hasDefined(ModelDescriptionConstants.OPERATION_NAME)) {
+            ControllerLogger.DEPRECATED_LOGGER.operationDeprecated(getName(),
+                    PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)).toCLIStyleString());
+        }
+    }
 }
@@ -32,6 +32,7 @@ public class RunningModeControl {
     private volatile RunningMode runningMode;
     private volatile boolean reloaded;
     private volatile boolean useCurrentConfig;
+    private volatile boolean warmReload;
 
     public RunningModeControl(final RunningMode initialMode) {
         this.runningMode = initialMode;
@@ -60,4 +61,17 @@ public class RunningModeControl {
     public boolean isUseCurrentConfig() {
         return useCurrentConfig;
     }
+
+    /**
+     * Sets whether the next reload may reuse the work done parsing the configuration during the previous boot.
+     *
+     * @param warmReload {@code true} if the configuration need not be parsed again if it has not changed
+     */
+    public void setWarmReload(boolean warmReload) {
+        this.warmReload = warmReload;
+    }
+
+    public boolean isWarmReload() {
+        return warmReload;
+    }
 }
@@ -36,6 +36,7 @@ public class SensitivityClassification extends AbstractSensitivity {
     public static final SensitivityClassification DOMAIN_CONTROLLER = new SensitivityClassification("domain-controller", false, false, true);
     public static final SensitivityClassification DOMAIN_NAMES = new SensitivityClassification("domain-names", false, false, true);
     public static final SensitivityClassification EXTENSIONS = new SensitivityClassification("extensions", false, false, true);
+    public static final SensitivityClassification FLIGHT_RECORDER = new SensitivityClassification("flight-recorder", false, true, true);
     public static final SensitivityClassification JVM = new SensitivityClassification("jvm", false, false, true);
     public static final SensitivityClassification MANAGEMENT_INTERFACES = new SensitivityClassification("management-interfaces", false, false, true);
     public static final SensitivityClassification MODULE_LOADING = new SensitivityClassification("module-loading", false, false, true);
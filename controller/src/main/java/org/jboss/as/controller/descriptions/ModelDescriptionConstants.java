@@ -79,6 +79,7 @@ public class ModelDescriptionConstants {
     public static final String BOOT_TIME = "boot-time";
     public static final String BOOT_ERROR = "boot-error";
     public static final String BOOT_ERRORS = "boot-errors";
+    public static final String BOOT_TIMELINE = "boot-timeline";
     public static final String BYTES = "bytes";
     public static final String CALLER_THREAD = "caller-thread";
     public static final String CALLER_TYPE = "caller-type";
@@ -172,6 +173,7 @@ public class ModelDescriptionConstants {
     public static final String FILTERED_OPERATIONS = "filtered-operations";
     public static final String FIXED_PORT = "fixed-port";
     public static final String FIXED_SOURCE_PORT = "fixed-source-port";
+    public static final String FLIGHT_RECORDER = "flight-recorder";
     public static final String FORCE = "force";
     public static final String FORMATTER = "formatter";
     public static final String FULL_REPLACE_DEPLOYMENT = "full-replace-deployment";
@@ -222,6 +224,7 @@ public class ModelDescriptionConstants {
     public static final String JVM = "jvm";
     public static final String LDAP = "ldap";
     public static final String LDAP_CONNECTION = "ldap-connection";
+    public static final String LIMIT = "limit";
     public static final String LOCAL = "local";
     public static final String LOCAL_DESTINATION_OUTBOUND_SOCKET_BINDING = "local-destination-outbound-socket-binding";
     public static final String LOCAL_HOST_NAME = "local-host-name";
@@ -240,6 +243,7 @@ public class ModelDescriptionConstants {
     public static final String MAP_GROUPS_TO_ROLES = "map-groups-to-roles";
     public static final String MASK = "mask";
     public static final String MASTER = "master";
+    public static final String MATCHES = "matches";
     public static final String MAX = "max";
     public static final String MAX_BACKUP_INDEX = "max-backup-index";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
@@ -274,6 +278,7 @@ public class ModelDescriptionConstants {
     public static final String NOTIFICATION_DATA_TYPE = "data-type";
     public static final String NOTIFICATION_TYPE = "notification-type";
     public static final String NOTIFICATIONS = "notifications";
+    public static final String OFFSET = "offset";
     /** Use this as the standard operation name field in the operation *request* ModelNode */
     public static final String OP = "operation";
     /** Use this standard operation address field in the operation *request* ModelNode */
@@ -320,6 +325,7 @@ public class ModelDescriptionConstants {
     public static final String READ_ATTRIBUTE_OPERATION = "read-attribute";
     public static final String READ_ATTRIBUTE_GROUP_OPERATION = "read-attribute-group";
     public static final String READ_ATTRIBUTE_GROUP_NAMES_OPERATION = "read-attribute-group-names";
+    public static final String READ_ATTRIBUTES_OPERATION = "read-attributes";
     public static final String READ_CHILDREN_NAMES_OPERATION = "read-children-names";
     public static final String READ_CHILDREN_TYPES_OPERATION = "read-children-types";
     public static final String READ_CHILDREN_RESOURCES_OPERATION = "read-children-resources";
@@ -350,6 +356,7 @@ public class ModelDescriptionConstants {
     public static final String REPLY_PROPERTIES = "reply-properties";
     public static final String REVERSE_GROUP = "reverse-group";
     public static final String REQUEST_PROPERTIES = "request-properties";
+    public static final String REQUEST_SCHEDULING = "request-scheduling";
     public static final String REQUIRED = "required";
     public static final String REQUIRES = "requires";
     public static final String RESOLVE_EXPRESSIONS = "resolve-expressions";
@@ -417,6 +424,7 @@ public class ModelDescriptionConstants {
     public static final String RESUME = "resume";
     public static final String SASL_PROTOCOL = "sasl-protocol";
     public static final String SELECT = "select";
+    public static final String SELECTORS = "selectors";
     public static final String SERVER_LOGGER = "server-logger";
     public static final String SERVER_NAME = "server-name";
     public static final String SHUTDOWN = "shutdown";
@@ -495,10 +503,12 @@ public class ModelDescriptionConstants {
     public static final String VALID = "valid";
     public static final String VALUE = "value";
     public static final String VALUE_TYPE = "value-type";
+    public static final String VALUES = "values";
     public static final String VAULT = "vault";
     public static final String VAULT_EXPRESSION = "vault-expression";
     public static final String VAULT_OPTION = "vault-option";
     public static final String VAULT_OPTIONS = "vault-options";
+    public static final String WARM = "warm";
     public static final String WHERE = "where";
     public static final String WILDCARD = "wildcard";
     public static final String WRITE = "write";
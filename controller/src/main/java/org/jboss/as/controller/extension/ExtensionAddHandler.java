@@ -20,6 +20,7 @@ package org.jboss.as.controller.extension;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 
+import org.jboss.as.controller.BootTimeline;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -115,6 +116,8 @@ public class ExtensionAddHandler implements OperationStepHandler {
     static void initializeExtension(ExtensionRegistry extensionRegistry, String module,
                                     ManagementResourceRegistration rootRegistration,
                                     ExtensionRegistryType extensionRegistryType) {
+        final long start = System.currentTimeMillis();
+        final long timelineStart = BootTimeline.start();
         try {
             boolean unknownModule = false;
             for (Extension extension : Module.loadServiceFromCallerModuleLoader(ModuleIdentifier.fromString(module), Extension.class)) {
@@ -133,6 +136,11 @@ public class ExtensionAddHandler implements OperationStepHandler {
                     WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
                 }
             }
+            if (ControllerLogger.MGMT_OP_LOGGER.isDebugEnabled()) {
+                long elapsed = System.currentTimeMillis() - start;
+                ControllerLogger.MGMT_OP_LOGGER.debugf("Initialized extension module %s in [%d] ms", module, elapsed);
+            }
+            BootTimeline.record("extension", module, timelineStart);
         } catch (ModuleNotFoundException e) {
             // Treat this as a user mistake, e.g. incorrect module name.
             // Throw OFE so post-boot it only gets logged at DEBUG.
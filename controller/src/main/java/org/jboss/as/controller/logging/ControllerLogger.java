@@ -3363,4 +3363,20 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 407, value = "Couldn't build the report")
     RuntimeException failedToBuildReport(@Cause Throwable t);
+
+    @Message(id = 408, value = "Failed to parse subsystem %s")
+    XMLStreamException failedToParseSubsystem(@Cause Throwable cause, String namespace, @Param Location location);
+
+    @Message(id = 409, value = "Interrupted awaiting parsing of subsystem %s")
+    XMLStreamException subsystemParsingInterrupted(String namespace);
+
+    @LogMessage(level = WARN)
+    @Message(id = 410, value = "Invalid value '%s' for system property %s; using the default concurrency limit of %d")
+    void invalidSchedulerLimit(String value, String property, int defaultValue);
+
+    @Message(id = 411, value = "Interrupted while waiting to execute a management operation of priority class '%s'")
+    String operationSchedulingInterrupted(String priorityClass);
+
+    @Message(id = 412, value = "Timed out after %d ms waiting to execute a management operation of priority class '%s'")
+    String operationSchedulingTimeout(long timeout, String priorityClass);
 }
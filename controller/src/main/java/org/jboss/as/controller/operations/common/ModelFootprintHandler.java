@@ -0,0 +1,272 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.common;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ModelCompaction;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+/**
+ * Operation that estimates the heap retained by the management model below the target resource, broken down by
+ * child resource, e.g. per subsystem when invoked on the root resource.
+ * <p>
+ * Sizes are estimates for a 64-bit JVM with compressed references, computed by walking the resources' models and
+ * the resource registrations rather than by inspecting the heap, so they are cheap enough to use in production.
+ * Runtime-only and proxy resources are not included, and a registration shared by several children, e.g. a
+ * wildcard registration, is only counted for the first of them.
+ * </p>
+ */
+public class ModelFootprintHandler implements OperationStepHandler {
+
+    public static final String OPERATION_NAME = "read-model-footprint";
+
+    public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, ControllerResolver.getResolver("core"))
+            .setReplyType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    public static final ModelFootprintHandler INSTANCE = new ModelFootprintHandler();
+
+    private static final String RESOURCES = "resources";
+    private static final String MODEL_NODES = "model-nodes";
+    private static final String MODEL_BYTES = "model-bytes";
+    private static final String REGISTRATIONS = "registrations";
+    private static final String ATTRIBUTES = "attributes";
+    private static final String OPERATIONS = "operations";
+    private static final String REGISTRATION_BYTES = "registration-bytes";
+
+    // Estimated shallow sizes, in bytes, of the objects retained per model node and per registration
+    private static final int NODE = 16;
+    private static final int VALUE = 16;
+    private static final int MAP = 56;
+    private static final int MAP_ENTRY = 40;
+    private static final int LIST = 40;
+    private static final int REFERENCE = 4;
+    private static final int REGISTRATION = 160;
+    private static final int ATTRIBUTE = 200;
+    private static final int OPERATION = 120;
+
+    private ModelFootprintHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = context.getCurrentAddress();
+        final Resource resource = Resource.Tools.navigate(context.getOriginalRootResource(), address);
+        final ImmutableManagementResourceRegistration registration = context.getResourceRegistration();
+
+        final ModelNode result = context.getResult();
+        final Footprint total = new Footprint();
+        final Set<ImmutableManagementResourceRegistration> visited =
+                Collections.newSetFromMap(new IdentityHashMap<ImmutableManagementResourceRegistration, Boolean>());
+        visited.add(registration);
+        final ModelNode children = result.get("children").setEmptyObject();
+        for (String childType : resource.getChildTypes()) {
+            for (Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                final PathElement element = entry.getPathElement();
+                final Footprint footprint = new Footprint();
+                measureResource(entry, footprint);
+                final ImmutableManagementResourceRegistration childRegistration = registration.getSubModel(PathAddress.pathAddress(element));
+                if (childRegistration != null && visited.add(childRegistration)) {
+                    measureRegistration(childRegistration, visited, footprint);
+                }
+                children.get(element.getKey() + "=" + element.getValue()).set(footprint.toModelNode());
+                total.add(footprint);
+            }
+        }
+        final Footprint self = new Footprint();
+        self.resources = 1;
+        measureNode(resource.getModel(), self);
+        measureOwnRegistration(registration, self);
+        total.add(self);
+        result.get("self").set(self.toModelNode());
+        result.get("total").set(total.toModelNode());
+        result.get("compaction-enabled").set(ModelCompaction.isEnabled());
+        result.get("shared-values").set(ModelCompaction.getSharedValueCount());
+    }
+
+    private static void measureResource(final Resource resource, final Footprint footprint) {
+        if (resource.isRuntime() || resource.isProxy()) {
+            return;
+        }
+        footprint.resources++;
+        measureNode(resource.getModel(), footprint);
+        for (String childType : resource.getChildTypes()) {
+            footprint.modelBytes += MAP_ENTRY + stringSize(childType);
+            for (Resource.ResourceEntry child : resource.getChildren(childType)) {
+                footprint.modelBytes += MAP_ENTRY + stringSize(child.getName());
+                measureResource(child, footprint);
+            }
+        }
+    }
+
+    private static void measureRegistration(final ImmutableManagementResourceRegistration registration,
+                                            final Set<ImmutableManagementResourceRegistration> visited, final Footprint footprint) {
+        if (registration.isRemote() || registration.isAlias()) {
+            return;
+        }
+        measureOwnRegistration(registration, footprint);
+        for (PathElement element : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+            final ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(element));
+            if (child != null && visited.add(child)) {
+                measureRegistration(child, visited, footprint);
+            }
+        }
+    }
+
+    private static void measureOwnRegistration(final ImmutableManagementResourceRegistration registration, final Footprint footprint) {
+        footprint.registrations++;
+        footprint.registrationBytes += REGISTRATION;
+        for (String attributeName : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+            final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+            footprint.attributes++;
+            footprint.registrationBytes += ATTRIBUTE + stringSize(attributeName);
+            if (access != null && access.getAttributeDefinition() != null) {
+                final AttributeDefinition definition = access.getAttributeDefinition();
+                final ModelNode defaultValue = definition.getDefaultValue();
+                if (defaultValue != null) {
+                    final Footprint defaults = new Footprint();
+                    measureNode(defaultValue, defaults);
+                    footprint.registrationBytes += defaults.modelBytes;
+                }
+            }
+        }
+        final int operations = registration.getOperationDescriptions(PathAddress.EMPTY_ADDRESS, false).size();
+        footprint.operations += operations;
+        footprint.registrationBytes += operations * OPERATION;
+    }
+
+    private static void measureNode(final ModelNode node, final Footprint footprint) {
+        footprint.modelNodes++;
+        footprint.modelBytes += NODE;
+        switch (node.getType()) {
+            case OBJECT: {
+                final Set<String> keys = node.keys();
+                footprint.modelBytes += VALUE + MAP + 16 + REFERENCE * tableSize(keys.size());
+                for (String key : keys) {
+                    footprint.modelBytes += MAP_ENTRY + stringSize(key);
+                    measureNode(node.get(key), footprint);
+                }
+                break;
+            }
+            case LIST: {
+                final List<ModelNode> elements = node.asList();
+                footprint.modelBytes += VALUE + LIST + 16 + REFERENCE * elements.size();
+                for (ModelNode element : elements) {
+                    measureNode(element, footprint);
+                }
+                break;
+            }
+            case PROPERTY: {
+                final Property property = node.asProperty();
+                footprint.modelBytes += VALUE + 24 + stringSize(property.getName());
+                measureNode(property.getValue(), footprint);
+                break;
+            }
+            case STRING:
+            case EXPRESSION:
+                footprint.modelBytes += VALUE + stringSize(node.asString());
+                break;
+            case BYTES:
+                footprint.modelBytes += VALUE + 16 + node.asBytes().length;
+                break;
+            case BIG_DECIMAL:
+            case BIG_INTEGER:
+                footprint.modelBytes += VALUE + 56;
+                break;
+            case LONG:
+            case DOUBLE:
+                footprint.modelBytes += VALUE + 8;
+                break;
+            case INT:
+                footprint.modelBytes += VALUE;
+                break;
+            default:
+                // Shared singleton values, e.g. undefined and booleans
+                break;
+        }
+    }
+
+    private static int tableSize(final int entries) {
+        int size = 16;
+        while (size * 3 < entries * 4) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static long stringSize(final String value) {
+        return 24 + 16 + 2L * value.length();
+    }
+
+    private static final class Footprint {
+        private long resources;
+        private long modelNodes;
+        private long modelBytes;
+        private long registrations;
+        private long attributes;
+        private long operations;
+        private long registrationBytes;
+
+        void add(final Footprint other) {
+            resources += other.resources;
+            modelNodes += other.modelNodes;
+            modelBytes += other.modelBytes;
+            registrations += other.registrations;
+            attributes += other.attributes;
+            operations += other.operations;
+            registrationBytes += other.registrationBytes;
+        }
+
+        ModelNode toModelNode() {
+            final ModelNode node = new ModelNode();
+            node.get(RESOURCES).set(resources);
+            node.get(MODEL_NODES).set(modelNodes);
+            node.get(MODEL_BYTES).set(modelBytes);
+            node.get(REGISTRATIONS).set(registrations);
+            node.get(ATTRIBUTES).set(attributes);
+            node.get(OPERATIONS).set(operations);
+            node.get(REGISTRATION_BYTES).set(registrationBytes);
+            return node;
+        }
+    }
+}
@@ -85,6 +85,17 @@ class GlobalOperationAttributes {
     .setAllowNull(false)
     .build();
 
+    static final SimpleAttributeDefinition OFFSET = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.OFFSET, ModelType.INT)
+    .setAllowNull(true)
+    .setDefaultValue(new ModelNode(0))
+    .setValidator(new IntRangeValidator(0, true))
+    .build();
+
+    static final SimpleAttributeDefinition LIMIT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.LIMIT, ModelType.INT)
+    .setAllowNull(true)
+    .setValidator(new IntRangeValidator(1, true))
+    .build();
+
     static final SimpleAttributeDefinition VALUE = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.VALUE, ModelType.STRING)
     .setValidator(new StringLengthValidator(1))
     .setAllowNull(true)
@@ -31,6 +31,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
+import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.LIMIT;
+import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.OFFSET;
 import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.RECURSIVE;
 import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.RECURSIVE_DEPTH;
 
@@ -42,6 +44,7 @@ import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.controller.OperationContext;
@@ -94,6 +97,8 @@ public class GlobalOperationHandlers {
         root.registerOperationHandler(ReadOperationNamesHandler.DEFINITION, ReadOperationNamesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationDescriptionHandler.DEFINITION, ReadOperationDescriptionHandler.INSTANCE, true);
         root.registerOperationHandler(QueryOperationHandler.DEFINITION, QueryOperationHandler.INSTANCE, true);
+        // Selectors hold absolute addresses, so this is only registered on the root
+        root.registerOperationHandler(ReadAttributesHandler.DEFINITION, ReadAttributesHandler.INSTANCE, false);
 
         //map operations
         root.registerOperationHandler(MapOperations.MAP_PUT_DEFINITION, MapOperations.MAP_PUT_HANDLER, true);
@@ -774,6 +779,38 @@ public class GlobalOperationHandlers {
         return result;
     }
 
+    /**
+     * Sorts the given child names and restricts them to the page selected by the {@code offset} and {@code limit}
+     * parameters of the operation. Names are ordered lexically so a client paging through a stable set of
+     * children sees each child exactly once.
+     *
+     * @param context    the operation context
+     * @param operation  the operation, which may define {@code offset} and {@code limit}
+     * @param childNames the unsorted names of all children of the requested type
+     * @return the sorted names making up the requested page. Will not be {@code null}
+     */
+    static Set<String> getChildNamesPage(OperationContext context, ModelNode operation, Set<String> childNames) throws OperationFailedException {
+        final int offset = OFFSET.resolveModelAttribute(context, operation).asInt();
+        final ModelNode limitNode = LIMIT.resolveModelAttribute(context, operation);
+        final int limit = limitNode.isDefined() ? limitNode.asInt() : Integer.MAX_VALUE;
+        final Set<String> sorted = new TreeSet<String>(childNames);
+        if (offset == 0 && limit >= sorted.size()) {
+            return sorted;
+        }
+        final Set<String> page = new LinkedHashSet<String>();
+        int index = 0;
+        for (String childName : sorted) {
+            if (index++ < offset) {
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(childName);
+        }
+        return page;
+    }
+
     static Locale getLocale(OperationContext context, final ModelNode operation) throws OperationFailedException {
         if (!operation.hasDefined(GlobalOperationAttributes.LOCALE.getName())) {
             return null;
@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_DEFAULTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MATCHES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SELECTORS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUES;
+import static org.jboss.as.controller.operations.global.EnhancedSyntaxSupport.containsEnhancedSyntax;
+import static org.jboss.as.controller.operations.global.EnhancedSyntaxSupport.extractAttributeName;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.UnauthorizedException;
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link org.jboss.as.controller.OperationStepHandler} reading a set of attributes from every resource matching each
+ * of a list of address patterns, in a single operation.
+ * <p>
+ * Each selector names an address, which may contain wildcards, and the attributes to read from the resources it
+ * matches. Each distinct address is resolved once, and a {@code read-attribute} step is executed for each attribute
+ * of each matching resource within this operation's context. The result holds one entry per distinct address, in a
+ * columnar format: the attribute names and the values of the address's wildcards for each matching resource are
+ * listed once, followed by one list of values per attribute, in the order of the matches. A value is undefined if
+ * the matching resource has no such attribute, the read was not permitted, or the resource was removed while the
+ * operation executed. Any other failure to read an attribute fails the whole operation, as it does for
+ * {@code read-resource}.
+ * </p>
+ * <p>
+ * Resources behind a proxy, e.g. those of servers in a managed domain, are not matched.
+ * </p>
+ */
+public class ReadAttributesHandler implements OperationStepHandler {
+
+    private static final AttributeDefinition SELECTOR_ADDRESS = new SimpleAttributeDefinitionBuilder(ADDRESS, ModelType.LIST)
+            .setAllowNull(false)
+            .build();
+
+    private static final AttributeDefinition SELECTOR_ATTRIBUTES = new StringListAttributeDefinition.Builder(ATTRIBUTES)
+            .setAllowNull(false)
+            .build();
+
+    private static final ObjectListAttributeDefinition SELECTORS_PARAM = ObjectListAttributeDefinition.Builder.of(SELECTORS,
+            ObjectTypeAttributeDefinition.Builder.of("selector", SELECTOR_ADDRESS, SELECTOR_ATTRIBUTES).build())
+            .setAllowNull(false)
+            .build();
+
+    static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(READ_ATTRIBUTES_OPERATION, ControllerResolver.getResolver("global"))
+            .setParameters(SELECTORS_PARAM, GlobalOperationAttributes.INCLUDE_DEFAULTS)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .build();
+
+    static final OperationStepHandler INSTANCE = new ReadAttributesHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode selectors = SELECTORS_PARAM.resolveModelAttribute(context, operation);
+        final boolean defaults = GlobalOperationAttributes.INCLUDE_DEFAULTS.resolveModelAttribute(context, operation).asBoolean();
+
+        // Group the attributes by address, so each address is only resolved once
+        final Map<PathAddress, Set<String>> attributesByAddress = new LinkedHashMap<PathAddress, Set<String>>();
+        for (ModelNode selector : selectors.asList()) {
+            final PathAddress address = PathAddress.pathAddress(selector.require(ADDRESS));
+            Set<String> attributes = attributesByAddress.get(address);
+            if (attributes == null) {
+                attributes = new LinkedHashSet<String>();
+                attributesByAddress.put(address, attributes);
+            }
+            for (ModelNode attribute : selector.require(ATTRIBUTES).asList()) {
+                attributes.add(attribute.asString());
+            }
+        }
+
+        final FilteredData filteredData = new FilteredData(PathAddress.EMPTY_ADDRESS);
+        final List<Selection> selections = new ArrayList<Selection>(attributesByAddress.size());
+        for (Map.Entry<PathAddress, Set<String>> entry : attributesByAddress.entrySet()) {
+            final Selection selection = new Selection(entry.getKey(), new ArrayList<String>(entry.getValue()));
+            resolve(context, selection, 0, PathAddress.EMPTY_ADDRESS, context.getRootResourceRegistration(), filteredData);
+            selections.add(selection);
+        }
+
+        // Assemble the result once the reads, including any runtime steps they add, have completed
+        context.addStep(new AssemblyHandler(selections, filteredData), OperationContext.Stage.VERIFY, true);
+
+        final OperationStepHandler readAttributeHandler = new ReadAttributeHandler(filteredData, null, false);
+        for (Selection selection : selections) {
+            for (Match match : selection.matches) {
+                // See if there was an override registered for the standard :read-attribute handling
+                OperationStepHandler handler = match.registration.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+                if (handler == null || handler == ReadAttributeHandler.INSTANCE || handler == ReadAttributeHandler.RESOLVE_INSTANCE) {
+                    handler = readAttributeHandler;
+                } else {
+                    handler = new ReadAttributeHandler(filteredData, handler, false);
+                }
+                for (int i = 0; i < selection.attributes.size(); i++) {
+                    final String attribute = selection.attributes.get(i);
+                    final String attributeName = containsEnhancedSyntax(attribute) ? extractAttributeName(attribute) : attribute;
+                    if (match.registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName) == null) {
+                        // Not all resources matching a wildcard need have the same attributes
+                        continue;
+                    }
+                    final ModelNode readOperation = Util.getReadAttributeOperation(match.address, attribute);
+                    readOperation.get(INCLUDE_DEFAULTS).set(defaults);
+                    final ModelNode response = new ModelNode();
+                    final GlobalOperationHandlers.AvailableResponse availableResponse = new GlobalOperationHandlers.AvailableResponse(response);
+                    match.responses[i] = availableResponse;
+                    context.addStep(response, readOperation, new GlobalOperationHandlers.AvailableResponseWrapper(handler, availableResponse),
+                            OperationContext.Stage.MODEL, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the resources matching the remainder of the selection's address, starting at {@code index}.
+     */
+    private static void resolve(final OperationContext context, final Selection selection, final int index, final PathAddress current,
+                                final ImmutableManagementResourceRegistration registration, final FilteredData filteredData) {
+        if (index == selection.address.size()) {
+            selection.matches.add(new Match(current, registration, selection.attributes.size()));
+            return;
+        }
+        final Resource resource;
+        try {
+            resource = context.readResourceFromRoot(current, false);
+        } catch (UnauthorizedException e) {
+            filteredData.addReadRestrictedResource(current);
+            return;
+        } catch (Resource.NoSuchResourceException e) {
+            // Missing, or not addressable by the caller
+            return;
+        }
+        final PathElement element = selection.address.getElement(index);
+        final Set<String> names = GlobalOperationHandlers.getChildAddresses(context, current, registration, resource, element.getKey()).get(element.getKey());
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            if (element.isWildcard() || element.getValue().equals(name)) {
+                final PathElement child = PathElement.pathElement(element.getKey(), name);
+                final ImmutableManagementResourceRegistration childRegistration = registration.getSubModel(PathAddress.pathAddress(child));
+                if (childRegistration != null && !childRegistration.isRemote()) {
+                    resolve(context, selection, index + 1, current.append(child), childRegistration, filteredData);
+                }
+            }
+        }
+    }
+
+    private static final class Selection {
+        private final PathAddress address;
+        private final List<String> attributes;
+        private final List<Match> matches = new ArrayList<Match>();
+
+        private Selection(final PathAddress address, final List<String> attributes) {
+            this.address = address;
+            this.attributes = attributes;
+        }
+    }
+
+    private static final class Match {
+        private final PathAddress address;
+        private final ImmutableManagementResourceRegistration registration;
+        private final GlobalOperationHandlers.AvailableResponse[] responses;
+
+        private Match(final PathAddress address, final ImmutableManagementResourceRegistration registration, final int attributes) {
+            this.address = address;
+            this.registration = registration;
+            this.responses = new GlobalOperationHandlers.AvailableResponse[attributes];
+        }
+    }
+
+    private static final class AssemblyHandler implements OperationStepHandler {
+
+        private final List<Selection> selections;
+        private final FilteredData filteredData;
+
+        private AssemblyHandler(final List<Selection> selections, final FilteredData filteredData) {
+            this.selections = selections;
+            this.filteredData = filteredData;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final ModelNode result = context.getResult().setEmptyList();
+            for (Selection selection : selections) {
+                final ModelNode node = result.add();
+                node.get(ADDRESS).set(selection.address.toModelNode());
+                final ModelNode attributes = node.get(ATTRIBUTES).setEmptyList();
+                for (String attribute : selection.attributes) {
+                    attributes.add(attribute);
+                }
+                final ModelNode matches = node.get(MATCHES).setEmptyList();
+                for (Match match : selection.matches) {
+                    final ModelNode wildcards = matches.add().setEmptyList();
+                    for (int i = 0; i < selection.address.size(); i++) {
+                        if (selection.address.getElement(i).isWildcard()) {
+                            wildcards.add(match.address.getElement(i).getValue());
+                        }
+                    }
+                }
+                final ModelNode values = node.get(VALUES).setEmptyList();
+                for (int i = 0; i < selection.attributes.size(); i++) {
+                    final ModelNode column = values.add().setEmptyList();
+                    for (Match match : selection.matches) {
+                        final GlobalOperationHandlers.AvailableResponse response = match.responses[i];
+                        if (response == null || response.unavailable || response.response.has(FAILURE_DESCRIPTION)) {
+                            column.add();
+                        } else {
+                            column.add(response.response.get(RESULT));
+                        }
+                    }
+                }
+            }
+            if (filteredData.hasFilteredData()) {
+                context.getResponseHeaders().get(ACCESS_CONTROL).set(filteredData.toModelNode());
+            }
+        }
+    }
+}
@@ -28,11 +28,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.CHILD_TYPE;
+import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.LIMIT;
+import static org.jboss.as.controller.operations.global.GlobalOperationAttributes.OFFSET;
 
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
@@ -59,7 +60,7 @@ import org.jboss.dmr.ModelType;
 public class ReadChildrenNamesHandler implements OperationStepHandler {
 
     static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(READ_CHILDREN_NAMES_OPERATION, ControllerResolver.getResolver("global"))
-            .setParameters(CHILD_TYPE)
+            .setParameters(CHILD_TYPE, OFFSET, LIMIT)
             .setReadOnly()
             .setRuntimeOnly()
             .setReplyType(ModelType.LIST)
@@ -80,8 +81,8 @@ public class ReadChildrenNamesHandler implements OperationStepHandler {
         if (childNames == null) {
             throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.unknownChildType(childType));
         }
-        // Sort the result
-        childNames = new TreeSet<String>(childNames);
+        // Sort the result and restrict it to the requested page
+        childNames = GlobalOperationHandlers.getChildNamesPage(context, operation, childNames);
         ModelNode result = context.getResult();
         result.setEmptyList();
         PathAddress childAddress = address.append(PathElement.pathElement(childType));
@@ -22,6 +22,7 @@
 package org.jboss.as.controller.operations.validation;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -38,7 +39,33 @@ public class ChainedParameterValidator extends AbstractParameterValidator implem
     public ChainedParameterValidator(final ParameterValidator... validators) {
         if (validators == null)
             throw ControllerLogger.ROOT_LOGGER.nullVar("validators");
-        this.validators = validators;
+        this.validators = flatten(validators);
+    }
+
+    /**
+     * Inlines the validators of any nested chains so validation walks a single array
+     * rather than recursing through each level of the chain.
+     */
+    private static ParameterValidator[] flatten(final ParameterValidator[] validators) {
+        boolean nested = false;
+        for (ParameterValidator validator : validators) {
+            if (validator instanceof ChainedParameterValidator) {
+                nested = true;
+                break;
+            }
+        }
+        if (!nested) {
+            return validators;
+        }
+        final List<ParameterValidator> flattened = new ArrayList<ParameterValidator>();
+        for (ParameterValidator validator : validators) {
+            if (validator instanceof ChainedParameterValidator) {
+                flattened.addAll(Arrays.asList(((ChainedParameterValidator) validator).validators));
+            } else {
+                flattened.add(validator);
+            }
+        }
+        return flattened.toArray(new ParameterValidator[flattened.size()]);
     }
 
     public static ParameterValidator chain(ParameterValidator... validators) {
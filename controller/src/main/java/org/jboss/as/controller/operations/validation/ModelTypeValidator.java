@@ -132,10 +132,9 @@ public class ModelTypeValidator implements ParameterValidator {
             if (!nullable)
                 throw ControllerLogger.ROOT_LOGGER.nullNotAllowed(parameterName);
         } else  {
-            boolean matched = false;
-            if (strictType) {
-                matched = validTypes.contains(value.getType());
-            } else {
+            // An exact type match is by far the common case, so check it before attempting any conversions
+            boolean matched = validTypes.contains(value.getType());
+            if (!matched && !strictType) {
                 for (ModelType validType : validTypes) {
                     if (matches(value, validType)) {
                         matched = true;
@@ -46,6 +46,7 @@ import java.util.concurrent.Future;
 
 import javax.xml.stream.XMLStreamException;
 
+import org.jboss.as.controller.BootTimeline;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.extension.ExtensionRegistry;
@@ -174,6 +175,8 @@ public class ExtensionXml {
 
     private XMLStreamException loadModule(final String moduleName, final XMLMapper xmlMapper) throws XMLStreamException {
         // Register element handlers for this extension
+        final long start = System.currentTimeMillis();
+        final long timelineStart = BootTimeline.start();
         try {
             final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
             boolean initialized = false;
@@ -191,6 +194,11 @@ public class ExtensionXml {
             if (!initialized) {
                 throw ControllerLogger.ROOT_LOGGER.notFound("META-INF/services/", Extension.class.getName(), module.getIdentifier());
             }
+            if (ROOT_LOGGER.isDebugEnabled()) {
+                long elapsed = System.currentTimeMillis() - start;
+                ROOT_LOGGER.debugf("Loaded extension module %s and initialized its parsers in [%d] ms", moduleName, elapsed);
+            }
+            BootTimeline.record("extension-parsers", moduleName, timelineStart);
             return null;
         } catch (final ModuleLoadException e) {
             throw ControllerLogger.ROOT_LOGGER.failedToLoadModule(e);
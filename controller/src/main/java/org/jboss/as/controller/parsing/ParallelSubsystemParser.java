@@ -0,0 +1,476 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.parsing;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.as.controller.BootTimeline;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Parses {@code subsystem} elements of a configuration document concurrently.
+ * <p>
+ * The document is still read sequentially, but each {@code subsystem} element is only copied into a standalone
+ * fragment on the reading thread. The fragment is then handed to the subsystem's registered
+ * {@link org.jboss.staxmapper.XMLElementReader} on the boot executor, so the cost of the subsystem parsers
+ * themselves is spread across the available cores. The operations produced for each subsystem are added to the
+ * list supplied for it, so callers retain control over the final ordering of the operations.
+ * </p>
+ * <p>
+ * This is disabled unless the {@code jboss.boot.parallel.subsystem.parsing} system property is set to {@code true},
+ * as it requires that subsystem parsers can safely be used from more than one thread at a time.
+ * </p>
+ */
+public final class ParallelSubsystemParser {
+
+    /**
+     * System property used to enable parallel parsing of subsystem elements.
+     */
+    public static final String PARALLEL_SUBSYSTEM_PARSING_PROPERTY = "jboss.boot.parallel.subsystem.parsing";
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private final ExecutorService executor;
+    private final Map<String, Future<XMLStreamException>> futures = new LinkedHashMap<String, Future<XMLStreamException>>();
+    private final Map<String, Location> locations = new HashMap<String, Location>();
+
+    private ParallelSubsystemParser(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a parser if parallel subsystem parsing is enabled and an executor is available.
+     *
+     * @param executor the boot executor. May be {@code null}
+     * @return the parser, or {@code null} if subsystems should be parsed sequentially
+     */
+    public static ParallelSubsystemParser create(final ExecutorService executor) {
+        if (executor == null
+                || !Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PARALLEL_SUBSYSTEM_PARSING_PROPERTY, "false"))) {
+            return null;
+        }
+        return new ParallelSubsystemParser(executor);
+    }
+
+    /**
+     * Copies the {@code subsystem} element the reader is positioned on and schedules it for parsing. On return the
+     * reader is positioned on the element's {@code END_ELEMENT} event, as it would be after
+     * {@link XMLExtendedStreamReader#handleAny(Object)}.
+     *
+     * @param reader the reader, positioned on the {@code START_ELEMENT} event of a {@code subsystem} element
+     * @param operations the list to which the operations for the subsystem should be added. Must not be
+     *                   accessed until {@link #awaitCompletion()} returns
+     * @throws XMLStreamException if the element could not be read
+     */
+    public void parse(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        final String namespace = reader.getNamespaceURI();
+        final Location location = reader.getLocation();
+        final XMLMapper mapper = reader.getXMLMapper();
+        final Fragment fragment = Fragment.copy(reader);
+        locations.put(namespace, location);
+        futures.put(namespace, executor.submit(new Callable<XMLStreamException>() {
+            @Override
+            public XMLStreamException call() {
+                long start = System.currentTimeMillis();
+                long timelineStart = BootTimeline.start();
+                try {
+                    final XMLStreamReader fragmentReader = INPUT_FACTORY.createXMLStreamReader(new StringReader(fragment.getContent()));
+                    try {
+                        mapper.parseDocument(operations, fragmentReader);
+                    } finally {
+                        fragmentReader.close();
+                    }
+                } catch (XMLStreamException e) {
+                    // Report where the failure is in the document, rather than in the copy of the element
+                    return ROOT_LOGGER.failedToParseSubsystem(e, namespace, fragment.getDocumentLocation(e.getLocation(), location));
+                } catch (RuntimeException e) {
+                    return ROOT_LOGGER.failedToParseSubsystem(e, namespace, location);
+                }
+                if (ROOT_LOGGER.isDebugEnabled()) {
+                    long elapsed = System.currentTimeMillis() - start;
+                    ROOT_LOGGER.debugf("Parsed subsystem %s in [%d] ms", namespace, elapsed);
+                }
+                BootTimeline.record("parse-subsystem", namespace, timelineStart);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Waits for all scheduled subsystems to be parsed.
+     *
+     * @throws XMLStreamException if any subsystem failed to parse. The failure of the first subsystem in document
+     *                            order is reported
+     */
+    public void awaitCompletion() throws XMLStreamException {
+        for (Map.Entry<String, Future<XMLStreamException>> entry : futures.entrySet()) {
+            try {
+                XMLStreamException xse = entry.getValue().get();
+                if (xse != null) {
+                    throw xse;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ROOT_LOGGER.subsystemParsingInterrupted(entry.getKey());
+            } catch (ExecutionException e) {
+                throw ROOT_LOGGER.failedToParseSubsystem(e.getCause(), entry.getKey(), locations.get(entry.getKey()));
+            }
+        }
+        futures.clear();
+        locations.clear();
+    }
+
+    /**
+     * A copy of an element as a standalone document.
+     * <p>
+     * Each tag is written on a single line. The lines a tag spans in the original document are added as whitespace
+     * within the tags, and text is copied unchanged, so the content of the copy stays on the same lines as in the
+     * original, relative to the line of the copied element. The namespaces declared in the original are declared
+     * once, where they were declared, and a namespace used by the copy but declared outside of it is declared where
+     * it is first used.
+     * </p>
+     */
+    static final class Fragment {
+
+        private final StringBuilder buffer = new StringBuilder();
+        // the namespaces bound by each element which has not been ended yet, innermost first
+        private final Deque<Map<String, String>> scopes = new ArrayDeque<Map<String, String>>();
+        private int line = 1;
+        private int lineOffset = -1;
+        // whether the last tag written still needs its closing '>'
+        private boolean tagOpen;
+
+        /**
+         * Copies the element the reader is positioned on. On return the reader is positioned on the element's
+         * {@code END_ELEMENT} event.
+         *
+         * @param reader the reader, positioned on the {@code START_ELEMENT} event of the element
+         * @return the copy
+         * @throws XMLStreamException if the element could not be read
+         */
+        static Fragment copy(final XMLStreamReader reader) throws XMLStreamException {
+            final Fragment fragment = new Fragment();
+            int depth = 0;
+            for (;;) {
+                switch (reader.getEventType()) {
+                    case START_ELEMENT:
+                        depth++;
+                        fragment.writeStartElement(reader);
+                        break;
+                    case END_ELEMENT:
+                        depth--;
+                        fragment.writeEndElement(reader);
+                        break;
+                    case CHARACTERS:
+                    case SPACE:
+                        fragment.closeTag();
+                        fragment.appendEscaped(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case CDATA:
+                        fragment.closeTag();
+                        fragment.append("<![CDATA[").append(reader.getText()).append("]]>");
+                        break;
+                    case COMMENT:
+                        fragment.closeTag();
+                        fragment.append("<!--").append(reader.getText()).append("-->");
+                        break;
+                    case PROCESSING_INSTRUCTION:
+                        fragment.closeTag();
+                        fragment.append("<?").append(reader.getPITarget());
+                        final String data = reader.getPIData();
+                        if (data != null && !data.isEmpty()) {
+                            fragment.append(" ").append(data);
+                        }
+                        fragment.append("?>");
+                        break;
+                    default:
+                        break;
+                }
+                if (depth == 0) {
+                    break;
+                }
+                reader.next();
+            }
+            fragment.closeTag();
+            return fragment;
+        }
+
+        String getContent() {
+            return buffer.toString();
+        }
+
+        /**
+         * Gets the location in the original document of a location in the copy.
+         *
+         * @param location the location in the copy. May be {@code null}
+         * @param elementLocation the location of the copied element in the original document
+         * @return the location in the original document, or {@code elementLocation} if {@code location} is
+         *         {@code null} or has no line number
+         */
+        Location getDocumentLocation(final Location location, final Location elementLocation) {
+            if (location == null || location.getLineNumber() < 0 || lineOffset < 0) {
+                return elementLocation;
+            }
+            return new DocumentLocation(location.getLineNumber() + lineOffset, location.getColumnNumber(),
+                    elementLocation.getPublicId(), elementLocation.getSystemId());
+        }
+
+        private void writeStartElement(final XMLStreamReader reader) throws XMLStreamException {
+            final int target = reader.getLocation().getLineNumber();
+            if (lineOffset < 0 && target > 0) {
+                lineOffset = target - 1;
+            }
+            // Move the new tag to the line it is on in the original, if the previous tag spanned several lines
+            padTo(target);
+            closeTag();
+            final Map<String, String> bindings = new HashMap<String, String>();
+            scopes.push(bindings);
+            final String prefix = nonNull(reader.getPrefix());
+            buffer.append('<');
+            if (!prefix.isEmpty()) {
+                buffer.append(prefix).append(':');
+            }
+            buffer.append(reader.getLocalName());
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                declare(nonNull(reader.getNamespacePrefix(i)), nonNull(reader.getNamespaceURI(i)));
+            }
+            bind(prefix, nonNull(reader.getNamespaceURI()));
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                final String attributeNamespace = nonNull(reader.getAttributeNamespace(i));
+                final String attributePrefix = nonNull(reader.getAttributePrefix(i));
+                buffer.append(' ');
+                if (!attributeNamespace.isEmpty()) {
+                    bind(attributePrefix, attributeNamespace);
+                    buffer.append(attributePrefix).append(':');
+                }
+                buffer.append(reader.getAttributeLocalName(i)).append("=\"");
+                appendAttributeValue(reader.getAttributeValue(i));
+                buffer.append('"');
+            }
+            tagOpen = true;
+            // Cover the lines the tag spans in the original
+            padTo(target);
+        }
+
+        private void writeEndElement(final XMLStreamReader reader) {
+            final int target = reader.getLocation().getLineNumber();
+            padTo(target);
+            closeTag();
+            scopes.pop();
+            final String prefix = nonNull(reader.getPrefix());
+            buffer.append("</");
+            if (!prefix.isEmpty()) {
+                buffer.append(prefix).append(':');
+            }
+            buffer.append(reader.getLocalName());
+            tagOpen = true;
+            padTo(target);
+        }
+
+        /**
+         * Declares a namespace on the element being written, unless it is already bound to the prefix.
+         */
+        private void bind(final String prefix, final String namespace) {
+            // An unprefixed element in no namespace needs no declaration, unless a default namespace is in scope
+            if (!namespace.equals(lookup(prefix)) && !(prefix.isEmpty() && namespace.isEmpty() && lookup(prefix) == null)) {
+                declare(prefix, namespace);
+            }
+        }
+
+        private void declare(final String prefix, final String namespace) {
+            final Map<String, String> bindings = scopes.peek();
+            if (bindings.containsKey(prefix)) {
+                return;
+            }
+            bindings.put(prefix, namespace);
+            buffer.append(prefix.isEmpty() ? " xmlns" : " xmlns:" + prefix).append("=\"");
+            appendAttributeValue(namespace);
+            buffer.append('"');
+        }
+
+        private String lookup(final String prefix) {
+            for (Map<String, String> bindings : scopes) {
+                final String namespace = bindings.get(prefix);
+                if (namespace != null) {
+                    return namespace;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds line breaks within the tag being written until the copy reaches a line of the original document.
+         * Nothing is added outside of a tag, as that would change the content.
+         */
+        private void padTo(final int documentLine) {
+            if (tagOpen && documentLine > 0) {
+                while (line + lineOffset < documentLine) {
+                    buffer.append('\n');
+                    line++;
+                }
+            }
+        }
+
+        private void closeTag() {
+            if (tagOpen) {
+                buffer.append('>');
+                tagOpen = false;
+            }
+        }
+
+        private Fragment append(final String text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            buffer.append(text);
+            return this;
+        }
+
+        private void appendEscaped(final char[] text, final int start, final int length) {
+            for (int i = start; i < start + length; i++) {
+                final char c = text[i];
+                switch (c) {
+                    case '&':
+                        buffer.append("&amp;");
+                        break;
+                    case '<':
+                        buffer.append("&lt;");
+                        break;
+                    case '>':
+                        buffer.append("&gt;");
+                        break;
+                    case '\r':
+                        buffer.append("&#13;");
+                        break;
+                    case '\n':
+                        line++;
+                        buffer.append(c);
+                        break;
+                    default:
+                        buffer.append(c);
+                }
+            }
+        }
+
+        private void appendAttributeValue(final String value) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        buffer.append("&amp;");
+                        break;
+                    case '<':
+                        buffer.append("&lt;");
+                        break;
+                    case '"':
+                        buffer.append("&quot;");
+                        break;
+                    case '\t':
+                        buffer.append("&#9;");
+                        break;
+                    case '\n':
+                        buffer.append("&#10;");
+                        break;
+                    case '\r':
+                        buffer.append("&#13;");
+                        break;
+                    default:
+                        buffer.append(c);
+                }
+            }
+        }
+    }
+
+    private static final class DocumentLocation implements Location {
+
+        private final int lineNumber;
+        private final int columnNumber;
+        private final String publicId;
+        private final String systemId;
+
+        private DocumentLocation(final int lineNumber, final int columnNumber, final String publicId, final String systemId) {
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+            this.publicId = publicId;
+            this.systemId = systemId;
+        }
+
+        @Override
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return columnNumber;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        @Override
+        public String getPublicId() {
+            return publicId;
+        }
+
+        @Override
+        public String getSystemId() {
+            return systemId;
+        }
+    }
+
+    private static String nonNull(final String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -25,9 +25,13 @@ package org.jboss.as.controller.registry;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.jboss.as.controller.ModelVersion;
@@ -52,6 +56,9 @@ public class OperationTransformerRegistry {
     private final ResourceTransformerEntry resourceTransformer;
     private final OperationTransformerEntry defaultTransformer;
     private final boolean placeholder;
+    // Shared by all registries in the tree, incremented whenever any of them is modified
+    private final AtomicInteger modifications;
+    private volatile ResolutionIndex index;
     private volatile Map<String, SubRegistry> subRegistries;
     private volatile Map<String, OperationTransformerEntry> transformerEntries;
 
@@ -59,12 +66,17 @@ public class OperationTransformerRegistry {
     private static final AtomicMapFieldUpdater<OperationTransformerRegistry, String, OperationTransformerEntry> entriesUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(OperationTransformerRegistry.class, Map.class, "transformerEntries"));
 
     protected OperationTransformerRegistry(final PathAddressTransformer pathAddressTransformer, final ResourceTransformerEntry resourceTransformer, final OperationTransformerEntry defaultTransformer, final boolean placeholder) {
+        this(pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder, new AtomicInteger());
+    }
+
+    private OperationTransformerRegistry(final PathAddressTransformer pathAddressTransformer, final ResourceTransformerEntry resourceTransformer, final OperationTransformerEntry defaultTransformer, final boolean placeholder, final AtomicInteger modifications) {
         entriesUpdater.clear(this);
         subRegistriesUpdater.clear(this);
         this.defaultTransformer = defaultTransformer;
         this.resourceTransformer = resourceTransformer;
         this.pathAddressTransformer = pathAddressTransformer;
         this.placeholder = placeholder;
+        this.modifications = modifications;
     }
 
     public TransformerEntry getTransformerEntry(final PathAddress address, PlaceholderResolver placeholderResolver) {
@@ -105,6 +117,21 @@ public class OperationTransformerRegistry {
      * @return the transformer entry
      */
     public OperationTransformerEntry resolveOperationTransformer(final PathAddress address, final String operationName, PlaceholderResolver placeholderResolver) {
+        if (placeholderResolver == null) {
+            // Placeholder resolvers are created per transformation, so only plain lookups are indexed
+            final ResolutionIndex index = getIndex();
+            final OperationKey key = new OperationKey(address, operationName);
+            OperationTransformerEntry entry = index.operations.get(key);
+            if (entry == null) {
+                entry = doResolveOperationTransformer(address, operationName, null);
+                index.put(index.operations, key, entry);
+            }
+            return entry;
+        }
+        return doResolveOperationTransformer(address, operationName, placeholderResolver);
+    }
+
+    private OperationTransformerEntry doResolveOperationTransformer(final PathAddress address, final String operationName, PlaceholderResolver placeholderResolver) {
         final Iterator<PathElement> iterator = address.iterator();
         final OperationTransformerEntry entry = resolveOperationTransformer(iterator, operationName, placeholderResolver);
         if(entry != null) {
@@ -134,6 +161,19 @@ public class OperationTransformerRegistry {
      * @return a list of path transformations
      */
     public List<PathAddressTransformer> getPathTransformations(final PathAddress address, PlaceholderResolver placeholderResolver) {
+        if (placeholderResolver == null) {
+            final ResolutionIndex index = getIndex();
+            List<PathAddressTransformer> list = index.pathTransformations.get(address);
+            if (list == null) {
+                list = Collections.unmodifiableList(doGetPathTransformations(address, null));
+                index.put(index.pathTransformations, address, list);
+            }
+            return list;
+        }
+        return doGetPathTransformations(address, placeholderResolver);
+    }
+
+    private List<PathAddressTransformer> doGetPathTransformations(final PathAddress address, PlaceholderResolver placeholderResolver) {
         final List<PathAddressTransformer> list = new ArrayList<PathAddressTransformer>();
         final Iterator<PathElement> iterator = address.iterator();
         resolvePathTransformers(iterator, list, placeholderResolver);
@@ -240,7 +280,7 @@ public class OperationTransformerRegistry {
             return this;
         } else {
             final PathElement element = iterator.next();
-            return getOrCreate(element.getKey()).createChild(iterator, element.getValue(), pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder);
+            return getOrCreate(element.getKey()).createChild(iterator, element.getValue(), pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder, modifications);
         }
     }
 
@@ -250,6 +290,7 @@ public class OperationTransformerRegistry {
             if(existing != null) {
                 throw new IllegalStateException("duplicate transformer " + operationName);
             }
+            modifications.incrementAndGet();
         } else {
             final PathElement element = iterator.next();
             getOrCreate(element.getKey()).registerTransformer(iterator, element.getValue(), operationName, entry);
@@ -325,6 +366,7 @@ public class OperationTransformerRegistry {
                 registry = new SubRegistry();
                 SubRegistry existing = subRegistriesUpdater.putAtomic(this, key, registry, subRegistries);
                 if(existing == null) {
+                    modifications.incrementAndGet();
                     return registry;
                 } else if (existing != registry) {
                     return existing;
@@ -334,6 +376,70 @@ public class OperationTransformerRegistry {
         }
     }
 
+    private ResolutionIndex getIndex() {
+        final int generation = modifications.get();
+        ResolutionIndex current = index;
+        if (current == null || current.generation != generation) {
+            current = new ResolutionIndex(generation);
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * The results of resolving transformers against this registry since the tree it belongs to was last modified,
+     * so resolving the transformers for an address and operation name already seen is a single hash lookup. A
+     * modification of any registry in the tree makes the index stale, and a new one is started on the next lookup.
+     */
+    private static final class ResolutionIndex {
+        // Addresses contain resource names, so bound the number of entries kept
+        private static final int MAX_ENTRIES = 4096;
+
+        private final int generation;
+        private final ConcurrentMap<OperationKey, OperationTransformerEntry> operations = new ConcurrentHashMap<OperationKey, OperationTransformerEntry>();
+        private final ConcurrentMap<PathAddress, List<PathAddressTransformer>> pathTransformations = new ConcurrentHashMap<PathAddress, List<PathAddressTransformer>>();
+
+        private ResolutionIndex(final int generation) {
+            this.generation = generation;
+        }
+
+        private <K, V> void put(final ConcurrentMap<K, V> map, final K key, final V value) {
+            if (map.size() >= MAX_ENTRIES) {
+                map.clear();
+            }
+            map.put(key, value);
+        }
+    }
+
+    private static final class OperationKey {
+        private final PathAddress address;
+        private final String operationName;
+        private final int hashCode;
+
+        private OperationKey(final PathAddress address, final String operationName) {
+            this.address = address;
+            this.operationName = operationName;
+            this.hashCode = 31 * address.hashCode() + operationName.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof OperationKey)) {
+                return false;
+            }
+            final OperationKey other = (OperationKey) obj;
+            return hashCode == other.hashCode && operationName.equals(other.operationName) && address.equals(other.address);
+        }
+    }
+
     private static class SubRegistry {
 
         private static final AtomicMapFieldUpdater<SubRegistry, String, OperationTransformerRegistry> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(SubRegistry.class, Map.class, "entries"));
@@ -343,13 +449,13 @@ public class OperationTransformerRegistry {
             childrenUpdater.clear(this);
         }
 
-        public OperationTransformerRegistry createChild(Iterator<PathElement> iterator, String value, final PathAddressTransformer pathAddressTransformer, ResourceTransformerEntry resourceTransformer, OperationTransformerEntry defaultTransformer, boolean placeholder) {
+        public OperationTransformerRegistry createChild(Iterator<PathElement> iterator, String value, final PathAddressTransformer pathAddressTransformer, ResourceTransformerEntry resourceTransformer, OperationTransformerEntry defaultTransformer, boolean placeholder, AtomicInteger modifications) {
             if(! iterator.hasNext()) {
-                return create(value, pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder);
+                return create(value, pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder, modifications);
             } else {
                 OperationTransformerRegistry entry = get(value);
                 if(entry == null) {
-                    entry = create(value, PathAddressTransformer.DEFAULT, GlobalTransformerRegistry.RESOURCE_TRANSFORMER, FORWARD, placeholder);
+                    entry = create(value, PathAddressTransformer.DEFAULT, GlobalTransformerRegistry.RESOURCE_TRANSFORMER, FORWARD, placeholder, modifications);
                 }
                 return entry.createChildRegistry(iterator, pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder);
             }
@@ -381,16 +487,17 @@ public class OperationTransformerRegistry {
             return entry.resolveChild(iterator);
         }
 
-        OperationTransformerRegistry create(final String value, final PathAddressTransformer pathAddressTransformer, final ResourceTransformerEntry resourceTransformer, final OperationTransformerEntry defaultTransformer, boolean placeholder) {
+        OperationTransformerRegistry create(final String value, final PathAddressTransformer pathAddressTransformer, final ResourceTransformerEntry resourceTransformer, final OperationTransformerEntry defaultTransformer, boolean placeholder, AtomicInteger modifications) {
             for(;;) {
                 final Map<String, OperationTransformerRegistry> entries = childrenUpdater.get(this);
                 OperationTransformerRegistry entry = entries.get(value);
                 if(entry != null) {
                     return entry;
                 } else {
-                    entry = new OperationTransformerRegistry(pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder);
+                    entry = new OperationTransformerRegistry(pathAddressTransformer, resourceTransformer, defaultTransformer, placeholder, modifications);
                     final OperationTransformerRegistry existing = childrenUpdater.putAtomic(this, value, entry, entries);
                     if(existing == null) {
+                        modifications.incrementAndGet();
                         return entry;
                     } else if(existing != entry) {
                         return existing;
@@ -280,20 +280,36 @@ public interface Resource extends Cloneable {
         }
 
         static ModelNode readModel(final PathAddress address, final Resource resource, final int level, final ResourceFilter filter) {
-            final ModelNode model = resource.getModel().clone();
+            final ModelNode model = new ModelNode();
+            readModel(address, resource, level, filter, model);
+            return model;
+        }
+
+        /**
+         * Reads the resource tree into {@code target}. Each child's model is written directly into its place in the
+         * parent's DMR tree, so every resource's model is copied exactly once, rather than once per level of nesting
+         * as happens when a child's DMR tree is built separately and then {@link ModelNode#set(ModelNode) set} in
+         * the parent's.
+         */
+        private static void readModel(final PathAddress address, final Resource resource, final int level, final ResourceFilter filter,
+                                      final ModelNode target) {
+            target.set(resource.getModel());
             final boolean recursive = level == -1 ? true : level > 0;
             if(recursive) {
                 final int newLevel = level == -1 ? -1 : level - 1;
                 for(final String childType : resource.getChildTypes()) {
-                    model.get(childType).setEmptyObject();
+                    final ModelNode children = target.get(childType).setEmptyObject();
                     for(final ResourceEntry entry : resource.getChildren(childType)) {
                         if(filter.accepts(address.append(entry.getPathElement()), resource)) {
-                            model.get(childType, entry.getName()).set(readModel(entry, newLevel));
+                            final ModelNode child = children.get(entry.getName());
+                            // Descendants are always read using the default filter
+                            if (ALL_BUT_RUNTIME_AND_PROXIES_FILTER.accepts(PathAddress.EMPTY_ADDRESS, entry)) {
+                                readModel(PathAddress.EMPTY_ADDRESS, entry, newLevel, ALL_BUT_RUNTIME_AND_PROXIES_FILTER, child);
+                            }
                         }
                     }
                 }
             }
-            return model;
         }
 
         /**
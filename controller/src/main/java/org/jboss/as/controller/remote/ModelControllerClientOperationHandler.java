@@ -55,6 +55,7 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.protocol.StreamUtils;
@@ -118,6 +119,10 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                 // initialize the operation ctx before executing the request handler
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return responseAttachmentSupport.getReadHandler();
+            case ModelControllerProtocol.GET_FLOW_CONTROLLED_INPUTSTREAM_REQUEST:
+                // initialize the operation ctx before executing the request handler
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return responseAttachmentSupport.getFlowControlledReadHandler();
             case ModelControllerProtocol.CLOSE_INPUTSTREAM_REQUEST:
                 // initialize the operation ctx before executing the request handler
                 handlers.registerActiveOperation(header.getBatchId(), null);
@@ -292,7 +297,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                         MGMT_OP_LOGGER.tracef("Transmitting response for %d", context.getOperationId());
                         output = responseContext.writeMessage(response);
                         output.write(ModelControllerProtocol.PARAM_RESPONSE);
-                        result.writeExternal(output);
+                        ModelNodeCodec.writeModelNode(result, output, response);
                         output.writeByte(ManagementProtocol.RESPONSE_END);
                         output.close();
                     } catch (IOException e) {
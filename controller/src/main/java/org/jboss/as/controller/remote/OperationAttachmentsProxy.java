@@ -25,7 +25,10 @@ package org.jboss.as.controller.remote;
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +36,7 @@ import java.util.List;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.TransferableInputStream;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
@@ -107,8 +111,14 @@ class OperationAttachmentsProxy implements Operation {
         return new OperationAttachmentsProxy(operation, proxiedStreams);
     }
 
-    private static class ProxiedInputStream extends InputStream {
+    /**
+     * Stream reading an attachment from the client. The attachment is requested when the stream is first read, and
+     * the receiving thread then hands its content over through a pipe. Alternatively {@link #transferTo} has the
+     * receiving thread write the content to a channel directly.
+     */
+    private static class ProxiedInputStream extends InputStream implements TransferableInputStream {
         static final int BUFFER_SIZE = 8192;
+        static final int TRANSFER_BUFFER_SIZE = 65536;
 
         private final int index;
         private final int batchId;
@@ -117,6 +127,8 @@ class OperationAttachmentsProxy implements Operation {
 
         private boolean initialized;
         private volatile Exception error;
+        /** The number of bytes written by a completed transfer, guarded by the lock on this stream */
+        private long transferred = -1;
 
         ProxiedInputStream(final ManagementChannelAssociation channelAssociation, final int batchId, final int index) {
             this.channelAssociation = channelAssociation;
@@ -155,6 +167,72 @@ class OperationAttachmentsProxy implements Operation {
             }
         }
 
+        @Override
+        public long transferTo(final WritableByteChannel channel) throws IOException {
+            if (initialized) {
+                // Already being read through the pipe, so just drain it
+                return copy(channel);
+            }
+            initialized = true;
+            try {
+                channelAssociation.executeRequest(batchId, new AbstractInputStreamRequest() {
+                    @Override
+                    void handleContent(DataInput input, int size) throws IOException {
+                        final byte[] buffer = new byte[Math.min(size, TRANSFER_BUFFER_SIZE)];
+                        final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+                        int totalRead = 0;
+                        while (totalRead < size) {
+                            int len = Math.min(size - totalRead, buffer.length);
+                            input.readFully(buffer, 0, len);
+                            byteBuffer.clear().limit(len);
+                            while (byteBuffer.hasRemaining()) {
+                                channel.write(byteBuffer);
+                            }
+                            totalRead += len;
+                        }
+                        // Leave the stream at its end for later reads
+                        pipe.getOut().close();
+                        transferred(totalRead);
+                    }
+                });
+            } catch (IOException e) {
+                shutdown(e);
+            }
+            return awaitTransfer();
+        }
+
+        private long copy(final WritableByteChannel channel) throws IOException {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = read(buffer, 0, buffer.length)) != -1) {
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                total += read;
+            }
+            return total;
+        }
+
+        private synchronized void transferred(final long bytes) {
+            transferred = bytes;
+            notifyAll();
+        }
+
+        private synchronized long awaitTransfer() throws IOException {
+            while (transferred < 0 && error == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            throwIfError();
+            return transferred;
+        }
+
         private void prepareForRead() throws IOException {
             initializeBytes();
             throwIfError();
@@ -166,38 +244,18 @@ class OperationAttachmentsProxy implements Operation {
                 try {
                     final OutputStream os = pipe.getOut();
                     // Execute the async request
-                    channelAssociation.executeRequest(batchId, new AbstractManagementRequest<Object, Object>() {
-
-                        @Override
-                        public byte getOperationType() {
-                            return ModelControllerProtocol.GET_INPUTSTREAM_REQUEST;
-                        }
-
+                    channelAssociation.executeRequest(batchId, new AbstractInputStreamRequest() {
                         @Override
-                        protected void sendRequest(ActiveOperation.ResultHandler<Object> resultHandler, ManagementRequestContext<Object> context, FlushableDataOutput output) throws IOException {
-                            output.write(ModelControllerProtocol.PARAM_INPUTSTREAM_INDEX);
-                            output.writeInt(index);
-                        }
-
-                        @Override
-                        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Object> resultHandler, ManagementRequestContext<Object> context) throws IOException {
-                            try {
-                                ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
-                                final int size = input.readInt();
-                                ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
-                                final byte[] buffer = new byte[BUFFER_SIZE];
-                                int totalRead = 0;
-                                while (totalRead < size) {
-                                    int len = Math.min(size - totalRead, buffer.length);
-                                    input.readFully(buffer, 0, len);
-                                    os.write(buffer, 0, len);
-                                    totalRead += len;
-                                }
-                                os.close();
-                            } catch (IOException e) {
-                                shutdown(e);
-                                throw e;
+                        void handleContent(DataInput input, int size) throws IOException {
+                            final byte[] buffer = new byte[BUFFER_SIZE];
+                            int totalRead = 0;
+                            while (totalRead < size) {
+                                int len = Math.min(size - totalRead, buffer.length);
+                                input.readFully(buffer, 0, len);
+                                os.write(buffer, 0, len);
+                                totalRead += len;
                             }
+                            os.close();
                         }
                     });
                 } catch (IOException e) {
@@ -217,7 +275,42 @@ class OperationAttachmentsProxy implements Operation {
 
         private void shutdown(Exception error) {
             StreamUtils.safeClose(this);
-            this.error = error;
+            synchronized (this) {
+                this.error = error;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Requests the content of the attachment, handing it to {@link #handleContent(DataInput, int)}.
+         */
+        private abstract class AbstractInputStreamRequest extends AbstractManagementRequest<Object, Object> {
+
+            @Override
+            public byte getOperationType() {
+                return ModelControllerProtocol.GET_INPUTSTREAM_REQUEST;
+            }
+
+            @Override
+            protected void sendRequest(ActiveOperation.ResultHandler<Object> resultHandler, ManagementRequestContext<Object> context, FlushableDataOutput output) throws IOException {
+                output.write(ModelControllerProtocol.PARAM_INPUTSTREAM_INDEX);
+                output.writeInt(index);
+            }
+
+            @Override
+            public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Object> resultHandler, ManagementRequestContext<Object> context) throws IOException {
+                try {
+                    ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
+                    final int size = input.readInt();
+                    ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
+                    handleContent(input, size);
+                } catch (IOException e) {
+                    shutdown(e);
+                    throw e;
+                }
+            }
+
+            abstract void handleContent(DataInput input, int size) throws IOException;
         }
     }
 }
@@ -159,6 +159,16 @@ public class ResponseAttachmentInputStreamSupport {
         return new ReadHandler();
     }
 
+    /**
+     * Gets a handler for requests to read the next part of an input stream, no larger than the credit
+     * sent with the request.
+     *
+     * @return  the handler
+     */
+    ManagementRequestHandler<Void, Void> getFlowControlledReadHandler() {
+        return new FlowControlledReadHandler();
+    }
+
     /**
      * Gets a handler for requests to close an input stream.
      *
@@ -168,7 +178,8 @@ public class ResponseAttachmentInputStreamSupport {
         return new AbstractAttachmentHandler() {
             @Override
             void handleRequest(TimedStreamEntry entry, FlushableDataOutput output) throws IOException {
-                // no-op as AbstractAttachmentHandler will close the entry after calling this
+                // Close while holding the lock, as a flow controlled read may still be using the entry
+                StreamUtils.safeClose(entry);
             }
 
             @Override
@@ -358,6 +369,114 @@ public class ResponseAttachmentInputStreamSupport {
         }
     }
 
+    /**
+     * Sends the next part of a stream, no larger than the credit sent with the request, and tells the client
+     * whether more follows. The client only asks for a part once it has room for all of it, so handling a
+     * response never has to wait for the reader. The stream stays registered until it has been read to the end
+     * or closed.
+     */
+    private class FlowControlledReadHandler implements ManagementRequestHandler<Void, Void> {
+        private static final int BUFFER_SIZE = 8192;
+
+        @Override
+        public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler,
+                                  final ManagementRequestContext<Void> context) throws IOException {
+            // Read the inputStream key and the credit
+            expectHeader(input, ModelControllerProtocol.PARAM_OPERATION);
+            final int requestId = input.readInt();
+            expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_INDEX);
+            final int index = input.readInt();
+            expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAM_CREDIT);
+            final int credit = input.readInt();
+            final InputStreamKey key = new InputStreamKey(requestId, index);
+            context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
+                @Override
+                public void execute(final ManagementRequestContext<Void> context) throws Exception {
+                    final ManagementRequestHeader header = ManagementRequestHeader.class.cast(context.getRequestHeader());
+                    final ManagementResponseHeader response = new ManagementResponseHeader(header.getVersion(), header.getRequestId(), null);
+                    final TimedStreamEntry entry = streamMap.get(key);  // keep it for the following requests
+                    boolean complete = true;
+
+                    FlushableDataOutput output = null;
+                    try {
+                        output = context.writeMessage(response);
+                        if (entry == null) {
+                            // Either a bogus request or a request for a stream that has timed out
+                            // and been cleaned up.
+                            handleMissingStream(requestId, index, output);
+                        } else {
+                            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+                            synchronized (entry) { // lock out any gc work
+                                if (entry.closed) {
+                                    // Just cleaned up
+                                    handleMissingStream(requestId, index, output);
+                                } else {
+                                    complete = sendPart(entry, credit, output);
+                                    entry.timestamp.set(System.currentTimeMillis());
+                                }
+                            }
+                        }
+                        output.writeByte(ManagementProtocol.RESPONSE_END);
+                        output.close();
+                        resultHandler.done(null);
+                    } finally {
+                        StreamUtils.safeClose(output);
+                        if (complete && entry != null) {
+                            // Read to the end or failed, either way it will not be used again
+                            streamMap.remove(key, entry);
+                            StreamUtils.safeClose(entry);
+                        }
+                    }
+                }
+            });
+        }
+
+        /**
+         * Writes up to {@code credit} bytes of the stream followed by either {@code PARAM_END} or
+         * {@code PARAM_INPUTSTREAM_MORE}.
+         *
+         * @return {@code true} if the end of the stream was reached
+         */
+        private boolean sendPart(TimedStreamEntry entry, int credit, FlushableDataOutput output) throws IOException {
+            InputStream input = entry.streamEntry.getStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int remainingCredit = credit;
+            int read = 0;
+            while (remainingCredit > 0 && read != -1) {
+                // Set the timestamp on each loop so if there are blocking delays reading or writing
+                // they don't accumulate
+                entry.timestamp.set(System.currentTimeMillis());
+
+                int totalRead = 0;
+                int remaining = Math.min(BUFFER_SIZE, remainingCredit);
+                // Read a full buffer if possible before sending
+                while (remaining > 0 && (read = input.read(buffer, totalRead, remaining)) != -1) {
+                    totalRead += read;
+                    remaining -= read;
+                }
+                if (totalRead > 0) {
+                    output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
+                    output.writeInt(totalRead);
+                    output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
+                    output.write(buffer, 0, totalRead);
+                    remainingCredit -= totalRead;
+                }
+            }
+            if (read == -1) {
+                output.writeByte(ModelControllerProtocol.PARAM_END);
+                return true;
+            }
+            output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_MORE);
+            return false;
+        }
+
+        private void handleMissingStream(int requestId, int index, FlushableDataOutput output) throws IOException {
+            // Respond as if stream was empty
+            ControllerLogger.MGMT_OP_LOGGER.debugf("Received request for unavailable stream at index %d for request id %d; responding with EOF", index, requestId);
+            output.write(ModelControllerProtocol.PARAM_END);
+        }
+    }
+
     private static class TimedStreamEntry implements Closeable {
         private final OperationResponse.StreamEntry streamEntry;
         private final AtomicLong timestamp;
@@ -370,8 +489,10 @@ public class ResponseAttachmentInputStreamSupport {
 
         @Override
         public void close() throws IOException {
-            streamEntry.close();
-            closed = true;
+            if (!closed) {
+                closed = true;
+                streamEntry.close();
+            }
         }
     }
 
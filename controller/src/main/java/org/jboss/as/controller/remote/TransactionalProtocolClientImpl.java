@@ -52,6 +52,7 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.AbstractDelegatingAsyncFuture;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.client.impl.OperationResponseProxy;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
@@ -194,8 +195,7 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<OperationResponse> resultHandler, final ManagementRequestContext<ExecuteRequestContext> context) throws IOException {
             ControllerLogger.MGMT_OP_LOGGER.tracef("received response to ExecuteRequest for %d", context.getOperationId());
             final byte responseType = input.readByte();
-            final ModelNode response = new ModelNode();
-            response.readExternal(input);
+            final ModelNode response = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
             // If not prepared the operation failed
             final boolean prepared = responseType == ModelControllerProtocol.PARAM_OPERATION_PREPARED;
             final ExecuteRequestContext executeRequestContext = context.getAttachment();
@@ -279,10 +279,9 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
             ControllerLogger.MGMT_OP_LOGGER.tracef("received response to CompleteTxRequest (%s) for %d", status != ModelControllerProtocol.PARAM_ROLLBACK, context.getOperationId());
             // We only accept operationCompleted responses
             expectHeader(input, ModelControllerProtocol.PARAM_OPERATION_COMPLETED);
-            final ModelNode responseNode = new ModelNode();
-            responseNode.readExternal(input);
+            final ModelNode responseNode = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
             // Complete the operation
-            resultHandler.done(createOperationResponse(responseNode, channelAssociation, context.getOperationId()));
+            resultHandler.done(createOperationResponse(responseNode, channelAssociation, context.getOperationId(), context.getRequestHeader().getVersion()));
         }
 
         private void sendRequestInternal(ActiveOperation.ResultHandler<OperationResponse> resultHandler,
@@ -501,12 +500,12 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
 
 
 
-    private static OperationResponse createOperationResponse(ModelNode simpleResponse, ManagementChannelAssociation channelAssociation, int operationId) {
+    private static OperationResponse createOperationResponse(ModelNode simpleResponse, ManagementChannelAssociation channelAssociation, int operationId, int protocolVersion) {
         final ModelNode streamHeader =  simpleResponse.hasDefined(RESPONSE_HEADERS) && simpleResponse.get(RESPONSE_HEADERS).hasDefined(ATTACHED_STREAMS)
                 ? simpleResponse.get(RESPONSE_HEADERS, ATTACHED_STREAMS)
                 : null;
         if (streamHeader != null && streamHeader.asInt() > 0) {
-            return OperationResponseProxy.create(simpleResponse, channelAssociation, operationId, streamHeader);
+            return OperationResponseProxy.create(simpleResponse, channelAssociation, operationId, streamHeader, protocolVersion);
         } else {
             return OperationResponse.Factory.createSimple(simpleResponse);
         }
@@ -43,6 +43,7 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -109,6 +110,11 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
                 handlers.registerActiveOperation(request.getBatchId(), null);
                 return responseAttachmentSupport.getReadHandler();
             }
+            case ModelControllerProtocol.GET_FLOW_CONTROLLED_INPUTSTREAM_REQUEST: {
+                // initialize the operation ctx before executing the request handler
+                handlers.registerActiveOperation(request.getBatchId(), null);
+                return responseAttachmentSupport.getFlowControlledReadHandler();
+            }
             case ModelControllerProtocol.CLOSE_INPUTSTREAM_REQUEST: {
                 // initialize the operation ctx before executing the request handler
                 handlers.registerActiveOperation(request.getBatchId(), null);
@@ -149,7 +155,8 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
 
                         @Override
                         public Void run() {
-                            AccessAuditContext.doAs(executableRequest.subject, action);
+                            // Requests on this channel come from the host or domain controller rolling out an operation
+                            AccessAuditContext.doAs(executableRequest.subject, action, true);
                             return null;
                         }
                     });
@@ -524,7 +531,7 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
                     // response type
                     output.writeByte(responseType);
                     // operation result
-                    response.writeExternal(output);
+                    ModelNodeCodec.writeModelNode(response, output, header);
                     // response end
                     output.writeByte(ManagementProtocol.RESPONSE_END);
                     output.close();
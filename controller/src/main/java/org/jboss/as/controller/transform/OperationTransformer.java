@@ -69,6 +69,10 @@ public interface OperationTransformer {
             return resultTransformer;
         }
 
+        OperationRejectionPolicy getRejectionPolicy() {
+            return rejectPolicy;
+        }
+
         @Override
         public boolean rejectOperation(final ModelNode preparedResult) {
             return rejectPolicy.rejectOperation(preparedResult);
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.transform;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -97,6 +98,21 @@ public class TransformationTargetImpl implements TransformationTarget {
         return new TransformationTargetImpl(this, placeholderResolver);
     }
 
+    /**
+     * Gets a key that is equal to the key of any other target for which operations and resources are transformed
+     * in the same way, i.e. one with the same type, versions, transformer registry and placeholder resolver. The key
+     * does not include the host name, which only appears in rejection messages and transformation warnings.
+     *
+     * @return the key. Will not be {@code null}
+     */
+    Object getEquivalenceKey() {
+        final Map<String, ModelVersion> subsystems;
+        synchronized (subsystemVersions) {
+            subsystems = new HashMap<String, ModelVersion>(subsystemVersions);
+        }
+        return Arrays.<Object>asList(type, version, subsystems, transformerRegistry, placeholderResolver);
+    }
+
     @Override
     public ModelVersion getVersion() {
         return version;
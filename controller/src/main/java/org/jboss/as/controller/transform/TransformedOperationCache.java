@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.transform;
+
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the results of transforming an operation for a number of {@link TransformingProxyController}s, so that an
+ * operation that is sent to several legacy hosts running the same version is only transformed once per distinct
+ * {@link TransformationTarget}, and the result is fanned out to the other hosts.
+ * <p>
+ * Targets are considered equivalent if they have the same type, management model version and subsystem versions,
+ * and share the same transformer registry. Targets that are not {@link TransformationTargetImpl} instances are
+ * never considered equivalent to any other target.
+ * </p>
+ * <p>
+ * Rejection messages and transformation warnings name the host they were produced for, so a transformation is only
+ * shared if it cannot reject the operation and did not queue any messages with the {@link TransformersLogger}.
+ * Any other transformation is repeated for each host.
+ * </p>
+ * <p>
+ * A cache should only be used while transforming the same operation for a set of targets within a single
+ * operation step, as the transformation of an operation may depend on the state of the model.
+ * </p>
+ */
+public final class TransformedOperationCache {
+
+    private final Map<Key, CachedTransformation> cache = new HashMap<Key, CachedTransformation>();
+
+    /**
+     * Transforms an operation for the target of the given proxy, reusing the result of an earlier transformation of
+     * an equal operation for an equivalent target if there is one.
+     *
+     * @param proxyController the proxy to which the operation will be sent
+     * @param context the operation context
+     * @param operation the operation to transform
+     * @return the transformed operation. The {@link OperationTransformer.TransformedOperation#getTransformedOperation() transformed operation}
+     *         is never shared with any other caller
+     * @throws OperationFailedException if the transformation fails
+     */
+    public synchronized OperationTransformer.TransformedOperation transformOperation(final TransformingProxyController proxyController,
+            final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final Transformers transformers = proxyController.getTransformers();
+        final TransformationTarget target = transformers == null ? null : transformers.getTarget();
+        if (!(target instanceof TransformationTargetImpl)) {
+            return proxyController.transformOperation(context, operation);
+        }
+        final Key key = new Key(((TransformationTargetImpl) target).getEquivalenceKey(), operation.clone());
+        final CachedTransformation cached = cache.get(key);
+        if (cached != null) {
+            ROOT_LOGGER.tracef("Reusing transformation of %s for target %s", operation, proxyController.getProxyNodeAddress());
+            return cached.newTransformedOperation();
+        }
+        final TransformersLogger logger = TransformersLogger.getLogger(target);
+        final int queuedMessages = logger.getQueuedMessageCount();
+        final OperationTransformer.TransformedOperation transformed = proxyController.transformOperation(context, operation);
+        if (transformed.getRejectionPolicy() == OperationTransformer.DEFAULT_REJECTION_POLICY
+                && logger.getQueuedMessageCount() == queuedMessages) {
+            cache.put(key, new CachedTransformation(transformed));
+        }
+        return transformed;
+    }
+
+    private static final class Key {
+        private final Object target;
+        private final ModelNode operation;
+        private final int hashCode;
+
+        private Key(final Object target, final ModelNode operation) {
+            this.target = target;
+            this.operation = operation;
+            this.hashCode = 31 * target.hashCode() + operation.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && target.equals(other.target) && operation.equals(other.operation);
+        }
+    }
+
+    private static final class CachedTransformation {
+        private final ModelNode transformedOperation;
+        private final OperationTransformer.TransformedOperation delegate;
+
+        private CachedTransformation(final OperationTransformer.TransformedOperation delegate) {
+            final ModelNode transformedOperation = delegate.getTransformedOperation();
+            // Callers may modify the operation they are given, so keep our own copy
+            this.transformedOperation = transformedOperation == null ? null : transformedOperation.clone();
+            this.delegate = delegate;
+        }
+
+        private OperationTransformer.TransformedOperation newTransformedOperation() {
+            return new OperationTransformer.TransformedOperation(transformedOperation == null ? null : transformedOperation.clone(),
+                    delegate, delegate);
+        }
+    }
+}
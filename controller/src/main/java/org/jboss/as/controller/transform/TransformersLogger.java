@@ -247,6 +247,13 @@ public class TransformersLogger {
         });
     }
 
+    /**
+     * Gets the number of messages queued so far, so callers can tell whether a transformation logged anything.
+     */
+    int getQueuedMessageCount() {
+        return messageQueue.size();
+    }
+
     /**
      * flushes log queue, this actually writes combined log message into system log
      */
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.test.AbstractControllerTestBase;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link FlightRecorderEventType} events, including those emitted by the controller for management
+ * operations and controller lock waits, are recorded by a running flight recording.
+ */
+public class FlightRecorderEventTypeTestCase extends AbstractControllerTestBase {
+
+    private static final OperationDefinition LOCK = new SimpleOperationDefinitionBuilder("lock", new NonResolvingResourceDescriptionResolver())
+            .build();
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        final ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        registration.registerOperationHandler(LOCK, new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.acquireControllerLock();
+            }
+        });
+    }
+
+    @Before
+    public void checkAvailable() {
+        Assume.assumeTrue(FlightRecorderEventType.isAvailable());
+    }
+
+    @Test
+    public void testNotRecordedWithoutRecording() {
+        final FlightRecorderEventType type = new FlightRecorderEventType("org.jboss.as.test.Unrecorded", "Unrecorded", "value");
+        Assert.assertNull(type.begin());
+        // committing a null event does nothing
+        type.commit(null, "value");
+    }
+
+    @Test
+    public void testEventRecorded() throws Exception {
+        final FlightRecorderEventType type = new FlightRecorderEventType("org.jboss.as.test.Recorded", "Recorded", "first", "second");
+        final Recording recording = new Recording("org.jboss.as.test.Recorded");
+        final List<Object> events;
+        try {
+            final Object event = type.begin();
+            Assert.assertNotNull(event);
+            type.commit(event, "one", "two");
+        } finally {
+            events = recording.stop();
+        }
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("one", Recording.getValue(events.get(0), "first"));
+        Assert.assertEquals("two", Recording.getValue(events.get(0), "second"));
+    }
+
+    @Test
+    public void testOperationEvents() throws Exception {
+        final Recording recording = new Recording("org.jboss.as.ManagementOperation", "org.jboss.as.ControllerLockWait");
+        final List<Object> events;
+        try {
+            executeForResult(createOperation(LOCK.getName()));
+        } finally {
+            events = recording.stop();
+        }
+        boolean operationRecorded = false;
+        boolean lockWaitRecorded = false;
+        for (Object event : events) {
+            if (!LOCK.getName().equals(Recording.getValue(event, "operation"))) {
+                continue;
+            }
+            final String type = Recording.getEventTypeName(event);
+            if ("org.jboss.as.ManagementOperation".equals(type)) {
+                Assert.assertEquals("success", Recording.getValue(event, "outcome"));
+                operationRecorded = true;
+            } else if ("org.jboss.as.ControllerLockWait".equals(type)) {
+                lockWaitRecorded = true;
+            }
+        }
+        Assert.assertTrue(events.toString(), operationRecorded);
+        Assert.assertTrue(events.toString(), lockWaitRecorded);
+    }
+
+    /**
+     * A flight recording of some event types, driven reflectively like {@link FlightRecorderEventType}.
+     */
+    private static final class Recording {
+
+        private final ClassLoader loader = ClassLoader.getSystemClassLoader();
+        private final Class<?> recordingClass;
+        private final Object recording;
+        private final List<String> eventTypes = new ArrayList<String>();
+
+        private Recording(final String... eventTypes) throws Exception {
+            recordingClass = Class.forName("jdk.jfr.Recording", false, loader);
+            recording = recordingClass.getConstructor().newInstance();
+            final Method enable = recordingClass.getMethod("enable", String.class);
+            for (String eventType : eventTypes) {
+                enable.invoke(recording, eventType);
+                this.eventTypes.add(eventType);
+            }
+            recordingClass.getMethod("start").invoke(recording);
+            // Let the event types notice they are enabled
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(FlightRecorderEventType.ENABLED_CHECK_INTERVAL) + 100);
+        }
+
+        /**
+         * Stops the recording and returns the events of the recorded types.
+         */
+        private List<Object> stop() throws Exception {
+            final Path file = File.createTempFile("recording", ".jfr").toPath();
+            try {
+                recordingClass.getMethod("stop").invoke(recording);
+                recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+                final List<?> all = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile", false, loader)
+                        .getMethod("readAllEvents", Path.class).invoke(null, file);
+                final List<Object> events = new ArrayList<Object>();
+                for (Object event : all) {
+                    if (eventTypes.contains(getEventTypeName(event))) {
+                        events.add(event);
+                    }
+                }
+                return events;
+            } finally {
+                recordingClass.getMethod("close").invoke(recording);
+                Files.deleteIfExists(file);
+            }
+        }
+
+        private static String getEventTypeName(final Object event) throws Exception {
+            final Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+            return (String) eventType.getClass().getMethod("getName").invoke(eventType);
+        }
+
+        private static Object getValue(final Object event, final String field) throws Exception {
+            return event.getClass().getMethod("getValue", String.class).invoke(event, field);
+        }
+    }
+}
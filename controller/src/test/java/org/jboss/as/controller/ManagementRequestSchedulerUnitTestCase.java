@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SHUTDOWN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.ManagementRequestScheduler.PriorityClass;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ManagementRequestScheduler}.
+ */
+public class ManagementRequestSchedulerUnitTestCase {
+
+    private ManagementResourceRegistration root;
+
+    @Before
+    public void setup() {
+        root = ManagementResourceRegistration.Factory.create(ResourceBuilder.Factory.create(PathElement.pathElement("test"),
+                NonResolvingResourceDescriptionResolver.INSTANCE).build());
+        root.registerOperationHandler(new SimpleOperationDefinitionBuilder("read-something", NonResolvingResourceDescriptionResolver.INSTANCE)
+                .setReadOnly()
+                .build(), NoopOperationStepHandler.WITH_RESULT);
+        root.registerOperationHandler(new SimpleOperationDefinitionBuilder("write-something", NonResolvingResourceDescriptionResolver.INSTANCE)
+                .build(), NoopOperationStepHandler.WITHOUT_RESULT);
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(PriorityClass.READ, ManagementRequestScheduler.classify(Util.createEmptyOperation("read-something", PathAddress.EMPTY_ADDRESS), root));
+        assertEquals(PriorityClass.WRITE, ManagementRequestScheduler.classify(Util.createEmptyOperation("write-something", PathAddress.EMPTY_ADDRESS), root));
+        assertEquals(PriorityClass.WRITE, ManagementRequestScheduler.classify(Util.createEmptyOperation("unknown", PathAddress.EMPTY_ADDRESS), root));
+        assertEquals(PriorityClass.BULK, ManagementRequestScheduler.classify(Util.createEmptyOperation(FULL_REPLACE_DEPLOYMENT, PathAddress.EMPTY_ADDRESS), root));
+        assertEquals(PriorityClass.BULK, ManagementRequestScheduler.classify(Util.createAddOperation(PathAddress.pathAddress(DEPLOYMENT, "test.war")), root));
+        assertEquals(PriorityClass.WRITE, ManagementRequestScheduler.classify(Util.createEmptyOperation(ADD, PathAddress.pathAddress("subsystem", "test")), root));
+        assertEquals(PriorityClass.WRITE, ManagementRequestScheduler.classify(Util.createEmptyOperation("upload-deployment-stream", PathAddress.EMPTY_ADDRESS), root));
+        assertNull(ManagementRequestScheduler.classify(Util.createEmptyOperation(SHUTDOWN, PathAddress.EMPTY_ADDRESS), root));
+        assertNull(ManagementRequestScheduler.classify(Util.createEmptyOperation("reload", PathAddress.EMPTY_ADDRESS), root));
+    }
+
+    @Test
+    public void testClassifyComposite() {
+        ModelNode composite = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+        composite.get(STEPS).add(Util.createEmptyOperation("read-something", PathAddress.EMPTY_ADDRESS));
+        assertEquals(PriorityClass.READ, ManagementRequestScheduler.classify(composite, root));
+        composite.get(STEPS).add(Util.createEmptyOperation("write-something", PathAddress.EMPTY_ADDRESS));
+        assertEquals(PriorityClass.WRITE, ManagementRequestScheduler.classify(composite, root));
+        composite.get(STEPS).add(Util.createAddOperation(PathAddress.pathAddress(DEPLOYMENT, "test.war")));
+        assertEquals(PriorityClass.BULK, ManagementRequestScheduler.classify(composite, root));
+        composite.get(STEPS).add(Util.createEmptyOperation("reload", PathAddress.EMPTY_ADDRESS));
+        assertNull(ManagementRequestScheduler.classify(composite, root));
+    }
+
+    @Test
+    public void testReadsDoNotQueueBehindBulk() throws Exception {
+        final ManagementRequestScheduler scheduler = new ManagementRequestScheduler();
+        assertTrue(scheduler.acquire(PriorityClass.BULK, 10000));
+
+        final CountDownLatch admitted = new CountDownLatch(1);
+        Thread queuedBulk = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (scheduler.acquire(PriorityClass.BULK, 10000)) {
+                        admitted.countDown();
+                        scheduler.release(PriorityClass.BULK);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        queuedBulk.start();
+
+        // A read is admitted immediately while bulk work is executing and queued
+        assertTrue(scheduler.acquire(PriorityClass.READ, 10000));
+        scheduler.release(PriorityClass.READ);
+        assertEquals(1, admitted.getCount());
+
+        ModelNode bulk = getStatistics(scheduler, PriorityClass.BULK);
+        assertEquals(1, bulk.get("max-concurrent").asInt());
+        assertEquals(1, bulk.get("active").asInt());
+
+        scheduler.release(PriorityClass.BULK);
+        assertTrue(admitted.await(10, TimeUnit.SECONDS));
+        queuedBulk.join(10000);
+
+        bulk = getStatistics(scheduler, PriorityClass.BULK);
+        assertEquals(0, bulk.get("active").asInt());
+        assertEquals(0, bulk.get("queued").asInt());
+        assertEquals(2, bulk.get("completed").asLong());
+        ModelNode read = getStatistics(scheduler, PriorityClass.READ);
+        assertEquals(0, read.get("max-concurrent").asInt());
+        assertEquals(1, read.get("completed").asLong());
+        assertEquals(0, read.get("total-queue-time").asLong());
+    }
+
+    @Test
+    public void testAdmissionTimeout() throws Exception {
+        final ManagementRequestScheduler scheduler = new ManagementRequestScheduler();
+        assertTrue(scheduler.acquire(PriorityClass.BULK, 10000));
+        assertFalse(scheduler.acquire(PriorityClass.BULK, 50));
+
+        ModelNode bulk = getStatistics(scheduler, PriorityClass.BULK);
+        assertEquals(1, bulk.get("active").asInt());
+        assertEquals(0, bulk.get("queued").asInt());
+        assertEquals(1, bulk.get("timed-out").asLong());
+
+        scheduler.release(PriorityClass.BULK);
+        assertTrue(scheduler.acquire(PriorityClass.BULK, 50));
+        scheduler.release(PriorityClass.BULK);
+        bulk = getStatistics(scheduler, PriorityClass.BULK);
+        assertEquals(2, bulk.get("completed").asLong());
+    }
+
+    private static ModelNode getStatistics(ManagementRequestScheduler scheduler, PriorityClass priorityClass) {
+        for (ModelNode node : scheduler.toModelNode().asList()) {
+            if (priorityClass.getLocalName().equals(node.get("priority-class").asString())) {
+                return node;
+            }
+        }
+        throw new AssertionError(priorityClass);
+    }
+}
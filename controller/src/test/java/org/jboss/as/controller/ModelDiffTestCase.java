@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ModelDiff}.
+ */
+public class ModelDiffTestCase {
+
+    private static final PathAddress ROOT = PathAddress.pathAddress("subsystem", "test");
+
+    @Test
+    public void testIdenticalTrees() {
+        assertTrue(ModelDiff.diff(ROOT, createTree(), createTree()).isEmpty());
+    }
+
+    @Test
+    public void testAttributeChanges() {
+        Resource from = createTree();
+        Resource to = createTree();
+        to.getModel().get("a").set("changed");
+        to.getModel().remove("b");
+        to.getModel().get("c").set("new");
+
+        List<ModelNode> ops = ModelDiff.diff(ROOT, from, to);
+        assertEquals(3, ops.size());
+        assertWrite(ops.get(0), ROOT, "a", "changed");
+        assertWrite(ops.get(1), ROOT, "c", "new");
+        assertOperation(ops.get(2), UNDEFINE_ATTRIBUTE_OPERATION, ROOT);
+        assertEquals("b", ops.get(2).get(NAME).asString());
+    }
+
+    @Test
+    public void testAddAndRemoveSubtrees() {
+        Resource from = createTree();
+        Resource to = createTree();
+        to.removeChild(PathElement.pathElement("child", "one"));
+        Resource added = Resource.Factory.create();
+        added.getModel().get("x").set(1);
+        added.registerChild(PathElement.pathElement("nested", "n"), Resource.Factory.create());
+        to.registerChild(PathElement.pathElement("child", "three"), added);
+
+        List<ModelNode> ops = ModelDiff.diff(ROOT, from, to);
+        assertEquals(3, ops.size());
+        // Only the root of the removed subtree is removed
+        assertOperation(ops.get(0), REMOVE, ROOT.append("child", "one"));
+        assertOperation(ops.get(1), ADD, ROOT.append("child", "three"));
+        assertEquals(1, ops.get(1).get("x").asInt());
+        assertOperation(ops.get(2), ADD, ROOT.append("child", "three").append("nested", "n"));
+    }
+
+    @Test
+    public void testNestedChange() {
+        Resource from = createTree();
+        Resource to = createTree();
+        to.getChild(PathElement.pathElement("child", "two")).getModel().get("value").set("other");
+
+        List<ModelNode> ops = ModelDiff.diff(ROOT, from, to);
+        assertEquals(1, ops.size());
+        assertWrite(ops.get(0), ROOT.append("child", "two"), "value", "other");
+    }
+
+    @Test
+    public void testRuntimeResourcesIgnored() {
+        Resource from = createTree();
+        Resource to = createTree();
+        to.registerChild(PathElement.pathElement("child", "runtime"), Resource.Factory.create(true));
+        assertTrue(ModelDiff.diff(ROOT, from, to).isEmpty());
+    }
+
+    @Test
+    public void testOrderedChildren() {
+        Resource from = createOrderedTree("a", "b", "c");
+
+        // Removing and appending keeps the relative order, so no re-add is needed
+        List<ModelNode> ops = ModelDiff.diff(ROOT, from, createOrderedTree("a", "c", "d"));
+        assertEquals(2, ops.size());
+        assertOperation(ops.get(0), REMOVE, ROOT.append("ordered", "b"));
+        assertOperation(ops.get(1), ADD, ROOT.append("ordered", "d"));
+
+        // A reordering or an insert requires all children of the type to be added again
+        ops = ModelDiff.diff(ROOT, from, createOrderedTree("b", "a", "c"));
+        assertEquals(6, ops.size());
+        assertOperation(ops.get(3), ADD, ROOT.append("ordered", "b"));
+        assertOperation(ops.get(4), ADD, ROOT.append("ordered", "a"));
+
+        ops = ModelDiff.diff(ROOT, from, createOrderedTree("a", "x", "b", "c"));
+        assertEquals(7, ops.size());
+        assertOperation(ops.get(4), ADD, ROOT.append("ordered", "x"));
+    }
+
+    @Test
+    public void testMissingRoot() {
+        List<ModelNode> ops = ModelDiff.diff(ROOT, null, createTree());
+        assertEquals(3, ops.size());
+        assertOperation(ops.get(0), ADD, ROOT);
+
+        ops = ModelDiff.diff(ROOT, createTree(), null);
+        assertEquals(1, ops.size());
+        assertOperation(ops.get(0), REMOVE, ROOT);
+    }
+
+    @Test
+    public void testModelNodes() {
+        ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.create(
+                ResourceBuilder.Factory.create(ROOT.getLastElement(), new NonResolvingResourceDescriptionResolver()).build());
+        registration.registerSubModel(ResourceBuilder.Factory.create(PathElement.pathElement("child"),
+                new NonResolvingResourceDescriptionResolver()).build());
+
+        ModelNode from = Resource.Tools.readModel(createTree());
+        ModelNode to = Resource.Tools.readModel(createTree());
+        to.get("a").set("changed");
+        to.get("child").remove("one");
+        to.get("child", "two", "value").set("other");
+
+        List<ModelNode> ops = ModelDiff.diff(ROOT, from, to, registration);
+        assertEquals(3, ops.size());
+        assertWrite(ops.get(0), ROOT, "a", "changed");
+        assertOperation(ops.get(1), REMOVE, ROOT.append("child", "one"));
+        assertWrite(ops.get(2), ROOT.append("child", "two"), "value", "other");
+    }
+
+    @Test
+    public void testStreaming() {
+        final List<ModelNode> streamed = new ArrayList<ModelNode>();
+        Resource to = createTree();
+        to.getModel().get("a").set("changed");
+        ModelDiff.diff(ROOT, createTree(), to, new ModelDiff.OperationConsumer() {
+            @Override
+            public void accept(ModelNode operation) {
+                streamed.add(operation);
+            }
+        });
+        assertEquals(ModelDiff.diff(ROOT, createTree(), to), streamed);
+    }
+
+    private static Resource createTree() {
+        Resource root = Resource.Factory.create();
+        root.getModel().get("a").set("a");
+        root.getModel().get("b").set("b");
+        for (String name : new String[] {"one", "two"}) {
+            Resource child = Resource.Factory.create();
+            child.getModel().get("value").set(name);
+            root.registerChild(PathElement.pathElement("child", name), child);
+        }
+        return root;
+    }
+
+    private static Resource createOrderedTree(String... names) {
+        Resource root = Resource.Factory.create(false, Collections.singleton("ordered"));
+        for (String name : names) {
+            Resource child = Resource.Factory.create();
+            child.getModel().get("value").set(name);
+            root.registerChild(PathElement.pathElement("ordered", name), child);
+        }
+        return root;
+    }
+
+    private static void assertOperation(ModelNode operation, String name, PathAddress address) {
+        assertEquals(operation.toString(), name, operation.get(OP).asString());
+        assertEquals(operation.toString(), address, PathAddress.pathAddress(operation.get(OP_ADDR)));
+    }
+
+    private static void assertWrite(ModelNode operation, PathAddress address, String attribute, String value) {
+        assertOperation(operation, WRITE_ATTRIBUTE_OPERATION, address);
+        assertEquals(attribute, operation.get(NAME).asString());
+        assertEquals(value, operation.get(VALUE).asString());
+    }
+}
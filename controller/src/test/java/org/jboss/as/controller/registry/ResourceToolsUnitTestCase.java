@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link Resource.Tools#readModel(Resource)}.
+ */
+public class ResourceToolsUnitTestCase {
+
+    private static final PathElement CHILD = PathElement.pathElement("child", "one");
+    private static final PathElement GRANDCHILD = PathElement.pathElement("grandchild", "two");
+    private static final PathElement RUNTIME = PathElement.pathElement("runtime", "three");
+
+    @Test
+    public void testReadModel() {
+        final Resource root = createTree();
+        final ModelNode model = Resource.Tools.readModel(root);
+
+        assertEquals("root", model.get("attr").asString());
+        assertEquals("child", model.get("child", "one", "attr").asString());
+        assertEquals("grandchild", model.get("child", "one", "grandchild", "two", "attr").asString());
+        assertEquals(1, model.get("child", "one", "grandchild", "two", "complex", "nested").asInt());
+        assertFalse(model.get("child", "one", "runtime", "three").isDefined());
+    }
+
+    @Test
+    public void testReadModelLevel() {
+        final ModelNode model = Resource.Tools.readModel(createTree(), 1);
+
+        assertEquals("child", model.get("child", "one", "attr").asString());
+        assertFalse(model.get("child", "one").has("grandchild"));
+    }
+
+    @Test
+    public void testReadModelIsACopy() {
+        final Resource root = createTree();
+        final ModelNode model = Resource.Tools.readModel(root);
+        model.get("child", "one", "grandchild", "two", "complex", "nested").set(2);
+        model.get("attr").set("changed");
+
+        final Resource grandchild = root.getChild(CHILD).getChild(GRANDCHILD);
+        assertEquals(1, grandchild.getModel().get("complex", "nested").asInt());
+        assertEquals("root", root.getModel().get("attr").asString());
+        assertTrue(Resource.Tools.readModel(root).equals(Resource.Tools.readModel(root)));
+    }
+
+    private static Resource createTree() {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("attr").set("root");
+        final Resource child = Resource.Factory.create();
+        child.getModel().get("attr").set("child");
+        root.registerChild(CHILD, child);
+        final Resource grandchild = Resource.Factory.create();
+        grandchild.getModel().get("attr").set("grandchild");
+        grandchild.getModel().get("complex", "nested").set(1);
+        child.registerChild(GRANDCHILD, grandchild);
+        final Resource runtime = Resource.Factory.create(true);
+        runtime.getModel().get("attr").set("runtime");
+        child.registerChild(RUNTIME, runtime);
+        return root;
+    }
+}
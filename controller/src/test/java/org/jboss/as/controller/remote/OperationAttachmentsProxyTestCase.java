@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+import org.jboss.as.controller.client.impl.ModelControllerProtocol;
+import org.jboss.as.protocol.TransferableInputStream;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.ManagementChannelAssociation;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the attachment streams of {@link OperationAttachmentsProxy}.
+ */
+public class OperationAttachmentsProxyTestCase {
+
+    private static final byte[] CONTENT = new byte[100000];
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final InputStream stream = createStream();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        Assert.assertArrayEquals(CONTENT, out.toByteArray());
+        stream.close();
+    }
+
+    @Test
+    public void testReadAfterTransfer() throws IOException {
+        final InputStream stream = createStream();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(CONTENT.length, ((TransferableInputStream) stream).transferTo(Channels.newChannel(out)));
+        Assert.assertArrayEquals(CONTENT, out.toByteArray());
+        // The stream is at its end, rather than waiting for content that never comes
+        Assert.assertEquals(-1, stream.read());
+        Assert.assertEquals(-1, stream.read(new byte[10], 0, 10));
+        stream.close();
+    }
+
+    @Test
+    public void testTransferAfterRead() throws IOException {
+        final InputStream stream = createStream();
+        Assert.assertEquals(CONTENT[0], (byte) stream.read());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(CONTENT.length - 1, ((TransferableInputStream) stream).transferTo(Channels.newChannel(out)));
+        Assert.assertEquals(CONTENT.length - 1, out.size());
+        Assert.assertEquals(-1, stream.read());
+        stream.close();
+    }
+
+    private static InputStream createStream() {
+        final OperationAttachmentsProxy proxy = OperationAttachmentsProxy.create(new ModelNode(), new ContentAssociation(), 1, 1);
+        return proxy.getInputStreams().get(0);
+    }
+
+    /**
+     * Association which answers an attachment request with {@link #CONTENT}.
+     */
+    private static final class ContentAssociation implements ManagementChannelAssociation {
+
+        @Override
+        public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T, A> ActiveOperation<T, A> executeRequest(final ManagementRequest<T, A> request, final A attachment,
+                                                            final ActiveOperation.CompletedCallback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T, A> AsyncFuture<T> executeRequest(final Integer operationId, final ManagementRequest<T, A> request) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH);
+            output.writeInt(CONTENT.length);
+            output.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS);
+            output.write(CONTENT);
+            output.close();
+            // Hand the response over on another thread, like the channel would, as reads block until the pipe is drained
+            final Thread responder = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        request.handleRequest(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), null, null);
+                    } catch (IOException e) {
+                        // The stream was shut down with the failure
+                    }
+                }
+            });
+            responder.start();
+            return null;
+        }
+
+        @Override
+        public <T, A> AsyncFuture<T> executeRequest(final ActiveOperation<T, A> operation, final ManagementRequest<T, A> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T, A> ActiveOperation<T, A> initializeOperation(final A attachment, final ActiveOperation.CompletedCallback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Channel getChannel() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Attachments getAttachments() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -229,6 +229,106 @@ public class ResponseAttachmentInputStreamSupportTestCase {
         Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
     }
 
+    @Test
+    public void testFlowControlledReadHandler() throws IOException {
+
+        ResponseAttachmentInputStreamSupport testee = new ResponseAttachmentInputStreamSupport();
+        InputStream stream = new ByteArrayInputStream(data);
+        OperationResponse.StreamEntry streamEntry = new MockStreamEntry(stream);
+        testee.registerStreams(1, Arrays.asList(streamEntry));
+
+        ManagementRequestHandler<Void, Void> handler = testee.getFlowControlledReadHandler();
+
+        // Only as much as the credit is sent, and the stream is kept for the next request
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MockFlushableDataOutput mfdo = new MockFlushableDataOutput(baos);
+        ActiveOperation.ResultHandler<Void> mrh = new MockResultHandler();
+        handler.handleRequest(getDataInput(1, 0, 4096), mrh, new MockManagementRequestContext(mfdo));
+
+        Assert.assertEquals(0, ((MockStreamEntry) streamEntry).closeCount);
+        Assert.assertEquals(1, ((MockResultHandler) mrh).result);
+
+        DataInput di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH, di.readByte());
+        int length = di.readInt();
+        Assert.assertEquals(4096, length);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS, di.readByte());
+        di.readFully(new byte[length]);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_MORE, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+
+        // The next request gets the rest of the stream, which is then closed
+        baos = new ByteArrayOutputStream();
+        mfdo = new MockFlushableDataOutput(baos);
+        handler.handleRequest(getDataInput(1, 0, 8192), mrh, new MockManagementRequestContext(mfdo));
+
+        Assert.assertEquals(1, ((MockStreamEntry) streamEntry).closeCount);
+        Assert.assertEquals(2, ((MockResultHandler) mrh).result);
+
+        di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_LENGTH, di.readByte());
+        length = di.readInt();
+        Assert.assertEquals(4097, length);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_INPUTSTREAM_CONTENTS, di.readByte());
+        di.readFully(new byte[length]);
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+
+        // Test a missing entry
+        baos = new ByteArrayOutputStream();
+        mfdo = new MockFlushableDataOutput(baos);
+        handler.handleRequest(getDataInput(1, 0, 8192), mrh, new MockManagementRequestContext(mfdo));
+
+        Assert.assertEquals(1, ((MockStreamEntry) streamEntry).closeCount);
+        Assert.assertEquals(3, ((MockResultHandler) mrh).result);
+
+        di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+    }
+
+    @Test
+    public void testCloseFlowControlledRead() throws IOException {
+
+        ResponseAttachmentInputStreamSupport testee = new ResponseAttachmentInputStreamSupport();
+        InputStream stream = new ByteArrayInputStream(data);
+        OperationResponse.StreamEntry streamEntry = new MockStreamEntry(stream);
+        testee.registerStreams(1, Arrays.asList(streamEntry));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        testee.getFlowControlledReadHandler().handleRequest(getDataInput(1, 0, 4096), new MockResultHandler(),
+                new MockManagementRequestContext(new MockFlushableDataOutput(baos)));
+        Assert.assertEquals(0, ((MockStreamEntry) streamEntry).closeCount);
+
+        // Closing a partly read stream releases it
+        ByteArrayOutputStream closeBaos = new ByteArrayOutputStream();
+        testee.getCloseHandler().handleRequest(getDataInput(1, 0), new MockResultHandler(), new MockManagementRequestContext(new MockFlushableDataOutput(closeBaos)));
+        Assert.assertEquals(1, ((MockStreamEntry) streamEntry).closeCount);
+
+        // and any further request is answered as if the stream was empty
+        baos = new ByteArrayOutputStream();
+        testee.getFlowControlledReadHandler().handleRequest(getDataInput(1, 0, 4096), new MockResultHandler(),
+                new MockManagementRequestContext(new MockFlushableDataOutput(baos)));
+        Assert.assertEquals(1, ((MockStreamEntry) streamEntry).closeCount);
+
+        DataInput di = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        Assert.assertEquals(ModelControllerProtocol.PARAM_END, di.readByte());
+        Assert.assertEquals(ManagementProtocol.RESPONSE_END, di.readByte());
+    }
+
+    private static DataInput getDataInput(int operationId, int streamIndex, int credit) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+        dos.writeByte(ModelControllerProtocol.PARAM_OPERATION);
+        dos.writeInt(operationId);
+        dos.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_INDEX);
+        dos.writeInt(streamIndex);
+        dos.writeByte(ModelControllerProtocol.PARAM_INPUTSTREAM_CREDIT);
+        dos.writeInt(credit);
+        dos.flush();
+        return new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
     private static DataInput getDataInput(int operationId, int streamIndex) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(baos);
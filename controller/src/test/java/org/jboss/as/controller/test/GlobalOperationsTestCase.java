@@ -21,18 +21,24 @@
  */
 package org.jboss.as.controller.test;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTE_VALUE_WRITTEN_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_DEFAULTS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INHERITED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.LIMIT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MATCHES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATION_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OFFSET;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
@@ -46,8 +52,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOURCE_ADDED_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOURCE_REMOVED_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_ONLY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SELECTORS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -62,6 +70,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
@@ -373,6 +382,35 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
 //        }
     }
 
+    @Test
+    public void testReadChildrenNamesPaged() throws Exception {
+        ModelNode operation = createOperation(READ_CHILDREN_NAMES_OPERATION, "profile", "profileA", "subsystem", "subsystem1");
+        operation.get(CHILD_TYPE).set("type1");
+        operation.get(LIMIT).set(1);
+
+        ModelNode result = executeForResult(operation);
+        assertEquals(ModelType.LIST, result.getType());
+        assertEquals(1, result.asList().size());
+        assertEquals("thing1", result.get(0).asString());
+
+        operation.get(OFFSET).set(1);
+        result = executeForResult(operation);
+        assertEquals(1, result.asList().size());
+        assertEquals("thing2", result.get(0).asString());
+
+        operation.get(OFFSET).set(2);
+        result = executeForResult(operation);
+        assertEquals(ModelType.LIST, result.getType());
+        assertTrue(result.asList().isEmpty());
+
+        operation.get(LIMIT).set(0);
+        try {
+            executeForResult(operation);
+            fail("Expected error for a limit of 0");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
     @Test
     public void testReadChildrenTypes() throws Exception {
         ModelNode operation = createOperation(READ_CHILDREN_TYPES_OPERATION, "profile", "profileA");
@@ -481,6 +519,24 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
         assertTrue(result.asList().isEmpty());
     }
 
+    @Test
+    public void testReadChildrenResourcesPaged() throws Exception {
+        ModelNode operation = createOperation(READ_CHILDREN_RESOURCES_OPERATION, "profile", "profileA", "subsystem", "subsystem1");
+        operation.get(CHILD_TYPE).set("type1");
+        operation.get(OFFSET).set(1);
+
+        ModelNode result = executeForResult(operation);
+        assertEquals(ModelType.OBJECT, result.getType());
+        assertEquals(1, result.asList().size());
+        assertEquals("Name12", result.require("thing2").require(NAME).asString());
+
+        operation.get(OFFSET).set(0);
+        operation.get(LIMIT).set(1);
+        result = executeForResult(operation);
+        assertEquals(1, result.asList().size());
+        assertEquals("Name11", result.require("thing1").require(NAME).asString());
+    }
+
     @Test
     public void testReadChildrenResourcesRecursive() throws Exception {
         ModelNode operation = createOperation(READ_CHILDREN_RESOURCES_OPERATION, "profile", "profileA");
@@ -884,6 +940,44 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
         checkType2Description(result);
     }
 
+    @Test
+    public void testReadAttributes() throws Exception {
+        ModelNode operation = createOperation(READ_ATTRIBUTES_OPERATION);
+        ModelNode selector = operation.get(SELECTORS).add();
+        selector.get(ADDRESS).set(PathAddress.pathAddress("profile", "profileA").append("subsystem", "subsystem1").append("type1", "*").toModelNode());
+        selector.get(ATTRIBUTES).add("name").add("value").add("unknown");
+        selector = operation.get(SELECTORS).add();
+        selector.get(ADDRESS).set(PathAddress.pathAddress("profile", "profileA").append("subsystem", "subsystem1").append("type2", "other").toModelNode());
+        selector.get(ATTRIBUTES).add("name");
+
+        ModelNode result = executeForResult(operation);
+        assertEquals(2, result.asList().size());
+
+        ModelNode type1 = result.get(0);
+        assertEquals(3, type1.require(ATTRIBUTES).asList().size());
+        List<ModelNode> matches = type1.require(MATCHES).asList();
+        assertEquals(2, matches.size());
+        List<ModelNode> values = type1.require(VALUES).asList();
+        assertEquals(3, values.size());
+        for (int i = 0; i < matches.size(); i++) {
+            String thing = matches.get(i).get(0).asString();
+            if ("thing1".equals(thing)) {
+                assertEquals("Name11", values.get(0).get(i).asString());
+                assertEquals(201, values.get(1).get(i).asInt());
+            } else {
+                assertEquals("thing2", thing);
+                assertEquals("Name12", values.get(0).get(i).asString());
+                assertEquals(202, values.get(1).get(i).asInt());
+            }
+            assertFalse(values.get(2).get(i).isDefined());
+        }
+
+        ModelNode type2 = result.get(1);
+        assertEquals(1, type2.require(MATCHES).asList().size());
+        assertEquals(0, type2.require(MATCHES).get(0).asList().size());
+        assertEquals("Name2", type2.require(VALUES).get(0).get(0).asString());
+    }
+
     @Test
     public void testReadResourceAttributesOnly() throws Exception {
         ModelNode operation = createOperation(READ_RESOURCE_OPERATION);
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.ModelFootprintHandler;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the read-model-footprint operation.
+ */
+public class ModelFootprintTestCase extends AbstractControllerTestBase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+    private static final PathElement CHILD = PathElement.pathElement("child");
+    private static final PathElement WILDCARD = PathElement.pathElement("wildcard");
+    private static final SimpleAttributeDefinition ATTRIBUTE = new SimpleAttributeDefinitionBuilder("attr", ModelType.STRING, true)
+            .setDefaultValue(new ModelNode("default"))
+            .build();
+
+    @Test
+    public void testFootprint() throws Exception {
+        final ModelNode result = executeForResult(createOperation(ModelFootprintHandler.OPERATION_NAME));
+
+        final ModelNode subsystem = result.get("children", "subsystem=test");
+        Assert.assertEquals(4, subsystem.get("resources").asInt());
+        Assert.assertEquals(2, subsystem.get("registrations").asInt());
+        Assert.assertEquals(2, subsystem.get("attributes").asInt());
+        Assert.assertTrue(subsystem.get("model-nodes").asInt() >= 4);
+        Assert.assertTrue(subsystem.get("model-bytes").asLong() > 0);
+        Assert.assertTrue(subsystem.get("registration-bytes").asLong() > 0);
+
+        final ModelNode total = result.get("total");
+        Assert.assertEquals(7, total.get("resources").asInt());
+        Assert.assertTrue(total.get("model-bytes").asLong() >= subsystem.get("model-bytes").asLong());
+        Assert.assertTrue(result.hasDefined("compaction-enabled"));
+    }
+
+    @Test
+    public void testSharedRegistrationCountedOnce() throws Exception {
+        final ModelNode result = executeForResult(createOperation(ModelFootprintHandler.OPERATION_NAME));
+
+        final ModelNode first = result.get("children", "wildcard=one");
+        final ModelNode second = result.get("children", "wildcard=two");
+        Assert.assertEquals(1, first.get("resources").asInt());
+        Assert.assertEquals(1, second.get("resources").asInt());
+        Assert.assertEquals(1, first.get("registrations").asInt() + second.get("registrations").asInt());
+        Assert.assertEquals(1, first.get("attributes").asInt() + second.get("attributes").asInt());
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        final ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        rootRegistration.registerOperationHandler(ModelFootprintHandler.DEFINITION, ModelFootprintHandler.INSTANCE);
+        rootRegistration.registerSubModel(ResourceBuilder.Factory.create(SUBSYSTEM, new NonResolvingResourceDescriptionResolver())
+                .addReadOnlyAttribute(ATTRIBUTE)
+                .pushChild(CHILD)
+                .addReadOnlyAttribute(ATTRIBUTE)
+                .pop()
+                .build());
+
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get(ATTRIBUTE.getName()).set("value");
+        for (int i = 0; i < 3; i++) {
+            final Resource child = Resource.Factory.create();
+            child.getModel().get(ATTRIBUTE.getName()).set("value-" + i);
+            subsystem.registerChild(PathElement.pathElement(CHILD.getKey(), "child-" + i), child);
+        }
+        managementModel.getRootResource().registerChild(SUBSYSTEM, subsystem);
+
+        rootRegistration.registerSubModel(ResourceBuilder.Factory.create(WILDCARD, new NonResolvingResourceDescriptionResolver())
+                .addReadOnlyAttribute(ATTRIBUTE)
+                .build());
+        managementModel.getRootResource().registerChild(PathElement.pathElement(WILDCARD.getKey(), "one"), Resource.Factory.create());
+        managementModel.getRootResource().registerChild(PathElement.pathElement(WILDCARD.getKey(), "two"), Resource.Factory.create());
+    }
+}
@@ -149,6 +149,24 @@ public class OperationTransformationTestCase {
 
     }
 
+    @Test
+    public void testResolutionAfterChildRegistryChange() {
+        final PathAddress subsystem = PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, "test"));
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.PROFILE, "default")).append(subsystem);
+        final OperationTransformerRegistry host = TransformerRegistry.Factory.create().resolveHost(ModelVersion.create(1, 2, 3),
+                Collections.<PathAddress, ModelVersion>emptyMap());
+
+        // Resolve twice, so the second lookup is served from the index
+        Assert.assertNotSame(NOOP_TRANSFORMER, host.resolveOperationTransformer(address, "testing", null).getTransformer());
+        Assert.assertNotSame(NOOP_TRANSFORMER, host.resolveOperationTransformer(address, "testing", null).getTransformer());
+
+        // Modifying a child registry must be visible to lookups against the root
+        registry.registerTransformer(subsystem, 1, 0, "testing", NOOP_TRANSFORMER);
+        registry.mergeSubtree(host.getChild(PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.PROFILE))),
+                Collections.singletonMap(subsystem, ModelVersion.create(1, 0)));
+        Assert.assertSame(NOOP_TRANSFORMER, host.resolveOperationTransformer(address, "testing", null).getTransformer());
+    }
+
     @Test
     public void testGetSubRegistry() {
         final PathAddress profile = PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.PROFILE));
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link TransformedOperationCache}.
+ */
+public class TransformedOperationCacheTestCase {
+
+    private final TransformerRegistry registry = TransformerRegistry.Factory.create();
+
+    @Test
+    public void testEquivalentTargetsShareTransformation() throws OperationFailedException {
+        final TransformedOperationCache cache = new TransformedOperationCache();
+        final CountingProxyController one = createProxy("one", ModelVersion.create(1, 4));
+        final CountingProxyController two = createProxy("two", ModelVersion.create(1, 4));
+        final ModelNode operation = Util.createEmptyOperation("test", PathAddress.pathAddress("subsystem", "test"));
+
+        final ModelNode first = cache.transformOperation(one, null, operation.clone()).getTransformedOperation();
+        final ModelNode second = cache.transformOperation(two, null, operation.clone()).getTransformedOperation();
+
+        assertEquals(1, one.transformations);
+        assertEquals(0, two.transformations);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        // Modifying the result for one host does not affect the others
+        second.get("modified").set(true);
+        assertEquals(first, cache.transformOperation(two, null, operation.clone()).getTransformedOperation());
+    }
+
+    @Test
+    public void testDifferentVersionsAreTransformedSeparately() throws OperationFailedException {
+        final TransformedOperationCache cache = new TransformedOperationCache();
+        final CountingProxyController one = createProxy("one", ModelVersion.create(1, 4));
+        final CountingProxyController two = createProxy("two", ModelVersion.create(1, 5));
+        final ModelNode operation = Util.createEmptyOperation("test", PathAddress.pathAddress("subsystem", "test"));
+
+        cache.transformOperation(one, null, operation.clone());
+        cache.transformOperation(two, null, operation.clone());
+        assertEquals(1, one.transformations);
+        assertEquals(1, two.transformations);
+
+        // A different operation is not served from the cache
+        cache.transformOperation(one, null, Util.createEmptyOperation("other", PathAddress.EMPTY_ADDRESS));
+        assertEquals(2, one.transformations);
+    }
+
+    @Test
+    public void testDiscardedOperation() throws OperationFailedException {
+        final TransformedOperationCache cache = new TransformedOperationCache();
+        final CountingProxyController one = createProxy("one", ModelVersion.create(1, 4));
+        final CountingProxyController two = createProxy("two", ModelVersion.create(1, 4));
+        one.discard = true;
+        final ModelNode operation = Util.createEmptyOperation("test", PathAddress.EMPTY_ADDRESS);
+
+        assertNull(cache.transformOperation(one, null, operation.clone()).getTransformedOperation());
+        assertNull(cache.transformOperation(two, null, operation.clone()).getTransformedOperation());
+        assertEquals(0, two.transformations);
+    }
+
+    @Test
+    public void testRejectingTransformationIsNotShared() throws OperationFailedException {
+        final TransformedOperationCache cache = new TransformedOperationCache();
+        final CountingProxyController one = createProxy("one", ModelVersion.create(1, 4));
+        final CountingProxyController two = createProxy("two", ModelVersion.create(1, 4));
+        one.reject = true;
+        two.reject = true;
+        final ModelNode operation = Util.createEmptyOperation("test", PathAddress.EMPTY_ADDRESS);
+
+        final OperationTransformer.TransformedOperation first = cache.transformOperation(one, null, operation.clone());
+        final OperationTransformer.TransformedOperation second = cache.transformOperation(two, null, operation.clone());
+        assertEquals(1, one.transformations);
+        assertEquals(1, two.transformations);
+        assertTrue(second.rejectOperation(new ModelNode()));
+        assertEquals("rejected by two", second.getFailureDescription());
+        assertEquals("rejected by one", first.getFailureDescription());
+    }
+
+    @Test
+    public void testTransformationWithWarningsIsNotShared() throws OperationFailedException {
+        final TransformedOperationCache cache = new TransformedOperationCache();
+        final CountingProxyController one = createProxy("warn-one", ModelVersion.create(1, 4));
+        final CountingProxyController two = createProxy("warn-two", ModelVersion.create(1, 4));
+        one.warn = true;
+        two.warn = true;
+        final ModelNode operation = Util.createEmptyOperation("test", PathAddress.EMPTY_ADDRESS);
+
+        cache.transformOperation(one, null, operation.clone());
+        cache.transformOperation(two, null, operation.clone());
+        assertEquals(1, one.transformations);
+        assertEquals(1, two.transformations);
+    }
+
+    private CountingProxyController createProxy(String hostName, ModelVersion version) {
+        final TransformationTarget target = TransformationTargetImpl.create(hostName, registry, version,
+                Collections.<PathAddress, ModelVersion>emptyMap(), TransformationTarget.TransformationTargetType.HOST);
+        return new CountingProxyController(PathAddress.pathAddress(PathElement.pathElement("host", hostName)),
+                Transformers.Factory.create(target));
+    }
+
+    private static class CountingProxyController implements TransformingProxyController {
+        private final PathAddress address;
+        private final Transformers transformers;
+        private int transformations;
+        private boolean discard;
+        private boolean reject;
+        private boolean warn;
+
+        private CountingProxyController(PathAddress address, Transformers transformers) {
+            this.address = address;
+            this.transformers = transformers;
+        }
+
+        @Override
+        public TransactionalProtocolClient getProtocolClient() {
+            return null;
+        }
+
+        @Override
+        public Transformers getTransformers() {
+            return transformers;
+        }
+
+        @Override
+        public OperationTransformer.TransformedOperation transformOperation(OperationContext context, ModelNode operation) {
+            transformations++;
+            if (warn) {
+                TransformersLogger.getLogger(transformers.getTarget()).logWarning("warning for " + transformers.getTarget().getHostName());
+            }
+            if (reject) {
+                final String description = "rejected by " + transformers.getTarget().getHostName();
+                return new OperationTransformer.TransformedOperation(operation, new OperationRejectionPolicy() {
+                    @Override
+                    public boolean rejectOperation(ModelNode preparedResult) {
+                        return true;
+                    }
+
+                    @Override
+                    public String getFailureDescription() {
+                        return description;
+                    }
+                }, OperationResultTransformer.ORIGINAL_RESULT);
+            }
+            if (discard) {
+                return new OperationTransformer.TransformedOperation(null, OperationResultTransformer.ORIGINAL_RESULT);
+            }
+            final ModelNode transformed = operation.clone();
+            transformed.get("transformed").set(true);
+            return new OperationTransformer.TransformedOperation(transformed, OperationResultTransformer.ORIGINAL_RESULT);
+        }
+
+        @Override
+        public PathAddress getProxyNodeAddress() {
+            return address;
+        }
+
+        @Override
+        public void execute(ModelNode operation, OperationMessageHandler handler, ProxyOperationControl control, OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
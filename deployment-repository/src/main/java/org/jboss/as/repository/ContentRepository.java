@@ -27,8 +27,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -37,6 +41,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.protocol.TransferableInputStream;
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -180,8 +185,12 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
                 this.obsolescenceTimeout = obsolescenceTimeout;
+                this.messageDigest = createSha1Digest();
+            }
+
+            private static MessageDigest createSha1Digest() {
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
@@ -191,6 +200,22 @@ public interface ContentRepository {
             public byte[] addContent(InputStream stream) throws IOException {
                 byte[] sha1Bytes;
                 Path tmp = Files.createTempFile(repoRoot.toPath(), CONTENT, ".tmp");
+                if (stream instanceof TransferableInputStream) {
+                    // Have the content written to the file as it is received, hashing it on the way. The digest is
+                    // updated by the thread receiving the content, which may still be writing if the transfer fails,
+                    // so it must not be the shared one
+                    final MessageDigest transferDigest = createSha1Digest();
+                    FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                    try {
+                        ((TransferableInputStream) stream).transferTo(new DigestChannel(channel, transferDigest));
+                        channel.close();
+                        channel = null;
+                    } finally {
+                        safeClose(channel);
+                    }
+                    sha1Bytes = transferDigest.digest();
+                    return addTempContent(tmp, sha1Bytes);
+                }
                 OutputStream fos = Files.newOutputStream(tmp);
                 synchronized (messageDigest) {
                     messageDigest.reset();
@@ -210,6 +235,10 @@ public interface ContentRepository {
                     }
                     sha1Bytes = messageDigest.digest();
                 }
+                return addTempContent(tmp, sha1Bytes);
+            }
+
+            private byte[] addTempContent(Path tmp, byte[] sha1Bytes) throws IOException {
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -305,6 +334,38 @@ public interface ContentRepository {
                 }
             }
 
+            /**
+             * Writes to a file channel, updating a digest with the bytes written.
+             */
+            private static final class DigestChannel implements WritableByteChannel {
+                private final FileChannel channel;
+                private final MessageDigest digest;
+
+                private DigestChannel(FileChannel channel, MessageDigest digest) {
+                    this.channel = channel;
+                    this.digest = digest;
+                }
+
+                @Override
+                public int write(ByteBuffer src) throws IOException {
+                    final ByteBuffer written = src.duplicate();
+                    final int count = channel.write(src);
+                    written.limit(written.position() + count);
+                    digest.update(written);
+                    return count;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return channel.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    channel.close();
+                }
+            }
+
             private void moveTempToPermanent(Path tmpFile, Path permanentFile) throws IOException {
                 Path localTmp = permanentFile.resolveSibling("tmp");
                 try {
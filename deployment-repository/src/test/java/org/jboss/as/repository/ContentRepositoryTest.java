@@ -27,11 +27,15 @@ import static org.junit.Assert.assertThat;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import org.jboss.as.protocol.TransferableInputStream;
 import org.jboss.vfs.VirtualFile;
 import org.junit.After;
 import org.junit.Before;
@@ -100,6 +104,28 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test of addContent method with a stream that writes its content to the repository's file channel.
+     */
+    @Test
+    public void testAddTransferableContent() throws Exception {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream stream = this.getClass().getClassLoader().getResourceAsStream("overlay.xhtml")) {
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = stream.read(buffer)) > 0) {
+                content.write(buffer, 0, length);
+            }
+        }
+        try (InputStream stream = new TransferOnlyInputStream(content.toByteArray())) {
+            byte[] result = repository.addContent(stream);
+            assertThat(HashUtil.bytesToHexString(result), is("0c40ffacd15b0f66d5081a93407d3ff5e3c65a71"));
+            assertThat(repository.hasContent(result), is(true));
+            VirtualFile file = repository.getContent(result);
+            assertThat(file.getSize(), is((long) content.size()));
+        }
+    }
+
     /**
      * Test of addContentReference method, of class ContentRepository.
      */
@@ -243,4 +269,29 @@ public class ContentRepositoryTest {
         }
 
     }
+
+    private static final class TransferOnlyInputStream extends InputStream implements TransferableInputStream {
+        private final byte[] content;
+
+        private TransferOnlyInputStream(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferTo(WritableByteChannel channel) throws IOException {
+            // Write in small chunks, as content received from the network would be
+            for (int i = 0; i < content.length; i += 7) {
+                ByteBuffer buffer = ByteBuffer.wrap(content, i, Math.min(7, content.length - i));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            return content.length;
+        }
+    }
 }
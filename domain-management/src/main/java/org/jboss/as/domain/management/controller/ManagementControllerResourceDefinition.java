@@ -24,13 +24,24 @@ package org.jboss.as.domain.management.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_SCHEDULING;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
 
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.domain.management._private.DomainManagementResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@code ResourceDefinition} for the management of operation execution.
@@ -43,10 +54,41 @@ public class ManagementControllerResourceDefinition extends SimpleResourceDefini
 
     public static final ResourceDefinition INSTANCE = new ManagementControllerResourceDefinition();
 
+    static final ObjectListAttributeDefinition REQUEST_SCHEDULING_ATTRIBUTE = ObjectListAttributeDefinition.Builder.of(REQUEST_SCHEDULING,
+            ObjectTypeAttributeDefinition.Builder.of(REQUEST_SCHEDULING,
+                    SimpleAttributeDefinitionBuilder.create("priority-class", ModelType.STRING).build(),
+                    SimpleAttributeDefinitionBuilder.create("max-concurrent", ModelType.INT).build(),
+                    SimpleAttributeDefinitionBuilder.create("active", ModelType.INT).build(),
+                    SimpleAttributeDefinitionBuilder.create("queued", ModelType.INT).build(),
+                    SimpleAttributeDefinitionBuilder.create("completed", ModelType.LONG).build(),
+                    SimpleAttributeDefinitionBuilder.create("timed-out", ModelType.LONG).build(),
+                    SimpleAttributeDefinitionBuilder.create("total-queue-time", ModelType.LONG)
+                            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                            .build(),
+                    SimpleAttributeDefinitionBuilder.create("max-queue-time", ModelType.LONG)
+                            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+                            .build())
+                    .build())
+            .setStorageRuntime()
+            .build();
+
     private ManagementControllerResourceDefinition() {
         super(PATH_ELEMENT, DomainManagementResolver.getResolver(CORE, MANAGEMENT_OPERATIONS));
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerReadOnlyAttribute(REQUEST_SCHEDULING_ATTRIBUTE, new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                // The model of the resource is generated from the live state of the controller
+                final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+                context.getResult().set(model.get(REQUEST_SCHEDULING));
+            }
+        });
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
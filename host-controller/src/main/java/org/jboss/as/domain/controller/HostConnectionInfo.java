@@ -34,6 +34,11 @@ public interface HostConnectionInfo {
     String ADDRESS = "address";
     String CONNECTED = "connected";
     String EVENTS = "events";
+    String FAILURE_DETECTOR = "failure-detector";
+    String HEARTBEAT_INTERVAL_MEAN = "heartbeat-interval-mean";
+    String HEARTBEAT_INTERVAL_STD_DEVIATION = "heartbeat-interval-std-deviation";
+    String LAST_HEARTBEAT = "last-heartbeat";
+    String PHI = "phi";
     String TIMESTAMP = "timestamp";
     String TYPE = "type";
 
@@ -58,6 +63,13 @@ public interface HostConnectionInfo {
      */
     List<Event> getEvents();
 
+    /**
+     * Fill DMR with the state of the failure detector monitoring the host.
+     *
+     * @param target the target model, which is left undefined if the host is not monitored
+     */
+    void failureDetectorToModelNode(final ModelNode target);
+
     public interface Event {
 
         /**
@@ -59,6 +59,7 @@ import org.jboss.as.controller.transform.OperationRejectionPolicy;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.transform.TransformedOperationCache;
 import org.jboss.as.controller.transform.Transformers;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -74,13 +75,15 @@ class HostControllerUpdateTask {
     private final ModelNode operation;
     private final OperationContext context;
     private final TransformingProxyController proxyController;
+    private final TransformedOperationCache transformationCache;
 
     public HostControllerUpdateTask(final String name, final ModelNode operation, final OperationContext context,
-                                    final TransformingProxyController proxyController) {
+                                    final TransformingProxyController proxyController, final TransformedOperationCache transformationCache) {
         this.name = name;
         this.context = context;
         this.operation = operation;
         this.proxyController = proxyController;
+        this.transformationCache = transformationCache;
     }
 
     public ExecutedHostRequest execute(final ProxyOperationListener listener) {
@@ -91,7 +94,7 @@ class HostControllerUpdateTask {
         final SubsystemInfoOperationListener subsystemListener = new SubsystemInfoOperationListener(listener, proxyController.getTransformers());
         try {
 
-            final OperationTransformer.TransformedOperation transformationResult = proxyController.transformOperation(context, operation);
+            final OperationTransformer.TransformedOperation transformationResult = transformationCache.transformOperation(proxyController, context, operation);
             final ModelNode transformedOperation = transformationResult.getTransformedOperation();
             final ProxyOperation proxyOperation = new ProxyOperation(name, transformedOperation, messageHandler, operationAttachments);
             try {
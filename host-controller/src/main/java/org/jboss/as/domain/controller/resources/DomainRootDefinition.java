@@ -56,6 +56,7 @@ import org.jboss.as.controller.extension.ExtensionResourceDefinition;
 import org.jboss.as.controller.extension.MutableRootResourceRegistrationProvider;
 import org.jboss.as.controller.operations.common.InterfaceAddHandler;
 import org.jboss.as.controller.operations.common.InterfaceRemoveHandler;
+import org.jboss.as.controller.operations.common.ModelFootprintHandler;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
 import org.jboss.as.controller.operations.common.NamespaceRemoveHandler;
 import org.jboss.as.controller.operations.common.SchemaLocationAddHandler;
@@ -285,6 +286,8 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
 
         resourceRegistration.registerOperationHandler(ResolveExpressionOnDomainHandler.DEFINITION, ResolveExpressionOnDomainHandler.INSTANCE);
 
+        resourceRegistration.registerOperationHandler(ModelFootprintHandler.DEFINITION, ModelFootprintHandler.INSTANCE);
+
         DomainServerLifecycleHandlers.registerDomainHandlers(resourceRegistration);
     }
 
@@ -38,6 +38,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -79,6 +80,30 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    private static final AttributeDefinition PHI_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.PHI, ModelType.DOUBLE, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition HEARTBEAT_INTERVAL_MEAN_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.HEARTBEAT_INTERVAL_MEAN, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition HEARTBEAT_INTERVAL_STD_DEVIATION_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.HEARTBEAT_INTERVAL_STD_DEVIATION, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition LAST_HEARTBEAT_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.LAST_HEARTBEAT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final ObjectTypeAttributeDefinition FAILURE_DETECTOR = ObjectTypeAttributeDefinition.Builder.of(HostConnectionInfo.FAILURE_DETECTOR,
+            PHI_DEF, HEARTBEAT_INTERVAL_MEAN_DEF, HEARTBEAT_INTERVAL_STD_DEVIATION_DEF, LAST_HEARTBEAT_DEF)
+            .setAllowNull(true)
+            .setStorageRuntime()
+            .build();
+
     private static final OperationDefinition PRUNE_EXPIRED_DEF = new SimpleOperationDefinitionBuilder("prune-expired", RESOLVER)
             .withFlag(OperationEntry.Flag.MASTER_HOST_CONTROLLER_ONLY)
             .build();
@@ -99,6 +124,7 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerMetric(FAILURE_DETECTOR, attributeReadHandler);
     }
 
     @Override
@@ -136,6 +162,9 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case HostConnectionInfo.FAILURE_DETECTOR:
+                        info.failureDetectorToModelNode(result);
+                        break;
                 }
             }
         }
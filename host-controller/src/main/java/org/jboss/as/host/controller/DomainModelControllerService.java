@@ -325,6 +325,9 @@ public class DomainModelControllerService extends AbstractControllerService impl
         final SlaveHostPinger pinger = remoteConnectionId == null ? null : new SlaveHostPinger(hostName, handler, pingScheduler, remoteConnectionId);
         final String address = handler.getRemoteAddress().getHostAddress();
         slaveHostRegistrations.registerHost(hostName, pinger, address);
+        if (pinger != null) {
+            pinger.startMonitoring();
+        }
 
         if (registerProxyController) {
             // Create the proxy controller
@@ -32,6 +32,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.domain.controller.HostConnectionInfo;
 import org.jboss.as.host.controller.mgmt.SlaveHostPinger;
+import org.jboss.dmr.ModelNode;
 
 /**
  * @author Emanuel Muckenhuber
@@ -198,6 +199,14 @@ public class DomainSlaveHostRegistrations {
             return events;
         }
 
+        @Override
+        public void failureDetectorToModelNode(final ModelNode target) {
+            final SlaveHostPinger pinger = this.pinger;
+            if (connected && pinger != null && pinger.isMonitoring()) {
+                pinger.getFailureDetector().toModelNode(System.currentTimeMillis(), target);
+            }
+        }
+
         protected String getAddress() {
             return address;
         }
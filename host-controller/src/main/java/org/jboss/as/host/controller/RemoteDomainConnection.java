@@ -40,6 +40,7 @@ import javax.net.ssl.SSLContext;
 import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
@@ -374,8 +375,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.parseCode(errorCode), message));
                  return;
              }
-             final ModelNode extensions = new ModelNode();
-             extensions.readExternal(input);
+             final ModelNode extensions = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
              // Enable the send subject
              if (context.getRequestHeader().getVersion() != 1) {
                  channelHandler.getAttachments().attach(TransactionalProtocolClient.SEND_SUBJECT, Boolean.TRUE);
@@ -443,8 +443,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.parseCode(errorCode), message));
                  return;
              }
-             final ModelNode domainModel = new ModelNode();
-             domainModel.readExternal(input);
+             final ModelNode domainModel = ModelNodeCodec.readModelNode(input, context.getRequestHeader());
              context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
                  @Override
                  public void execute(ManagementRequestContext<Void> voidManagementRequestContext) throws Exception {
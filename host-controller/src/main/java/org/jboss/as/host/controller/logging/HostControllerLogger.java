@@ -1226,4 +1226,15 @@ public interface HostControllerLogger extends BasicLogger {
 
     @Message(id = 160, value = "Could not read or create the domain UUID in file: %s")
     IllegalStateException couldNotObtainDomainUuid(@Cause Throwable cause, Path file);
+
+    /**
+     * Logs a warning message indicating a system property has an invalid value.
+     *
+     * @param value the invalid value
+     * @param property the name of the system property
+     * @param defaultValue the value used instead
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 161, value = "Invalid value '%s' for system property %s, using %s instead")
+    void invalidSystemPropertyValue(String value, String property, Object defaultValue);
 }
@@ -50,6 +50,7 @@ import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.impl.ModelNodeCodec;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.registry.Resource;
@@ -70,6 +71,7 @@ import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestHandlerFactory;
@@ -443,7 +445,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             final ModelNode subsystems = executeBlocking(new IOTask<ModelNode>() {
                 @Override
                 void sendMessage(FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, extensions);
+                    sendResponse(output, responseChannel.getRequestHeader(), DomainControllerProtocol.PARAM_OK, extensions);
                 }
             });
             if(failed) {
@@ -495,7 +497,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             final Boolean registered = executeBlocking(new IOTask<Boolean>() {
                 @Override
                 void sendMessage(final FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                    sendResponse(output, responseChannel.getRequestHeader(), DomainControllerProtocol.PARAM_OK, result);
                 }
             });
             if(! registered) {
@@ -640,18 +642,18 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         final ManagementResponseHeader header = ManagementResponseHeader.create(context.getRequestHeader());
         final FlushableDataOutput output = context.writeMessage(header);
         try {
-            sendResponse(output, responseType, response);
+            sendResponse(output, header, responseType, response);
         } finally {
             StreamUtils.safeClose(output);
         }
     }
 
-    static void sendResponse(final FlushableDataOutput output, final byte responseType, final ModelNode response) throws IOException {
+    static void sendResponse(final FlushableDataOutput output, final ManagementProtocolHeader header, final byte responseType, final ModelNode response) throws IOException {
         // response type
         output.writeByte(responseType);
         if(response != null) {
             // operation result
-            response.writeExternal(output);
+            ModelNodeCodec.writeModelNode(response, output, header);
         }
         // response end
         output.writeByte(ManagementProtocol.RESPONSE_END);
@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import org.jboss.as.domain.controller.HostConnectionInfo;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Accrual failure detector, as described by Hayashibara et al. in "The Phi Accrual Failure Detector".
+ * <p>
+ * Rather than declaring a peer failed once a fixed timeout expires, the detector keeps a sliding window of the
+ * intervals between the heartbeats received from the peer and reports the suspicion level {@code phi} for the time
+ * elapsed since the last heartbeat. {@code phi} is {@code -log10} of the probability that a heartbeat still arrives
+ * later than that, assuming the intervals are normally distributed, so a peer whose heartbeats are irregular, e.g.
+ * because of garbage collection pauses, is given more time before being suspected than a peer whose heartbeats
+ * arrive like clockwork.
+ * </p>
+ * <p>
+ * As a pause, e.g. for a full garbage collection, is rare, the intervals measured so far do not predict it. An
+ * acceptable pause is therefore added to the mean interval, and the standard deviation is never taken as less than
+ * a tenth of the mean interval, so that heartbeats arriving at a very regular rate do not make the detector
+ * suspect the peer as soon as one is a little late.
+ * </p>
+ * <p>
+ * The detector is not tied to a clock: heartbeats and the current time are passed in, so it can be driven with
+ * simulated timestamps. It is safe for use from several threads.
+ * </p>
+ */
+public final class PhiAccrualFailureDetector {
+
+    /** The default number of intervals the distribution is computed from. */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    /** The default lower bound of the standard deviation, in milliseconds. */
+    public static final long DEFAULT_MIN_STD_DEVIATION = 500;
+    /** The lower bound of the standard deviation, relative to the mean interval. */
+    static final double MIN_STD_DEVIATION_RATIO = 0.1;
+
+    private final long[] intervals;
+    private final long minStdDeviation;
+    private final long acceptablePause;
+    // guarded by this
+    private int next;
+    private int count;
+    private long sum;
+    private long squaredSum;
+    private long lastHeartbeat = -1;
+
+    /**
+     * Creates a detector with the default window size and minimum standard deviation, and no acceptable pause.
+     *
+     * @param firstHeartbeatEstimate the expected interval between heartbeats, in milliseconds, used until intervals
+     *                               have been measured
+     */
+    public PhiAccrualFailureDetector(final long firstHeartbeatEstimate) {
+        this(firstHeartbeatEstimate, 0);
+    }
+
+    /**
+     * Creates a detector with the default window size and minimum standard deviation.
+     *
+     * @param firstHeartbeatEstimate the expected interval between heartbeats, in milliseconds, used until intervals
+     *                               have been measured
+     * @param acceptablePause the pause, in milliseconds, which is added to the mean interval before the peer is
+     *                        suspected
+     */
+    public PhiAccrualFailureDetector(final long firstHeartbeatEstimate, final long acceptablePause) {
+        this(firstHeartbeatEstimate, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_STD_DEVIATION, acceptablePause);
+    }
+
+    /**
+     * Creates a detector.
+     *
+     * @param firstHeartbeatEstimate the expected interval between heartbeats, in milliseconds, used until intervals
+     *                               have been measured
+     * @param windowSize the number of intervals the distribution is computed from
+     * @param minStdDeviation the lower bound of the standard deviation, in milliseconds, so that very regular
+     *                        heartbeats do not make the detector overly sensitive
+     * @param acceptablePause the pause, in milliseconds, which is added to the mean interval before the peer is
+     *                        suspected
+     */
+    public PhiAccrualFailureDetector(final long firstHeartbeatEstimate, final int windowSize, final long minStdDeviation,
+                                     final long acceptablePause) {
+        assert firstHeartbeatEstimate > 0;
+        assert windowSize >= 2;
+        assert acceptablePause >= 0;
+        this.intervals = new long[windowSize];
+        this.minStdDeviation = minStdDeviation;
+        this.acceptablePause = acceptablePause;
+        // Seed the window with an estimate of mean firstHeartbeatEstimate and deviation firstHeartbeatEstimate / 4
+        final long deviation = firstHeartbeatEstimate / 4;
+        add(firstHeartbeatEstimate - deviation);
+        add(firstHeartbeatEstimate + deviation);
+    }
+
+    /**
+     * Records a heartbeat. Heartbeats which are not later than the last recorded one are ignored.
+     *
+     * @param timestamp the time the heartbeat was received, in milliseconds
+     */
+    public synchronized void heartbeat(final long timestamp) {
+        if (timestamp <= lastHeartbeat) {
+            return;
+        }
+        if (lastHeartbeat >= 0) {
+            add(timestamp - lastHeartbeat);
+        }
+        lastHeartbeat = timestamp;
+    }
+
+    /**
+     * Gets the time of the last recorded heartbeat.
+     *
+     * @return the time in milliseconds, or {@code -1} if no heartbeat has been recorded
+     */
+    public synchronized long getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    /**
+     * Gets the suspicion level of the peer.
+     *
+     * @param now the current time, in milliseconds
+     * @return the suspicion level, {@code 0} if no heartbeat has been recorded yet
+     */
+    public synchronized double phi(final long now) {
+        if (lastHeartbeat < 0) {
+            return 0.0;
+        }
+        return phi(now - lastHeartbeat, getMean() + acceptablePause, getStdDeviation());
+    }
+
+    /**
+     * Gets whether the suspicion level of the peer has reached a threshold.
+     *
+     * @param now the current time, in milliseconds
+     * @param threshold the threshold
+     * @return {@code true} if the peer should be considered failed
+     */
+    public boolean isSuspected(final long now, final double threshold) {
+        return phi(now) >= threshold;
+    }
+
+    /**
+     * Gets the mean interval between heartbeats.
+     *
+     * @return the mean interval, in milliseconds
+     */
+    public synchronized double getMean() {
+        return (double) sum / count;
+    }
+
+    /**
+     * Gets the standard deviation of the intervals between heartbeats, which is never less than the minimum
+     * standard deviation of the detector, nor than a tenth of the mean interval.
+     *
+     * @return the standard deviation, in milliseconds
+     */
+    public synchronized double getStdDeviation() {
+        final double mean = getMean();
+        final double variance = Math.max(0.0, (double) squaredSum / count - mean * mean);
+        return Math.max(Math.sqrt(variance), Math.max(minStdDeviation, mean * MIN_STD_DEVIATION_RATIO));
+    }
+
+    /**
+     * Fills a model node with the state of the detector.
+     *
+     * @param now the current time, in milliseconds
+     * @param target the target model
+     */
+    public synchronized void toModelNode(final long now, final ModelNode target) {
+        target.get(HostConnectionInfo.PHI).set(phi(now));
+        target.get(HostConnectionInfo.HEARTBEAT_INTERVAL_MEAN).set(Math.round(getMean()));
+        target.get(HostConnectionInfo.HEARTBEAT_INTERVAL_STD_DEVIATION).set(Math.round(getStdDeviation()));
+        target.get(HostConnectionInfo.LAST_HEARTBEAT);
+        if (lastHeartbeat >= 0) {
+            target.get(HostConnectionInfo.LAST_HEARTBEAT).set(lastHeartbeat);
+        }
+    }
+
+    private void add(final long interval) {
+        if (count == intervals.length) {
+            final long dropped = intervals[next];
+            sum -= dropped;
+            squaredSum -= dropped * dropped;
+        } else {
+            count++;
+        }
+        intervals[next] = interval;
+        next = (next + 1) % intervals.length;
+        sum += interval;
+        squaredSum += interval * interval;
+    }
+
+    /**
+     * Computes {@code phi} using the logistic approximation of the cumulative normal distribution.
+     */
+    static double phi(final long elapsed, final double mean, final double stdDeviation) {
+        final double y = (elapsed - mean) / stdDeviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsed > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+}
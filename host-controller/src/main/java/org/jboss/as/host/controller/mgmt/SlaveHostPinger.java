@@ -32,6 +32,7 @@ import java.util.concurrent.TimeoutException;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
+import org.jboss.as.protocol.mgmt.ManagementChannelReceiver;
 import org.jboss.as.protocol.mgmt.ManagementPingRequest;
 import org.jboss.remoting3.Channel;
 import org.jboss.threads.AsyncFuture;
@@ -39,6 +40,16 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Coordinates periodic pinging of a slave Host Controller to validate its connection
+ * <p>
+ * If the {@code jboss.as.domain.ping.adaptive} system property is {@code true}, {@link #startMonitoring()} monitors
+ * the slave with a {@link PhiAccrualFailureDetector}. Any management message received from the slave counts as a
+ * heartbeat, so a ping is only sent once the slave has been silent for the ping interval, or sooner once the
+ * detector starts to suspect it. The slave is unregistered once the detector's suspicion level reaches the
+ * {@code jboss.as.domain.ping.phi-threshold} while a ping is outstanding, but never before nothing has been received
+ * from it for the {@code jboss.as.domain.ping.timeout}. The detector adds the
+ * {@code jboss.as.domain.ping.acceptable-pause} to the mean interval between messages, so that a slave pausing for
+ * garbage collection is not suspected straight away.
+ * </p>
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -47,6 +58,12 @@ public class SlaveHostPinger {
     public static final long STD_INTERVAL;
     public static final long STD_TIMEOUT;
     public static final long SHORT_TIMEOUT = 10000;
+    public static final boolean ADAPTIVE;
+    public static final double PHI_THRESHOLD;
+    public static final long ACCEPTABLE_PAUSE;
+    /** The suspicion level from which the slave is checked, and pinged, more often. */
+    private static final double SUSPICION_RATIO = 0.5;
+    private static final long MIN_CHECK_INTERVAL = 500;
 
     static {
         long interval = -1;
@@ -66,14 +83,44 @@ public class SlaveHostPinger {
         } finally {
             STD_TIMEOUT = timeout > 0 ? timeout : 30000;
         }
+        ADAPTIVE = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.adaptive", "false"));
+        double threshold = -1;
+        final String thresholdValue = WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.phi-threshold", "8");
+        try {
+            threshold = Double.parseDouble(thresholdValue);
+        } catch (NumberFormatException e) {
+            // logged below
+        }
+        if (threshold > 0 && !Double.isInfinite(threshold)) {
+            PHI_THRESHOLD = threshold;
+        } else {
+            HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(thresholdValue, "jboss.as.domain.ping.phi-threshold", 8);
+            PHI_THRESHOLD = 8;
+        }
+        long pause = -1;
+        final String pauseValue = WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.acceptable-pause", "5000");
+        try {
+            pause = Long.parseLong(pauseValue);
+        } catch (NumberFormatException e) {
+            // logged below
+        }
+        if (pause >= 0) {
+            ACCEPTABLE_PAUSE = pause;
+        } else {
+            HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(pauseValue, "jboss.as.domain.ping.acceptable-pause", 5000);
+            ACCEPTABLE_PAUSE = 5000;
+        }
     }
 
     private final String hostName;
     private final ManagementChannelHandler channelHandler;
     private final ScheduledExecutorService scheduler;
 
+    private final PhiAccrualFailureDetector failureDetector = createFailureDetector();
+
     private volatile Long remoteConnectionID;
     private volatile boolean cancelled;
+    private volatile boolean monitoring;
 
     public SlaveHostPinger(String hostName, ManagementChannelHandler channelHandler, ScheduledExecutorService scheduler, long remoteConnectionID) {
         this.hostName = hostName;
@@ -91,6 +138,38 @@ public class SlaveHostPinger {
         scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Starts monitoring the slave with the failure detector, if adaptive pinging is enabled.
+     */
+    public void startMonitoring() {
+        if (ADAPTIVE && !cancelled) {
+            monitoring = true;
+            // Any message received from the slave counts as a heartbeat
+            channelHandler.setArrivalListener(new ManagementChannelReceiver.ArrivalListener() {
+                @Override
+                public void messageArrived(long timestamp) {
+                    failureDetector.heartbeat(timestamp);
+                }
+            });
+            final long lastReceived = channelHandler.getLastMessageReceivedTime();
+            failureDetector.heartbeat(lastReceived > 0 ? lastReceived : System.currentTimeMillis());
+            scheduler.schedule(new MonitorTask(), STD_INTERVAL / 2, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gets whether the slave is monitored by the failure detector.
+     *
+     * @return {@code true} if {@link #startMonitoring()} started monitoring and the pinger was not cancelled
+     */
+    public boolean isMonitoring() {
+        return monitoring && !cancelled;
+    }
+
+    public PhiAccrualFailureDetector getFailureDetector() {
+        return failureDetector;
+    }
+
     public boolean isCancelled() {
         return cancelled;
     }
@@ -140,13 +219,7 @@ public class SlaveHostPinger {
                     safeCancel(future);
                 } finally {
                     if (fail) {
-                        Channel channel = null;
-                        try {
-                            channel = channelHandler.getChannel();
-                        } catch (IOException e) {
-                            // ignore; shouldn't happen as the channel is already established if this task is running
-                        }
-                        StreamUtils.safeClose(channel);
+                        closeChannel();
                     } else if (!cancelled && interval > 0) {
                         scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
                     }
@@ -160,4 +233,101 @@ public class SlaveHostPinger {
             }
         }
     }
+
+    static PhiAccrualFailureDetector createFailureDetector() {
+        return new PhiAccrualFailureDetector(STD_INTERVAL, ACCEPTABLE_PAUSE);
+    }
+
+    /**
+     * Gets whether a slave is considered unreachable. However high the suspicion level of the failure detector, the
+     * slave is only considered unreachable once nothing has been received from it for the ping timeout.
+     *
+     * @param failureDetector the failure detector monitoring the slave
+     * @param now the current time, in milliseconds
+     * @return {@code true} if the slave should be unregistered
+     */
+    static boolean isUnreachable(final PhiAccrualFailureDetector failureDetector, final long now) {
+        final long lastHeartbeat = failureDetector.getLastHeartbeat();
+        return lastHeartbeat >= 0 && now - lastHeartbeat >= STD_TIMEOUT && failureDetector.phi(now) >= PHI_THRESHOLD;
+    }
+
+    private void closeChannel() {
+        Channel channel = null;
+        try {
+            channel = channelHandler.getChannel();
+        } catch (IOException e) {
+            // ignore; shouldn't happen as the channel is already established if this task is running
+        }
+        StreamUtils.safeClose(channel);
+    }
+
+    /**
+     * Periodically checks the failure detector, which is fed the arrival time of each message received from the
+     * slave, pings the slave if it has been silent for too long and unregisters it once it is unreachable. The task
+     * reschedules itself, checking twice per ping interval, or more often while the slave is suspected.
+     */
+    private class MonitorTask implements Runnable {
+
+        private final double suspicion = PHI_THRESHOLD * SUSPICION_RATIO;
+        // Only accessed by the task itself, which never runs concurrently with itself
+        private AsyncFuture<Long> pending;
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            final long lastHeartbeat = failureDetector.getLastHeartbeat();
+            final double phi = failureDetector.phi(now);
+            if (pending != null && pending.getStatus() != AsyncFuture.Status.WAITING) {
+                pending = null;
+            }
+            if (pending != null && isUnreachable(failureDetector, now)) {
+                HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, now - lastHeartbeat);
+                pending.cancel(true);
+                closeChannel();
+                return;
+            }
+            if (pending == null && (now - lastHeartbeat >= STD_INTERVAL || phi >= suspicion)) {
+                ping();
+            }
+            final long delay = phi >= suspicion ? Math.max(MIN_CHECK_INTERVAL, STD_INTERVAL / 8) : STD_INTERVAL / 2;
+            scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private void ping() {
+            try {
+                pending = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
+            } catch (IOException e) {
+                HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
+                return;
+            }
+            pending.addListener(new AsyncFuture.Listener<Long, Void>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends Long> future, Void attachment) {
+                    final Long id;
+                    try {
+                        id = future.get();
+                    } catch (Exception e) {
+                        return;
+                    }
+                    if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
+                        HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerChanged(hostName);
+                        closeChannel();
+                    }
+                }
+
+                @Override
+                public void handleFailed(AsyncFuture<? extends Long> future, Throwable cause, Void attachment) {
+                    HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", cause);
+                }
+
+                @Override
+                public void handleCancelled(AsyncFuture<? extends Long> future, Void attachment) {
+                    //
+                }
+            }, null);
+        }
+    }
 }
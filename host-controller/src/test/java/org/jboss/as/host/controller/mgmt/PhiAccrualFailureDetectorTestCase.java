@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import org.jboss.as.domain.controller.HostConnectionInfo;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the {@link PhiAccrualFailureDetector}, driven by simulated timestamps.
+ */
+public class PhiAccrualFailureDetectorTestCase {
+
+    private static final double THRESHOLD = 8.0;
+
+    @Test
+    public void testNoHeartbeat() {
+        final PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000);
+        Assert.assertEquals(-1, detector.getLastHeartbeat());
+        Assert.assertEquals(0.0, detector.phi(100000), 0.0);
+        Assert.assertFalse(detector.isSuspected(100000, THRESHOLD));
+
+        final ModelNode model = new ModelNode();
+        detector.toModelNode(100000, model);
+        Assert.assertEquals(0.0, model.get(HostConnectionInfo.PHI).asDouble(), 0.0);
+        Assert.assertEquals(1000, model.get(HostConnectionInfo.HEARTBEAT_INTERVAL_MEAN).asLong());
+        Assert.assertFalse(model.get(HostConnectionInfo.LAST_HEARTBEAT).isDefined());
+    }
+
+    @Test
+    public void testRegularHeartbeats() {
+        final PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000);
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            now += 1000;
+            detector.heartbeat(now);
+        }
+        Assert.assertEquals(now, detector.getLastHeartbeat());
+        Assert.assertEquals(1000.0, detector.getMean(), 1.0);
+
+        Assert.assertTrue(detector.phi(now + 100) < 1.0);
+        Assert.assertFalse(detector.isSuspected(now + 1000, THRESHOLD));
+        Assert.assertTrue(detector.phi(now + 3000) > detector.phi(now + 1000));
+        Assert.assertTrue(detector.isSuspected(now + 10000, THRESHOLD));
+
+        // A late heartbeat clears the suspicion
+        now += 10000;
+        detector.heartbeat(now);
+        Assert.assertFalse(detector.isSuspected(now + 100, THRESHOLD));
+    }
+
+    @Test
+    public void testIrregularHeartbeatsTolerateLongerSilence() {
+        final PhiAccrualFailureDetector regular = new PhiAccrualFailureDetector(1000, 100, 50, 0);
+        final PhiAccrualFailureDetector irregular = new PhiAccrualFailureDetector(1000, 100, 50, 0);
+        long regularNow = 0;
+        long irregularNow = 0;
+        for (int i = 0; i < 100; i++) {
+            regularNow += 1000;
+            regular.heartbeat(regularNow);
+            irregularNow += i % 2 == 0 ? 500 : 1500;
+            irregular.heartbeat(irregularNow);
+        }
+        Assert.assertEquals(regular.getMean(), irregular.getMean(), 10.0);
+        Assert.assertTrue(irregular.getStdDeviation() > regular.getStdDeviation());
+
+        final double regularPhi = regular.phi(regularNow + 2500);
+        final double irregularPhi = irregular.phi(irregularNow + 2500);
+        Assert.assertTrue(regularPhi >= THRESHOLD);
+        Assert.assertTrue(irregularPhi < THRESHOLD);
+        Assert.assertTrue(irregularPhi < regularPhi);
+    }
+
+    @Test
+    public void testAcceptablePause() {
+        final PhiAccrualFailureDetector strict = new PhiAccrualFailureDetector(1000, 100, 50, 0);
+        final PhiAccrualFailureDetector tolerant = new PhiAccrualFailureDetector(1000, 100, 50, 2000);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 1000;
+            strict.heartbeat(now);
+            tolerant.heartbeat(now);
+        }
+        Assert.assertTrue(strict.isSuspected(now + 2500, THRESHOLD));
+        Assert.assertFalse(tolerant.isSuspected(now + 2500, THRESHOLD));
+        Assert.assertTrue(tolerant.isSuspected(now + 6000, THRESHOLD));
+    }
+
+    @Test
+    public void testMinStdDeviationScalesWithMean() {
+        final PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10000, 100, 50, 0);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 10000;
+            detector.heartbeat(now);
+        }
+        Assert.assertEquals(10000 * PhiAccrualFailureDetector.MIN_STD_DEVIATION_RATIO, detector.getStdDeviation(), 1.0);
+    }
+
+    @Test
+    public void testStaleHeartbeatsIgnored() {
+        final PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000);
+        detector.heartbeat(5000);
+        final double mean = detector.getMean();
+        detector.heartbeat(5000);
+        detector.heartbeat(4000);
+        Assert.assertEquals(5000, detector.getLastHeartbeat());
+        Assert.assertEquals(mean, detector.getMean(), 0.0);
+    }
+
+    @Test
+    public void testPhiIncreasesWithElapsedTime() {
+        double last = PhiAccrualFailureDetector.phi(0, 1000, 200);
+        for (long elapsed = 250; elapsed <= 3000; elapsed += 250) {
+            final double phi = PhiAccrualFailureDetector.phi(elapsed, 1000, 200);
+            Assert.assertTrue(phi >= last);
+            last = phi;
+        }
+        Assert.assertEquals(-Math.log10(0.5), PhiAccrualFailureDetector.phi(1000, 1000, 200), 0.001);
+    }
+}
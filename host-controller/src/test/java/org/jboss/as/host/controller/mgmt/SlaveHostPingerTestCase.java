@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the decision of the {@link SlaveHostPinger} to unregister a slave, driven by simulated timestamps.
+ */
+public class SlaveHostPingerTestCase {
+
+    private static final long PING_INTERVAL = SlaveHostPinger.STD_INTERVAL - 500;
+
+    @Test
+    public void testPauseDoesNotDropSlave() {
+        final PhiAccrualFailureDetector detector = SlaveHostPinger.createFailureDetector();
+        final Random random = new Random(42);
+        long now = 0;
+        detector.heartbeat(now);
+        for (int i = 0; i < 200; i++) {
+            // the slave's own pings, jittered by up to a second either way
+            now += PING_INTERVAL - 1000 + random.nextInt(2001);
+            detector.heartbeat(now);
+            if (i % 10 == 0) {
+                // now and then a few operation messages in quick succession
+                for (int j = 0; j < 3; j++) {
+                    now += 5 + random.nextInt(50);
+                    detector.heartbeat(now);
+                }
+            }
+            Assert.assertFalse(SlaveHostPinger.isUnreachable(detector, now + 500));
+        }
+
+        // A pause of several seconds beyond the usual interval, e.g. for a full GC on the slave
+        final long lastHeartbeat = now;
+        final long pauseEnd = lastHeartbeat + PING_INTERVAL + 8000;
+        for (long check = lastHeartbeat; check <= pauseEnd; check += 500) {
+            Assert.assertFalse(SlaveHostPinger.isUnreachable(detector, check));
+        }
+        Assert.assertTrue(detector.phi(pauseEnd) < SlaveHostPinger.PHI_THRESHOLD);
+
+        // The slave comes back, and is monitored as before
+        now = pauseEnd;
+        detector.heartbeat(now);
+        Assert.assertFalse(SlaveHostPinger.isUnreachable(detector, now + PING_INTERVAL));
+
+        // A slave which stays silent is eventually unregistered
+        Assert.assertTrue(SlaveHostPinger.isUnreachable(detector, now + 10 * SlaveHostPinger.STD_TIMEOUT));
+    }
+
+    @Test
+    public void testNeverUnreachableBeforeTimeout() {
+        // Very regular heartbeats make the detector suspect the slave quickly
+        final PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000, 100, 1, 0);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 1000;
+            detector.heartbeat(now);
+        }
+        final long beforeTimeout = now + SlaveHostPinger.STD_TIMEOUT - 1;
+        Assert.assertTrue(detector.phi(beforeTimeout) >= SlaveHostPinger.PHI_THRESHOLD);
+        Assert.assertFalse(SlaveHostPinger.isUnreachable(detector, beforeTimeout));
+        Assert.assertTrue(SlaveHostPinger.isUnreachable(detector, now + SlaveHostPinger.STD_TIMEOUT));
+    }
+
+    @Test
+    public void testNoHeartbeat() {
+        final PhiAccrualFailureDetector detector = SlaveHostPinger.createFailureDetector();
+        Assert.assertFalse(SlaveHostPinger.isUnreachable(detector, 10 * SlaveHostPinger.STD_TIMEOUT));
+    }
+}
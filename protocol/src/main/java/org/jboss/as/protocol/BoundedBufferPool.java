@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xnio.Pooled;
+
+/**
+ * A pool of heap buffers of a fixed size which retains at most a given number of free buffers. Buffers freed while
+ * the pool is full are left to the garbage collector, so a burst of allocations does not pin memory afterwards.
+ */
+final class BoundedBufferPool {
+
+    private final int bufferSize;
+    private final int maxRetained;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicInteger retained = new AtomicInteger();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param bufferSize the size of the buffers
+     * @param maxRetained the maximum number of free buffers kept for reuse
+     */
+    BoundedBufferPool(final int bufferSize, final int maxRetained) {
+        this.bufferSize = bufferSize;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * Takes a buffer from the pool, or allocates a new one if none is free. The buffer is backed by an array.
+     *
+     * @return the pooled buffer, which must be {@link Pooled#free() freed} after use
+     */
+    Pooled<ByteBuffer> allocate() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(bufferSize);
+        } else {
+            retained.decrementAndGet();
+        }
+        return new PooledBuffer(buffer);
+    }
+
+    /**
+     * Gets the number of free buffers currently kept for reuse.
+     *
+     * @return the number of retained buffers
+     */
+    int getRetained() {
+        return retained.get();
+    }
+
+    private void release(final ByteBuffer buffer) {
+        if (retained.incrementAndGet() <= maxRetained) {
+            buffer.clear();
+            buffers.add(buffer);
+        } else {
+            retained.decrementAndGet();
+        }
+    }
+
+    private final class PooledBuffer implements Pooled<ByteBuffer> {
+
+        private volatile ByteBuffer buffer;
+
+        private PooledBuffer(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void discard() {
+            buffer = null;
+        }
+
+        @Override
+        public void free() {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer != null) {
+                this.buffer = null;
+                release(buffer);
+            }
+        }
+
+        @Override
+        public ByteBuffer getResource() throws IllegalStateException {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer == null) {
+                throw new IllegalStateException();
+            }
+            return buffer;
+        }
+
+        public void close() {
+            free();
+        }
+    }
+}
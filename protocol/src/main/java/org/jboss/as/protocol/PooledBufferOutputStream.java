@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.xnio.Pooled;
+
+/**
+ * An output stream which holds up to {@link #BUFFER_SIZE} bytes in buffers taken from a shared pool, so encoding a
+ * protocol message into memory does not allocate a buffer per message. The buffers must be returned to the pool by
+ * calling {@link #free()} once the content has been written out.
+ * <p>
+ * The content is held in slices of {@link #SLICE_SIZE} bytes which are only taken as the content grows, so a small
+ * message waiting to be sent does not hold on to a buffer of the full size. The pools keep a bounded number of free
+ * buffers, any buffers beyond that are left to the garbage collector once freed.
+ * </p>
+ */
+public final class PooledBufferOutputStream extends OutputStream {
+
+    /**
+     * The size of the buffers returned by {@link #allocate()}, and the maximum number of bytes the stream can hold.
+     */
+    public static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The size of the slices holding the content of the stream.
+     */
+    static final int SLICE_SIZE = 1024;
+
+    private static final BoundedBufferPool BUFFERS = new BoundedBufferPool(BUFFER_SIZE, 64);
+    private static final BoundedBufferPool SLICES = new BoundedBufferPool(SLICE_SIZE, 256);
+
+    private final List<Pooled<ByteBuffer>> slices = new ArrayList<Pooled<ByteBuffer>>(1);
+    private ByteBuffer current;
+    private int size;
+    private boolean freed;
+
+    public PooledBufferOutputStream() {
+        nextSlice();
+    }
+
+    /**
+     * Takes a buffer of {@link #BUFFER_SIZE} bytes from the pool. The buffer is backed by an array.
+     *
+     * @return the pooled buffer, which must be {@link Pooled#free() freed} after use
+     */
+    public static Pooled<ByteBuffer> allocate() {
+        return BUFFERS.allocate();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureCapacity(1);
+        if (!current.hasRemaining()) {
+            nextSlice();
+        }
+        current.put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureCapacity(len);
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!current.hasRemaining()) {
+                nextSlice();
+            }
+            final int count = Math.min(remaining, current.remaining());
+            current.put(b, offset, count);
+            offset += count;
+            remaining -= count;
+        }
+        size += len;
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes that can still be written.
+     *
+     * @return the remaining capacity
+     */
+    public int remaining() {
+        return BUFFER_SIZE - size;
+    }
+
+    /**
+     * Writes the bytes written so far to another stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        if (freed) {
+            throw ProtocolLogger.ROOT_LOGGER.streamClosed();
+        }
+        for (Pooled<ByteBuffer> slice : slices) {
+            final ByteBuffer buffer = slice.getResource();
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        }
+    }
+
+    /**
+     * Returns the buffers to the pool. The stream cannot be used afterwards, calling this more than once has no
+     * further effect.
+     */
+    public void free() {
+        if (!freed) {
+            freed = true;
+            current = null;
+            for (Pooled<ByteBuffer> slice : slices) {
+                slice.free();
+            }
+            slices.clear();
+        }
+    }
+
+    private void nextSlice() {
+        final Pooled<ByteBuffer> slice = SLICES.allocate();
+        slices.add(slice);
+        current = slice.getResource();
+    }
+
+    private void ensureCapacity(final int len) throws IOException {
+        if (freed) {
+            throw ProtocolLogger.ROOT_LOGGER.streamClosed();
+        }
+        if (len > BUFFER_SIZE - size) {
+            throw ProtocolLogger.ROOT_LOGGER.bufferOverflow(BUFFER_SIZE);
+        }
+    }
+}
@@ -29,35 +29,49 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 import javax.xml.stream.XMLStreamWriter;
 
 import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.xnio.Pooled;
 
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class StreamUtils {
 
-    private static final int BUFFER_SIZE = 8192;
-
     private StreamUtils() {
         //
     }
 
     public static void copyStream(final InputStream in, final OutputStream out) throws IOException {
-        final byte[] bytes = new byte[BUFFER_SIZE];
-        int cnt;
-        while ((cnt = in.read(bytes)) != -1) {
-            out.write(bytes, 0, cnt);
+        final Pooled<ByteBuffer> pooled = PooledBufferOutputStream.allocate();
+        try {
+            final ByteBuffer buffer = pooled.getResource();
+            final byte[] bytes = buffer.array();
+            final int offset = buffer.arrayOffset();
+            int cnt;
+            while ((cnt = in.read(bytes, offset, buffer.capacity())) != -1) {
+                out.write(bytes, offset, cnt);
+            }
+        } finally {
+            pooled.free();
         }
     }
 
     public static void copyStream(final InputStream in, final DataOutput out) throws IOException {
-        final byte[] bytes = new byte[BUFFER_SIZE];
-        int cnt;
-        while ((cnt = in.read(bytes)) != -1) {
-            out.write(bytes, 0, cnt);
+        final Pooled<ByteBuffer> pooled = PooledBufferOutputStream.allocate();
+        try {
+            final ByteBuffer buffer = pooled.getResource();
+            final byte[] bytes = buffer.array();
+            final int offset = buffer.arrayOffset();
+            int cnt;
+            while ((cnt = in.read(bytes, offset, buffer.capacity())) != -1) {
+                out.write(bytes, offset, cnt);
+            }
+        } finally {
+            pooled.free();
         }
     }
 
@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Implemented by input streams whose content can be written to a channel more cheaply than by reading the stream,
+ * for example streams whose content arrives from a remote peer. A consumer that is going to copy the whole stream
+ * to a file can use {@link #transferTo(WritableByteChannel)} to have the content written as it is received, rather
+ * than handed over from the receiving thread through a buffer.
+ */
+public interface TransferableInputStream {
+
+    /**
+     * Writes the remaining content of the stream to a channel, returning once all of it has been written. The stream
+     * is at its end afterwards.
+     *
+     * @param channel the channel to write to. Cannot be {@code null}
+     * @return the number of bytes written
+     * @throws IOException if the content could not be received or written
+     */
+    long transferTo(WritableByteChannel channel) throws IOException;
+}
@@ -348,4 +348,22 @@ public interface ProtocolLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 59, value = "You are using a deprecated way to set the client bind address. Please use the \"--bind\" parameter on the CLI instead of the %s system property.")
     void deprecatedCLIConfiguration(String systemPropName);
+
+    /**
+     * Creates an exception indicating a message stream was used after it was closed.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 60, value = "Stream closed")
+    IOException streamClosed();
+
+    /**
+     * Creates an exception indicating more was written to a pooled buffer than it can hold.
+     *
+     * @param size the size of the buffer
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 61, value = "Cannot write more than %d bytes to a pooled buffer")
+    IOException bufferOverflow(int size);
 }
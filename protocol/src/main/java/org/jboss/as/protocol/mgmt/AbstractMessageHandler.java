@@ -38,7 +38,6 @@ import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.logging.ProtocolLogger;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
-import org.jboss.remoting3.MessageOutputStream;
 import org.jboss.threads.AsyncFuture;
 import org.xnio.Cancellable;
 
@@ -211,7 +210,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
 
                 @Override
                 public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
-                    final MessageOutputStream os = channel.writeMessage();
+                    final OutputStream os = PipelinedMessageWriter.writeMessage(channel);
                     return writeHeader(header, os);
                 }
             });
@@ -338,7 +337,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
 
                 @Override
                 public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) throws IOException {
-                    final MessageOutputStream os = channel.writeMessage();
+                    final OutputStream os = PipelinedMessageWriter.writeMessage(channel);
                     return writeHeader(header, os);
                 }
 
@@ -423,7 +422,7 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
      */
     protected static void writeErrorResponse(final Channel channel, final ManagementRequestHeader header, final Exception error) throws IOException {
         final ManagementResponseHeader response = ManagementResponseHeader.create(header, error);
-        final MessageOutputStream output = channel.writeMessage();
+        final OutputStream output = PipelinedMessageWriter.writeMessage(channel);
         try {
             writeHeader(response, output);
             output.close();
@@ -26,10 +26,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -75,12 +77,16 @@ class ActiveOperationSupport {
     };
 
     private final ConcurrentMap<Integer, ActiveOperationImpl<?, ?>> activeRequests = new ConcurrentHashMap<Integer, ActiveOperationImpl<?, ?>> (16, 0.75f, Runtime.getRuntime().availableProcessors());
-    private final ManagementBatchIdManager operationIdManager = new ManagementBatchIdManager.DefaultManagementBatchIdManager();
-
+    // The keys of the active requests are the allocated operation ids, so registration and id allocation
+    // are a single putIfAbsent. The count is maintained separately so that awaitCompletion does not need to
+    // lock the registry; the lock is only used to wait for the count to drop to 0 once shutdown.
+    private final AtomicInteger activeCount = new AtomicInteger();
+    // Generated operation ids step through the id space from a random start. The increment is odd, so ids only
+    // repeat once all of them have been used, and no shared Random is contended
+    private static final int OPERATION_ID_INCREMENT = 0x9E3779B9;
+    private final AtomicInteger nextOperationId = new AtomicInteger(new Random().nextInt());
     private final ReentrantLock lock = new ReentrantLock();
     private final Condition condition = lock.newCondition();
-    // mutable variables, have to be guarded by the lock
-    private int activeCount = 0;
     private volatile boolean shutdown = false;
 
     protected ActiveOperationSupport() {
@@ -146,29 +152,29 @@ class ActiveOperationSupport {
      * @throws java.lang.IllegalStateException if an operation with the same id is already registered
      */
     protected <T, A> ActiveOperation<T, A> registerActiveOperation(final Integer id, A attachment, ActiveOperation.CompletedCallback<T> callback) {
-        lock.lock(); try {
-            // Check that we still allow registration
-            assert ! shutdown;
-            final Integer operationId;
-            if(id == null) {
-                // If we did not get an operationId, create a new one
-                operationId = operationIdManager.createBatchId();
-            } else {
-                // Check that the operationId is not already taken
-                if(! operationIdManager.lockBatchId(id)) {
-                    throw ProtocolLogger.ROOT_LOGGER.operationIdAlreadyExists(id);
-                }
-                operationId = id;
+        // Check that we still allow registration
+        assert ! shutdown;
+        final ActiveOperation.CompletedCallback<T> checkedCallback = getCheckedCallback(callback);
+        // Count the operation before it becomes visible, so a concurrent removal never drops the count below 0
+        activeCount.incrementAndGet();
+        if(id != null) {
+            final ActiveOperationImpl<T, A> request = new ActiveOperationImpl<T, A>(id, attachment, checkedCallback);
+            if(activeRequests.putIfAbsent(id, request) != null) {
+                decrementActiveCount();
+                throw ProtocolLogger.ROOT_LOGGER.operationIdAlreadyExists(id);
             }
-            final ActiveOperationImpl<T, A> request = new ActiveOperationImpl<T, A>(operationId, attachment, getCheckedCallback(callback));
-            final ActiveOperation<?, ?> existing =  activeRequests.putIfAbsent(operationId, request);
-            if(existing != null) {
-                throw ProtocolLogger.ROOT_LOGGER.operationIdAlreadyExists(operationId);
-            }
-            activeCount++; // condition.signalAll();
             return request;
-        } finally {
-            lock.unlock();
+        }
+        // If we did not get an operationId, create a new one
+        for(;;) {
+            final Integer operationId = nextOperationId.getAndAdd(OPERATION_ID_INCREMENT) & Integer.MAX_VALUE;
+            if(activeRequests.containsKey(operationId)) {
+                continue;
+            }
+            final ActiveOperationImpl<T, A> request = new ActiveOperationImpl<T, A>(operationId, attachment, checkedCallback);
+            if(activeRequests.putIfAbsent(operationId, request) == null) {
+                return request;
+            }
         }
     }
 
@@ -200,17 +206,22 @@ class ActiveOperationSupport {
      * @return the removed active operation, {@code null} if there was no registered operation
      */
     protected <T, A> ActiveOperation<T, A> removeActiveOperation(final Integer id) {
-        lock.lock(); try {
-            final ActiveOperation<?, ?> removed = activeRequests.remove(id);
-            if(removed != null) {
-                activeCount--;
-                operationIdManager.freeBatchId(id);
+        final ActiveOperation<?, ?> removed = activeRequests.remove(id);
+        if(removed != null) {
+            decrementActiveCount();
+        }
+        //noinspection unchecked
+        return (ActiveOperation<T, A>) removed;
+    }
+
+    private void decrementActiveCount() {
+        // Only awaitCompletion waits on the condition, and only once shutdown
+        if(activeCount.decrementAndGet() == 0 && shutdown) {
+            lock.lock(); try {
                 condition.signalAll();
+            } finally {
+                lock.unlock();
             }
-            //noinspection unchecked
-            return (ActiveOperation<T, A>) removed;
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -258,11 +269,7 @@ class ActiveOperationSupport {
      * Prevent new active operations get registered.
      */
     protected void shutdown() {
-        lock.lock(); try {
-            shutdown = true;
-        } finally {
-            lock.unlock();
-        }
+        shutdown = true;
     }
 
     /**
@@ -277,14 +284,14 @@ class ActiveOperationSupport {
         long deadline = unit.toMillis(timeout) + System.currentTimeMillis();
         lock.lock(); try {
             assert shutdown;
-            while(activeCount != 0) {
+            while(activeCount.get() != 0) {
                 long remaining = deadline - System.currentTimeMillis();
                 if (remaining <= 0) {
-                    return activeCount == 0;
+                    return activeCount.get() == 0;
                 }
                 condition.await(remaining, TimeUnit.MILLISECONDS);
             }
-            return activeCount == 0;
+            return true;
         } finally {
             lock.unlock();
         }
@@ -18,8 +18,11 @@
  */
 package org.jboss.as.protocol.mgmt;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Responsible for generating new unique batch ids on the server side
@@ -56,29 +59,29 @@ public interface ManagementBatchIdManager {
 
     class DefaultManagementBatchIdManager implements ManagementBatchIdManager {
 
-        private final Set<Integer> ids = new HashSet<Integer>();
+        // Batch ids step through the id space from a random start. The increment is odd, so ids only repeat
+        // once all of them have been used, and no shared Random is contended
+        private static final int ID_INCREMENT = 0x9E3779B9;
+
+        private final Set<Integer> ids = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+        private final AtomicInteger nextId = new AtomicInteger(new Random().nextInt());
 
         @Override
-        public synchronized boolean lockBatchId(int id) {
-            if(ids.contains(id)) {
-                return false;
-            }
-            ids.add(id);
-            return true;
+        public boolean lockBatchId(int id) {
+            return ids.add(id);
         }
 
         @Override
-        public synchronized int createBatchId() {
-            int next = (int)(Math.random() * Integer.MAX_VALUE);
-            while (ids.contains(next)) {
-                next = (int)(Math.random() * Integer.MAX_VALUE);
+        public int createBatchId() {
+            int next = nextId.getAndAdd(ID_INCREMENT) & Integer.MAX_VALUE;
+            while (!ids.add(next)) {
+                next = nextId.getAndAdd(ID_INCREMENT) & Integer.MAX_VALUE;
             }
-            ids.add(next);
             return next;
         }
 
         @Override
-        public synchronized void freeBatchId(int id) {
+        public void freeBatchId(int id) {
             ids.remove(id);
         }
 
@@ -84,6 +84,15 @@ public final class ManagementChannelHandler extends AbstractMessageHandler imple
         return receiver.getLastMessageTime();
     }
 
+    /**
+     * Set the listener notified of the arrival time of each message received by this handler.
+     *
+     * @param listener the listener, or {@code null} for none
+     */
+    public void setArrivalListener(final ManagementChannelReceiver.ArrivalListener listener) {
+        receiver.setArrivalListener(listener);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Channel getChannel() throws IOException {
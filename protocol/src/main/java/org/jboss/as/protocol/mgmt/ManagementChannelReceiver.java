@@ -22,17 +22,22 @@
 
 package org.jboss.as.protocol.mgmt;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
+import org.jboss.as.protocol.PooledBufferOutputStream;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.logging.ProtocolLogger;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.MessageInputStream;
-import org.jboss.remoting3.MessageOutputStream;
+import org.xnio.Pooled;
 
 /**
  * Base receiver class for the management protocol support.
@@ -59,34 +64,36 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
     }
 
     private volatile long lastMessageTime;
+    private volatile ArrivalListener arrivalListener;
 
     @Override
     public void handleMessage(final Channel channel, final MessageInputStream message) {
+        final ManagementMessageListener listener = channel.getAttachments().getAttachment(ManagementMessageListener.ATTACHMENT_KEY);
+        final CountingInputStream counted = listener == null ? null : new CountingInputStream(message);
+        boolean pipelined = false;
         try {
             ProtocolLogger.ROOT_LOGGER.tracef("%s handling incoming data", this);
-            lastMessageTime = System.currentTimeMillis();
-            final DataInput input = new DataInputStream(message);
+            final long now = System.currentTimeMillis();
+            lastMessageTime = now;
+            final ArrivalListener arrivalListener = this.arrivalListener;
+            if (arrivalListener != null) {
+                arrivalListener.messageArrived(now);
+            }
+            final InputStream stream = counted == null ? message : counted;
+            final DataInput input = new DataInputStream(stream);
             final ManagementProtocolHeader header = ManagementProtocolHeader.parse(input);
-            final byte type = header.getType();
+            PipelinedMessageWriter.negotiate(channel, header.getVersion());
             try {
-                if (type == ManagementProtocol.TYPE_PING) {
-                    // Handle legacy ping/pong directly
-                    ProtocolLogger.ROOT_LOGGER.tracef("Received ping on %s", this);
-                    handlePing(channel, header);
-                } else if (type == ManagementProtocol.TYPE_PONG) {
-                    // Nothing to do here
-                    ProtocolLogger.ROOT_LOGGER.tracef("Received on on %s", this);
-                } else if (type == ManagementProtocol.TYPE_BYE_BYE) {
-                    // Close the channel
-                    ProtocolLogger.ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
-                    handleChannelReset(channel);
+                if (header.getType() == ManagementProtocol.TYPE_PIPELINE) {
+                    // Each pipelined message is reported to the listener, like it was when it was sent
+                    pipelined = true;
+                    handlePipeline(channel, input, listener);
                 } else {
-                    // Handle a message
-                    handleMessage(channel, input, header);
+                    dispatch(channel, input, header);
                 }
             } finally {
                 try {
-                    while (message.read() != -1) {
+                    while (stream.read() != -1) {
                         // drain the message to workaround a potential remoting buffer leak
                     }
                 } catch (IOException ignore) {
@@ -100,6 +107,9 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
             handleError(channel, new IOException(e));
         } finally {
             StreamUtils.safeClose(message);
+            if (counted != null && !pipelined) {
+                listener.messageReceived(counted.count);
+            }
             ProtocolLogger.ROOT_LOGGER.tracef("%s done handling incoming data", this);
         }
         final Channel.Receiver next = next();
@@ -108,10 +118,82 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         }
     }
 
+    private void dispatch(final Channel channel, final DataInput input, final ManagementProtocolHeader header) throws IOException {
+        final byte type = header.getType();
+        if (type == ManagementProtocol.TYPE_PING) {
+            // Handle legacy ping/pong directly
+            ProtocolLogger.ROOT_LOGGER.tracef("Received ping on %s", this);
+            handlePing(channel, header);
+        } else if (type == ManagementProtocol.TYPE_PONG) {
+            // Nothing to do here
+            ProtocolLogger.ROOT_LOGGER.tracef("Received on on %s", this);
+        } else if (type == ManagementProtocol.TYPE_BYE_BYE) {
+            // Close the channel
+            ProtocolLogger.ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
+            handleChannelReset(channel);
+        } else {
+            // Handle a message
+            handleMessage(channel, input, header);
+        }
+    }
+
+    /**
+     * Handle each of the messages carried by a pipelined message, in the order they were written.
+     *
+     * @param channel the channel
+     * @param input the pipelined message, positioned after its header
+     * @param listener the listener notified of each message, or {@code null} for none
+     * @throws IOException for any error
+     */
+    private void handlePipeline(final Channel channel, final DataInput input, final ManagementMessageListener listener) throws IOException {
+        int count = 0;
+        byte type;
+        while ((type = input.readByte()) == ManagementProtocol.PIPELINE_ENTRY) {
+            final int length = input.readInt();
+            if (listener != null) {
+                listener.messageReceived(length);
+            }
+            if (length > PooledBufferOutputStream.BUFFER_SIZE) {
+                final byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                dispatchEntry(channel, bytes, 0, length);
+            } else {
+                // The entry is handled before the next one is read, so its buffer can be reused straight away
+                final Pooled<ByteBuffer> pooled = PooledBufferOutputStream.allocate();
+                try {
+                    final ByteBuffer buffer = pooled.getResource();
+                    input.readFully(buffer.array(), buffer.arrayOffset(), length);
+                    dispatchEntry(channel, buffer.array(), buffer.arrayOffset(), length);
+                } finally {
+                    pooled.free();
+                }
+            }
+            count++;
+        }
+        if (type != ManagementProtocol.PIPELINE_END) {
+            throw ProtocolLogger.ROOT_LOGGER.invalidType("0x" + Integer.toHexString(type));
+        }
+        ProtocolLogger.ROOT_LOGGER.tracef("%s handled %d pipelined messages", this, count);
+    }
+
+    private void dispatchEntry(final Channel channel, final byte[] bytes, final int offset, final int length) throws IOException {
+        final DataInput entry = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+        dispatch(channel, entry, ManagementProtocolHeader.parse(entry));
+    }
+
     public long getLastMessageTime() {
         return lastMessageTime;
     }
 
+    /**
+     * Set the listener notified of the arrival time of each message.
+     *
+     * @param listener the listener, or {@code null} for none
+     */
+    public void setArrivalListener(final ArrivalListener listener) {
+        this.arrivalListener = listener;
+    }
+
     /**
      * Get the next receiver.
      *
@@ -173,7 +255,7 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
      */
     protected static void handlePing(final Channel channel, final ManagementProtocolHeader header) throws IOException {
         final ManagementProtocolHeader response = new ManagementPongHeader(header.getVersion());
-        final MessageOutputStream output = channel.writeMessage();
+        final OutputStream output = PipelinedMessageWriter.writeMessage(channel);
         try {
             writeHeader(response, output);
             output.close();
@@ -194,4 +276,56 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         header.write(output);
     }
 
+
+    /**
+     * Counts the bytes of a message read by the receiver, for the {@link ManagementMessageListener}.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * Notified of the time each message arrives on the channel. A message carrying several pipelined messages
+     * arrives once. Implementations are called on the thread reading the channel, so should be cheap and must not
+     * block.
+     */
+    public interface ArrivalListener {
+
+        /**
+         * A message arrived.
+         *
+         * @param timestamp the time the message arrived, in milliseconds
+         */
+        void messageArrived(long timestamp);
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import org.jboss.remoting3.Attachments;
+
+/**
+ * Notified of the size of each management protocol message sent or received on a channel, once the listener has
+ * been attached to the channel under {@link #ATTACHMENT_KEY}. Each of the messages carried by a pipelined message
+ * is reported separately, with the size it has without the pipeline framing, so sent and received messages are
+ * counted the same way whether or not they were pipelined. Implementations are called on the threads reading and
+ * writing the channel, so should be cheap and must not block.
+ */
+public interface ManagementMessageListener {
+
+    /**
+     * The key under which the listener is attached to a {@link org.jboss.remoting3.Channel}.
+     */
+    Attachments.Key<ManagementMessageListener> ATTACHMENT_KEY = new Attachments.Key<ManagementMessageListener>(ManagementMessageListener.class);
+
+    /**
+     * A message was received.
+     *
+     * @param size the size of the message in bytes
+     */
+    void messageReceived(long size);
+
+    /**
+     * A message was sent.
+     *
+     * @param size the size of the message in bytes
+     */
+    void messageSent(long size);
+}
@@ -29,7 +29,7 @@ public interface ManagementProtocol {
     // Headers
     byte[] SIGNATURE = {Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE};
     int VERSION_FIELD = 0x00; // The version field header
-    int VERSION = 2; // The current protocol version
+    int VERSION = 5; // The current protocol version, 3 adds pipelined messages, 4 the compact model encoding, 5 flow controlled attachment streams
 
     byte TYPE = 0x1;
     byte TYPE_REQUEST = 0x2;
@@ -37,6 +37,7 @@ public interface ManagementProtocol {
     byte TYPE_BYE_BYE = 0x4;
     byte TYPE_PING = 0x5;
     byte TYPE_PONG = 0x6;
+    byte TYPE_PIPELINE = 0x7;
 
     byte REQUEST_ID = 0x10;
     byte BATCH_ID = 0x11;
@@ -50,4 +51,7 @@ public interface ManagementProtocol {
     byte RESPONSE_BODY = 0x22;
     byte RESPONSE_ERROR = 0x23;
     byte RESPONSE_END = 0x24;
+
+    byte PIPELINE_ENTRY = 0x30;
+    byte PIPELINE_END = 0x31;
 }
@@ -123,6 +123,8 @@ public abstract class ManagementProtocolHeader {
                 return new ManagementPingHeader(version);
             case ManagementProtocol.TYPE_PONG:
                 return new ManagementPongHeader(version);
+            case ManagementProtocol.TYPE_PIPELINE:
+                return new ManagementPipelineHeader(version);
             default:
                 throw ProtocolLogger.ROOT_LOGGER.invalidType("0x" + Integer.toHexString(type));
         }
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.protocol.PooledBufferOutputStream;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.logging.ProtocolLogger;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+
+/**
+ * Coalesces small management protocol messages written to a {@link Channel} into fewer remoting messages.
+ * <p>
+ * A message written through {@link #writeMessage(Channel)} is buffered until it is closed and then queued. Whichever
+ * writer finds the channel idle sends everything queued at that point; messages queued while it is sending are picked
+ * up by the same writer once it is done, so the flush window is the time taken to send the previous batch and no
+ * delay is added while the channel is idle. A batch holding a single message is sent unchanged, several messages are
+ * wrapped in a {@link ManagementProtocol#TYPE_PIPELINE} message which the receiving {@link ManagementChannelReceiver}
+ * unpacks again. Messages larger than {@link #MAX_ENTRY_SIZE} are sent as a message of their own once the queued
+ * messages have been sent, so that the order in which messages are written is preserved.
+ * </p>
+ * <p>
+ * Peers running an older version cannot read pipelined messages, so messages are only pipelined on a channel once a
+ * message with protocol version {@value #PIPELINING_VERSION} or later has been received on it. Pipelining can be
+ * turned off by setting the {@code jboss.management.protocol.pipelining} system property to {@code false}.
+ * </p>
+ */
+final class PipelinedMessageWriter {
+
+    /**
+     * System property used to disable pipelining of the management protocol messages.
+     */
+    static final String PIPELINING_PROPERTY = "jboss.management.protocol.pipelining";
+
+    /** The first management protocol version that can read pipelined messages. */
+    static final int PIPELINING_VERSION = 3;
+
+    /** The maximum size of a message that is queued rather than sent directly. */
+    static final int MAX_ENTRY_SIZE = PooledBufferOutputStream.BUFFER_SIZE;
+    /** The size of a batch after which no further queued messages are added to it. */
+    static final int MAX_BATCH_SIZE = 65536;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(SecurityActions.getSystemProperty(PIPELINING_PROPERTY, "true"));
+    private static final Attachments.Key<PipelinedMessageWriter> KEY = new Attachments.Key<PipelinedMessageWriter>(PipelinedMessageWriter.class);
+
+    private final Channel channel;
+    private final Queue<PooledBufferOutputStream> queue = new ConcurrentLinkedQueue<PooledBufferOutputStream>();
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    private PipelinedMessageWriter(final Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Enables pipelining of the messages written to a channel once the peer has shown it supports them, by sending
+     * a message with protocol version {@value #PIPELINING_VERSION} or later.
+     *
+     * @param channel the channel the message was received on
+     * @param version the protocol version of the received message
+     */
+    static void negotiate(final Channel channel, final int version) {
+        if (ENABLED && version >= PIPELINING_VERSION && !isEnabled(channel)) {
+            enable(channel);
+            ProtocolLogger.ROOT_LOGGER.tracef("Enabled pipelining on %s", channel);
+        }
+    }
+
+    /**
+     * Opens a message on the channel, which is pipelined if pipelining is enabled for the channel.
+     *
+     * @param channel the channel
+     * @return the output stream for the message. Closing the stream completes the message
+     * @throws IOException if the message could not be opened
+     */
+    static OutputStream writeMessage(final Channel channel) throws IOException {
+        final OutputStream message = openMessage(channel);
+        final ManagementMessageListener listener = channel.getAttachments().getAttachment(ManagementMessageListener.ATTACHMENT_KEY);
+        return listener == null ? message : new CountingOutputStream(message, listener);
+    }
+
+    private static OutputStream openMessage(final Channel channel) throws IOException {
+        final PipelinedMessageWriter writer = channel.getAttachments().getAttachment(KEY);
+        if (writer == null) {
+            return channel.writeMessage();
+        }
+        return writer.new PipelinedOutputStream();
+    }
+
+    /**
+     * Enables pipelining of the messages written to a channel, regardless of the version of the peer.
+     *
+     * @param channel the channel
+     * @return the writer for the channel
+     */
+    static PipelinedMessageWriter enable(final Channel channel) {
+        final PipelinedMessageWriter writer = new PipelinedMessageWriter(channel);
+        final PipelinedMessageWriter existing = channel.getAttachments().attachIfAbsent(KEY, writer);
+        return existing == null ? writer : existing;
+    }
+
+    static boolean isEnabled(final Channel channel) {
+        return channel.getAttachments().getAttachment(KEY) != null;
+    }
+
+    private void enqueue(final PooledBufferOutputStream message) throws IOException {
+        queue.add(message);
+        while (!queue.isEmpty() && sendLock.tryLock()) {
+            try {
+                sendQueued();
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+
+    private OutputStream openDirect() throws IOException {
+        sendLock.lock();
+        try {
+            sendQueued();
+            return channel.writeMessage();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void sendQueued() throws IOException {
+        PooledBufferOutputStream message;
+        while ((message = queue.poll()) != null) {
+            PooledBufferOutputStream next = queue.poll();
+            if (next == null) {
+                send(message);
+                continue;
+            }
+            final OutputStream os = channel.writeMessage();
+            try {
+                final DataOutputStream output = new DataOutputStream(os);
+                new ManagementPipelineHeader(ManagementProtocol.VERSION).write(output);
+                int size = writeEntry(output, message) + writeEntry(output, next);
+                int count = 2;
+                while (size < MAX_BATCH_SIZE && (next = queue.poll()) != null) {
+                    size += writeEntry(output, next);
+                    count++;
+                }
+                output.writeByte(ManagementProtocol.PIPELINE_END);
+                output.close();
+                ProtocolLogger.ROOT_LOGGER.tracef("Sent %d pipelined messages (%d bytes) on %s", count, size, channel);
+            } catch (IOException e) {
+                StreamUtils.safeClose(channel);
+                throw e;
+            } finally {
+                StreamUtils.safeClose(os);
+            }
+        }
+    }
+
+    private void send(final PooledBufferOutputStream message) throws IOException {
+        final OutputStream os = channel.writeMessage();
+        try {
+            message.writeTo(os);
+            os.close();
+        } catch (IOException e) {
+            StreamUtils.safeClose(channel);
+            throw e;
+        } finally {
+            message.free();
+            StreamUtils.safeClose(os);
+        }
+    }
+
+    private static int writeEntry(final DataOutputStream output, final PooledBufferOutputStream message) throws IOException {
+        try {
+            output.writeByte(ManagementProtocol.PIPELINE_ENTRY);
+            output.writeInt(message.size());
+            message.writeTo(output);
+            return message.size();
+        } finally {
+            message.free();
+        }
+    }
+
+    /**
+     * Buffers a message until it is closed, or until it grows beyond {@link #MAX_ENTRY_SIZE} at which point it
+     * continues as a message of its own.
+     */
+    private final class PipelinedOutputStream extends OutputStream {
+
+        private PooledBufferOutputStream buffer = new PooledBufferOutputStream();
+        private OutputStream direct;
+        private boolean closed;
+
+        @Override
+        public void write(final int b) throws IOException {
+            target(1).write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            target(len).write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Closing a DataOutputStream flushes it first, so a buffered message is only sent once it is complete
+            if (direct != null) {
+                direct.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (direct != null) {
+                direct.close();
+            } else {
+                final PooledBufferOutputStream message = buffer;
+                buffer = null;
+                enqueue(message);
+            }
+        }
+
+        private OutputStream target(final int len) throws IOException {
+            if (closed) {
+                throw ProtocolLogger.ROOT_LOGGER.streamClosed();
+            }
+            if (direct == null && len <= buffer.remaining()) {
+                return buffer;
+            }
+            return spill();
+        }
+
+        private OutputStream spill() throws IOException {
+            if (direct == null) {
+                direct = openDirect();
+                try {
+                    buffer.writeTo(direct);
+                } finally {
+                    buffer.free();
+                    buffer = null;
+                }
+            }
+            return direct;
+        }
+    }
+
+    /**
+     * Counts the bytes written to a message and reports them to the {@link ManagementMessageListener} once the
+     * message is closed.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final ManagementMessageListener listener;
+        private long count;
+        private boolean closed;
+
+        private CountingOutputStream(final OutputStream out, final ManagementMessageListener listener) {
+            super(out);
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.close();
+            listener.messageSent(count);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xnio.Pooled;
+
+/**
+ * Tests of {@link PooledBufferOutputStream} and the {@link BoundedBufferPool} behind it.
+ */
+public class PooledBufferOutputStreamTestCase {
+
+    @Test
+    public void testWriteAndFlush() throws IOException {
+        final PooledBufferOutputStream stream = new PooledBufferOutputStream();
+        try {
+            stream.write(1);
+            stream.write(new byte[] {2, 3, 4}, 1, 2);
+            stream.flush();
+            Assert.assertEquals(3, stream.size());
+            Assert.assertEquals(PooledBufferOutputStream.BUFFER_SIZE - 3, stream.remaining());
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.writeTo(out);
+            Assert.assertArrayEquals(new byte[] {1, 3, 4}, out.toByteArray());
+        } finally {
+            stream.free();
+        }
+    }
+
+    @Test
+    public void testOverflowIntoNextSlice() throws IOException {
+        final byte[] content = new byte[PooledBufferOutputStream.SLICE_SIZE + 10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final PooledBufferOutputStream stream = new PooledBufferOutputStream();
+        try {
+            // Fill the first slice up to the last byte, then continue with a single byte and an array write
+            stream.write(content, 0, PooledBufferOutputStream.SLICE_SIZE - 1);
+            stream.write(content[PooledBufferOutputStream.SLICE_SIZE - 1]);
+            stream.write(content[PooledBufferOutputStream.SLICE_SIZE]);
+            stream.write(content, PooledBufferOutputStream.SLICE_SIZE + 1, 9);
+            Assert.assertEquals(content.length, stream.size());
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.writeTo(out);
+            Assert.assertArrayEquals(content, out.toByteArray());
+        } finally {
+            stream.free();
+        }
+    }
+
+    @Test
+    public void testMaximumSize() throws IOException {
+        final byte[] content = new byte[PooledBufferOutputStream.BUFFER_SIZE];
+        Arrays.fill(content, (byte) 7);
+        final PooledBufferOutputStream stream = new PooledBufferOutputStream();
+        try {
+            stream.write(content);
+            Assert.assertEquals(0, stream.remaining());
+            try {
+                stream.write(0);
+                Assert.fail("Writing beyond the buffer size should fail");
+            } catch (IOException expected) {
+                // expected
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.writeTo(out);
+            Assert.assertArrayEquals(content, out.toByteArray());
+        } finally {
+            stream.free();
+        }
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        final PooledBufferOutputStream stream = new PooledBufferOutputStream();
+        stream.write(new byte[PooledBufferOutputStream.SLICE_SIZE * 2]);
+        stream.free();
+        // Freeing again has no effect, but the stream can no longer be used
+        stream.free();
+        try {
+            stream.write(0);
+            Assert.fail("Writing to a freed stream should fail");
+        } catch (IOException expected) {
+            // expected
+        }
+        try {
+            stream.writeTo(new ByteArrayOutputStream());
+            Assert.fail("Reading a freed stream should fail");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPoolRetentionIsBounded() {
+        final BoundedBufferPool pool = new BoundedBufferPool(16, 2);
+        final List<Pooled<ByteBuffer>> buffers = new ArrayList<Pooled<ByteBuffer>>();
+        for (int i = 0; i < 5; i++) {
+            buffers.add(pool.allocate());
+        }
+        for (Pooled<ByteBuffer> buffer : buffers) {
+            buffer.free();
+            // A second free must not return the buffer twice
+            buffer.free();
+        }
+        Assert.assertEquals(2, pool.getRetained());
+
+        // Retained buffers are handed out again, cleared
+        final Pooled<ByteBuffer> reused = pool.allocate();
+        Assert.assertEquals(1, pool.getRetained());
+        Assert.assertEquals(0, reused.getResource().position());
+        Assert.assertEquals(16, reused.getResource().capacity());
+        reused.free();
+        Assert.assertEquals(2, pool.getRetained());
+        try {
+            reused.getResource();
+            Assert.fail("A freed buffer should not be accessible");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
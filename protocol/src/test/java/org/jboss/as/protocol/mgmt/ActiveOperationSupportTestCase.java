@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the registration and cleanup of the operations tracked by {@link ActiveOperationSupport}.
+ */
+public class ActiveOperationSupportTestCase {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2000;
+
+    private ExecutorService executor;
+    private ActiveOperationSupport support;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        support = new ActiveOperationSupport();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testDuplicateOperationId() {
+        final ActiveOperation<Void, String> operation = support.registerActiveOperation(1, "first");
+        try {
+            support.registerActiveOperation(1, "second");
+            Assert.fail("duplicate operation id registered");
+        } catch (IllegalStateException expected) {
+            //
+        }
+        operation.getResultHandler().done(null);
+        Assert.assertNull(support.getActiveOperation(1));
+        // The id can be used again once the operation is done
+        support.<Void, String>registerActiveOperation(1, "third").getResultHandler().done(null);
+        support.shutdown();
+        Assert.assertTrue(support.isShutdown());
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<ActiveOperation<Void, Void>>>> futures = new ArrayList<Future<List<ActiveOperation<Void, Void>>>>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(new Callable<List<ActiveOperation<Void, Void>>>() {
+                @Override
+                public List<ActiveOperation<Void, Void>> call() throws Exception {
+                    start.await();
+                    final List<ActiveOperation<Void, Void>> operations = new ArrayList<ActiveOperation<Void, Void>>();
+                    for (int j = 0; j < OPERATIONS; j++) {
+                        operations.add(support.<Void, Void>registerActiveOperation(null));
+                    }
+                    return operations;
+                }
+            }));
+        }
+        start.countDown();
+        final Set<Integer> ids = new HashSet<Integer>();
+        final List<ActiveOperation<Void, Void>> all = new ArrayList<ActiveOperation<Void, Void>>();
+        for (Future<List<ActiveOperation<Void, Void>>> future : futures) {
+            for (ActiveOperation<Void, Void> operation : future.get()) {
+                Assert.assertTrue(ids.add(operation.getOperationId()));
+                Assert.assertSame(operation, support.getActiveOperation(operation.getOperationId()));
+                all.add(operation);
+            }
+        }
+        Assert.assertEquals(THREADS * OPERATIONS, support.cancelAllActiveOperations().size());
+        for (ActiveOperation<Void, Void> operation : all) {
+            Assert.assertTrue(operation.getResult().isCancelled());
+            Assert.assertNull(support.getActiveOperation(operation.getOperationId()));
+        }
+        support.shutdown();
+        Assert.assertTrue(support.awaitCompletion(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAwaitCompletion() throws Exception {
+        final ActiveOperation<Void, Void> first = support.registerActiveOperation(null);
+        final ActiveOperation<Void, Void> second = support.registerActiveOperation(null);
+        support.shutdown();
+        Assert.assertFalse(support.awaitCompletion(10, TimeUnit.MILLISECONDS));
+        final Future<Boolean> completed = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return support.awaitCompletion(10, TimeUnit.SECONDS);
+            }
+        });
+        first.getResultHandler().done(null);
+        second.getResultHandler().failed(new Exception());
+        // Completing an operation again does not affect the count
+        first.getResultHandler().done(null);
+        Assert.assertTrue(completed.get(10, TimeUnit.SECONDS));
+    }
+}
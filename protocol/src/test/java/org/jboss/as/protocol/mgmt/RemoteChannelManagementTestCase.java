@@ -23,11 +23,17 @@ package org.jboss.as.protocol.mgmt;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
 import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
@@ -258,4 +264,111 @@ public class RemoteChannelManagementTestCase {
         Assert.assertTrue(done);
     }
 
+    @Test
+    public void testPipeliningNegotiatedPerChannel() throws Exception {
+        Assert.assertFalse(PipelinedMessageWriter.isEnabled(channels.getClientChannel()));
+        Assert.assertFalse(PipelinedMessageWriter.isEnabled(channels.getServerChannel()));
+
+        // The request and its response carry the current version, so each side learns the other can read pipelines
+        final SimpleClient client = SimpleClient.create(channels);
+        SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600);
+        Assert.assertEquals(Integer.valueOf(1200), client.executeForResult(request));
+        Assert.assertTrue(PipelinedMessageWriter.isEnabled(channels.getServerChannel()));
+        Assert.assertTrue(PipelinedMessageWriter.isEnabled(channels.getClientChannel()));
+    }
+
+    @Test
+    public void testPipelinedConcurrentSimpleRequests() throws Exception {
+        PipelinedMessageWriter.enable(channels.getClientChannel());
+        final SimpleClient client = SimpleClient.create(channels);
+
+        // Send from several threads so that requests queue up while another one is being written
+        final ExecutorService senders = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 500; i++) {
+                final SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i);
+                futures.add(senders.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return client.executeForResult(request);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assert.assertEquals(Integer.valueOf(i * 2), futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPipelinedMessagesCounted() throws Exception {
+        final CountingListener clientListener = new CountingListener();
+        final CountingListener serverListener = new CountingListener();
+        channels.getClientChannel().getAttachments().attach(ManagementMessageListener.ATTACHMENT_KEY, clientListener);
+        channels.getServerChannel().getAttachments().attach(ManagementMessageListener.ATTACHMENT_KEY, serverListener);
+        PipelinedMessageWriter.enable(channels.getClientChannel());
+        final SimpleClient client = SimpleClient.create(channels);
+
+        final ExecutorService senders = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 100; i++) {
+                final SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i);
+                futures.add(senders.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return client.executeForResult(request);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assert.assertEquals(Integer.valueOf(i * 2), futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+
+        // Each side counts every message, whether or not it was pipelined, so both agree. The listeners are called
+        // after a message is written or handled, so allow them to catch up with the responses
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!(clientListener.agreesWith(serverListener) && serverListener.agreesWith(clientListener))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(clientListener.sent.get() >= 100);
+        Assert.assertEquals(clientListener.sent.get(), serverListener.received.get());
+        Assert.assertEquals(clientListener.bytesSent.get(), serverListener.bytesReceived.get());
+        Assert.assertEquals(serverListener.sent.get(), clientListener.received.get());
+        Assert.assertEquals(serverListener.bytesSent.get(), clientListener.bytesReceived.get());
+    }
+
+    private static final class CountingListener implements ManagementMessageListener {
+
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong bytesReceived = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong bytesSent = new AtomicLong();
+
+        @Override
+        public void messageReceived(long size) {
+            bytesReceived.addAndGet(size);
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void messageSent(long size) {
+            bytesSent.addAndGet(size);
+            sent.incrementAndGet();
+        }
+
+        /**
+         * Gets whether the messages sent by this side have all been received by the other.
+         */
+        boolean agreesWith(final CountingListener other) {
+            return sent.get() == other.received.get() && bytesSent.get() == other.bytesReceived.get();
+        }
+    }
 }
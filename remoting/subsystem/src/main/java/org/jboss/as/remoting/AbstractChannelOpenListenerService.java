@@ -172,6 +172,10 @@ public abstract class AbstractChannelOpenListenerService implements Service<Void
             channel.closeAsync();
             return;
         }
+        final RemotingMetrics metrics = RemotingMetrics.forChannel(endpointValue.getValue(), channel);
+        if (metrics != null) {
+            metrics.channelOpened(channel);
+        }
         final ManagementChannelInitialization.ManagementChannelShutdownHandle handle = handleChannelOpened(channel);
         trackerService.registerTracker(handle);
         handles.add(handle);
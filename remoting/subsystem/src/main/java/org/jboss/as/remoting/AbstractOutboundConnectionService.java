@@ -57,6 +57,8 @@ public abstract class AbstractOutboundConnectionService<T extends AbstractOutbou
 
     protected final String connectionName;
 
+    final RemotingMetrics metrics = new RemotingMetrics();
+
     protected AbstractOutboundConnectionService(final String connectionName, final OptionMap connectionCreationOptions) {
         this.connectionName = connectionName;
         this.connectionCreationOptions = connectionCreationOptions == null ? OptionMap.EMPTY : connectionCreationOptions;
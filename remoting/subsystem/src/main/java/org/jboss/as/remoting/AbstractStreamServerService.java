@@ -54,6 +54,7 @@ public abstract class AbstractStreamServerService implements Service<AcceptingCh
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<Endpoint>();
     private final InjectedValue<SocketBindingManager> socketBindingManagerValue = new InjectedValue<SocketBindingManager>();
     private final OptionMap connectorPropertiesOptionMap;
+    private final RemotingMetrics metrics = new RemotingMetrics();
 
     private volatile AcceptingChannel<? extends ConnectedStreamChannel> streamServer;
     private volatile ManagedBinding managedBinding;
@@ -79,6 +80,10 @@ public abstract class AbstractStreamServerService implements Service<AcceptingCh
         return socketBindingManagerValue;
     }
 
+    RemotingMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void start(final StartContext context) throws StartException {
         try {
@@ -95,6 +100,7 @@ public abstract class AbstractStreamServerService implements Service<AcceptingCh
                 RemotingLogger.ROOT_LOGGER.tracef("Resulting OptionMap %s", resultingMap.toString());
             }
             streamServer = networkServerProvider.createServer(getSocketAddress(), resultingMap, sap, rsp.getXnioSsl());
+            RemotingMetrics.register(endpointValue.getValue(), getSocketAddress(), metrics);
             SocketBindingManager sbm = socketBindingManagerValue.getOptionalValue();
             if (sbm != null) {
                 managedBinding = registerSocketBinding(sbm);
@@ -112,6 +118,7 @@ public abstract class AbstractStreamServerService implements Service<AcceptingCh
     @Override
     public void stop(StopContext context) {
         IoUtils.safeClose(streamServer);
+        RemotingMetrics.unregister(endpointValue.getValue(), getSocketAddress(), metrics);
         SocketBindingManager sbm = socketBindingManagerValue.getOptionalValue();
         if (sbm != null && managedBinding != null) {
             unregisterSocketBinding(managedBinding, sbm);
@@ -28,17 +28,24 @@ package org.jboss.as.remoting;
 interface CommonAttributes {
 
     String AUTHENTICATION_PROVIDER = "authentication-provider";
+    String BYTES_RECEIVED = "bytes-received";
+    String BYTES_SENT = "bytes-sent";
+    String CONNECTION_COUNT = "connection-count";
     String CONNECTOR = "connector";
     String CONNECTOR_REF = "connector-ref";
     String FORWARD_SECRECY = "forward-secrecy";
     String HTTP_CONNECTOR = "http-connector";
     String INCLUDE_MECHANISMS = "include-mechanisms";
     String LOCAL_OUTBOUND_CONNECTION = "local-outbound-connection";
+    String MESSAGES_RECEIVED = "messages-received";
+    String MESSAGES_SENT = "messages-sent";
     String NAME = "name";
     String NO_ACTIVE = "no-active";
     String NO_ANONYMOUS = "no-anonymous";
     String NO_DICTIONARY = "no-dictionary";
     String NO_PLAIN_TEXT = "no-plain-text";
+    String OPEN_CHANNELS = "open-channels";
+    String OPEN_CONNECTIONS = "open-connections";
     String OUTBOUND_CONNECTION = "outbound-connection";
     String OUTBOUND_SOCKET_BINDING_REF = "outbound-socket-binding-ref";
     String PASS_CREDENTIALS = "pass-credentials";
@@ -47,6 +54,7 @@ interface CommonAttributes {
     String PROPERTY = "property";
     String PROTOCOL = "protocol";
     String QOP = "qop";
+    String RECEIVED_MESSAGE_SIZES = "received-message-sizes";
     String REMOTE_OUTBOUND_CONNECTION = "remote-outbound-connection";
     String REUSE_SESSION= "reuse-session";
     String SASL = "sasl";
@@ -54,6 +62,7 @@ interface CommonAttributes {
     String SASL_PROTOCOL = "sasl-protocol";
     String SECURITY = "security";
     String SECURITY_REALM = "security-realm";
+    String SENT_MESSAGE_SIZES = "sent-message-sizes";
     String SERVER_AUTH = "server-auth";
     String SERVER_NAME = "server-name";
     String SOCKET_BINDING = "socket-binding";
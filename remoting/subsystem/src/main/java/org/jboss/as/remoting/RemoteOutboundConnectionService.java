@@ -119,7 +119,14 @@ public class RemoteOutboundConnectionService extends AbstractOutboundConnectionS
         // now override with user specified options
         builder.addAll(this.connectionCreationOptions);
 
-        return endpoint.connect(uri, builder.getMap(), callbackHandler, sslContext);
+        final IoFuture<Connection> futureConnection = endpoint.connect(uri, builder.getMap(), callbackHandler, sslContext);
+        futureConnection.addNotifier(new IoFuture.HandlingNotifier<Connection, RemotingMetrics>() {
+            @Override
+            public void handleDone(final Connection connection, final RemotingMetrics metrics) {
+                metrics.connectionOpened(connection);
+            }
+        }, metrics);
+        return futureConnection;
     }
 
     @Override
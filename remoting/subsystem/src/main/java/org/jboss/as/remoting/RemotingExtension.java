@@ -93,6 +93,9 @@ public class RemotingExtension implements Extension {
         final ManagementResourceRegistration sasl = connector.registerSubModel(SaslResource.INSTANCE_CONNECTOR);
         sasl.registerSubModel(SaslPolicyResource.INSTANCE_CONNECTOR);
         sasl.registerSubModel(PropertyResource.INSTANCE_CONNECTOR);
+        if (context.isRuntimeOnlyRegistrationValid()) {
+            RemotingMetricsHandler.CONNECTOR.registerMetrics(connector);
+        }
 
         final ManagementResourceRegistration httpConnector = subsystem.registerSubModel(HttpConnectorResource.INSTANCE);
         httpConnector.registerSubModel(PropertyResource.INSTANCE_HTTP_CONNECTOR);
@@ -101,7 +104,10 @@ public class RemotingExtension implements Extension {
         httpSasl.registerSubModel(PropertyResource.INSTANCE_HTTP_CONNECTOR);
 
         // remote outbound connection
-        subsystem.registerSubModel(RemoteOutboundConnectionResourceDefinition.INSTANCE);
+        final ManagementResourceRegistration remoteOutboundConnection = subsystem.registerSubModel(RemoteOutboundConnectionResourceDefinition.INSTANCE);
+        if (context.isRuntimeOnlyRegistrationValid()) {
+            RemotingMetricsHandler.OUTBOUND_CONNECTION.registerMetrics(remoteOutboundConnection);
+        }
         // local outbound connection
         subsystem.registerSubModel(LocalOutboundConnectionResourceDefinition.INSTANCE);
         // (generic) outbound connection
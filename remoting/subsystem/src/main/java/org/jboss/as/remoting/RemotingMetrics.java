@@ -0,0 +1,272 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.remoting;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.protocol.mgmt.ManagementMessageListener;
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Attachments;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.CloseHandler;
+import org.jboss.remoting3.Connection;
+import org.jboss.remoting3.Endpoint;
+
+/**
+ * Runtime metrics of the connections made through a connector or an outbound connection, and of the management
+ * channels opened on them.
+ * <p>
+ * All counters are {@link LongAdder}s, so the threads reading and writing channels update separate cells rather than
+ * contending on a single value. Message sizes are recorded in histograms with power of two buckets, from
+ * {@code 64} bytes up to {@code 1 MB}, and a final bucket for larger messages.
+ * </p>
+ */
+final class RemotingMetrics implements ManagementMessageListener {
+
+    private static final int MIN_BUCKET_SHIFT = 6;
+    private static final int BUCKETS = 16;
+
+    private static final Attachments.Key<RemotingMetrics> CONNECTION_KEY = new Attachments.Key<RemotingMetrics>(RemotingMetrics.class);
+    private static final Attachments.Key<Connectors> CONNECTORS_KEY = new Attachments.Key<Connectors>(Connectors.class);
+
+    private final LongAdder openConnections = new LongAdder();
+    private final LongAdder totalConnections = new LongAdder();
+    private final LongAdder openChannels = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder[] receivedSizes = newHistogram();
+    private final LongAdder[] sentSizes = newHistogram();
+
+    private final CloseHandler<Connection> connectionCloseHandler = new CloseHandler<Connection>() {
+        @Override
+        public void handleClose(final Connection closed, final IOException exception) {
+            openConnections.decrement();
+        }
+    };
+
+    private final CloseHandler<Channel> channelCloseHandler = new CloseHandler<Channel>() {
+        @Override
+        public void handleClose(final Channel closed, final IOException exception) {
+            openChannels.decrement();
+        }
+    };
+
+    /**
+     * Makes the metrics of a connector available to the channels opened on connections accepted on its address.
+     *
+     * @param endpoint the endpoint the connector was created on
+     * @param address the address the connector is listening on
+     * @param metrics the metrics of the connector
+     */
+    static void register(final Endpoint endpoint, final InetSocketAddress address, final RemotingMetrics metrics) {
+        getConnectors(endpoint).register(address, metrics);
+    }
+
+    /**
+     * Reverts {@link #register(Endpoint, InetSocketAddress, RemotingMetrics)}.
+     *
+     * @param endpoint the endpoint the connector was created on
+     * @param address the address the connector was listening on
+     * @param metrics the metrics of the connector
+     */
+    static void unregister(final Endpoint endpoint, final InetSocketAddress address, final RemotingMetrics metrics) {
+        getConnectors(endpoint).unregister(address, metrics);
+    }
+
+    /**
+     * Gets the metrics of the connector that accepted the connection a channel was opened on.
+     *
+     * @param endpoint the endpoint
+     * @param channel the channel
+     * @return the metrics, or {@code null} if the connection was not accepted by a connector with metrics
+     */
+    static RemotingMetrics forChannel(final Endpoint endpoint, final Channel channel) {
+        final Connectors connectors = endpoint.getAttachments().getAttachment(CONNECTORS_KEY);
+        if (connectors == null) {
+            return null;
+        }
+        return connectors.get(channel.getConnection().getLocalAddress());
+    }
+
+    private static Connectors getConnectors(final Endpoint endpoint) {
+        final Connectors connectors = new Connectors();
+        final Connectors existing = endpoint.getAttachments().attachIfAbsent(CONNECTORS_KEY, connectors);
+        return existing == null ? connectors : existing;
+    }
+
+    private static LongAdder[] newHistogram() {
+        final LongAdder[] histogram = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+        return histogram;
+    }
+
+    static int bucket(final long size) {
+        if (size <= 1L << MIN_BUCKET_SHIFT) {
+            return 0;
+        }
+        // The number of bits needed for size - 1 is the shift of the smallest power of two >= size
+        final int shift = 64 - Long.numberOfLeadingZeros(size - 1);
+        return Math.min(shift - MIN_BUCKET_SHIFT, BUCKETS - 1);
+    }
+
+    /**
+     * Records a connection, once. Its close is recorded as well.
+     *
+     * @param connection the connection
+     */
+    void connectionOpened(final Connection connection) {
+        if (connection.getAttachments().attachIfAbsent(CONNECTION_KEY, this) == null) {
+            openConnections.increment();
+            totalConnections.increment();
+            connection.addCloseHandler(connectionCloseHandler);
+        }
+    }
+
+    /**
+     * Records a channel and the connection it was opened on, and attaches these metrics to the channel so the
+     * management messages sent and received on it are recorded.
+     *
+     * @param channel the channel
+     */
+    void channelOpened(final Channel channel) {
+        connectionOpened(channel.getConnection());
+        openChannels.increment();
+        channel.addCloseHandler(channelCloseHandler);
+        channel.getAttachments().attach(ManagementMessageListener.ATTACHMENT_KEY, this);
+    }
+
+    @Override
+    public void messageReceived(final long size) {
+        messagesReceived.increment();
+        bytesReceived.add(size);
+        receivedSizes[bucket(size)].increment();
+    }
+
+    @Override
+    public void messageSent(final long size) {
+        messagesSent.increment();
+        bytesSent.add(size);
+        sentSizes[bucket(size)].increment();
+    }
+
+    long getOpenConnections() {
+        return openConnections.sum();
+    }
+
+    long getTotalConnections() {
+        return totalConnections.sum();
+    }
+
+    long getOpenChannels() {
+        return openChannels.sum();
+    }
+
+    long getMessagesReceived() {
+        return messagesReceived.sum();
+    }
+
+    long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    ModelNode getReceivedMessageSizes() {
+        return toModelNode(receivedSizes);
+    }
+
+    ModelNode getSentMessageSizes() {
+        return toModelNode(sentSizes);
+    }
+
+    /**
+     * Gets a histogram as an object keyed by the upper bound of each bucket in bytes, or {@code larger} for the
+     * last bucket.
+     */
+    private static ModelNode toModelNode(final LongAdder[] histogram) {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            result.get(Long.toString(1L << (MIN_BUCKET_SHIFT + i))).set(histogram[i].sum());
+        }
+        result.get("larger").set(histogram[BUCKETS - 1].sum());
+        return result;
+    }
+
+    /**
+     * The metrics of the connectors created on an endpoint, by the port they listen on.
+     */
+    /**
+     * The metrics of the connectors of an endpoint, by the address they listen on.
+     */
+    static final class Connectors {
+        private final ConcurrentMap<InetSocketAddress, RemotingMetrics> byAddress = new ConcurrentHashMap<InetSocketAddress, RemotingMetrics>();
+
+        void register(final InetSocketAddress address, final RemotingMetrics metrics) {
+            byAddress.put(key(address), metrics);
+        }
+
+        void unregister(final InetSocketAddress address, final RemotingMetrics metrics) {
+            byAddress.remove(key(address), metrics);
+        }
+
+        /**
+         * Gets the metrics of the connector listening on the local address of a connection.
+         *
+         * @param localAddress the local address of the connection
+         * @return the metrics, or {@code null} if no connector with metrics listens on the address
+         */
+        RemotingMetrics get(final SocketAddress localAddress) {
+            if (!(localAddress instanceof InetSocketAddress)) {
+                return null;
+            }
+            final InetSocketAddress address = (InetSocketAddress) localAddress;
+            final RemotingMetrics metrics = byAddress.get(key(address));
+            // A connector listening on the wildcard address accepts connections on every local address
+            return metrics == null ? byAddress.get(new InetSocketAddress(address.getPort())) : metrics;
+        }
+
+        /**
+         * Gets the key of an address, which is the same for every form of the wildcard address.
+         */
+        private static InetSocketAddress key(final InetSocketAddress address) {
+            final InetAddress inetAddress = address.getAddress();
+            return inetAddress != null && inetAddress.isAnyLocalAddress() ? new InetSocketAddress(address.getPort()) : address;
+        }
+    }
+}
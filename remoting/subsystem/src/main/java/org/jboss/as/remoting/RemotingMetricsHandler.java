@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.remoting;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Reads the {@link RemotingMetrics} of a connector or a remote outbound connection.
+ */
+class RemotingMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final SimpleAttributeDefinition OPEN_CONNECTIONS = metric(CommonAttributes.OPEN_CONNECTIONS);
+    static final SimpleAttributeDefinition CONNECTION_COUNT = metric(CommonAttributes.CONNECTION_COUNT);
+    static final SimpleAttributeDefinition OPEN_CHANNELS = metric(CommonAttributes.OPEN_CHANNELS);
+    static final SimpleAttributeDefinition MESSAGES_RECEIVED = metric(CommonAttributes.MESSAGES_RECEIVED);
+    static final SimpleAttributeDefinition MESSAGES_SENT = metric(CommonAttributes.MESSAGES_SENT);
+    static final SimpleAttributeDefinition BYTES_RECEIVED = metric(CommonAttributes.BYTES_RECEIVED, MeasurementUnit.BYTES);
+    static final SimpleAttributeDefinition BYTES_SENT = metric(CommonAttributes.BYTES_SENT, MeasurementUnit.BYTES);
+    static final SimpleMapAttributeDefinition RECEIVED_MESSAGE_SIZES = histogram(CommonAttributes.RECEIVED_MESSAGE_SIZES);
+    static final SimpleMapAttributeDefinition SENT_MESSAGE_SIZES = histogram(CommonAttributes.SENT_MESSAGE_SIZES);
+
+    static final AttributeDefinition[] CONNECTOR_METRICS = {
+        OPEN_CONNECTIONS, CONNECTION_COUNT, OPEN_CHANNELS, MESSAGES_RECEIVED, MESSAGES_SENT, BYTES_RECEIVED, BYTES_SENT,
+        RECEIVED_MESSAGE_SIZES, SENT_MESSAGE_SIZES
+    };
+
+    // Only the connections are known for an outbound connection; the channels are opened by its users
+    static final AttributeDefinition[] OUTBOUND_CONNECTION_METRICS = {
+        OPEN_CONNECTIONS, CONNECTION_COUNT
+    };
+
+    static final RemotingMetricsHandler CONNECTOR = new RemotingMetricsHandler(true);
+    static final RemotingMetricsHandler OUTBOUND_CONNECTION = new RemotingMetricsHandler(false);
+
+    private final boolean connector;
+
+    private RemotingMetricsHandler(final boolean connector) {
+        this.connector = connector;
+    }
+
+    private static SimpleAttributeDefinition metric(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition metric(final String name, final MeasurementUnit unit) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleMapAttributeDefinition histogram(final String name) {
+        return new SimpleMapAttributeDefinition.Builder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+
+    void registerMetrics(final ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition metric : connector ? CONNECTOR_METRICS : OUTBOUND_CONNECTION_METRICS) {
+            resourceRegistration.registerMetric(metric, this);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String name = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+        final ServiceName serviceName = connector ? RemotingServices.serverServiceName(name)
+                : AbstractOutboundConnectionService.OUTBOUND_CONNECTION_BASE_SERVICE_NAME.append(name);
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            // Nothing has been recorded yet
+            return;
+        }
+        final Service<?> service = controller.getService();
+        final RemotingMetrics metrics;
+        if (service instanceof AbstractStreamServerService) {
+            metrics = ((AbstractStreamServerService) service).getMetrics();
+        } else if (service instanceof AbstractOutboundConnectionService) {
+            metrics = ((AbstractOutboundConnectionService<?>) service).metrics;
+        } else {
+            return;
+        }
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ModelNode result = context.getResult();
+        switch (attributeName) {
+            case CommonAttributes.OPEN_CONNECTIONS:
+                result.set(metrics.getOpenConnections());
+                break;
+            case CommonAttributes.CONNECTION_COUNT:
+                result.set(metrics.getTotalConnections());
+                break;
+            case CommonAttributes.OPEN_CHANNELS:
+                result.set(metrics.getOpenChannels());
+                break;
+            case CommonAttributes.MESSAGES_RECEIVED:
+                result.set(metrics.getMessagesReceived());
+                break;
+            case CommonAttributes.MESSAGES_SENT:
+                result.set(metrics.getMessagesSent());
+                break;
+            case CommonAttributes.BYTES_RECEIVED:
+                result.set(metrics.getBytesReceived());
+                break;
+            case CommonAttributes.BYTES_SENT:
+                result.set(metrics.getBytesSent());
+                break;
+            case CommonAttributes.RECEIVED_MESSAGE_SIZES:
+                result.set(metrics.getReceivedMessageSizes());
+                break;
+            case CommonAttributes.SENT_MESSAGE_SIZES:
+                result.set(metrics.getSentMessageSizes());
+                break;
+            default:
+                break;
+        }
+    }
+}
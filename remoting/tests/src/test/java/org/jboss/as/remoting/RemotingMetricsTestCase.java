@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.remoting;
+
+import java.net.InetSocketAddress;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the recording of messages by {@link RemotingMetrics}.
+ */
+public class RemotingMetricsTestCase {
+
+    @Test
+    public void testBuckets() {
+        Assert.assertEquals(0, RemotingMetrics.bucket(0));
+        Assert.assertEquals(0, RemotingMetrics.bucket(64));
+        Assert.assertEquals(1, RemotingMetrics.bucket(65));
+        Assert.assertEquals(1, RemotingMetrics.bucket(128));
+        Assert.assertEquals(2, RemotingMetrics.bucket(129));
+        Assert.assertEquals(14, RemotingMetrics.bucket(1024 * 1024));
+        Assert.assertEquals(15, RemotingMetrics.bucket(1024 * 1024 + 1));
+        Assert.assertEquals(15, RemotingMetrics.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testMessages() {
+        final RemotingMetrics metrics = new RemotingMetrics();
+        metrics.messageReceived(10);
+        metrics.messageReceived(100);
+        metrics.messageReceived(2 * 1024 * 1024);
+        metrics.messageSent(64);
+
+        Assert.assertEquals(3, metrics.getMessagesReceived());
+        Assert.assertEquals(110 + 2 * 1024 * 1024, metrics.getBytesReceived());
+        Assert.assertEquals(1, metrics.getMessagesSent());
+        Assert.assertEquals(64, metrics.getBytesSent());
+
+        final ModelNode received = metrics.getReceivedMessageSizes();
+        Assert.assertEquals(16, received.keys().size());
+        Assert.assertEquals(1, received.get("64").asLong());
+        Assert.assertEquals(1, received.get("128").asLong());
+        Assert.assertEquals(0, received.get("1048576").asLong());
+        Assert.assertEquals(1, received.get("larger").asLong());
+
+        final ModelNode sent = metrics.getSentMessageSizes();
+        Assert.assertEquals(1, sent.get("64").asLong());
+        Assert.assertEquals(0, sent.get("larger").asLong());
+    }
+
+    @Test
+    public void testConnectorsByAddress() {
+        final RemotingMetrics first = new RemotingMetrics();
+        final RemotingMetrics second = new RemotingMetrics();
+        final RemotingMetrics wildcard = new RemotingMetrics();
+        final RemotingMetrics.Connectors connectors = new RemotingMetrics.Connectors();
+        connectors.register(new InetSocketAddress("127.0.0.1", 9999), first);
+        connectors.register(new InetSocketAddress("127.0.0.2", 9999), second);
+        connectors.register(new InetSocketAddress("0.0.0.0", 9990), wildcard);
+
+        // Connectors on the same port are told apart by their address
+        Assert.assertSame(first, connectors.get(new InetSocketAddress("127.0.0.1", 9999)));
+        Assert.assertSame(second, connectors.get(new InetSocketAddress("127.0.0.2", 9999)));
+        Assert.assertNull(connectors.get(new InetSocketAddress("127.0.0.3", 9999)));
+        // A connector on the wildcard address accepts connections on any local address
+        Assert.assertSame(wildcard, connectors.get(new InetSocketAddress("127.0.0.1", 9990)));
+        Assert.assertSame(wildcard, connectors.get(new InetSocketAddress("::1", 9990)));
+        Assert.assertNull(connectors.get(new InetSocketAddress("127.0.0.1", 9991)));
+
+        connectors.unregister(new InetSocketAddress("127.0.0.1", 9999), first);
+        Assert.assertNull(connectors.get(new InetSocketAddress("127.0.0.1", 9999)));
+        Assert.assertSame(second, connectors.get(new InetSocketAddress("127.0.0.2", 9999)));
+    }
+}
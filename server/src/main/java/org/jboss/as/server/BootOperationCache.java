@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Retains the boot operations parsed from the server configuration file so a warm reload can skip parsing the
+ * file again if its content has not changed since.
+ * <p>
+ * The file content is identified by its SHA-1 digest rather than its timestamp, as changes persisted in quick
+ * succession are not reliably reflected in the file's last modified time. Operations are copied both when they are
+ * stored and when they are reused, as handlers are free to modify the operation they execute.
+ * </p>
+ */
+final class BootOperationCache {
+
+    private File file;
+    private byte[] digest;
+    private List<ModelNode> operations;
+
+    /**
+     * Remembers the operations parsed from {@code file}.
+     *
+     * @param file the file the operations were parsed from. Cannot be {@code null}
+     * @param operations the operations. Cannot be {@code null}
+     */
+    synchronized void store(final File file, final List<ModelNode> operations) {
+        final byte[] digest = digest(file);
+        if (digest == null) {
+            clear();
+            return;
+        }
+        this.file = file;
+        this.digest = digest;
+        this.operations = copy(operations);
+    }
+
+    /**
+     * Gets a copy of the operations last parsed from {@code file}, if the file has not changed since.
+     *
+     * @param file the file the operations would otherwise be parsed from. Cannot be {@code null}
+     * @return the operations, or {@code null} if they must be parsed again
+     */
+    synchronized List<ModelNode> reuse(final File file) {
+        if (operations == null || !file.equals(this.file)) {
+            return null;
+        }
+        final byte[] current = digest(file);
+        if (current == null || !Arrays.equals(current, digest)) {
+            return null;
+        }
+        return copy(operations);
+    }
+
+    /**
+     * Discards any retained operations.
+     */
+    synchronized void clear() {
+        file = null;
+        digest = null;
+        operations = null;
+    }
+
+    private static List<ModelNode> copy(final List<ModelNode> operations) {
+        final List<ModelNode> result = new ArrayList<ModelNode>(operations.size());
+        for (ModelNode operation : operations) {
+            result.add(operation.clone());
+        }
+        return result;
+    }
+
+    private static byte[] digest(final File file) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
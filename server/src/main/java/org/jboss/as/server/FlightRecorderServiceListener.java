@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.FlightRecorderEventType;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Emits Java Flight Recorder events for the start and stop of services, when a recording enables them.
+ */
+final class FlightRecorderServiceListener extends AbstractServiceListener<Object> {
+
+    private static final FlightRecorderEventType SERVICE_START = new FlightRecorderEventType("org.jboss.as.ServiceStart",
+            "Service Start", "service");
+    private static final FlightRecorderEventType SERVICE_STOP = new FlightRecorderEventType("org.jboss.as.ServiceStop",
+            "Service Stop", "service");
+
+    private final ConcurrentMap<ServiceController<?>, Object> events = new ConcurrentHashMap<ServiceController<?>, Object>();
+
+    @Override
+    public void transition(ServiceController<?> controller, ServiceController.Transition transition) {
+        switch (transition) {
+            case START_INITIATED_to_STARTING:
+                begin(controller, SERVICE_START);
+                break;
+            case STOP_REQUESTED_to_STOPPING:
+                begin(controller, SERVICE_STOP);
+                break;
+            case STARTING_to_UP:
+            case STARTING_to_START_FAILED:
+                commit(controller, SERVICE_START);
+                break;
+            case STOPPING_to_DOWN:
+                commit(controller, SERVICE_STOP);
+                break;
+            case REMOVING_to_REMOVED:
+                events.remove(controller);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void begin(final ServiceController<?> controller, final FlightRecorderEventType type) {
+        final Object event = type.begin();
+        if (event != null) {
+            events.put(controller, event);
+        }
+    }
+
+    private void commit(final ServiceController<?> controller, final FlightRecorderEventType type) {
+        final Object event = events.remove(controller);
+        if (event != null) {
+            type.commit(event, controller.getName().getCanonicalName());
+        }
+    }
+}
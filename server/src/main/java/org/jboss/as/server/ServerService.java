@@ -40,8 +40,10 @@ import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractControllerService;
 import org.jboss.as.controller.BootContext;
+import org.jboss.as.controller.BootTimeline;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.DelegatingResourceDefinition;
+import org.jboss.as.controller.FlightRecorderEventType;
 import org.jboss.as.controller.ManagementModel;
 import org.jboss.as.controller.ModelControllerServiceInitialization;
 import org.jboss.as.controller.OperationStepHandler;
@@ -52,6 +54,7 @@ import org.jboss.as.controller.RunningModeControl;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.registry.PlaceholderResource;
@@ -151,6 +154,13 @@ public final class ServerService extends AbstractControllerService {
     private volatile ExtensibleConfigurationPersister extensibleConfigurationPersister;
     private final AbstractVaultReader vaultReader;
     private final ServerDelegatingResourceDefinition rootResourceDefinition;
+    private final BootOperationCache bootOperationCache = new BootOperationCache();
+
+    /**
+     * System property enabling the boot operation cache used by {@code :reload(warm=true)}. Disabled by default,
+     * as the cache retains a copy of every boot operation and hashes the configuration file on each boot.
+     */
+    private static final String WARM_RELOAD_PROPERTY = "jboss.server.warm-reload";
 
     public static final String SERVER_NAME = "server";
 
@@ -267,6 +277,9 @@ public final class ServerService extends AbstractControllerService {
         try {
             final ServerEnvironment serverEnvironment = configuration.getServerEnvironment();
             final ServiceTarget serviceTarget = context.getServiceTarget();
+            if (FlightRecorderEventType.isAvailable()) {
+                serviceTarget.addListener(new FlightRecorderServiceListener());
+            }
             final File[] extDirs = serverEnvironment.getJavaExtDirs();
             final File[] newExtDirs = Arrays.copyOf(extDirs, extDirs.length + 1);
             newExtDirs[extDirs.length] = new File(serverEnvironment.getServerBaseDir(), "lib/ext");
@@ -347,7 +360,7 @@ public final class ServerService extends AbstractControllerService {
                 boolean failOnRuntime = Boolean.valueOf(WildFlySecurityManager.getPropertyPrivileged("jboss.unsupported.fail-boot-on-runtime-failure", "false"));
 
                 // Load the ops
-                List<ModelNode> bootOps = extensibleConfigurationPersister.load();
+                List<ModelNode> bootOps = loadBootOperations(serverEnvironment);
                 //Add the controller initialization operation to the boot ops
                 ModelNode controllerInitOp = registerModelControllerServiceInitializationBootStep(context);
                 if (controllerInitOp != null) {
@@ -378,6 +391,57 @@ public final class ServerService extends AbstractControllerService {
         }
     }
 
+    /**
+     * Loads the boot operations from the configuration persister. On a warm reload of a standalone server the
+     * operations parsed by the previous boot are reused instead, provided the configuration file is unchanged.
+     * The operations are only retained for that purpose if the {@value #WARM_RELOAD_PROPERTY} system property is
+     * {@code true}.
+     */
+    private List<ModelNode> loadBootOperations(final ServerEnvironment serverEnvironment) throws ConfigurationPersistenceException {
+        final boolean enabled = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(WARM_RELOAD_PROPERTY, "false"));
+        if (!enabled && runningModeControl.isReloaded() && runningModeControl.isWarmReload()) {
+            ServerLogger.ROOT_LOGGER.warmReloadNotEnabled(WARM_RELOAD_PROPERTY);
+        }
+        final File bootFile = enabled && isBootOperationCachingSupported(serverEnvironment)
+                ? serverEnvironment.getServerConfigurationFile().getBootFile() : null;
+        if (bootFile == null) {
+            bootOperationCache.clear();
+            return loadAndRecord();
+        }
+        if (runningModeControl.isReloaded() && runningModeControl.isWarmReload()) {
+            final long reuseStart = BootTimeline.start();
+            final List<ModelNode> cached = bootOperationCache.reuse(bootFile);
+            if (cached != null) {
+                BootTimeline.record("parse-configuration", "reuse-configuration", reuseStart);
+                ServerLogger.ROOT_LOGGER.reusingBootOperations(cached.size(), bootFile.getAbsolutePath());
+                return cached;
+            }
+            ServerLogger.ROOT_LOGGER.cannotReuseBootOperations(bootFile.getAbsolutePath());
+        }
+        final List<ModelNode> bootOps = loadAndRecord();
+        bootOperationCache.store(bootFile, bootOps);
+        return bootOps;
+    }
+
+    private List<ModelNode> loadAndRecord() throws ConfigurationPersistenceException {
+        final long parseStart = BootTimeline.start();
+        final List<ModelNode> bootOps = extensibleConfigurationPersister.load();
+        BootTimeline.record("parse-configuration", "parse-configuration", parseStart);
+        return bootOps;
+    }
+
+    private boolean isBootOperationCachingSupported(final ServerEnvironment serverEnvironment) {
+        // Only a standalone server parses its boot operations from a file we can check for changes. On the
+        // initial boot with a NEW or DISCARD interaction policy the file isn't parsed, but it is on reload
+        if (serverEnvironment.getLaunchType() != ServerEnvironment.LaunchType.STANDALONE
+                || serverEnvironment.getServerConfigurationFile() == null) {
+            return false;
+        }
+        final ConfigurationFile.InteractionPolicy interactionPolicy = serverEnvironment.getServerConfigurationFile().getInteractionPolicy();
+        return runningModeControl.isReloaded()
+                || (interactionPolicy != ConfigurationFile.InteractionPolicy.NEW && interactionPolicy != ConfigurationFile.InteractionPolicy.DISCARD);
+    }
+
     protected boolean boot(List<ModelNode> bootOperations, boolean rollbackOnRuntimeFailure) throws ConfigurationPersistenceException {
         final List<ModelNode> operations = new ArrayList<ModelNode>(bootOperations);
         operations.add(DeployerChainAddHandler.OPERATION);
@@ -399,6 +463,8 @@ public final class ServerService extends AbstractControllerService {
         rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.MANAGEMENT), managementResource);
         rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.SERVICE_CONTAINER), Resource.Factory.create());
         rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.MODULE_LOADING), PlaceholderResource.INSTANCE);
+        rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.BOOT_TIMELINE), PlaceholderResource.INSTANCE);
+        rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.FLIGHT_RECORDER), PlaceholderResource.INSTANCE);
         managementResource.registerChild(AccessAuthorizationResourceDefinition.PATH_ELEMENT, AccessAuthorizationResourceDefinition.createResource(authorizer.getWritableAuthorizerConfiguration()));
         rootResource.registerChild(ServerEnvironmentResourceDescription.RESOURCE_PATH, Resource.Factory.create());
         ((PathManagerService)injectedPathManagerService.getValue()).addPathManagerResources(rootResource);
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.controller.resources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BOOT_TIMELINE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.List;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.BootTimeline;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Definition of the core-service=boot-timeline resource, which exposes the {@link BootTimeline} recorded while the
+ * server booted.
+ */
+class BootTimelineResourceDefinition extends SimpleResourceDefinition {
+
+    private static final String EVENTS = "events";
+
+    private static final SimpleAttributeDefinition ENABLED_ATTRIBUTE = new SimpleAttributeDefinitionBuilder(ENABLED, ModelType.BOOLEAN)
+            .setStorageRuntime()
+            .build();
+
+    private static final ObjectListAttributeDefinition EVENTS_ATTRIBUTE = ObjectListAttributeDefinition.Builder.of(EVENTS,
+            ObjectTypeAttributeDefinition.Builder.of(EVENTS,
+                    new SimpleAttributeDefinitionBuilder("category", ModelType.STRING).build(),
+                    new SimpleAttributeDefinitionBuilder(NAME, ModelType.STRING).build(),
+                    new SimpleAttributeDefinitionBuilder("thread", ModelType.STRING).build(),
+                    new SimpleAttributeDefinitionBuilder("start", ModelType.LONG).build(),
+                    new SimpleAttributeDefinitionBuilder("duration", ModelType.LONG).build())
+                    .build())
+            .setStorageRuntime()
+            .build();
+
+    private static final OperationDefinition EXPORT_CHROME_TRACE = new SimpleOperationDefinitionBuilder("export-chrome-trace",
+            ServerDescriptions.getResourceDescriptionResolver("core", BOOT_TIMELINE))
+            .setRuntimeOnly()
+            .setReadOnly()
+            .setReplyType(ModelType.STRING)
+            .build();
+
+    private final List<AccessConstraintDefinition> accessConstraints;
+
+    BootTimelineResourceDefinition() {
+        super(PathElement.pathElement(CORE_SERVICE, BOOT_TIMELINE),
+                ServerDescriptions.getResourceDescriptionResolver("core", BOOT_TIMELINE));
+        this.accessConstraints = SensitiveTargetAccessConstraintDefinition.SERVICE_CONTAINER.wrapAsList();
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(ENABLED_ATTRIBUTE, new TimelineHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.getResult().set(BootTimeline.isEnabled());
+            }
+        });
+        resourceRegistration.registerReadOnlyAttribute(EVENTS_ATTRIBUTE, new TimelineHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.getResult().set(BootTimeline.toModelNode());
+            }
+        });
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(EXPORT_CHROME_TRACE, new TimelineHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.getResult().set(BootTimeline.toChromeTrace());
+            }
+        });
+    }
+
+    @Override
+    public List<AccessConstraintDefinition> getAccessConstraints() {
+        return accessConstraints;
+    }
+
+    private abstract static class TimelineHandler extends AbstractRuntimeOnlyHandler {
+
+        @Override
+        protected boolean resourceMustExist(OperationContext context, ModelNode operation) {
+            return false;
+        }
+    }
+}
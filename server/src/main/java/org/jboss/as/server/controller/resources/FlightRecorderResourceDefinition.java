@@ -0,0 +1,278 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.controller.resources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FLIGHT_RECORDER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELATIVE_TO;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Definition of the core-service=flight-recorder resource, which controls a Java Flight Recorder recording of the
+ * process through the JVM's {@code FlightRecorderMXBean}. The recording includes the management operation, controller
+ * lock, deployment unit processor and service lifecycle events emitted by the server.
+ */
+class FlightRecorderResourceDefinition extends SimpleResourceDefinition {
+
+    private static final String FLIGHT_RECORDER_MBEAN = "jdk.management.jfr:type=FlightRecorder";
+
+    private static final ResourceDescriptionResolver RESOLVER = ServerDescriptions.getResourceDescriptionResolver("core", FLIGHT_RECORDER);
+
+    private static final SimpleAttributeDefinition RECORDING = new SimpleAttributeDefinitionBuilder("recording", ModelType.BOOLEAN)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition SETTINGS = new SimpleAttributeDefinitionBuilder("settings", ModelType.STRING, true)
+            .setDefaultValue(new ModelNode("default"))
+            .setValidator(new StringLengthValidator(1, true))
+            .build();
+
+    private static final SimpleAttributeDefinition DUMP_PATH = new SimpleAttributeDefinitionBuilder(PATH, ModelType.STRING)
+            .setValidator(new StringLengthValidator(1))
+            .build();
+
+    private static final SimpleAttributeDefinition DUMP_RELATIVE_TO = new SimpleAttributeDefinitionBuilder(RELATIVE_TO, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(ServerEnvironment.SERVER_DATA_DIR))
+            .setValidator(new StringLengthValidator(1, true))
+            .build();
+
+    private static final OperationDefinition START = new SimpleOperationDefinitionBuilder("start-recording", RESOLVER)
+            .addParameter(SETTINGS)
+            .setRuntimeOnly()
+            .build();
+
+    private static final OperationDefinition STOP = new SimpleOperationDefinitionBuilder("stop-recording", RESOLVER)
+            .setRuntimeOnly()
+            .build();
+
+    private static final OperationDefinition DUMP = new SimpleOperationDefinitionBuilder("dump-recording", RESOLVER)
+            .addParameter(DUMP_PATH)
+            .addParameter(DUMP_RELATIVE_TO)
+            .setRuntimeOnly()
+            .setReplyType(ModelType.STRING)
+            .build();
+
+    private final List<AccessConstraintDefinition> accessConstraints;
+    private final PathManager pathManager;
+    private final Object lock = new Object();
+    /** The id of the current recording, or {@code -1} if none has been started. Guarded by {@code lock}. */
+    private long recordingId = -1;
+    private boolean recordingActive;
+
+    FlightRecorderResourceDefinition(final PathManager pathManager) {
+        super(PathElement.pathElement(CORE_SERVICE, FLIGHT_RECORDER), RESOLVER);
+        this.accessConstraints = SensitiveTargetAccessConstraintDefinition.FLIGHT_RECORDER.wrapAsList();
+        this.pathManager = pathManager;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(RECORDING, new RecorderHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                synchronized (lock) {
+                    context.getResult().set(recordingActive);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(START, new RecorderHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final String settings = SETTINGS.resolveModelAttribute(context, operation).asString();
+                // Hold the controller lock until the operation completes so no other start or stop can interleave
+                // with the rollback
+                context.acquireControllerLock();
+                final long previousId;
+                final long id;
+                synchronized (lock) {
+                    if (recordingActive) {
+                        throw ServerLogger.ROOT_LOGGER.flightRecordingInProgress();
+                    }
+                    previousId = recordingId;
+                    id = (Long) invoke(START.getName(), "newRecording");
+                    try {
+                        invoke(START.getName(), "setPredefinedConfiguration", id, settings);
+                        invoke(START.getName(), "startRecording", id);
+                    } catch (OperationFailedException e) {
+                        closeQuietly(START.getName(), id);
+                        throw e;
+                    }
+                    recordingId = id;
+                    recordingActive = true;
+                }
+                context.completeStep(new OperationContext.ResultHandler() {
+                    @Override
+                    public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                        synchronized (lock) {
+                            if (resultAction == OperationContext.ResultAction.KEEP) {
+                                // The data of the previous recording is only discarded once the new one is kept
+                                if (previousId != -1) {
+                                    closeQuietly(START.getName(), previousId);
+                                }
+                            } else {
+                                closeQuietly(START.getName(), id);
+                                recordingId = previousId;
+                                recordingActive = false;
+                            }
+                        }
+                    }
+                });
+            }
+        });
+        resourceRegistration.registerOperationHandler(STOP, new RecorderHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.acquireControllerLock();
+                final long id;
+                synchronized (lock) {
+                    if (!recordingActive) {
+                        throw ServerLogger.ROOT_LOGGER.noFlightRecording();
+                    }
+                    id = recordingId;
+                    // A stopped recording cannot be restarted, so the recording is only stopped once the operation
+                    // is known to be kept
+                    recordingActive = false;
+                }
+                context.completeStep(new OperationContext.ResultHandler() {
+                    @Override
+                    public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                        synchronized (lock) {
+                            if (resultAction == OperationContext.ResultAction.KEEP) {
+                                try {
+                                    invoke(STOP.getName(), "stopRecording", id);
+                                } catch (OperationFailedException e) {
+                                    ServerLogger.ROOT_LOGGER.debugf(e, "Failed to stop flight recording %d", id);
+                                }
+                            } else {
+                                recordingActive = true;
+                            }
+                        }
+                    }
+                });
+            }
+        });
+        resourceRegistration.registerOperationHandler(DUMP, new RecorderHandler() {
+            @Override
+            protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final String relativeTo = DUMP_RELATIVE_TO.resolveModelAttribute(context, operation).asString();
+                final String path = resolveDumpPath(DUMP_PATH.resolveModelAttribute(context, operation).asString(), relativeTo);
+                synchronized (lock) {
+                    if (recordingId == -1) {
+                        throw ServerLogger.ROOT_LOGGER.noFlightRecording();
+                    }
+                    invoke(DUMP.getName(), "copyTo", recordingId, path);
+                }
+                context.getResult().set(path);
+            }
+        });
+    }
+
+    @Override
+    public List<AccessConstraintDefinition> getAccessConstraints() {
+        return accessConstraints;
+    }
+
+    /**
+     * Resolves the file a recording is written to, which must be located below the {@code relative-to} path.
+     */
+    private String resolveDumpPath(final String path, final String relativeTo) throws OperationFailedException {
+        final File base = new File(pathManager.getPathEntry(relativeTo).resolvePath()).getAbsoluteFile();
+        final File file = new File(pathManager.resolveRelativePathEntry(path, relativeTo)).getAbsoluteFile();
+        if (!file.toPath().normalize().startsWith(base.toPath().normalize())) {
+            throw ServerLogger.ROOT_LOGGER.flightRecordingPathNotAllowed(path, relativeTo);
+        }
+        return file.getPath();
+    }
+
+    private static void closeQuietly(final String operationName, final long id) {
+        try {
+            invoke(operationName, "closeRecording", id);
+        } catch (OperationFailedException e) {
+            ServerLogger.ROOT_LOGGER.debugf(e, "Failed to close flight recording %d", id);
+        }
+    }
+
+    private static Object invoke(final String operationName, final String methodName, final Object... params) throws OperationFailedException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name;
+        try {
+            name = new ObjectName(FLIGHT_RECORDER_MBEAN);
+        } catch (JMException e) {
+            throw ServerLogger.ROOT_LOGGER.flightRecorderNotAvailable();
+        }
+        if (!server.isRegistered(name)) {
+            throw ServerLogger.ROOT_LOGGER.flightRecorderNotAvailable();
+        }
+        final String[] signature = new String[params.length];
+        for (int i = 0; i < params.length; i++) {
+            signature[i] = params[i] instanceof Long ? long.class.getName() : params[i].getClass().getName();
+        }
+        try {
+            return server.invoke(name, methodName, params, signature);
+        } catch (JMException e) {
+            throw ServerLogger.ROOT_LOGGER.flightRecorderOperationFailed(operationName, e.getCause() == null ? e.toString() : e.getCause().toString());
+        }
+    }
+
+    private abstract static class RecorderHandler extends AbstractRuntimeOnlyHandler {
+
+        @Override
+        protected boolean resourceMustExist(OperationContext context, ModelNode operation) {
+            return false;
+        }
+    }
+}
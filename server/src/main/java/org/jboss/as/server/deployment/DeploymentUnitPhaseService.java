@@ -28,6 +28,8 @@ import java.util.ListIterator;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jboss.as.controller.BootTimeline;
+import org.jboss.as.controller.FlightRecorderEventType;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.DelegatingServiceRegistry;
@@ -54,6 +56,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
+    private static final FlightRecorderEventType PROCESSOR_EVENT = new FlightRecorderEventType("org.jboss.as.DeploymentUnitProcessor",
+            "Deployment Unit Processor", "deployment", "phase", "processor");
+
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
@@ -149,11 +154,24 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final boolean recordTimeline = BootTimeline.isRecording();
+        final long phaseStart = BootTimeline.start();
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                    final Object processorEvent = PROCESSOR_EVENT.begin();
+                    if (recordTimeline) {
+                        final long processorStart = BootTimeline.start();
+                        processor.getProcessor().deploy(processorContext);
+                        BootTimeline.record("deployment-unit-processor", name + " " + phase + " "
+                                + processor.getProcessor().getClass().getName(), processorStart);
+                    } else {
+                        processor.getProcessor().deploy(processorContext);
+                    }
+                    if (processorEvent != null) {
+                        PROCESSOR_EVENT.commit(processorEvent, name, phase.name(), processor.getProcessor().getClass().getName());
+                    }
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -163,6 +181,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        BootTimeline.record("deployment-phase", name + " " + phase, phaseStart);
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
@@ -1157,4 +1157,31 @@ public interface ServerLogger extends BasicLogger {
 
     @Message(id = 231, value = "Could not read or create the server UUID in file: %s")
     IllegalStateException couldNotObtainServerUuidFile(@Cause Throwable cause, Path file);
+
+    @Message(id = 232, value = "Java Flight Recorder is not available in this JVM")
+    OperationFailedException flightRecorderNotAvailable();
+
+    @Message(id = 233, value = "A flight recording is already in progress")
+    OperationFailedException flightRecordingInProgress();
+
+    @Message(id = 234, value = "No flight recording has been started")
+    OperationFailedException noFlightRecording();
+
+    @Message(id = 235, value = "Flight recorder operation %s failed: %s")
+    OperationFailedException flightRecorderOperationFailed(String operation, String cause);
+
+    @LogMessage(level = INFO)
+    @Message(id = 236, value = "Warm reload: reusing %d boot operations previously parsed from %s")
+    void reusingBootOperations(int count, String file);
+
+    @LogMessage(level = INFO)
+    @Message(id = 237, value = "Warm reload: %s has changed since it was last parsed and will be parsed again")
+    void cannotReuseBootOperations(String file);
+
+    @Message(id = 238, value = "Flight recording path %s must be located below the %s path")
+    OperationFailedException flightRecordingPathNotAllowed(String path, String relativeTo);
+
+    @LogMessage(level = INFO)
+    @Message(id = 239, value = "Warm reload requested but not enabled; the configuration will be parsed again. Set the %s system property to true to enable it")
+    void warmReloadNotEnabled(String property);
 }
@@ -47,7 +47,10 @@ public class ServerProcessReloadHandler extends ProcessReloadHandler<RunningMode
     private static final AttributeDefinition USE_CURRENT_SERVER_CONFIG = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.USE_CURRENT_SERVER_CONFIG, ModelType.BOOLEAN, true)
                     .setDefaultValue(new ModelNode(true)).build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {ADMIN_ONLY, USE_CURRENT_SERVER_CONFIG};
+    private static final AttributeDefinition WARM = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.WARM, ModelType.BOOLEAN, true)
+                    .setDefaultValue(new ModelNode(false)).build();
+
+    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {ADMIN_ONLY, USE_CURRENT_SERVER_CONFIG, WARM};
 
     public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, ServerDescriptions.getResourceDescriptionResolver("server"))
                                                                 .setParameters(ATTRIBUTES)
@@ -64,6 +67,7 @@ public class ServerProcessReloadHandler extends ProcessReloadHandler<RunningMode
         final boolean unmanaged = context.getProcessType() != ProcessType.DOMAIN_SERVER; // make sure that the params are ignored for managed servers
         final boolean adminOnly = unmanaged && ADMIN_ONLY.resolveModelAttribute(context, operation).asBoolean(false);
         final boolean useCurrentConfig = unmanaged && USE_CURRENT_SERVER_CONFIG.resolveModelAttribute(context, operation).asBoolean(true);
+        final boolean warm = unmanaged && WARM.resolveModelAttribute(context, operation).asBoolean(false);
         return new ReloadContext<RunningModeControl>() {
 
             @Override
@@ -75,6 +79,7 @@ public class ServerProcessReloadHandler extends ProcessReloadHandler<RunningMode
                 runningModeControl.setRunningMode(adminOnly ? RunningMode.ADMIN_ONLY : RunningMode.NORMAL);
                 runningModeControl.setReloaded();
                 runningModeControl.setUseCurrentConfig(useCurrentConfig);
+                runningModeControl.setWarmReload(warm);
             }
         };
     }
@@ -48,12 +48,14 @@ public class StandaloneXml extends CommonXml {
 
     private final ExtensionXml extensionXml;
     private final ExtensionRegistry extensionRegistry;
+    private final ExecutorService executorService;
 
     public StandaloneXml(final ModuleLoader loader, final ExecutorService executorService,
             final ExtensionRegistry extensionRegistry) {
         super(new SocketBindingsXml.ServerSocketBindingsXml());
         extensionXml = new ExtensionXml(loader, executorService, extensionRegistry);
         this.extensionRegistry = extensionRegistry;
+        this.executorService = executorService;
     }
 
     public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operationList)
@@ -66,7 +68,7 @@ public class StandaloneXml extends CommonXml {
                 new StandaloneXml_Legacy(extensionXml, extensionRegistry, readerNS).readElement(reader, operationList);
                 break;
             default:
-                new StandaloneXml_4(extensionXml, extensionRegistry, readerNS).readElement(reader, operationList);
+                new StandaloneXml_4(extensionXml, extensionRegistry, readerNS, executorService).readElement(reader, operationList);
                 break;
         }
 
@@ -66,6 +66,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
@@ -78,6 +79,7 @@ import org.jboss.as.controller.parsing.Attribute;
 import org.jboss.as.controller.parsing.Element;
 import org.jboss.as.controller.parsing.ExtensionXml;
 import org.jboss.as.controller.parsing.Namespace;
+import org.jboss.as.controller.parsing.ParallelSubsystemParser;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
 import org.jboss.as.controller.parsing.WriteUtils;
@@ -116,13 +118,20 @@ class StandaloneXml_4 extends CommonXml implements ManagementXmlDelegate {
     private final ExtensionXml extensionXml;
     private final ExtensionRegistry extensionRegistry;
     private final Namespace namespace;
+    private final ExecutorService executorService;
 
     StandaloneXml_4(final ExtensionXml extensionXml, final ExtensionRegistry extensionRegistry, final Namespace namespace) {
+        this(extensionXml, extensionRegistry, namespace, null);
+    }
+
+    StandaloneXml_4(final ExtensionXml extensionXml, final ExtensionRegistry extensionRegistry, final Namespace namespace,
+                    final ExecutorService executorService) {
         super(new SocketBindingsXml.ServerSocketBindingsXml());
         accessControlXml = AccessControlXml.newInstance(namespace);
         this.extensionXml = extensionXml;
         this.extensionRegistry = extensionRegistry;
         this.namespace = namespace;
+        this.executorService = executorService;
     }
 
     public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operationList)
@@ -533,6 +542,7 @@ class StandaloneXml_4 extends CommonXml implements ManagementXmlDelegate {
 
         // Content
         final Map<String, List<ModelNode>> profileOps = new LinkedHashMap<String, List<ModelNode>>();
+        final ParallelSubsystemParser parallelParser = ParallelSubsystemParser.create(executorService);
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             if (Element.forName(reader.getLocalName()) != Element.SUBSYSTEM) {
                 throw unexpectedElement(reader);
@@ -543,10 +553,18 @@ class StandaloneXml_4 extends CommonXml implements ManagementXmlDelegate {
             }
             // parse subsystem
             final List<ModelNode> subsystems = new ArrayList<ModelNode>();
-            reader.handleAny(subsystems);
+            if (parallelParser != null) {
+                parallelParser.parse(reader, subsystems);
+            } else {
+                reader.handleAny(subsystems);
+            }
 
             profileOps.put(namespace, subsystems);
         }
+        if (parallelParser != null) {
+            // The map was populated in document order, so the resulting ops retain that order
+            parallelParser.awaitCompletion();
+        }
 
         // Let extensions modify the profile
         Set<ProfileParsingCompletionHandler> completionHandlers = extensionRegistry.getProfileParsingCompletionHandlers();
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("standalone", ".xml");
+        write("<server/>");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void testReuseUnchangedFile() {
+        BootOperationCache cache = new BootOperationCache();
+        ModelNode op = createOperation();
+        cache.store(file, Collections.singletonList(op));
+
+        List<ModelNode> reused = cache.reuse(file);
+        assertEquals(1, reused.size());
+        assertEquals(op, reused.get(0));
+        assertNotSame(op, reused.get(0));
+
+        // Changes made to the operations while booting must not leak into the next reload
+        reused.get(0).get("operation-headers", "rollback-on-runtime-failure").set(false);
+        assertEquals(op, cache.reuse(file).get(0));
+    }
+
+    @Test
+    public void testChangedFileIsNotReused() throws IOException {
+        BootOperationCache cache = new BootOperationCache();
+        cache.store(file, Collections.singletonList(createOperation()));
+        write("<server></server>");
+        assertNull(cache.reuse(file));
+    }
+
+    @Test
+    public void testOtherFileIsNotReused() throws IOException {
+        BootOperationCache cache = new BootOperationCache();
+        cache.store(file, Collections.singletonList(createOperation()));
+        File other = File.createTempFile("standalone", ".xml");
+        try {
+            Files.write(other.toPath(), "<server/>".getBytes(StandardCharsets.UTF_8));
+            assertNull(cache.reuse(other));
+        } finally {
+            Files.deleteIfExists(other.toPath());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        BootOperationCache cache = new BootOperationCache();
+        cache.store(file, Collections.singletonList(createOperation()));
+        cache.clear();
+        assertNull(cache.reuse(file));
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ModelNode createOperation() {
+        ModelNode op = new ModelNode();
+        op.get("operation").set("add");
+        op.get("address").add("extension", "org.jboss.as.logging");
+        return op;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.controller.resources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BOOT_TIMELINE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.BootTimeline;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.NoopOperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.PlaceholderResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the core-service=boot-timeline resource.
+ */
+public class BootTimelineResourceDefinitionTestCase {
+
+    static {
+        // Recording is enabled when BootTimeline is initialized, so this only works if no earlier test in this JVM used it
+        System.setProperty(BootTimeline.ENABLED_PROPERTY, "true");
+    }
+
+    private static final PathAddress ADDRESS = PathAddress.pathAddress(CORE_SERVICE, BOOT_TIMELINE);
+
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setupController() throws Exception {
+        Assume.assumeTrue(BootTimeline.isEnabled());
+        container = ServiceContainer.Factory.create("test");
+        final ModelControllerService svc = new ModelControllerService();
+        container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+        svc.awaitStartup();
+        controller = svc.getValue();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws Exception {
+        if (container != null) {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testEvents() {
+        Assert.assertTrue(readAttribute(ENABLED).asBoolean());
+
+        final List<ModelNode> events = readAttribute("events").asList();
+        ModelNode boot = null;
+        ModelNode bootOperations = null;
+        long previousStart = 0;
+        for (ModelNode event : events) {
+            final long start = event.get("start").asLong();
+            Assert.assertTrue(event.toString(), start >= 0);
+            Assert.assertTrue(event.toString(), event.get("duration").asLong() >= 0);
+            // Events are ordered by their start
+            Assert.assertTrue(event.toString(), start >= previousStart);
+            previousStart = start;
+            if ("boot".equals(event.get("category").asString())) {
+                boot = event;
+            } else if ("boot-operations".equals(event.get("category").asString())) {
+                Assert.assertEquals("initial-boot-operation", event.get(NAME).asString());
+                bootOperations = event;
+            }
+        }
+        Assert.assertNotNull(events.toString(), boot);
+        Assert.assertNotNull(events.toString(), bootOperations);
+        // The boot operations execute within the boot, allowing for rounding to milliseconds
+        final long bootStart = boot.get("start").asLong();
+        final long bootEnd = bootStart + boot.get("duration").asLong();
+        final long operationsStart = bootOperations.get("start").asLong();
+        Assert.assertTrue(events.toString(), operationsStart >= bootStart);
+        Assert.assertTrue(events.toString(), operationsStart + bootOperations.get("duration").asLong() <= bootEnd + 1);
+
+        final ModelNode trace = ModelNode.fromJSONString(executeForResult(Util.createEmptyOperation("export-chrome-trace", ADDRESS)).asString());
+        Assert.assertEquals(events.size(), trace.get("traceEvents").asList().size());
+    }
+
+    private ModelNode readAttribute(final String name) {
+        final ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, ADDRESS);
+        operation.get(NAME).set(name);
+        return executeForResult(operation);
+    }
+
+    private ModelNode executeForResult(final ModelNode operation) {
+        final ModelNode response = controller.execute(operation, null, null, null);
+        Assert.assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response.get(RESULT);
+    }
+
+    private static class ModelControllerService extends AbstractControllerService {
+
+        private final CountDownLatch latch = new CountDownLatch(2);
+
+        ModelControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(),
+                    new ControlledProcessState(true),
+                    ResourceBuilder.Factory.create(PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build(),
+                    null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer());
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            final ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(registration, ProcessType.EMBEDDED_SERVER);
+            registration.registerOperationHandler(new SimpleOperationDefinitionBuilder("boot-step", new NonResolvingResourceDescriptionResolver()).build(),
+                    NoopOperationStepHandler.WITHOUT_RESULT);
+            registration.registerSubModel(new BootTimelineResourceDefinition());
+            managementModel.getRootResource().registerChild(ADDRESS.getLastElement(), PlaceholderResource.INSTANCE);
+        }
+
+        @Override
+        protected boolean boot(List<ModelNode> bootOperations, boolean rollbackOnRuntimeFailure) throws ConfigurationPersistenceException {
+            return super.boot(Collections.singletonList(Util.createEmptyOperation("boot-step", PathAddress.EMPTY_ADDRESS)), rollbackOnRuntimeFailure);
+        }
+
+        @Override
+        public void start(StartContext context) throws StartException {
+            super.start(context);
+            latch.countDown();
+        }
+
+        @Override
+        protected void bootThreadDone() {
+            super.bootThreadDone();
+            latch.countDown();
+        }
+
+        void awaitStartup() throws InterruptedException {
+            Assert.assertTrue("Failed to boot in timely fashion", latch.await(30, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.controller.resources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FLIGHT_RECORDER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.CompositeOperationHandler;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.PlaceholderResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.services.path.PathEntry;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests of the core-service=flight-recorder resource.
+ */
+public class FlightRecorderResourceDefinitionTestCase {
+
+    private static final PathAddress ADDRESS = PathAddress.pathAddress(CORE_SERVICE, FLIGHT_RECORDER);
+
+    private ServiceContainer container;
+    private ModelController controller;
+    private File dataDir;
+
+    @Before
+    public void setupController() throws Exception {
+        dataDir = File.createTempFile("flight-recorder", "data");
+        Assert.assertTrue(dataDir.delete());
+        Assert.assertTrue(dataDir.mkdir());
+        final PathEntry pathEntry = Mockito.mock(PathEntry.class);
+        Mockito.when(pathEntry.resolvePath()).thenReturn(dataDir.getPath());
+        final PathManager pathManager = Mockito.mock(PathManager.class);
+        Mockito.when(pathManager.getPathEntry(ServerEnvironment.SERVER_DATA_DIR)).thenReturn(pathEntry);
+        Mockito.when(pathManager.resolveRelativePathEntry(Mockito.anyString(), Mockito.eq(ServerEnvironment.SERVER_DATA_DIR)))
+                .thenAnswer(new Answer<String>() {
+                    @Override
+                    public String answer(InvocationOnMock invocation) throws Throwable {
+                        return new File(dataDir, (String) invocation.getArguments()[0]).getPath();
+                    }
+                });
+
+        container = ServiceContainer.Factory.create("test");
+        final ModelControllerService svc = new ModelControllerService(pathManager);
+        container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+        svc.awaitStartup();
+        controller = svc.getValue();
+    }
+
+    @After
+    public void shutdownServiceContainer() throws Exception {
+        try {
+            // Do not leave a recording running in the test JVM
+            execute(Util.createEmptyOperation("stop-recording", ADDRESS));
+        } finally {
+            container.shutdown();
+            container.awaitTermination(5, TimeUnit.SECONDS);
+            final File[] files = dataDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dataDir.delete();
+        }
+    }
+
+    @Test
+    public void testNoRecording() {
+        Assert.assertFalse(readRecording());
+        executeForFailure(Util.createEmptyOperation("stop-recording", ADDRESS));
+        executeForFailure(dumpOperation("recording.jfr"));
+    }
+
+    @Test
+    public void testRecording() throws Exception {
+        assumeFlightRecorderAvailable();
+
+        executeForResult(Util.createEmptyOperation("start-recording", ADDRESS));
+        Assert.assertTrue(readRecording());
+        // Only one recording at a time
+        executeForFailure(Util.createEmptyOperation("start-recording", ADDRESS));
+
+        final ModelNode result = executeForResult(dumpOperation("recording.jfr"));
+        final File dump = new File(result.asString());
+        Assert.assertEquals(new File(dataDir, "recording.jfr").getAbsolutePath(), dump.getAbsolutePath());
+        Assert.assertTrue(dump.length() > 0);
+        // Dumps cannot leave the relative-to directory
+        executeForFailure(dumpOperation("../recording.jfr"));
+
+        executeForResult(Util.createEmptyOperation("stop-recording", ADDRESS));
+        Assert.assertFalse(readRecording());
+        // The stopped recording can still be dumped
+        executeForResult(dumpOperation("stopped.jfr"));
+        Assert.assertTrue(new File(dataDir, "stopped.jfr").length() > 0);
+    }
+
+    @Test
+    public void testStartRolledBack() throws Exception {
+        assumeFlightRecorderAvailable();
+
+        final ModelNode composite = Util.createEmptyOperation(CompositeOperationHandler.NAME, PathAddress.EMPTY_ADDRESS);
+        composite.get(STEPS).add(Util.createEmptyOperation("start-recording", ADDRESS));
+        composite.get(STEPS).add(Util.createEmptyOperation("fail", PathAddress.EMPTY_ADDRESS));
+        executeForFailure(composite);
+        Assert.assertFalse(readRecording());
+        executeForFailure(dumpOperation("recording.jfr"));
+    }
+
+    private static void assumeFlightRecorderAvailable() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName("jdk.management.jfr:type=FlightRecorder")));
+    }
+
+    private static ModelNode dumpOperation(final String path) {
+        final ModelNode operation = Util.createEmptyOperation("dump-recording", ADDRESS);
+        operation.get(PATH).set(path);
+        return operation;
+    }
+
+    private boolean readRecording() {
+        final ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, ADDRESS);
+        operation.get(NAME).set("recording");
+        return executeForResult(operation).asBoolean();
+    }
+
+    private ModelNode execute(final ModelNode operation) {
+        return controller.execute(operation, null, null, null);
+    }
+
+    private ModelNode executeForResult(final ModelNode operation) {
+        final ModelNode response = execute(operation);
+        Assert.assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response.get(RESULT);
+    }
+
+    private void executeForFailure(final ModelNode operation) {
+        final ModelNode response = execute(operation);
+        Assert.assertEquals(response.toString(), FAILED, response.get(OUTCOME).asString());
+    }
+
+    private static class ModelControllerService extends AbstractControllerService {
+
+        private final CountDownLatch latch = new CountDownLatch(2);
+        private final PathManager pathManager;
+
+        ModelControllerService(final PathManager pathManager) {
+            super(ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(),
+                    new ControlledProcessState(true),
+                    ResourceBuilder.Factory.create(PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build(),
+                    null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer());
+            this.pathManager = pathManager;
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            final ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(registration, ProcessType.EMBEDDED_SERVER);
+            registration.registerOperationHandler(CompositeOperationHandler.DEFINITION, CompositeOperationHandler.INSTANCE);
+            registration.registerOperationHandler(new SimpleOperationDefinitionBuilder("fail", new NonResolvingResourceDescriptionResolver()).build(),
+                    new OperationStepHandler() {
+                        @Override
+                        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                            throw new OperationFailedException("failed");
+                        }
+                    });
+            registration.registerSubModel(new FlightRecorderResourceDefinition(pathManager));
+            managementModel.getRootResource().registerChild(ADDRESS.getLastElement(), PlaceholderResource.INSTANCE);
+        }
+
+        @Override
+        public void start(StartContext context) throws StartException {
+            super.start(context);
+            latch.countDown();
+        }
+
+        @Override
+        protected void bootThreadDone() {
+            super.bootThreadDone();
+            latch.countDown();
+        }
+
+        void awaitStartup() throws InterruptedException {
+            Assert.assertTrue("Failed to boot in timely fashion", latch.await(30, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.parsing;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.parsing.Namespace;
+import org.jboss.as.controller.parsing.ParallelSubsystemParser;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that parsing the subsystems of a {@code standalone.xml} in parallel gives the same operations, and reports
+ * the same failures, as parsing them sequentially.
+ */
+public class ParallelSubsystemParsingTestCase {
+
+    private static final String[] SUBSYSTEM_NAMESPACES = {"urn:test:a:1.0", "urn:test:b:1.0", "urn:test:c:1.0", "urn:test:fail:1.0"};
+
+    private static final String XML = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+            "<server xmlns=\"" + Namespace.CURRENT.getUriString() + "\" xmlns:t=\"urn:test:b:1.0\">\n" +
+            "    <profile>\n" +
+            "        <subsystem xmlns=\"urn:test:a:1.0\">\n" +
+            "            <item name=\"one\" value=\"a &amp; b\"/>\n" +
+            "            <item\n" +
+            "                name=\"two\"\n" +
+            "                value=\"2\">\n" +
+            "                <n:nested xmlns:n=\"urn:test:nested\" n:flag=\"true\">text &lt; more</n:nested>\n" +
+            "                <n:nested xmlns:n=\"urn:test:nested:other\"><![CDATA[<raw>]]></n:nested>\n" +
+            "            </item>\n" +
+            "            <!-- a comment -->\n" +
+            "        </subsystem>\n" +
+            "        <t:subsystem>\n" +
+            "            <t:item t:name=\"three\"/>\n" +
+            "            <plain/>\n" +
+            "            <other xmlns=\"urn:test:other\"><deeper attr=\"x\"/></other>\n" +
+            "        </t:subsystem>\n" +
+            "        <subsystem xmlns=\"urn:test:c:1.0\"/>\n" +
+            "    </profile>\n" +
+            "</server>";
+
+    private static final String FAILING_XML = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+            "<server xmlns=\"" + Namespace.CURRENT.getUriString() + "\">\n" +
+            "    <profile>\n" +
+            "        <subsystem xmlns=\"urn:test:a:1.0\"/>\n" +
+            "        <subsystem\n" +
+            "            xmlns=\"urn:test:fail:1.0\">\n" +
+            "            <item\n" +
+            "                name=\"one\"/>\n" +
+            "            <fail/>\n" +
+            "        </subsystem>\n" +
+            "    </profile>\n" +
+            "</server>";
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ParallelSubsystemParser.PARALLEL_SUBSYSTEM_PARSING_PROPERTY);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSameOperations() throws Exception {
+        final List<ModelNode> sequential = parse(XML, false);
+        final List<ModelNode> parallel = parse(XML, true);
+        Assert.assertEquals(sequential, parallel);
+
+        // Check the namespaces were resolved as in the original document
+        final List<String> elements = new ArrayList<String>();
+        for (ModelNode op : sequential) {
+            if (op.hasDefined("element")) {
+                elements.add(op.get("element").asString());
+            }
+        }
+        Assert.assertTrue(elements.contains("{urn:test:nested}nested"));
+        Assert.assertTrue(elements.contains("{urn:test:nested:other}nested"));
+        Assert.assertTrue(elements.contains("{urn:test:b:1.0}item"));
+        Assert.assertTrue(elements.contains("{" + Namespace.CURRENT.getUriString() + "}plain"));
+        Assert.assertTrue(elements.contains("{urn:test:other}deeper"));
+    }
+
+    @Test
+    public void testSameFailureLocation() throws Exception {
+        final int failingLine = lineOf(FAILING_XML, "<fail/>");
+        final XMLStreamException sequential = parseFailing(false);
+        final XMLStreamException parallel = parseFailing(true);
+        Assert.assertEquals(failingLine, sequential.getLocation().getLineNumber());
+        Assert.assertEquals(failingLine, parallel.getLocation().getLineNumber());
+    }
+
+    private XMLStreamException parseFailing(final boolean parallel) throws Exception {
+        try {
+            parse(FAILING_XML, parallel);
+        } catch (XMLStreamException e) {
+            return e;
+        }
+        Assert.fail("Parsing should have failed");
+        return null;
+    }
+
+    private List<ModelNode> parse(final String xml, final boolean parallel) throws Exception {
+        if (parallel) {
+            System.setProperty(ParallelSubsystemParser.PARALLEL_SUBSYSTEM_PARSING_PROPERTY, "true");
+        } else {
+            System.clearProperty(ParallelSubsystemParser.PARALLEL_SUBSYSTEM_PARSING_PROPERTY);
+        }
+        final ExtensionRegistry extensionRegistry = new ExtensionRegistry(ProcessType.STANDALONE_SERVER, new RunningModeControl(RunningMode.NORMAL));
+        final StandaloneXml parser = new StandaloneXml(null, executor, extensionRegistry);
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(Namespace.CURRENT.getUriString(), "server"), parser);
+        for (String namespace : SUBSYSTEM_NAMESPACES) {
+            mapper.registerRootElement(new QName(namespace, SUBSYSTEM), RECORDING_PARSER);
+        }
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+        return operations;
+    }
+
+    private static int lineOf(final String xml, final String text) {
+        final String[] lines = xml.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].contains(text)) {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException(text);
+    }
+
+    /**
+     * Records each element and text of a subsystem as an operation, and fails on a {@code fail} element.
+     */
+    private static final XMLElementReader<List<ModelNode>> RECORDING_PARSER = new XMLElementReader<List<ModelNode>>() {
+        @Override
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+            final String subsystem = reader.getNamespaceURI();
+            // Text may be split into several events, so it is recorded once the next tag is reached
+            final StringBuilder text = new StringBuilder();
+            int depth = 0;
+            for (;;) {
+                switch (reader.getEventType()) {
+                    case XMLStreamConstants.START_ELEMENT: {
+                        depth++;
+                        recordText(subsystem, text, operations);
+                        if ("fail".equals(reader.getLocalName())) {
+                            throw new XMLStreamException("Failing", reader.getLocation());
+                        }
+                        final ModelNode op = createOperation(subsystem);
+                        op.get("element").set(reader.getName().toString());
+                        final ModelNode attributes = op.get("attributes").setEmptyObject();
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            attributes.get(reader.getAttributeName(i).toString()).set(reader.getAttributeValue(i));
+                        }
+                        operations.add(op);
+                        break;
+                    }
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        recordText(subsystem, text, operations);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        text.append(reader.getText());
+                        break;
+                    default:
+                        break;
+                }
+                if (depth == 0) {
+                    return;
+                }
+                reader.next();
+            }
+        }
+
+        private void recordText(final String subsystem, final StringBuilder text, final List<ModelNode> operations) {
+            final String value = text.toString().trim();
+            if (!value.isEmpty()) {
+                final ModelNode op = createOperation(subsystem);
+                op.get("text").set(value);
+                operations.add(op);
+            }
+            text.setLength(0);
+        }
+
+        private ModelNode createOperation(final String subsystem) {
+            final ModelNode op = new ModelNode();
+            op.get(OP).set("record");
+            op.get(OP_ADDR).add(SUBSYSTEM, subsystem);
+            return op;
+        }
+    };
+}